@@ -20,6 +20,7 @@
 package org.apache.isis.applib;
 
 import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
@@ -32,9 +33,15 @@
 import javax.jdo.annotations.PersistenceCapable;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
 import org.reflections.vfs.SystemDir;
 import org.reflections.vfs.Vfs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.fixturescripts.FixtureScript;
@@ -165,6 +172,8 @@ public interface AppManifest {
      */
     public static class Registry {
 
+        private final static Logger LOG = LoggerFactory.getLogger(Registry.class);
+
         public final static List<String> FRAMEWORK_PROVIDED_SERVICES = Collections.unmodifiableList(Arrays.asList(
                 "org.apache.isis.applib",
                 "org.apache.isis.core.wrapper" ,
@@ -236,6 +245,138 @@ public void setDomainServiceTypes(final Set<Class<?>> domainServiceTypes) {
         }
         //endregion
 
+        //region > reflections
+        private Reflections reflections;
+        private List<String> reflectionsPackagePrefixes;
+        private long reflectionsScanMillis;
+        private int reflectionsReuseCount;
+        private long reflectionsSavedMillis;
+
+        /**
+         * The single classpath scan performed while bootstrapping (from which the types above were obtained), so
+         * that it can be reused rather than rescanning the same packages.
+         *
+         * @return <tt>null</tt> if no appManifest is defined, or if the types were read from a build-time index
+         * (in which case there was no scan).
+         */
+        public Reflections getReflections() {
+            return reflections;
+        }
+
+        /**
+         * Returns the {@link #getReflections() shared classpath scan} if it already covers all of the provided
+         * packages, otherwise scans those packages and adds them to the shared scan (so that subsequent requests,
+         * for example from the services installer and then from the entity registration, don't rescan).
+         *
+         * <p>
+         *     The scan includes subtypes of {@link Object} and type annotations, so may be queried for both
+         *     {@link Reflections#getSubTypesOf(Class) subtypes} and
+         *     {@link Reflections#getTypesAnnotatedWith(Class) annotated types}.  It may cover more packages than
+         *     those requested, so callers should filter the results accordingly.
+         * </p>
+         */
+        public Reflections reflectionsFor(final List<String> packagePrefixes) {
+            if(covers(packagePrefixes)) {
+                reflectionsReuseCount++;
+                reflectionsSavedMillis += reflectionsScanMillis;
+                LOG.debug("reusing shared classpath scan for {}", packagePrefixes);
+                return reflections;
+            }
+
+            Vfs.setDefaultURLTypes(getUrlTypes());
+            final long start = System.currentTimeMillis();
+            final Reflections scan = new Reflections(
+                    packagePrefixes.toArray(), new SubTypesScanner(false), new TypeAnnotationsScanner());
+            final long scanMillis = System.currentTimeMillis() - start;
+            LOG.debug("scanned classpath for {} in {} ms", packagePrefixes, scanMillis);
+
+            if(reflections == null) {
+                reflections = scan;
+                reflectionsPackagePrefixes = Lists.newArrayList(packagePrefixes);
+            } else {
+                reflections.merge(scan);
+                reflectionsPackagePrefixes.addAll(packagePrefixes);
+            }
+            reflectionsScanMillis += scanMillis;
+            return reflections;
+        }
+
+        /**
+         * Releases the {@link #getReflections() shared classpath scan} (which holds the metadata of every class in
+         * the scanned packages), once bootstrapping is complete, logging the time saved by having reused it.
+         * Thereafter any request for types will rescan.
+         */
+        public void releaseReflections() {
+            if(reflectionsReuseCount > 0) {
+                LOG.info(String.format(
+                        "reused shared classpath scan %d times, saving approx %d ms",
+                        reflectionsReuseCount, reflectionsSavedMillis));
+            }
+            reflections = null;
+            reflectionsPackagePrefixes = null;
+            reflectionsScanMillis = 0L;
+            reflectionsReuseCount = 0;
+            reflectionsSavedMillis = 0L;
+        }
+
+        /**
+         * The types annotated with the specified annotation within the provided packages, obtained from the
+         * {@link #reflectionsFor(List) shared classpath scan}.
+         */
+        public Set<Class<?>> getTypesAnnotatedWith(
+                final Class<? extends Annotation> annotation,
+                final List<String> packagePrefixes) {
+            return withinPackages(reflectionsFor(packagePrefixes).getTypesAnnotatedWith(annotation), packagePrefixes);
+        }
+
+        /**
+         * The subtypes of the specified type within the provided packages, obtained from the
+         * {@link #getReflections() shared classpath scan}.
+         *
+         * @return <tt>null</tt> if there is no shared scan or if it does not cover every one of the packages.
+         */
+        public <T> Set<Class<? extends T>> getSubTypesOf(
+                final Class<T> type,
+                final List<String> packagePrefixes) {
+            if(!covers(packagePrefixes)) {
+                return null;
+            }
+            return withinPackages(reflectionsFor(packagePrefixes).getSubTypesOf(type), packagePrefixes);
+        }
+
+        private boolean covers(final List<String> packagePrefixes) {
+            if(reflections == null) {
+                return false;
+            }
+            for (final String packagePrefix : packagePrefixes) {
+                if(!startsWithAny(packagePrefix, reflectionsPackagePrefixes)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static <T extends Class<?>> Set<T> withinPackages(final Set<T> types, final List<String> packagePrefixes) {
+            final Set<T> typesWithinPackages = Sets.newLinkedHashSet();
+            for (final T type : types) {
+                // Reflections returns a set with a null element if none can be found; we preserve this.
+                if(type == null || startsWithAny(type.getName(), packagePrefixes)) {
+                    typesWithinPackages.add(type);
+                }
+            }
+            return typesWithinPackages;
+        }
+
+        private static boolean startsWithAny(final String name, final List<String> prefixes) {
+            for (final String prefix : prefixes) {
+                if(name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        //endregion
+
         //region > urlTypes
         public List<Vfs.UrlType> getUrlTypes() {
             final List<Vfs.UrlType> urlTypes = Lists.newArrayList();
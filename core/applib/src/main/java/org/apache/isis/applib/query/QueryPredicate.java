@@ -0,0 +1,368 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.query;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+
+/**
+ * A {@link Predicate} built up from comparisons of the (possibly nested) properties of an object with values, which,
+ * unlike an arbitrary predicate, can be translated by the object store into a query that it evaluates itself (for
+ * example, a JDOQL filter).
+ *
+ * <p>
+ *     For example:
+ * <pre>
+ * repositoryService.allMatches(Customer.class,
+ *     QueryPredicate.and(
+ *         QueryPredicate.eq("lastName", "Smith"),
+ *         QueryPredicate.gt("address.postcode", "AB1")));
+ * </pre>
+ * </p>
+ *
+ * <p>
+ *     The predicate can also be {@link #apply(Object) applied} in memory, reading the properties through their
+ *     getters.  So that the result is the same either way, it is evaluated using the (three-valued) null semantics of
+ *     JDOQL/SQL: comparing a property that is <tt>null</tt> (or that is reached through a <tt>null</tt>) with a value
+ *     is <i>unknown</i>, as is the negation of an unknown; only those objects for which the predicate is
+ *     <tt>true</tt> (rather than unknown) match.  Comparing a property with <tt>null</tt> itself (using
+ *     {@link #eq(String, Object)} or {@link #ne(String, Object)}) is always either true or false.
+ * </p>
+ *
+ * @see QueryFindByPredicate
+ */
+public abstract class QueryPredicate<T> implements Predicate<T>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    QueryPredicate() {
+    }
+
+    /**
+     * Whether the input matches (that is, the predicate is <tt>true</tt> rather than <tt>false</tt> or unknown).
+     */
+    @Override
+    public final boolean apply(final T input) {
+        return Boolean.TRUE.equals(evaluate(input));
+    }
+
+    /**
+     * @return <tt>null</tt> if unknown.
+     */
+    abstract Boolean evaluate(final T input);
+
+    //region > factory methods
+
+    public static <T> QueryPredicate<T> eq(final String property, final Object value) {
+        return new Comparison<T>(property, Operator.EQ, value);
+    }
+
+    public static <T> QueryPredicate<T> ne(final String property, final Object value) {
+        return new Comparison<T>(property, Operator.NE, value);
+    }
+
+    public static <T> QueryPredicate<T> lt(final String property, final Comparable<?> value) {
+        return new Comparison<T>(property, Operator.LT, value);
+    }
+
+    public static <T> QueryPredicate<T> le(final String property, final Comparable<?> value) {
+        return new Comparison<T>(property, Operator.LE, value);
+    }
+
+    public static <T> QueryPredicate<T> gt(final String property, final Comparable<?> value) {
+        return new Comparison<T>(property, Operator.GT, value);
+    }
+
+    public static <T> QueryPredicate<T> ge(final String property, final Comparable<?> value) {
+        return new Comparison<T>(property, Operator.GE, value);
+    }
+
+    @SafeVarargs
+    public static <T> QueryPredicate<T> and(final QueryPredicate<? super T>... predicates) {
+        return new Junction<T>(true, Arrays.asList(predicates));
+    }
+
+    @SafeVarargs
+    public static <T> QueryPredicate<T> or(final QueryPredicate<? super T>... predicates) {
+        return new Junction<T>(false, Arrays.asList(predicates));
+    }
+
+    public static <T> QueryPredicate<T> not(final QueryPredicate<? super T> predicate) {
+        return new Not<T>(predicate);
+    }
+
+    //endregion
+
+    //region > Operator
+
+    public enum Operator {
+        EQ("=="),
+        NE("!="),
+        LT("<"),
+        LE("<="),
+        GT(">"),
+        GE(">=");
+
+        private final String symbol;
+
+        Operator(final String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * The (Java, also JDOQL) symbol for this operator.
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * @param actual - not <tt>null</tt>
+         * @param value - not <tt>null</tt>
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        boolean evaluate(final Object actual, final Object value) {
+            switch (this) {
+            case EQ:
+                return actual.equals(value);
+            case NE:
+                return !actual.equals(value);
+            default:
+                final int comparison = ((Comparable) actual).compareTo(value);
+                switch (this) {
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region > Comparison
+
+    /**
+     * Compares the value of a property (or a path of properties, separated by '.') with a value.
+     */
+    public static class Comparison<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String property;
+        private final Operator operator;
+        private final Object value;
+
+        Comparison(final String property, final Operator operator, final Object value) {
+            if(value == null && operator != Operator.EQ && operator != Operator.NE) {
+                throw new IllegalArgumentException("Cannot compare '" + property + "' with null using " + operator);
+            }
+            this.property = validated(property);
+            this.operator = operator;
+            this.value = value;
+        }
+
+        private static String validated(final String property) {
+            if(property == null) {
+                throw new IllegalArgumentException("A property must be specified");
+            }
+            for (final String part : property.split("\\.", -1)) {
+                if(part.isEmpty() || !Character.isJavaIdentifierStart(part.charAt(0))) {
+                    throw new IllegalArgumentException("Invalid property: '" + property + "'");
+                }
+                for (int i = 1; i < part.length(); i++) {
+                    if(!Character.isJavaIdentifierPart(part.charAt(i))) {
+                        throw new IllegalArgumentException("Invalid property: '" + property + "'");
+                    }
+                }
+            }
+            return property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        Boolean evaluate(final T input) {
+            Object actual = input;
+            for (final String part : property.split("\\.")) {
+                if(actual == null) {
+                    // as for a JDOQL navigation through a null reference
+                    return null;
+                }
+                actual = read(actual, part);
+            }
+            if(value == null) {
+                return operator == Operator.EQ ? actual == null : actual != null;
+            }
+            if(actual == null) {
+                return null;
+            }
+            return operator.evaluate(actual, value);
+        }
+
+        private static Object read(final Object object, final String property) {
+            final String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            final Method getter = getterFor(object.getClass(), capitalized);
+            if(getter == null) {
+                throw new IllegalArgumentException(
+                        "No getter for property '" + property + "' of " + object.getClass().getName());
+            }
+            try {
+                return getter.invoke(object);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalArgumentException(e);
+            } catch (final InvocationTargetException e) {
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+
+        private static Method getterFor(final Class<?> cls, final String capitalized) {
+            for (final String prefix : new String[] { "get", "is" }) {
+                try {
+                    return cls.getMethod(prefix + capitalized);
+                } catch (final NoSuchMethodException ignore) {
+                    // try next
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return property + " " + operator.getSymbol() + " " + value;
+        }
+    }
+
+    //endregion
+
+    //region > Junction
+
+    /**
+     * The conjunction (<i>and</i>) or disjunction (<i>or</i>) of other predicates.
+     */
+    public static class Junction<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean conjunction;
+        private final List<QueryPredicate<? super T>> predicates;
+
+        Junction(final boolean conjunction, final List<QueryPredicate<? super T>> predicates) {
+            if(predicates.isEmpty()) {
+                throw new IllegalArgumentException("At least one predicate must be specified");
+            }
+            this.conjunction = conjunction;
+            this.predicates = Collections.unmodifiableList(predicates);
+        }
+
+        /**
+         * <tt>true</tt> if all of the {@link #getPredicates() predicates} must apply, <tt>false</tt> if any one of
+         * them.
+         */
+        public boolean isConjunction() {
+            return conjunction;
+        }
+
+        public List<QueryPredicate<? super T>> getPredicates() {
+            return predicates;
+        }
+
+        @Override
+        Boolean evaluate(final T input) {
+            boolean unknown = false;
+            for (final QueryPredicate<? super T> predicate : predicates) {
+                final Boolean result = predicate.evaluate(input);
+                if(result == null) {
+                    unknown = true;
+                } else if(result != conjunction) {
+                    return !conjunction;
+                }
+            }
+            return unknown ? null : conjunction;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder buf = new StringBuilder("(");
+            for (final QueryPredicate<? super T> predicate : predicates) {
+                if(buf.length() > 1) {
+                    buf.append(conjunction ? " && " : " || ");
+                }
+                buf.append(predicate);
+            }
+            return buf.append(")").toString();
+        }
+    }
+
+    //endregion
+
+    //region > Not
+
+    public static class Not<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final QueryPredicate<? super T> predicate;
+
+        Not(final QueryPredicate<? super T> predicate) {
+            this.predicate = predicate;
+        }
+
+        public QueryPredicate<? super T> getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        Boolean evaluate(final T input) {
+            final Boolean result = predicate.evaluate(input);
+            return result != null ? !result : null;
+        }
+
+        @Override
+        public String toString() {
+            return "!(" + predicate + ")";
+        }
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.audit;
+
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Extends {@link AuditerService} so that changes can be audited in batches.
+ *
+ * <p>
+ * By default, changes are audited synchronously, as the transaction commits, using
+ * {@link #audit(java.util.UUID, int, String, org.apache.isis.applib.services.bookmark.Bookmark, String, String, String, String, String, java.sql.Timestamp) audit(...)}.
+ * If the framework has been configured to audit asynchronously, then the changes are instead passed to
+ * {@link #auditAll(List)} (in a separate session and transaction) after the transaction has committed.
+ * </p>
+ */
+public interface AuditerService2 extends AuditerService {
+
+    /**
+     * Audits a batch of changes, in the order in which their transactions committed.
+     *
+     * <p>
+     *     A batch may therefore hold the changes of several interactions, interleaved.  All of the changes made by
+     *     any given transaction will be passed in the same batch, but batches that had to be spilled (to disk) are
+     *     delivered later, after changes that committed subsequently; implementations that require an ordering
+     *     should use the interaction id and (transaction) sequence of each entry.
+     * </p>
+     */
+    @Programmatic
+    void auditAll(List<AuditEntry> entries);
+
+}
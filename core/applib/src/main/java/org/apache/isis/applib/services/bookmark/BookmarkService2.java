@@ -18,6 +18,8 @@
  */
 package org.apache.isis.applib.services.bookmark;
 
+import java.util.List;
+
 import org.apache.isis.applib.annotation.Programmatic;
 
 /**
@@ -61,5 +63,17 @@ enum FieldResetPolicy {
     @Programmatic
     <T> T lookup(Bookmark bookmark, FieldResetPolicy fieldResetPolicy, Class<T> cls);
 
+    /**
+     * As {@link #lookup(Bookmark, FieldResetPolicy)}, but for many bookmarks at once, returning the objects in the
+     * same order (with <tt>null</tt> for any that do not exist).
+     *
+     * <p>
+     *     Rather than a round trip to the database for each bookmark in turn, the objects are loaded in batches (one
+     *     per type).
+     * </p>
+     */
+    @Programmatic
+    List<Object> lookupAll(List<Bookmark> bookmarks, FieldResetPolicy fieldResetPolicy);
+
 
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.isis.applib.services.classdiscovery;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -74,6 +75,13 @@ public <T> Set<Class<? extends T>> findSubTypesOfClasses(Class<T> type, String p
             }
         }
 
+        // reuse the shared classpath scan if possible
+        final Set<Class<? extends T>> subTypes =
+                AppManifest.Registry.instance().getSubTypesOf(type, Collections.singletonList(packagePrefix));
+        if(subTypes != null) {
+            return subTypes;
+        }
+
         // no appManifest or not asking for FixtureScripts
         Vfs.setDefaultURLTypes(getUrlTypes());
 
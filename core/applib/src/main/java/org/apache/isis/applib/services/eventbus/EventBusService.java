@@ -23,6 +23,7 @@
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import org.apache.isis.applib.annotation.Programmatic;
@@ -57,6 +58,10 @@ public void unregister(Object domainService) {}
         @Override
         public void post(Object event) {}
         @Override
+        public boolean hasPotentialSubscriberTo(Class<?> eventType) {
+            return false;
+        }
+        @Override
         protected EventBusImplementation getEventBusImplementation() {
             return null;
         }
@@ -156,6 +161,9 @@ public void register(final Object domainService) {
      * need to.
      */
     protected void doRegister(Object domainService) {
+        if(allSubscribers.add(domainService)) {
+            resetPotentialSubscribers();
+        }
         if(eventBusImplementation == null) {
             subscribers.add(domainService);
         } else {
@@ -195,6 +203,67 @@ public Set<Object> getSubscribers() {
     }
     //endregion
 
+    //region > hasPotentialSubscriberTo
+
+    /**
+     * All subscribers, including any registered after the event bus was created (which are therefore not in
+     * {@link #subscribers}).
+     */
+    private final Set<Object> allSubscribers = Sets.newConcurrentHashSet();
+
+    /**
+     * Lazily populated by {@link #hasPotentialSubscriberTo(Class)}, and replaced whenever a new subscriber is
+     * registered.
+     */
+    private volatile Map<Class<?>, Boolean> hasPotentialSubscriberByEventType = Maps.newConcurrentMap();
+
+    /**
+     * Whether any of the registered subscribers might receive an event of the specified type (that is, subscribes
+     * to the type or any of its supertypes).
+     *
+     * <p>
+     *     If not, then the framework can skip instantiating and {@link #post(Object) posting} the event altogether.
+     *     Unless the subscribed types can be {@link #subscribedEventTypesOf(Class) determined}, this will
+     *     conservatively return <tt>true</tt>.
+     * </p>
+     */
+    @Programmatic
+    public boolean hasPotentialSubscriberTo(final Class<?> eventType) {
+        final Map<Class<?>, Boolean> hasPotentialSubscriberByEventType = this.hasPotentialSubscriberByEventType;
+        Boolean hasPotentialSubscriber = hasPotentialSubscriberByEventType.get(eventType);
+        if(hasPotentialSubscriber == null) {
+            hasPotentialSubscriber = computeHasPotentialSubscriberTo(eventType);
+            hasPotentialSubscriberByEventType.put(eventType, hasPotentialSubscriber);
+        }
+        return hasPotentialSubscriber;
+    }
+
+    private boolean computeHasPotentialSubscriberTo(final Class<?> eventType) {
+        for (final Object subscriber : allSubscribers) {
+            final Set<Class<?>> subscribedEventTypes = subscribedEventTypesOf(subscriber.getClass());
+            if(subscribedEventTypes == null) {
+                // can't tell
+                return true;
+            }
+            for (final Class<?> subscribedEventType : subscribedEventTypes) {
+                if(subscribedEventType.isAssignableFrom(eventType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Discards any previously computed {@link #hasPotentialSubscriberTo(Class) potential subscribers}, for example
+     * if the way that {@link #subscribedEventTypesOf(Class) subscribed event types} are determined has changed.
+     */
+    protected void resetPotentialSubscribers() {
+        this.hasPotentialSubscriberByEventType = Maps.newConcurrentMap();
+    }
+
+    //endregion
+
     //region > post
 
     /**
@@ -282,7 +351,7 @@ protected void teardownEventBus() {
 
     //endregion
 
-    //region > hook methods (newEventBus, skip)
+    //region > hook methods (newEventBus, skip, subscribedEventTypesOf)
 
     /**
      * Mandatory hook method for subclass to instantiate an appropriately configured Guava event bus.
@@ -301,6 +370,18 @@ protected boolean skip(Object event) {
         return false;
     }
 
+    /**
+     * A hook to allow subclass implementations to indicate the event types that the subscriber class subscribes to
+     * (also therefore receiving any events that are subtypes), or <tt>null</tt> if this cannot be determined.
+     *
+     * <p>
+     *     Used by {@link #hasPotentialSubscriberTo(Class)}; this default implementation returns <tt>null</tt>.
+     * </p>
+     */
+    protected Set<Class<?>> subscribedEventTypesOf(final Class<?> subscriberClass) {
+        return null;
+    }
+
     //endregion
 
 
@@ -63,5 +63,3 @@ public interface MetricsService {
 
 
 }
-
-
@@ -0,0 +1,86 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.metrics;
+
+import javax.enterprise.context.RequestScoped;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
+
+/**
+ * Extends {@link MetricsService} with further metrics: the number of properties captured and modified (for auditing
+ * and publishing), and the effectiveness of the {@link SharedQueryResultsCache}.
+ */
+@RequestScoped
+public interface MetricsService2 extends MetricsService {
+
+    //region > numberObjectPropertiesCaptured, numberObjectPropertiesModified
+
+    /**
+     * The number of property values that have, so far in this transaction, been read in order to capture the
+     * changes made to dirtied objects (for auditing and publishing).
+     *
+     * <p>
+     *     Only the properties of audited or published objects are captured; the pre-values of all of their
+     *     (persisted) properties, and the post-values only of those reported as dirty by the object store.  Compare
+     *     with {@link #numberObjectPropertiesModified()}.
+     * </p>
+     */
+    @Programmatic
+    int numberObjectPropertiesCaptured();
+
+    /**
+     * The number of properties of dirtied objects that have, in this transaction, actually been modified.
+     *
+     * <p>
+     *     This is only known once the post-values have been captured, at the end of the transaction (when auditing or
+     *     publishing); before then, returns 0.
+     * </p>
+     */
+    @Programmatic
+    int numberObjectPropertiesModified();
+
+    //endregion
+
+    //region > numberSharedQueryResultsCacheHits, numberSharedQueryResultsCacheMisses, numberSharedQueryResultsCacheEvictions
+
+    /**
+     * The number of times (since startup, across all requests) that a result held by the
+     * {@link SharedQueryResultsCache} has been reused, or 0 if that cache is not enabled.
+     */
+    @Programmatic
+    long numberSharedQueryResultsCacheHits();
+
+    /**
+     * The number of times (since startup, across all requests) that a result sought from the
+     * {@link SharedQueryResultsCache} was not available, or 0 if that cache is not enabled.
+     */
+    @Programmatic
+    long numberSharedQueryResultsCacheMisses();
+
+    /**
+     * The number of results (since startup) evicted from the {@link SharedQueryResultsCache} because it was full or
+     * the results had expired, or 0 if that cache is not enabled.
+     */
+    @Programmatic
+    long numberSharedQueryResultsCacheEvictions();
+
+    //endregion
+
+}
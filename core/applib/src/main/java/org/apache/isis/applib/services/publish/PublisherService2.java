@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.services.publish;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+/**
+ * Extends {@link PublisherService} so that interactions and changes can be published from their (serializable)
+ * DTOs.
+ *
+ * <p>
+ * By default, publisher services are called synchronously, within the transaction, using
+ * {@link #publish(org.apache.isis.applib.services.iactn.Interaction.Execution)} and
+ * {@link #publish(PublishedObjects)}.  If the framework has been configured to publish via its local outbox, then the
+ * DTOs are instead appended to the outbox as the transaction commits, and are later passed (in batches, each in a
+ * separate session and transaction) to {@link #publish(InteractionDto)} and {@link #publish(ChangesDto)}.
+ * </p>
+ *
+ * <p>
+ * Delivery from the outbox is at-least-once: if a batch fails then it is retried in its entirety, so
+ * implementations should be idempotent (for example, using the transaction id and sequence of the DTO).
+ * </p>
+ */
+public interface PublisherService2 extends PublisherService {
+
+    @Programmatic
+    void publish(final InteractionDto interactionDto);
+
+    @Programmatic
+    void publish(final ChangesDto changesDto);
+}
@@ -18,6 +18,7 @@
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.annotation.PostConstruct;
@@ -25,7 +26,9 @@
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.Subscribe;
 
 import org.slf4j.Logger;
@@ -48,6 +51,11 @@
  * This implementation has no UI and there is only one implementation (this class) in applib, it is annotated with
  * {@link org.apache.isis.applib.annotation.DomainService}.  This means that it is automatically registered and
  * available for use; no further configuration is required.
+ *
+ * <p>
+ * Results can also be held across transactions, using {@link #executeShared(Callable, Key, Class[])}; see
+ * {@link SharedQueryResultsCache} for details.
+ * </p>
  */
 @DomainService(nature = NatureOfService.DOMAIN)
 @RequestScoped
@@ -140,6 +148,11 @@ public T getResult() {
     
     private final Map<Key, Value<?>> cache = Maps.newHashMap();
 
+    /**
+     * The classes of the objects created, updated or deleted in this transaction.
+     */
+    private final Set<Class<?>> changedTypes = Sets.newHashSet();
+
     @Programmatic
     public <T> T execute(final Callable<T> callable, final Class<?> callingClass, final String methodName, final Object... keys) {
         if(control.isFixturesInstalling()) {
@@ -191,6 +204,75 @@ protected <T> T executeWithCaching(final Callable<T> callable, final Key cacheKe
         }
     }
 
+    /**
+     * As {@link #execute(Callable, Key)}, but additionally holding the result in the {@link SharedQueryResultsCache}
+     * (if enabled), so that it can be reused by subsequent transactions.
+     *
+     * <p>
+     *     The shared result is invalidated whenever an instance of any of the <tt>dependsOn</tt> classes (or their
+     *     subclasses) is created, updated or deleted.  Within a transaction that has itself changed such an instance,
+     *     the shared result is ignored (the callable is invoked as usual).
+     * </p>
+     *
+     * <p>
+     *     The shared result is invalidated as soon as the change is made, and then again once the changing
+     *     transaction has committed, so that a result re-populated by a concurrent transaction in the meantime
+     *     (necessarily from the state prior to the commit) is discarded.  A result obtained before either
+     *     invalidation but only returned afterwards is not shared at all.
+     * </p>
+     *
+     * <p>
+     *     Note also that shared results are <i>not</i> scoped by user: the result obtained by one user is reused for
+     *     any other user that provides the same <tt>cacheKey</tt>.  Only share the results of queries that do not
+     *     depend upon the current user (or otherwise include the user's name within the <tt>cacheKey</tt>).
+     * </p>
+     *
+     * @param dependsOn - the classes of the objects that the result is derived from.
+     */
+    @Programmatic
+    public <T> T executeShared(final Callable<T> callable, final Key cacheKey, final Class<?>... dependsOn) {
+        if(control.isFixturesInstalling() || !isSharedEnabled() || dependsOnChanged(dependsOn)) {
+            return execute(callable, cacheKey);
+        }
+        try {
+            final Value<T> cacheValue = get(cacheKey);
+            if(cacheValue != null) {
+                return cacheValue.getResult();
+            }
+
+            final Value<T> sharedValue = sharedQueryResultsCache.get(cacheKey);
+            if(sharedValue != null) {
+                put(cacheKey, sharedValue.getResult());
+                return sharedValue.getResult();
+            }
+
+            // read before executing, so that a result made stale by a concurrent commit is not shared
+            final long generation = sharedQueryResultsCache.generationOf(dependsOn);
+            final T result = callable.call();
+            put(cacheKey, result);
+            sharedQueryResultsCache.put(cacheKey, result, generation, dependsOn);
+
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private boolean isSharedEnabled() {
+        return sharedQueryResultsCache != null && sharedQueryResultsCache.isEnabled();
+    }
+
+    private boolean dependsOnChanged(final Class<?>[] dependsOn) {
+        for (final Class<?> changedType : changedTypes) {
+            for (final Class<?> cls : dependsOn) {
+                if(cls.isAssignableFrom(changedType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Programmatic
     public <T> Value<T> get(final Class<?> callingClass, final String methodName, final Object... keys) {
         return get(new Key(callingClass, methodName, keys));
@@ -232,6 +314,31 @@ private static void logHitOrMiss(final Key cacheKey, final Value<?> cacheValue)
     @Override
     public void resetForNextTransaction() {
         cache.clear();
+        changedTypes.clear();
+    }
+
+    /**
+     * Not API: for framework to call just before the end of the transaction, to obtain the types whose
+     * {@link SharedQueryResultsCache shared} results must be invalidated again once the transaction has committed
+     * (in case a concurrent transaction re-populated them in the meantime).
+     */
+    @Programmatic
+    public Set<Class<?>> getChangedTypes() {
+        return ImmutableSet.copyOf(changedTypes);
+    }
+
+    /**
+     * Not API: for framework to call whenever an object is created, updated or deleted, so that any
+     * {@link SharedQueryResultsCache shared} results that depend on its class are invalidated.
+     */
+    @Programmatic
+    public void onChanged(final Class<?> changedType) {
+        if(!changedTypes.add(changedType)) {
+            return;
+        }
+        if(isSharedEnabled()) {
+            sharedQueryResultsCache.invalidate(changedType);
+        }
     }
 
     /**
@@ -276,5 +383,8 @@ public boolean isFixturesInstalling() {
     @Inject
     protected Control control;
 
+    @Inject
+    protected SharedQueryResultsCache sharedQueryResultsCache;
+
 
 }
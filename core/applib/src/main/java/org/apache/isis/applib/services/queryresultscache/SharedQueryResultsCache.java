@@ -0,0 +1,458 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.metrics.MetricsService2;
+
+/**
+ * An optional, application-wide tier of the {@link QueryResultsCache}, so that the results of (typically reference
+ * data) queries can be reused across transactions rather than re-executed on every request.
+ *
+ * <p>
+ *     Results are held as {@link Bookmark}s (or, for immutable values such as strings and numbers, as is), never as
+ *     the domain objects themselves; these are looked up again when the cached result is reused.  The result of a
+ *     query can only be held if it is <tt>null</tt>, a (persistent or view model) domain object or immutable value,
+ *     or a {@link List} or {@link Set} of these.
+ * </p>
+ *
+ * <p>
+ *     Each entry is held against the classes that it depends on, and is invalidated whenever an object of any of
+ *     these classes (or their subclasses) is created, updated or deleted; see
+ *     {@link QueryResultsCache#onChanged(Class)}.  So that a result obtained before such a change (but only put
+ *     afterwards) is not held, each {@link #put(QueryResultsCache.Key, Object, long, Class[]) put} is conditional
+ *     upon the {@link #generationOf(Class[]) generation} of the classes read before the query was executed.
+ *     Entries are otherwise evicted once the cache is full, or after the configured time-to-live.  The number of hits, misses and evictions are available from the
+ *     {@link MetricsService2}.
+ * </p>
+ *
+ * <p>
+ *     Entries are <i>not</i> scoped by user; a request by any user with the same {@link QueryResultsCache.Key key}
+ *     reuses the result.  Only share the results of queries that do not depend upon the current user (or else
+ *     include the user's name within the key).
+ * </p>
+ *
+ * <p>
+ *     This tier is disabled by default; enable using {@link #KEY_ENABLED}.
+ * </p>
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+public class SharedQueryResultsCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedQueryResultsCache.class);
+
+    public static final String KEY_ENABLED = "isis.services.queryResultsCache.shared.enabled";
+
+    public static final String KEY_MAX_SIZE = "isis.services.queryResultsCache.shared.maxSize";
+    public static final int MAX_SIZE_DEFAULT = 1000;
+
+    public static final String KEY_TTL_SECONDS = "isis.services.queryResultsCache.shared.ttlSeconds";
+    public static final int TTL_SECONDS_DEFAULT = 300;
+
+    private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = ImmutableSet.<Class<?>>of(
+            String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class);
+
+    //region > init
+
+    private boolean enabled;
+    private Cache<QueryResultsCache.Key, Entry> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        this.enabled = Boolean.parseBoolean(properties.get(KEY_ENABLED));
+        if(!enabled) {
+            return;
+        }
+
+        final String maxSize = properties.get(KEY_MAX_SIZE);
+        final String ttlSeconds = properties.get(KEY_TTL_SECONDS);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize != null ? Integer.parseInt(maxSize) : MAX_SIZE_DEFAULT)
+                .expireAfterWrite(ttlSeconds != null ? Integer.parseInt(ttlSeconds) : TTL_SECONDS_DEFAULT, TimeUnit.SECONDS)
+                .removalListener(new RemovalListener<QueryResultsCache.Key, Entry>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<QueryResultsCache.Key, Entry> notification) {
+                        if(notification.wasEvicted()) {
+                            evictions.incrementAndGet();
+                        }
+                    }
+                })
+                .build();
+    }
+
+    @Programmatic
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //endregion
+
+    //region > get, put
+
+    /**
+     * The cached result, with any bookmarks looked up again, or <tt>null</tt> if there is no such result (or if any
+     * of the objects within it no longer exist).
+     */
+    @Programmatic
+    public <T> QueryResultsCache.Value<T> get(final QueryResultsCache.Key cacheKey) {
+        if(!enabled) {
+            return null;
+        }
+        final Entry entry = cache.getIfPresent(cacheKey);
+        if(entry != null) {
+            final Object result = entry.resolve(bookmarkService);
+            if(result != UNRESOLVED) {
+                hits.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                final T resultT = (T) result;
+                return new QueryResultsCache.Value<T>(resultT);
+            }
+            cache.invalidate(cacheKey);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Holds the result, provided that it can be {@link SharedQueryResultsCache represented} using bookmarks and
+     * immutable values, and provided that none of the <tt>dependsOn</tt> classes has been changed since the
+     * <tt>generation</tt> was read; otherwise does nothing.
+     *
+     * @param generation - the {@link #generationOf(Class[]) generation} of the <tt>dependsOn</tt> classes, as read
+     *                   before the query that produced the result was executed.
+     * @param dependsOn - the classes of the objects that the result was derived from; the entry is invalidated
+     *                  whenever an instance of any of these classes (or of their subclasses) is changed.
+     */
+    @Programmatic
+    public void put(
+            final QueryResultsCache.Key cacheKey,
+            final Object result,
+            final long generation,
+            final Class<?>... dependsOn) {
+        if(!enabled) {
+            return;
+        }
+        if(generationOf(dependsOn) != generation) {
+            if(LOG.isDebugEnabled()) {
+                LOG.debug("NOT SHARED (invalidated while executing): " + cacheKey);
+            }
+            return;
+        }
+        final Object memento = mementoFor(result);
+        if(memento == UNRESOLVED) {
+            if(LOG.isDebugEnabled()) {
+                LOG.debug("NOT SHARED (result cannot be bookmarked): " + cacheKey);
+            }
+            return;
+        }
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("PUT (shared): " + cacheKey);
+        }
+        cache.put(cacheKey, new Entry(ImmutableList.copyOf(dependsOn), memento));
+
+        // an invalidation that started after the check above may have missed the entry just put
+        if(generationOf(dependsOn) != generation) {
+            cache.invalidate(cacheKey);
+        }
+    }
+
+    //endregion
+
+    //region > invalidate, generationOf
+
+    /**
+     * The number of times that each class has been {@link #invalidate(Class) invalidated}.
+     */
+    private final ConcurrentMap<Class<?>, AtomicLong> generationByChangedClass = Maps.newConcurrentMap();
+
+    /**
+     * Invalidates all entries that depend on the specified class, or on any of its superclasses.
+     */
+    @Programmatic
+    public void invalidate(final Class<?> changedClass) {
+        if(!enabled) {
+            return;
+        }
+        // before removing the entries, so that a concurrent put either notices or has its entry removed
+        generationFor(changedClass).incrementAndGet();
+
+        final Iterator<Map.Entry<QueryResultsCache.Key, Entry>> iterator = cache.asMap().entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<QueryResultsCache.Key, Entry> mapEntry = iterator.next();
+            if(mapEntry.getValue().dependsOn(changedClass)) {
+                if(LOG.isDebugEnabled()) {
+                    LOG.debug("INVALIDATE (shared, " + changedClass.getName() + " changed): " + mapEntry.getKey());
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The (monotonically increasing) number of times that any of the specified classes (or their subclasses) have
+     * been {@link #invalidate(Class) invalidated}; to be read before executing a query whose result is to be
+     * {@link #put(QueryResultsCache.Key, Object, long, Class[]) put}.
+     */
+    @Programmatic
+    public long generationOf(final Class<?>... dependsOn) {
+        long generation = 0;
+        for (final Map.Entry<Class<?>, AtomicLong> mapEntry : generationByChangedClass.entrySet()) {
+            for (final Class<?> cls : dependsOn) {
+                if(cls.isAssignableFrom(mapEntry.getKey())) {
+                    generation += mapEntry.getValue().get();
+                    break;
+                }
+            }
+        }
+        return generation;
+    }
+
+    private AtomicLong generationFor(final Class<?> changedClass) {
+        AtomicLong generation = generationByChangedClass.get(changedClass);
+        if(generation == null) {
+            final AtomicLong newGeneration = new AtomicLong();
+            generation = generationByChangedClass.putIfAbsent(changedClass, newGeneration);
+            if(generation == null) {
+                generation = newGeneration;
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    @Programmatic
+    public void invalidateAll() {
+        if(!enabled) {
+            return;
+        }
+        cache.invalidateAll();
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of times (since startup) that a cached result was reused.
+     */
+    @Programmatic
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of times (since startup) that there was no (usable) cached result.
+     */
+    @Programmatic
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * The number of entries (since startup) evicted because the cache was full or because they had expired; does not
+     * include those invalidated because the objects they depend on were changed.
+     */
+    @Programmatic
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    //endregion
+
+    //region > helpers (mementos)
+
+    /**
+     * Indicates a result (or element) that cannot be represented by a memento, or a memento that can no longer be
+     * resolved.
+     */
+    private static final Object UNRESOLVED = new Object();
+
+    /**
+     * Used in place of a <tt>null</tt> result.
+     */
+    private static final Object NULL = new Object();
+
+    private static class BookmarkMemento {
+        private final Bookmark bookmark;
+        BookmarkMemento(final Bookmark bookmark) {
+            this.bookmark = bookmark;
+        }
+    }
+
+    private static class CollectionMemento {
+        private final boolean set;
+        private final List<Object> elements;
+        CollectionMemento(final boolean set, final List<Object> elements) {
+            this.set = set;
+            this.elements = elements;
+        }
+    }
+
+    private Object mementoFor(final Object result) {
+        if(result == null) {
+            return NULL;
+        }
+        if(result instanceof List || result instanceof Set) {
+            final List<Object> elements = Lists.newArrayList();
+            for (final Object element : (Collection<?>) result) {
+                final Object memento = elementMementoFor(element);
+                if(memento == UNRESOLVED || memento == NULL) {
+                    return UNRESOLVED;
+                }
+                elements.add(memento);
+            }
+            return new CollectionMemento(result instanceof Set, elements);
+        }
+        return elementMementoFor(result);
+    }
+
+    private Object elementMementoFor(final Object element) {
+        if(element == null) {
+            return NULL;
+        }
+        if(element instanceof Enum || IMMUTABLE_VALUE_TYPES.contains(element.getClass())) {
+            return element;
+        }
+        if(element instanceof Collection || element instanceof Map) {
+            return UNRESOLVED;
+        }
+        final Bookmark bookmark = bookmarkService.bookmarkFor(element);
+        if(bookmark == null || bookmark.getObjectState().isTransient()) {
+            return UNRESOLVED;
+        }
+        return new BookmarkMemento(bookmark);
+    }
+
+    private static Object resolve(final Object memento, final BookmarkService2 bookmarkService) {
+        if(memento == NULL) {
+            return null;
+        }
+        if(memento instanceof CollectionMemento) {
+            return resolve((CollectionMemento) memento, bookmarkService);
+        }
+        if(memento instanceof BookmarkMemento) {
+            final Object object = bookmarkService.lookup(
+                    ((BookmarkMemento) memento).bookmark, BookmarkService2.FieldResetPolicy.DONT_RESET);
+            return object != null ? object : UNRESOLVED;
+        }
+        return memento;
+    }
+
+    /**
+     * Looks up all of the bookmarked elements in a single
+     * {@link BookmarkService2#lookupAll(List, BookmarkService2.FieldResetPolicy) batch}, rather than one at a time.
+     */
+    private static Object resolve(final CollectionMemento collectionMemento, final BookmarkService2 bookmarkService) {
+        final List<Bookmark> bookmarks = Lists.newArrayList();
+        for (final Object elementMemento : collectionMemento.elements) {
+            if(elementMemento instanceof BookmarkMemento) {
+                bookmarks.add(((BookmarkMemento) elementMemento).bookmark);
+            }
+        }
+        final Iterator<Object> objects = bookmarks.isEmpty()
+                ? Collections.<Object>emptyIterator()
+                : bookmarkService.lookupAll(bookmarks, BookmarkService2.FieldResetPolicy.DONT_RESET).iterator();
+
+        final Collection<Object> elements = collectionMemento.set
+                ? Sets.newLinkedHashSet()
+                : Lists.newArrayList();
+        for (final Object elementMemento : collectionMemento.elements) {
+            if(elementMemento instanceof BookmarkMemento) {
+                final Object object = objects.next();
+                if(object == null) {
+                    return UNRESOLVED;
+                }
+                elements.add(object);
+            } else {
+                elements.add(elementMemento);
+            }
+        }
+        return elements;
+    }
+
+    private static class Entry {
+        private final List<Class<?>> dependsOn;
+        private final Object memento;
+
+        Entry(final List<Class<?>> dependsOn, final Object memento) {
+            this.dependsOn = dependsOn;
+            this.memento = memento;
+        }
+
+        boolean dependsOn(final Class<?> changedClass) {
+            for (final Class<?> cls : dependsOn) {
+                if(cls.isAssignableFrom(changedClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Object resolve(final BookmarkService2 bookmarkService) {
+            return SharedQueryResultsCache.resolve(memento, bookmarkService);
+        }
+    }
+
+    //endregion
+
+    @Inject
+    BookmarkService2 bookmarkService;
+
+}
@@ -19,12 +19,15 @@
 
 package org.apache.isis.applib.services.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.google.common.base.Predicate;
 
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindByPredicate;
+import org.apache.isis.applib.query.QueryPredicate;
 
 public interface RepositoryService {
 
@@ -46,6 +49,24 @@ public interface RepositoryService {
      */
     String KEY_DISABLE_AUTOFLUSH = "isis.services.container.disableAutoFlush";
 
+    /**
+     * The number of objects to fetch from the database at a time when {@link #stream(Query) stream}ing the results of
+     * a query.
+     */
+    String KEY_STREAM_FETCH_SIZE = "isis.services.repository.stream.fetchSize";
+    int STREAM_FETCH_SIZE_DEFAULT = 100;
+
+    /**
+     * Whether objects {@link #stream(Query) stream}ed from a query are evicted from the session once the iteration has
+     * moved past them (unless they have been modified).
+     *
+     * <p>
+     *     Allows very large result sets to be walked in constant memory, but means that any reference to an evicted
+     *     object retained by the caller is no longer managed by the framework.
+     * </p>
+     */
+    String KEY_STREAM_EVICT = "isis.services.repository.stream.evict";
+
     /**
      * Same as {@link org.apache.isis.applib.services.factory.FactoryService#instantiate(Class)}; provided as a
      * convenience because instantiating and {@link #persist(Object) persisting} are often done together.
@@ -82,6 +103,19 @@ public interface RepositoryService {
     @Programmatic
     void persistAndFlush(Object domainObject);
 
+    /**
+     * Persist each of the specified objects (ignoring any that are already persistent).
+     *
+     * <p>
+     * Equivalent to calling {@link #persist(Object)} for each object, but intended for persisting large numbers of
+     * objects: they are all enlisted into the transaction at once, and when flushed are handed to the object store
+     * together, so that it can batch the inserts.
+     *
+     * @see #persist(Object)
+     */
+    @Programmatic
+    void persistAll(Collection<?> domainObjects);
+
     /**
      * Deletes the domain object but only if is persistent.
      *
@@ -98,6 +132,19 @@ public interface RepositoryService {
     @Programmatic
     void removeAndFlush(Object domainObject);
 
+    /**
+     * Deletes each of the specified domain objects (ignoring any that are not persistent).
+     *
+     * <p>
+     * Equivalent to calling {@link #remove(Object)} for each object, but intended for deleting large numbers of
+     * objects: they are all enlisted into the transaction at once, and when flushed are handed to the object store
+     * together, so that it can batch the deletes.
+     *
+     * @see #remove(Object)
+     */
+    @Programmatic
+    void removeAll(Collection<?> domainObjects);
+
     /**
      * Returns all the instances of the specified type (including subtypes).
      * If the optional range parameters are used, the dataset returned starts
@@ -140,6 +187,12 @@ public interface RepositoryService {
      * instances.  Use {@link #allMatches(Query)} for production code.
      * </p>
      *
+     * <p>
+     * The exception is if the predicate is a {@link QueryPredicate}, in which case the filtering (and the range) is
+     * instead performed by the object store (it is equivalent to {@link #allMatches(Query) querying} using a
+     * {@link QueryFindByPredicate}).
+     * </p>
+     *
      * @see #allMatches(Class, Predicate, long...)
      *
      * @param range 2 longs, specifying 0-based start and count.
@@ -164,6 +217,36 @@ public interface RepositoryService {
     @Programmatic
     <T> List<T> allMatches(Query<T> query);
 
+    /**
+     * Returns the instances that match the given {@link Query}, obtaining them lazily from the database (in chunks of
+     * {@link #KEY_STREAM_FETCH_SIZE}) as the returned iterator is advanced.
+     *
+     * <p>
+     * Unlike {@link #allMatches(Query)}, the results are never all held in memory at once, so this method is suitable
+     * for walking very large numbers of objects (for example, for reports and exports).  See also
+     * {@link #KEY_STREAM_EVICT}.
+     * </p>
+     *
+     * <p>
+     * The iterator must be consumed, and should be {@link CloseableIterator#close() closed}, within the current
+     * transaction.
+     * </p>
+     */
+    @Programmatic
+    <T> CloseableIterator<T> stream(Query<T> query);
+
+    /**
+     * Returns the number of instances that the given {@link Query} would return (taking into account its range, if
+     * any), without loading them.
+     *
+     * <p>
+     *     Where possible the count is performed by the object store itself (for example, as a JDOQL
+     *     <tt>count(this)</tt>); this method is therefore the recommended way of obtaining totals, eg for pagination.
+     * </p>
+     */
+    @Programmatic
+    <T> long count(Query<T> query);
+
     /**
      * Returns the first instance of the specified type (including subtypes)
      * that matches the supplied {@link Predicate}, or <tt>null</tt> if none.
@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.query;
+
+import org.junit.Test;
+
+import static org.apache.isis.applib.query.QueryPredicate.and;
+import static org.apache.isis.applib.query.QueryPredicate.eq;
+import static org.apache.isis.applib.query.QueryPredicate.ge;
+import static org.apache.isis.applib.query.QueryPredicate.lt;
+import static org.apache.isis.applib.query.QueryPredicate.ne;
+import static org.apache.isis.applib.query.QueryPredicate.not;
+import static org.apache.isis.applib.query.QueryPredicate.or;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryPredicateTest {
+
+    public static class Address {
+        private final String postcode;
+        Address(final String postcode) {
+            this.postcode = postcode;
+        }
+        public String getPostcode() {
+            return postcode;
+        }
+    }
+
+    public static class Customer {
+        private final String lastName;
+        private final int age;
+        private final Address address;
+        Customer(final String lastName, final int age, final Address address) {
+            this.lastName = lastName;
+            this.age = age;
+            this.address = address;
+        }
+        public String getLastName() {
+            return lastName;
+        }
+        public int getAge() {
+            return age;
+        }
+        public boolean isAdult() {
+            return age >= 18;
+        }
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    private final Customer smith = new Customer("Smith", 42, new Address("AB1"));
+    private final Customer jones = new Customer("Jones", 12, null);
+
+    @Test
+    public void comparisons() throws Exception {
+        assertThat(QueryPredicate.<Customer>eq("lastName", "Smith").apply(smith), is(true));
+        assertThat(QueryPredicate.<Customer>eq("lastName", "Smith").apply(jones), is(false));
+        assertThat(QueryPredicate.<Customer>ne("lastName", "Smith").apply(jones), is(true));
+        assertThat(QueryPredicate.<Customer>lt("age", 18).apply(jones), is(true));
+        assertThat(QueryPredicate.<Customer>ge("age", 42).apply(smith), is(true));
+        assertThat(QueryPredicate.<Customer>gt("age", 42).apply(smith), is(false));
+        assertThat(QueryPredicate.<Customer>eq("adult", true).apply(smith), is(true));
+    }
+
+    @Test
+    public void nested_properties_and_nulls() throws Exception {
+        assertThat(QueryPredicate.<Customer>eq("address.postcode", "AB1").apply(smith), is(true));
+        assertThat(QueryPredicate.<Customer>eq("address.postcode", "AB1").apply(jones), is(false));
+        assertThat(QueryPredicate.<Customer>eq("address", null).apply(jones), is(true));
+        assertThat(QueryPredicate.<Customer>lt("address.postcode", "ZZ9").apply(jones), is(false));
+    }
+
+    @Test
+    public void negation_of_comparison_with_null_is_unknown() throws Exception {
+        final Customer anonymous = new Customer(null, 30, new Address(null));
+
+        assertThat(QueryPredicate.<Customer>ne("lastName", "Smith").apply(anonymous), is(false));
+        assertThat(QueryPredicate.<Customer>not(eq("lastName", "Smith")).apply(anonymous), is(false));
+        assertThat(QueryPredicate.<Customer>not(lt("address.postcode", "ZZ9")).apply(jones), is(false));
+        assertThat(QueryPredicate.<Customer>not(eq("address.postcode", null)).apply(jones), is(false));
+        assertThat(QueryPredicate.<Customer>or(eq("lastName", "Smith"), ge("age", 18)).apply(anonymous), is(true));
+        assertThat(QueryPredicate.<Customer>ne("lastName", null).apply(anonymous), is(false));
+    }
+
+    @Test
+    public void junctions() throws Exception {
+        final QueryPredicate<Customer> predicate =
+                or(and(eq("lastName", "Smith"), ge("age", 18)), not(ne("lastName", "Jones")));
+
+        assertThat(predicate.apply(smith), is(true));
+        assertThat(predicate.apply(jones), is(true));
+        assertThat(QueryPredicate.<Customer>and(eq("lastName", "Smith"), lt("age", 18)).apply(smith), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_property() throws Exception {
+        eq("lastName == 'x' || true", "Smith");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ordering_comparison_with_null() throws Exception {
+        QueryPredicate.lt("age", null);
+    }
+
+}
@@ -0,0 +1,297 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SharedQueryResultsCacheTest {
+
+    static class Customer {}
+    static class PreferredCustomer extends Customer {}
+    static class Order {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private BookmarkService2 mockBookmarkService;
+
+    private SharedQueryResultsCache sharedQueryResultsCache;
+    private QueryResultsCache queryResultsCache;
+
+    private final QueryResultsCache.Key key = new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "find", "a");
+    private final int[] calls = new int[]{0};
+
+    @Before
+    public void setUp() throws Exception {
+        sharedQueryResultsCache = new SharedQueryResultsCache();
+        sharedQueryResultsCache.bookmarkService = mockBookmarkService;
+        sharedQueryResultsCache.init(ImmutableMap.of(SharedQueryResultsCache.KEY_ENABLED, "true"));
+
+        queryResultsCache = new QueryResultsCache();
+        queryResultsCache.control = new QueryResultsCache.Control();
+        queryResultsCache.sharedQueryResultsCache = sharedQueryResultsCache;
+    }
+
+    private <T> Callable<T> callableReturning(final T result) {
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                calls[0]++;
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void reused_across_transactions() throws Exception {
+
+        // given
+        final Callable<List<String>> callable = callableReturning(Collections.singletonList("foo"));
+        assertThat(queryResultsCache.executeShared(callable, key, Customer.class), is(Collections.singletonList("foo")));
+        assertThat(calls[0], is(1));
+
+        // when
+        queryResultsCache.resetForNextTransaction();
+
+        // then
+        assertThat(queryResultsCache.executeShared(callable, key, Customer.class), is(Collections.singletonList("foo")));
+        assertThat(calls[0], is(1));
+        assertThat(sharedQueryResultsCache.getHitCount(), is(1L));
+        assertThat(sharedQueryResultsCache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void invalidated_when_dependent_type_changed() throws Exception {
+
+        // given
+        final Callable<String> callable = callableReturning("foo");
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // when unrelated type changed
+        queryResultsCache.onChanged(Order.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // then still shared
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        assertThat(calls[0], is(1));
+        queryResultsCache.resetForNextTransaction();
+
+        // when subtype changed
+        queryResultsCache.onChanged(PreferredCustomer.class);
+
+        // then ignored for the remainder of this transaction
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        assertThat(calls[0], is(2));
+        queryResultsCache.resetForNextTransaction();
+
+        // and not re-populated by the changing transaction
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        assertThat(calls[0], is(3));
+    }
+
+    @Test
+    public void changed_types_available_until_reset() throws Exception {
+
+        // when
+        queryResultsCache.onChanged(Customer.class);
+        queryResultsCache.onChanged(Order.class);
+
+        // then
+        assertThat(queryResultsCache.getChangedTypes(), is((Set<Class<?>>) ImmutableSet.<Class<?>>of(
+                Customer.class, Order.class)));
+
+        // when
+        queryResultsCache.resetForNextTransaction();
+
+        // then
+        assertThat(queryResultsCache.getChangedTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void domain_objects_held_as_bookmarks() throws Exception {
+
+        // given
+        final Customer customer = new Customer();
+        final Customer customerReloaded = new Customer();
+        final Bookmark bookmark = new Bookmark("CUS", "1");
+
+        context.checking(new Expectations() {{
+            oneOf(mockBookmarkService).bookmarkFor(customer);
+            will(returnValue(bookmark));
+
+            oneOf(mockBookmarkService).lookup(bookmark, BookmarkService2.FieldResetPolicy.DONT_RESET);
+            will(returnValue(customerReloaded));
+        }});
+
+        final Callable<Customer> callable = callableReturning(customer);
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // when
+        final Customer result = queryResultsCache.executeShared(callable, key, Customer.class);
+
+        // then
+        assertThat(result, is(sameInstance(customerReloaded)));
+        assertThat(calls[0], is(1));
+    }
+
+    @Test
+    public void miss_if_domain_object_no_longer_exists() throws Exception {
+
+        // given
+        final Customer customer = new Customer();
+        final Bookmark bookmark = new Bookmark("CUS", "1");
+
+        context.checking(new Expectations() {{
+            allowing(mockBookmarkService).bookmarkFor(customer);
+            will(returnValue(bookmark));
+
+            oneOf(mockBookmarkService).lookup(bookmark, BookmarkService2.FieldResetPolicy.DONT_RESET);
+            will(returnValue(null));
+        }});
+
+        sharedQueryResultsCache.put(key, customer, sharedQueryResultsCache.generationOf(Customer.class), Customer.class);
+
+        // when
+        final QueryResultsCache.Value<Customer> value = sharedQueryResultsCache.get(key);
+
+        // then
+        assertThat(value, is(nullValue()));
+        assertThat(sharedQueryResultsCache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void not_shared_if_invalidated_while_executing() throws Exception {
+
+        // given
+        final Callable<String> callable = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                calls[0]++;
+                // a concurrent transaction commits a change
+                sharedQueryResultsCache.invalidate(PreferredCustomer.class);
+                return "stale";
+            }
+        };
+
+        // when
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // then
+        assertThat(sharedQueryResultsCache.get(key), is(nullValue()));
+    }
+
+    @Test
+    public void still_shared_if_unrelated_type_invalidated_while_executing() throws Exception {
+
+        // given
+        final Callable<String> callable = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                calls[0]++;
+                sharedQueryResultsCache.invalidate(Order.class);
+                return "foo";
+            }
+        };
+
+        // when
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // then
+        assertThat(sharedQueryResultsCache.get(key).getResult(), is((Object) "foo"));
+    }
+
+    @Test
+    public void list_of_domain_objects_looked_up_in_one_batch() throws Exception {
+
+        // given
+        final Customer customer1 = new Customer();
+        final Customer customer2 = new Customer();
+        final Customer customer1Reloaded = new Customer();
+        final Customer customer2Reloaded = new Customer();
+        final Bookmark bookmark1 = new Bookmark("CUS", "1");
+        final Bookmark bookmark2 = new Bookmark("CUS", "2");
+
+        context.checking(new Expectations() {{
+            oneOf(mockBookmarkService).bookmarkFor(customer1);
+            will(returnValue(bookmark1));
+            oneOf(mockBookmarkService).bookmarkFor(customer2);
+            will(returnValue(bookmark2));
+
+            oneOf(mockBookmarkService).lookupAll(
+                    Arrays.asList(bookmark1, bookmark2), BookmarkService2.FieldResetPolicy.DONT_RESET);
+            will(returnValue(Arrays.<Object>asList(customer1Reloaded, customer2Reloaded)));
+        }});
+
+        final Callable<List<Customer>> callable = callableReturning(Arrays.asList(customer1, customer2));
+        queryResultsCache.executeShared(callable, key, Customer.class);
+        queryResultsCache.resetForNextTransaction();
+
+        // when
+        final List<Customer> result = queryResultsCache.executeShared(callable, key, Customer.class);
+
+        // then
+        assertThat(result, is(Arrays.asList(customer1Reloaded, customer2Reloaded)));
+        assertThat(calls[0], is(1));
+    }
+
+    @Test
+    public void disabled_by_default() throws Exception {
+
+        // given
+        sharedQueryResultsCache = new SharedQueryResultsCache();
+        sharedQueryResultsCache.init(Collections.<String, String>emptyMap());
+        queryResultsCache.sharedQueryResultsCache = sharedQueryResultsCache;
+
+        final Callable<String> callable = callableReturning("foo");
+        queryResultsCache.executeShared(callable, key, Customer.class);
+
+        // when
+        queryResultsCache.resetForNextTransaction();
+        queryResultsCache.executeShared(callable, key, Customer.class);
+
+        // then
+        assertThat(calls[0], is(2));
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.tool.mavenplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import org.apache.isis.applib.AppManifest;
+import org.apache.isis.core.commons.factory.InstanceUtil;
+import org.apache.isis.core.runtime.systemusinginstallers.ClassIndex;
+
+/**
+ * Scans the packages of the app manifest's modules and writes a {@link ClassIndex} into the project's output
+ * directory (and hence into its artifact), so that the classpath need not be scanned on bootstrapping.
+ *
+ * <p>
+ *     Unlike the other goals, this does not bootstrap the application.
+ * </p>
+ */
+@Mojo(
+        name = "index",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresProject = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresDependencyCollection = ResolutionScope.COMPILE
+)
+public class IsisMojoIndex extends AbstractMojo {
+
+    @Component
+    private MavenProject mavenProject;
+
+    @Parameter(required = true, readonly = false, property = "appManifest")
+    private String appManifest;
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+
+        final AppManifest manifest = InstanceUtil.createInstance(this.appManifest, AppManifest.class);
+
+        final long start = System.currentTimeMillis();
+        final ClassIndex classIndex = ClassIndex.scan(manifest);
+        final long elapsed = System.currentTimeMillis() - start;
+
+        final File indexFile = new File(mavenProject.getBuild().getOutputDirectory(), ClassIndex.RESOURCE_NAME);
+        try {
+            Files.createParentDirs(indexFile);
+        } catch (IOException e) {
+            throw new MojoFailureException( String.format("Failed to create dir: '%s'", indexFile.getParent()));
+        }
+        try (final Writer writer = Files.newWriter(indexFile, Charsets.UTF_8)) {
+            classIndex.writeTo(writer);
+        } catch (IOException e) {
+            throw new MojoFailureException("Failed to write out " + indexFile);
+        }
+        getLog().info(String.format(
+                "wrote %s (classpath scan took %d ms, which is saved on each bootstrap)", indexFile, elapsed));
+    }
+
+}
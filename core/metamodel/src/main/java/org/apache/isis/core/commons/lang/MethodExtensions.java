@@ -42,6 +42,10 @@ public static boolean isStatic(final Method method) {
 
     // //////////////////////////////////////
 
+    /**
+     * Invokes the method reflectively; callers that invoke the same method repeatedly should instead obtain a
+     * {@link MethodInvoker} from the {@link MethodInvokerCache} and use {@link #invoke(MethodInvoker, Object)}.
+     */
     public static Object invoke(final Method method, final Object object) {
         final Object[] parameters = MethodExtensions.getNullOrDefaultArgs(method);
         return MethodExtensions.invoke(method, object, parameters);
@@ -49,8 +53,7 @@ public static Object invoke(final Method method, final Object object) {
 
     public static Object invoke(final Method method, final Object object, final Object[] arguments) {
         try {
-            Object[] defaultAnyPrimitive = defaultAnyPrimitive(method.getParameterTypes(), arguments);
-            return method.invoke(object, defaultAnyPrimitive);
+            return method.invoke(object, defaultAnyPrimitive(method.getParameterTypes(), arguments));
         } catch (final IllegalArgumentException e) {
             throw e;
         } catch (final InvocationTargetException e) {
@@ -61,25 +64,42 @@ public static Object invoke(final Method method, final Object object, final Obje
         }
     }
 
-    private static Object[] defaultAnyPrimitive(Class<?>[] parameterTypes, Object[] arguments) {
-        if(parameterTypes == null || arguments == null || parameterTypes.length != arguments.length) {
-            return arguments;
-        }
-        final Object[] argumentsWithPrimitivesDefaulted = new Object[arguments.length];
-        for(int i=0; i<argumentsWithPrimitivesDefaulted.length; i++) {
-            argumentsWithPrimitivesDefaulted[i] = valueIfPrimitiveThenDefaulted(parameterTypes[i], arguments[i]);
+    public static Object invoke(final MethodInvoker invoker, final Object object) {
+        return doInvoke(invoker, object, invoker.getNullOrDefaultArgs());
+    }
+
+    public static Object invoke(final MethodInvoker invoker, final Object object, final Object[] arguments) {
+        return doInvoke(invoker, object, defaultAnyPrimitive(invoker.getParameterTypes(), arguments));
+    }
+
+    private static Object doInvoke(final MethodInvoker invoker, final Object object, final Object[] arguments) {
+        try {
+            return invoker.invoke(object, arguments);
+        } catch (final IllegalArgumentException e) {
+            throw e;
+        } catch (final InvocationTargetException e) {
+            ThrowableExtensions.throwWithinIsisException(e, "Exception executing " + invoker.getMethod());
+            return null;
+        } catch (final IllegalAccessException e) {
+            throw new MetaModelException("illegal access of " + invoker.getMethod(), e);
         }
-        return argumentsWithPrimitivesDefaulted;
     }
 
-    private static Object valueIfPrimitiveThenDefaulted(Class<?> cls, Object argument) {
-        if(argument != null) {
-            return argument;
+    private static Object[] defaultAnyPrimitive(Class<?>[] parameterTypes, Object[] arguments) {
+        if(parameterTypes == null || arguments == null || parameterTypes.length != arguments.length) {
+            return arguments;
         }
-        if(!cls.isPrimitive()) {
-            return argument;
+        Object[] argumentsWithPrimitivesDefaulted = null;
+        for(int i=0; i<arguments.length; i++) {
+            if(arguments[i] == null && parameterTypes[i].isPrimitive()) {
+                if(argumentsWithPrimitivesDefaulted == null) {
+                    argumentsWithPrimitivesDefaulted = arguments.clone();
+                }
+                argumentsWithPrimitivesDefaulted[i] = ClassUtil.defaultByPrimitiveClass.get(parameterTypes[i]);
+            }
         }
-        return ClassUtil.defaultByPrimitiveClass.get(cls);
+        // only copy if required
+        return argumentsWithPrimitivesDefaulted != null ? argumentsWithPrimitivesDefaulted : arguments;
     }
 
     public static Object invokeStatic(final Method method, final Object[] parameters) {
@@ -87,7 +107,7 @@ public static Object invokeStatic(final Method method, final Object[] parameters
     }
 
     public static Object invokeStatic(final Method method) {
-        return invoke(method, null, MethodExtensions.getNullOrDefaultArgs(method));
+        return invoke(method, null);
     }
 
     // //////////////////////////////////////
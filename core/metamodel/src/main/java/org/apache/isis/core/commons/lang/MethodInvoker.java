@@ -0,0 +1,224 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.commons.lang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.google.common.primitives.Primitives;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invokes a particular {@link Method}, with the same contract as {@link Method#invoke(Object, Object...)}.
+ *
+ * <p>
+ *     The implementation is chosen according to a {@link Strategy}: either plain reflection, or a
+ *     {@link MethodHandle} that is resolved up-front.  Invokers are cached (per strategy) by a
+ *     {@link MethodInvokerCache}.  If a method handle cannot be obtained (for
+ *     example because the method's class is not accessible), or if the arguments provided for some invocation
+ *     would need to be converted, then reflection is used instead.
+ * </p>
+ */
+public abstract class MethodInvoker {
+
+    private final static Logger LOG = LoggerFactory.getLogger(MethodInvoker.class);
+
+    //region > Strategy
+
+    public enum Strategy {
+        REFLECTION,
+        METHOD_HANDLES;
+
+        /**
+         * Parses the provided value (case insensitively), falling back to the provided default.
+         */
+        public static Strategy parse(final String value, final Strategy fallback) {
+            if(value == null) {
+                return fallback;
+            }
+            try {
+                return Strategy.valueOf(value.trim().toUpperCase());
+            } catch (final IllegalArgumentException e) {
+                LOG.warn(String.format("Unrecognized invoker strategy '%s', using %s", value, fallback));
+                return fallback;
+            }
+        }
+    }
+
+    //endregion
+
+    //region > of, create
+
+    /**
+     * A (new, uncached) invoker using {@link Strategy#REFLECTION reflection}, for those callers that have no
+     * {@link MethodInvokerCache} to hand.
+     */
+    public static MethodInvoker of(final Method method) {
+        return new UsingReflection(method);
+    }
+
+    public static MethodInvoker create(final Method method, final Strategy strategy) {
+        if(strategy == Strategy.METHOD_HANDLES) {
+            try {
+                return new UsingMethodHandle(method);
+            } catch (final IllegalAccessException e) {
+                // eg a public method of a non-public class; fall through
+            }
+        }
+        return new UsingReflection(method);
+    }
+
+    //endregion
+
+    //region > constructor, getMethod, getParameterTypes, getNullOrDefaultArgs
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    protected final Method method;
+    private final Class<?>[] parameterTypes;
+    private final Object[] nullOrDefaultArgs;
+
+    MethodInvoker(final Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.nullOrDefaultArgs = parameterTypes.length == 0 ? NO_ARGS : MethodExtensions.getNullOrDefaultArgs(method);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * As per {@link Method#getParameterTypes()}, but not copied; must not be modified.
+     */
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * As per {@link MethodExtensions#getNullOrDefaultArgs(Method)}, but not copied; must not be modified.
+     */
+    public Object[] getNullOrDefaultArgs() {
+        return nullOrDefaultArgs;
+    }
+
+    //endregion
+
+    /**
+     * As per {@link Method#invoke(Object, Object...)}.
+     */
+    public abstract Object invoke(final Object target, final Object[] arguments)
+            throws IllegalAccessException, InvocationTargetException;
+
+    //region > UsingReflection
+
+    static class UsingReflection extends MethodInvoker {
+
+        UsingReflection(final Method method) {
+            super(method);
+        }
+
+        @Override
+        public Object invoke(final Object target, final Object[] arguments)
+                throws IllegalAccessException, InvocationTargetException {
+            return method.invoke(target, arguments);
+        }
+    }
+
+    //endregion
+
+    //region > UsingMethodHandle
+
+    static class UsingMethodHandle extends MethodInvoker {
+
+        /**
+         * Of type <tt>(Object, Object[])Object</tt>, irrespective of the method's signature.
+         */
+        private final MethodHandle methodHandle;
+        private final boolean isStatic;
+        private final Class<?>[] wrappedParameterTypes;
+
+        UsingMethodHandle(final Method method) throws IllegalAccessException {
+            super(method);
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+
+            final Class<?>[] parameterTypes = getParameterTypes();
+            this.wrappedParameterTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                wrappedParameterTypes[i] = Primitives.wrap(parameterTypes[i]);
+            }
+
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if(isStatic) {
+                methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+            }
+            this.methodHandle = methodHandle
+                    .asType(MethodType.genericMethodType(parameterTypes.length + 1))
+                    .asSpreader(Object[].class, parameterTypes.length);
+        }
+
+        @Override
+        public Object invoke(final Object target, final Object[] arguments)
+                throws IllegalAccessException, InvocationTargetException {
+            final Object[] args = arguments != null ? arguments : NO_ARGS;
+            if(!isInvocable(target, args)) {
+                // let reflection convert the arguments, or throw the appropriate exception
+                return method.invoke(target, arguments);
+            }
+            try {
+                return (Object) methodHandle.invokeExact(target, args);
+            } catch (final Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+        /**
+         * Whether the target and arguments can be passed to the method handle as is, without conversion.
+         */
+        private boolean isInvocable(final Object target, final Object[] args) {
+            if(!isStatic && !method.getDeclaringClass().isInstance(target)) {
+                return false;
+            }
+            if(args.length != wrappedParameterTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                final Object arg = args[i];
+                if(arg == null) {
+                    if(getParameterTypes()[i].isPrimitive()) {
+                        return false;
+                    }
+                } else if(!wrappedParameterTypes[i].isInstance(arg)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,70 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.commons.lang;
+
+import java.lang.reflect.Method;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * A bounded cache of {@link MethodInvoker}s, all created using the same {@link MethodInvoker.Strategy strategy}.
+ *
+ * <p>
+ *     Owned by the {@link org.apache.isis.core.metamodel.specloader.SpecificationLoader}, so that the cached
+ *     {@link Method}s (and hence their classes and class loaders) are released along with the metamodel.
+ * </p>
+ */
+public class MethodInvokerCache {
+
+    public static final int MAXIMUM_SIZE_DEFAULT = 10000;
+
+    private final MethodInvoker.Strategy strategy;
+    private final LoadingCache<Method, MethodInvoker> invokerByMethod;
+
+    public MethodInvokerCache(final MethodInvoker.Strategy strategy, final long maximumSize) {
+        this.strategy = strategy;
+        this.invokerByMethod = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<Method, MethodInvoker>() {
+                    @Override
+                    public MethodInvoker load(final Method method) {
+                        return MethodInvoker.create(method, MethodInvokerCache.this.strategy);
+                    }
+                });
+    }
+
+    public MethodInvoker.Strategy getStrategy() {
+        return strategy;
+    }
+
+    public MethodInvoker invokerFor(final Method method) {
+        return invokerByMethod.getUnchecked(method);
+    }
+
+    public long size() {
+        return invokerByMethod.size();
+    }
+
+    public void invalidateAll() {
+        invokerByMethod.invalidateAll();
+    }
+
+}
@@ -30,6 +30,7 @@
 import org.apache.isis.core.commons.lang.ClassExtensions;
 import org.apache.isis.core.commons.lang.ListExtensions;
 import org.apache.isis.core.commons.lang.MethodExtensions;
+import org.apache.isis.core.commons.lang.MethodInvoker;
 import org.apache.isis.core.commons.lang.MethodUtil;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.adapter.oid.ParentedCollectionOid;
@@ -37,7 +38,6 @@
 import org.apache.isis.core.metamodel.adapter.version.ConcurrencyException;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
-import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionFacet;
 import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
 import org.apache.isis.core.metamodel.interactions.InteractionUtils;
@@ -342,8 +342,7 @@ public static boolean isVisible(
         private static boolean isVisibleForUser(final ObjectAdapter adapter) {
             final VisibilityContext<?> context = createVisibleInteractionContextForUser(adapter);
             final ObjectSpecification objectSpecification = adapter.getSpecification();
-            final InteractionResult visibleResult = InteractionUtils.isVisibleResult(objectSpecification, context);
-            return visibleResult.isNotVetoing();
+            return InteractionUtils.isVisible(objectSpecification, context);
         }
 
         private static VisibilityContext<?> createVisibleInteractionContextForUser(
@@ -373,6 +372,15 @@ public static Object invoke(final Method method, final ObjectAdapter adapter) {
             return MethodExtensions.invoke(method, Util.unwrap(adapter));
         }
 
+        /**
+         * As {@link #invoke(Method, ObjectAdapter)}, using an invoker obtained (once, or from the
+         * {@link org.apache.isis.core.metamodel.specloader.SpecificationLoader#invokerFor(Method) cache}) by the
+         * caller.
+         */
+        public static Object invoke(final MethodInvoker invoker, final ObjectAdapter adapter) {
+            return MethodExtensions.invoke(invoker, Util.unwrap(adapter));
+        }
+
         public static Object invoke(final Method method, final ObjectAdapter adapter, final Object arg0) {
             return MethodExtensions.invoke(method, Util.unwrap(adapter), new Object[] {arg0});
         }
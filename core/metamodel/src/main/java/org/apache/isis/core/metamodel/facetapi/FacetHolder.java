@@ -65,6 +65,16 @@ public interface FacetHolder {
      */
     List<Facet> getFacets(Filter<Facet> filter);
 
+    /**
+     * Returns all {@link Facet}s that are {@link FacetFilters#isA(Class) of the specified type} (typically an
+     * interaction advisor interface), as an immutable list.
+     *
+     * <p>
+     * Unlike {@link #getFacets(Filter)}, the list is cached until the facets of this holder change, so this is
+     * suitable for use in hot paths.
+     */
+    <T> List<T> getFacetsOfType(Class<T> type);
+
     /**
      * Adds the facet, extracting its {@link Facet#facetType() type} as the key.
      * 
@@ -19,9 +19,12 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 
 import org.apache.isis.applib.filter.Filter;
 
@@ -30,7 +33,16 @@
  */
 public class FacetHolderImpl implements FacetHolder {
 
-    private final Map<Class<? extends Facet>, Facet> facetsByClass = new HashMap<Class<? extends Facet>, Facet>();
+    /**
+     * Concurrent (and mutated only while holding this object's monitor) because specifications may be introspected
+     * in parallel, with one thread reading the facets of a spec that another thread is still introspecting.
+     */
+    private final Map<Class<? extends Facet>, Facet> facetsByClass = new ConcurrentHashMap<Class<? extends Facet>, Facet>();
+
+    /**
+     * Lazily populated by {@link #getFacetsOfType(Class)}, discarded whenever a facet is added or removed.
+     */
+    private volatile Map<Class<?>, List<?>> facetsByType;
 
     @Override
     public boolean containsFacet(final Class<? extends Facet> facetType) {
@@ -56,10 +68,14 @@ public void addFacet(final MultiTypedFacet facet) {
         }
     }
 
-    private void addFacet(final Class<? extends Facet> facetType, final Facet facet) {
+    private synchronized void addFacet(final Class<? extends Facet> facetType, final Facet facet) {
+        if (facet == null) {
+            return;
+        }
         final Facet existingFacet = getFacet(facetType);
         if (existingFacet == null || existingFacet.isNoop()) {
             facetsByClass.put(facetType, facet);
+            facetsByType = null;
             return;
         }
         if (!facet.alwaysReplace()) {
@@ -70,16 +86,19 @@ private void addFacet(final Class<? extends Facet> facetType, final Facet facet)
         }
         facet.setUnderlyingFacet(existingFacet);
         facetsByClass.put(facetType, facet);
+        facetsByType = null;
     }
 
     @Override
-    public void removeFacet(final Facet facet) {
+    public synchronized void removeFacet(final Facet facet) {
         FacetUtil.removeFacet(facetsByClass, facet);
+        facetsByType = null;
     }
 
     @Override
-    public void removeFacet(final Class<? extends Facet> facetType) {
+    public synchronized void removeFacet(final Class<? extends Facet> facetType) {
         FacetUtil.removeFacet(facetsByClass, facetType);
+        facetsByType = null;
     }
 
     @Override
@@ -98,4 +117,19 @@ public List<Facet> getFacets(final Filter<Facet> filter) {
         return FacetUtil.getFacets(facetsByClass, filter);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getFacetsOfType(final Class<T> type) {
+        Map<Class<?>, List<?>> facetsByType = this.facetsByType;
+        if (facetsByType == null) {
+            facetsByType = this.facetsByType = Maps.newConcurrentMap();
+        }
+        List<T> facets = (List<T>) facetsByType.get(type);
+        if (facets == null) {
+            facets = (List<T>) ImmutableList.copyOf(getFacets(FacetFilters.isA(type)));
+            facetsByType.put(type, facets);
+        }
+        return facets;
+    }
+
 }
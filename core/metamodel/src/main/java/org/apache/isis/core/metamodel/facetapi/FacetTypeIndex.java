@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facetapi;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocates a small, dense integer id to each {@link Facet#facetType() facet type}, so that resolved facets can be
+ * held in (and looked up from) an array rather than a map.
+ *
+ * <p>
+ *     Ids are allocated on first use and are stable for the lifetime of the classloader of the facet type.
+ * </p>
+ */
+public final class FacetTypeIndex {
+
+    private FacetTypeIndex() {
+    }
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private static final ClassValue<Integer> idByFacetType = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(final Class<?> facetType) {
+            return nextId.getAndIncrement();
+        }
+    };
+
+    public static int idOf(final Class<? extends Facet> facetType) {
+        return idByFacetType.get(facetType);
+    }
+
+    /**
+     * The number of ids allocated so far; all ids are less than this.
+     */
+    public static int size() {
+        return nextId.get();
+    }
+
+}
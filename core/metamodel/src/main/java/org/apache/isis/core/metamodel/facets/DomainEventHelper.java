@@ -45,6 +45,7 @@
 import org.apache.isis.core.metamodel.services.ServicesInjector;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
 import org.apache.isis.core.metamodel.spec.feature.ObjectActionParameter;
+import org.apache.isis.core.metamodel.util.EventUtil;
 
 public class DomainEventHelper {
 
@@ -69,6 +70,11 @@ public ActionDomainEvent<?> postEventForAction(
             final Command command,
             final ObjectAdapter resultAdapter) {
 
+        if(!phase.isExecutingOrLater() && !hasPotentialSubscriberTo(eventType)) {
+            // no subscriber that could hide, disable or invalidate
+            return null;
+        }
+
         try {
             final ActionDomainEvent<?> event;
 
@@ -140,22 +146,17 @@ static <S> ActionDomainEvent<S> newActionDomainEvent(
             final S source,
             final Object... arguments) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 
-        final Constructor<?>[] constructors = type.getConstructors();
-
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length == 0) {
-                final Object event = constructor.newInstance();
-                final ActionDomainEvent<S> ade = (ActionDomainEvent<S>) event;
-
-                ade.setSource(source);
-                ade.setIdentifier(identifier);
-                ade.setArguments(asList(arguments));
-                return ade;
-            }
+        if(EventUtil.hasNoArgConstructor(type)) {
+            final ActionDomainEvent<S> ade = EventUtil.newEvent(type);
+
+            ade.setSource(source);
+            ade.setIdentifier(identifier);
+            ade.setArguments(asList(arguments));
+            return ade;
         }
 
+        final Constructor<?>[] constructors = type.getConstructors();
 
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
@@ -195,6 +196,11 @@ private static List<Object> asList(final Object[] arguments) {
             final Object oldValue,
             final Object newValue) {
 
+        if(!phase.isExecutingOrLater() && !hasPotentialSubscriberTo(eventType)) {
+            // no subscriber that could hide, disable or invalidate
+            return null;
+        }
+
         try {
             final PropertyDomainEvent<?, ?> event;
             final Object source = ObjectAdapter.Util.unwrap(targetAdapter);
@@ -233,23 +239,18 @@ static <S,T> PropertyDomainEvent<S,T> newPropertyDomainEvent(
             final T oldValue,
             final T newValue) throws NoSuchMethodException, SecurityException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException  {
 
-        final Constructor<?>[] constructors = type.getConstructors();
-
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length == 0) {
-                final Object event = constructor.newInstance();
-                final PropertyDomainEvent<S, T> pde = (PropertyDomainEvent<S, T>) event;
-                pde.setSource(source);
-                pde.setIdentifier(identifier);
-                pde.setOldValue(oldValue);
-                pde.setNewValue(newValue);
-                return pde;
-            }
+        if(EventUtil.hasNoArgConstructor(type)) {
+            final PropertyDomainEvent<S, T> pde = EventUtil.newEvent(type);
+            pde.setSource(source);
+            pde.setIdentifier(identifier);
+            pde.setOldValue(oldValue);
+            pde.setNewValue(newValue);
+            return pde;
         }
 
         // else
+        final Constructor<?>[] constructors = type.getConstructors();
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
             if(parameterTypes.length != 4) {
@@ -285,6 +286,12 @@ static <S,T> PropertyDomainEvent<S,T> newPropertyDomainEvent(
             final ObjectAdapter targetAdapter,
             final CollectionDomainEvent.Of of,
             final Object reference) {
+
+        if(!phase.isExecutingOrLater() && !hasPotentialSubscriberTo(eventType)) {
+            // no subscriber that could hide, disable or invalidate
+            return null;
+        }
+
         try {
             final CollectionDomainEvent<?, ?> event;
             if (existingEvent != null && phase.isExecuted()) {
@@ -318,23 +325,18 @@ <S, T> CollectionDomainEvent<S, T> newCollectionDomainEvent(
             throws NoSuchMethodException, SecurityException, InstantiationException,
             IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        final Constructor<?>[] constructors = type.getConstructors();
-
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length ==0) {
-                final Object event = constructor.newInstance();
-                final CollectionDomainEvent<S, T> cde = (CollectionDomainEvent<S, T>) event;
-
-                cde.setSource(source);
-                cde.setIdentifier(identifier);
-                cde.setOf(of);
-                cde.setValue(value);
-                return cde;
-            }
+        if(EventUtil.hasNoArgConstructor(type)) {
+            final CollectionDomainEvent<S, T> cde = EventUtil.newEvent(type);
+
+            cde.setSource(source);
+            cde.setIdentifier(identifier);
+            cde.setOf(of);
+            cde.setValue(value);
+            return cde;
         }
 
+        final Constructor<?>[] constructors = type.getConstructors();
         // search for constructor accepting source, identifier, type, value
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
@@ -409,6 +411,11 @@ <S, T> CollectionDomainEvent<S, T> newCollectionDomainEvent(
 
     //region > eventBusService
 
+    private boolean hasPotentialSubscriberTo(final Class<?> eventType) {
+        final EventBusService eventBusService = getEventBusService();
+        return eventBusService == null || eventBusService.hasPotentialSubscriberTo(eventType);
+    }
+
     private EventBusService getEventBusService() {
         // previously this method used to cache, however it prevents integration tests
         // from switching out the EventBusService with a mock.
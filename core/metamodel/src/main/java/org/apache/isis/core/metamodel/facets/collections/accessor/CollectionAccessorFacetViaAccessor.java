@@ -75,7 +75,8 @@ public Intent getIntent(final Method method) {
     public Object getProperty(
             final ObjectAdapter owningAdapter,
             final InteractionInitiatedBy interactionInitiatedBy) {
-        final Object collectionOrArray = ObjectAdapter.InvokeUtils.invoke(method, owningAdapter);
+        final Object collectionOrArray =
+                ObjectAdapter.InvokeUtils.invoke(getSpecificationLoader().invokerFor(method), owningAdapter);
 
         final ObjectAdapter collectionAdapter = getAdapterManager().adapterFor(collectionOrArray);
 
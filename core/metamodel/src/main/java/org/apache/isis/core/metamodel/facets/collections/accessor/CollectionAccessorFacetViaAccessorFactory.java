@@ -58,6 +58,7 @@ private void attachAccessorFacetForAccessorMethod(final ProcessMethodContext pro
                         getDeploymentCategory(), getConfiguration(), getSpecificationLoader(),
                         getAuthenticationSessionProvider(), adapterManager
                 ));
+        FacetUtil.addFacet(new CollectionCountFacetViaAccessor(accessorMethod, holder));
     }
 
 
@@ -0,0 +1,64 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets.collections.accessor;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.facets.collections.count.CollectionCountFacetAbstract;
+
+/**
+ * Counts the elements of the collection returned by the accessor using its <tt>size()</tt> (or the length of the
+ * array), rather than iterating over them.
+ *
+ * <p>
+ * For a collection managed by the object store this need not load the elements at all; DataNucleus' lazily-loaded
+ * collection wrappers, for example, answer <tt>size()</tt> by querying the datastore.
+ */
+public class CollectionCountFacetViaAccessor extends CollectionCountFacetAbstract {
+
+    private final Method method;
+
+    public CollectionCountFacetViaAccessor(final Method method, final FacetHolder holder) {
+        super(holder);
+        this.method = method;
+    }
+
+    @Override
+    public int count(final ObjectAdapter owningAdapter) {
+        final Object collectionOrArray = ObjectAdapter.InvokeUtils.invoke(method, owningAdapter);
+        if(collectionOrArray == null) {
+            return 0;
+        }
+        if(collectionOrArray instanceof Collection) {
+            return ((Collection<?>) collectionOrArray).size();
+        }
+        return Array.getLength(collectionOrArray);
+    }
+
+    @Override
+    protected String toStringValues() {
+        return "method=" + method;
+    }
+
+}
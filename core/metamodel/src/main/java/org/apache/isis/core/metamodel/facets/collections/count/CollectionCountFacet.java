@@ -0,0 +1,37 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets.collections.count;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+
+/**
+ * Counts the elements of a collection without resolving (and creating adapters for) each of them.
+ *
+ * <p>
+ * Note that the count is of all of the elements, irrespective of whether they would be visible to the current
+ * user; see <tt>OneToManyAssociation#count(ObjectAdapter, InteractionInitiatedBy)</tt>, which only uses this facet
+ * when none of the elements could be hidden.
+ */
+public interface CollectionCountFacet extends Facet {
+
+    int count(ObjectAdapter owningAdapter);
+
+}
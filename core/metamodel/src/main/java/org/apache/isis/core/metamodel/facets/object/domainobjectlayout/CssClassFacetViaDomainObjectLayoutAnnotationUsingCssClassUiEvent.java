@@ -80,6 +80,10 @@ public CssClassFacetViaDomainObjectLayoutAnnotationUsingCssClassUiEvent(
     @Override
     public String cssClass(final ObjectAdapter objectAdapter) {
 
+        if(!eventBusService.hasPotentialSubscriberTo(cssClassUiEventClass)) {
+            return null;
+        }
+
         final CssClassUiEvent<Object> cssClassUiEvent = newCssClassUiEvent(objectAdapter);
 
         eventBusService.post(cssClassUiEvent);
@@ -95,7 +99,7 @@ private CssClassUiEvent<Object> newCssClassUiEvent(final ObjectAdapter owningAda
 
     private CssClassUiEvent<Object> newCssClassUiEvent(final Object domainObject) {
         try {
-            final CssClassUiEvent<Object> cssClassUiEvent = (CssClassUiEvent<Object>) cssClassUiEventClass.newInstance();
+            final CssClassUiEvent<Object> cssClassUiEvent = (CssClassUiEvent<Object>) EventUtil.newEvent(cssClassUiEventClass);
             cssClassUiEvent.setSource(domainObject);
             return cssClassUiEvent;
         } catch (InstantiationException | IllegalAccessException ex) {
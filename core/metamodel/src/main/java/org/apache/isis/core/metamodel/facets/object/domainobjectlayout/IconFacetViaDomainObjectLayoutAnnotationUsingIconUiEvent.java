@@ -77,6 +77,10 @@ public IconFacetViaDomainObjectLayoutAnnotationUsingIconUiEvent(
     @Override
     public String iconName(final ObjectAdapter owningAdapter) {
 
+        if(!eventBusService.hasPotentialSubscriberTo(iconUiEventClass)) {
+            return null;
+        }
+
         final IconUiEvent<Object> iconUiEvent = newIconUiEvent(owningAdapter);
 
         eventBusService.post(iconUiEvent);
@@ -92,7 +96,7 @@ private IconUiEvent<Object> newIconUiEvent(final ObjectAdapter owningAdapter) {
 
     private IconUiEvent<Object> newIconUiEvent(final Object domainObject) {
         try {
-            final IconUiEvent<Object> iconUiEvent = (IconUiEvent<Object>) iconUiEventClass.newInstance();
+            final IconUiEvent<Object> iconUiEvent = (IconUiEvent<Object>) EventUtil.newEvent(iconUiEventClass);
             iconUiEvent.setSource(domainObject);
             return iconUiEvent;
         } catch (InstantiationException | IllegalAccessException ex) {
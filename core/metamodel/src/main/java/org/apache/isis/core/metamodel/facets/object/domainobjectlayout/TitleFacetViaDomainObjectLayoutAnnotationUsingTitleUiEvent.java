@@ -89,6 +89,10 @@ public TitleFacetViaDomainObjectLayoutAnnotationUsingTitleUiEvent(
     @Override
     public String title(final ObjectAdapter owningAdapter) {
 
+        if(!eventBusService.hasPotentialSubscriberTo(titleUiEventClass)) {
+            return null;
+        }
+
         final TitleUiEvent<Object> titleUiEvent = newTitleUiEvent(owningAdapter);
 
         eventBusService.post(titleUiEvent);
@@ -108,7 +112,7 @@ private TitleUiEvent<Object> newTitleUiEvent(final ObjectAdapter owningAdapter)
 
     private TitleUiEvent<Object> newTitleUiEvent(final Object domainObject) {
         try {
-            final TitleUiEvent<Object> titleUiEvent = (TitleUiEvent<Object>) titleUiEventClass.newInstance();
+            final TitleUiEvent<Object> titleUiEvent = (TitleUiEvent<Object>) EventUtil.newEvent(titleUiEventClass);
             titleUiEvent.setSource(domainObject);
             return titleUiEvent;
         } catch (InstantiationException | IllegalAccessException ex) {
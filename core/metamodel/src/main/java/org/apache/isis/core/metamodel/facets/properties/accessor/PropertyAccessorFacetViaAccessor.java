@@ -72,7 +72,8 @@ public Intent getIntent(final Method method) {
     public Object getProperty(
             final ObjectAdapter owningAdapter,
             final InteractionInitiatedBy interactionInitiatedBy) {
-        final Object referencedObject = ObjectAdapter.InvokeUtils.invoke(method, owningAdapter);
+        final Object referencedObject =
+                ObjectAdapter.InvokeUtils.invoke(getSpecificationLoader().invokerFor(method), owningAdapter);
 
         if(referencedObject == null) {
             return null;
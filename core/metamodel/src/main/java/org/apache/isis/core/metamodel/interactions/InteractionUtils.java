@@ -23,8 +23,6 @@
 
 import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.consent.InteractionResultSet;
-import org.apache.isis.core.metamodel.facetapi.Facet;
-import org.apache.isis.core.metamodel.facetapi.FacetFilters;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 
 public final class InteractionUtils {
@@ -34,35 +32,77 @@ private InteractionUtils() {
 
     public static InteractionResult isVisibleResult(final FacetHolder facetHolder, final VisibilityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(HidingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final HidingInteractionAdvisor advisor = (HidingInteractionAdvisor) facet;
+        final List<HidingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            final HidingInteractionAdvisor advisor = advisors.get(i);
             result.advise(advisor.hides(context), advisor);
         }
         return result;
     }
 
+    /**
+     * As {@link #isVisibleResult(FacetHolder, VisibilityContext)}, but returning as soon as any advisor hides, and
+     * without creating an {@link InteractionResult}; for callers that don't need the reason.
+     */
+    public static boolean isVisible(final FacetHolder facetHolder, final VisibilityContext<?> context) {
+        final List<HidingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            if (advisors.get(i).hides(context) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static InteractionResult isUsableResult(final FacetHolder facetHolder, final UsabilityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(DisablingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final DisablingInteractionAdvisor advisor = (DisablingInteractionAdvisor) facet;
+        final List<DisablingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(DisablingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            final DisablingInteractionAdvisor advisor = advisors.get(i);
             final String disables = advisor.disables(context);
             result.advise(disables, advisor);
         }
         return result;
     }
 
+    /**
+     * As {@link #isUsableResult(FacetHolder, UsabilityContext)}, but returning as soon as any advisor disables, and
+     * without creating an {@link InteractionResult}; for callers that don't need the reason.
+     */
+    public static boolean isUsable(final FacetHolder facetHolder, final UsabilityContext<?> context) {
+        final List<DisablingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(DisablingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            if (advisors.get(i).disables(context) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static InteractionResult isValidResult(final FacetHolder facetHolder, final ValidityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(ValidatingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final ValidatingInteractionAdvisor advisor = (ValidatingInteractionAdvisor) facet;
+        final List<ValidatingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(ValidatingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            final ValidatingInteractionAdvisor advisor = advisors.get(i);
             result.advise(advisor.invalidates(context), advisor);
         }
         return result;
     }
 
+    /**
+     * As {@link #isValidResult(FacetHolder, ValidityContext)}, but returning as soon as any advisor invalidates, and
+     * without creating an {@link InteractionResult}; for callers that don't need the reason.
+     */
+    public static boolean isValid(final FacetHolder facetHolder, final ValidityContext<?> context) {
+        final List<ValidatingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(ValidatingInteractionAdvisor.class);
+        for (int i = 0; i < advisors.size(); i++) {
+            if (advisors.get(i).invalidates(context) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static InteractionResultSet isValidResultSet(final FacetHolder facetHolder, final ValidityContext<?> context, final InteractionResultSet resultSet) {
         return resultSet.add(isValidResult(facetHolder, context));
     }
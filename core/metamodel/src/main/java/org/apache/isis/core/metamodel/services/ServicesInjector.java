@@ -26,6 +26,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 
@@ -46,6 +47,7 @@
 import org.apache.isis.core.commons.components.ApplicationScopedComponent;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.commons.lang.MethodInvoker;
 import org.apache.isis.core.commons.util.ToString;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategoryProvider;
@@ -155,6 +157,7 @@ public <T> void replaceService(final T existingService, final T replacementServi
         // invalidate
         servicesAssignableToType.clear();
         serviceByConcreteType.clear();
+        invalidateInjectionPlans();
         autowire();
     }
 
@@ -176,6 +179,7 @@ public <T> void addFallbackIfRequired(final Class<T> serviceClass, final T servi
             // FixtureScriptsDefault so that appears it top of prototyping menu; not
             // more flexible than this currently just because of YAGNI).
             services.add(0, serviceInstance);
+            invalidateInjectionPlans();
         }
     }
 
@@ -276,20 +280,54 @@ public void injectInto(final Object candidate) {
     //region > helpers
 
     private void injectServices(final Object object, final List<Object> services) {
+        final InjectionPlan injectionPlan = injectionPlanFor(object.getClass(), services);
+        injectionPlan.injectInto(object);
+    }
+
+    //endregion
 
-        final Class<?> cls = object.getClass();
+    //region > injection plans
 
-        autowireViaFields(object, services, cls);
+    /**
+     * The {@link InjectionPlan} for each class that services have been injected into, computed from the services
+     * registered at that time.
+     *
+     * <p>
+     *     Replaced (rather than cleared) whenever the registered services change, so that a plan still being
+     *     computed from the previous services is not retained.
+     * </p>
+     */
+    private volatile ConcurrentMap<Class<?>, InjectionPlan> injectionPlanByClass = Maps.newConcurrentMap();
+
+    private InjectionPlan injectionPlanFor(final Class<?> cls, final List<Object> services) {
+        final ConcurrentMap<Class<?>, InjectionPlan> injectionPlans = injectionPlanByClass;
+        InjectionPlan injectionPlan = injectionPlans.get(cls);
+        if(injectionPlan == null) {
+            injectionPlan = newInjectionPlan(cls, services);
+            injectionPlans.put(cls, injectionPlan);
+        }
+        return injectionPlan;
+    }
+
+    private void invalidateInjectionPlans() {
+        injectionPlanByClass = Maps.newConcurrentMap();
+    }
+
+    private InjectionPlan newInjectionPlan(final Class<?> cls, final List<Object> services) {
+        final List<Injection> injections = Lists.newArrayList();
+
+        autowireViaFields(injections, services, cls);
 
         if(autowireSetters) {
-            autowireViaPrefixedMethods(object, services, cls, "set");
+            autowireViaPrefixedMethods(injections, services, cls, "set");
         }
         if(autowireInject) {
-            autowireViaPrefixedMethods(object, services, cls, "inject");
+            autowireViaPrefixedMethods(injections, services, cls, "inject");
         }
+        return new InjectionPlan(injections);
     }
 
-    private void autowireViaFields(final Object object, final List<Object> services, final Class<?> cls) {
+    private void autowireViaFields(final List<Injection> injections, final List<Object> services, final Class<?> cls) {
         final List<Field> fields = Arrays.asList(cls.getDeclaredFields());
         final Iterable<Field> injectFields = Iterables.filter(fields, new Predicate<Field>() {
             @Override
@@ -300,18 +338,18 @@ public boolean apply(final Field input) {
         });
 
         for (final Field field : injectFields) {
-            autowire(object, field, services);
+            autowire(injections, field, services);
         }
 
         // recurse up the object's class hierarchy
         final Class<?> superclass = cls.getSuperclass();
         if(superclass != null) {
-            autowireViaFields(object, services, superclass);
+            autowireViaFields(injections, services, superclass);
         }
     }
 
     private void autowire(
-            final Object object,
+            final List<Injection> injections,
             final Field field,
             final List<Object> services) {
 
@@ -337,21 +375,21 @@ public boolean apply(final Object input) {
                                                 return input != null && listType.isAssignableFrom(input.getClass());
                                             }
                                         })));
-                invokeInjectorField(field, object, listOfServices);
+                injections.add(new FieldInjection(field, listOfServices));
             }
         }
 
         for (final Object service : services) {
             final Class<?> serviceClass = service.getClass();
             if(type.isAssignableFrom(serviceClass)) {
-                invokeInjectorField(field, object, service);
+                injections.add(new FieldInjection(field, service));
                 return;
             }
         }
     }
 
     private void autowireViaPrefixedMethods(
-            final Object object,
+            final List<Injection> injections,
             final List<Object> services,
             final Class<?> cls,
             final String prefix) {
@@ -364,69 +402,114 @@ public boolean apply(final Method method) {
         });
 
         for (final Method prefixedMethod : prefixedMethods) {
-            autowire(object, prefixedMethod, services);
+            autowire(injections, prefixedMethod, services);
         }
     }
 
     private void autowire(
-            final Object object,
+            final List<Injection> injections,
             final Method prefixedMethod,
             final List<Object> services) {
         for (final Object service : services) {
             final Class<?> serviceClass = service.getClass();
             final boolean isInjectorMethod = injectorMethodEvaluator.isInjectorMethodFor(prefixedMethod, serviceClass);
             if(isInjectorMethod) {
-                prefixedMethod.setAccessible(true);
-                invokeInjectorMethod(prefixedMethod, object, service);
+                injections.add(new MethodInjection(prefixedMethod, service));
                 return;
             }
         }
     }
 
-    private static void invokeMethod(final Method method, final Object target, final Object[] parameters) {
-        try {
-            method.invoke(target, parameters);
-        } catch (final SecurityException | IllegalAccessException e) {
-            throw new MetaModelException(String.format("Cannot access the %s method in %s", method.getName(), target.getClass().getName()));
-        } catch (final IllegalArgumentException e1) {
-            throw new MetaModelException(e1);
-        } catch (final InvocationTargetException e) {
-            final Throwable targetException = e.getTargetException();
-            if (targetException instanceof RuntimeException) {
-                throw (RuntimeException) targetException;
-            } else {
-                throw new MetaModelException(targetException);
+    /**
+     * The fields to set and the injector methods to call (along with the services to inject) for instances of a
+     * particular class.
+     */
+    static class InjectionPlan {
+
+        private final Injection[] injections;
+
+        InjectionPlan(final List<Injection> injections) {
+            this.injections = injections.toArray(new Injection[injections.size()]);
+        }
+
+        void injectInto(final Object target) {
+            for (final Injection injection : injections) {
+                injection.injectInto(target);
             }
         }
     }
 
-    private static void invokeInjectorField(final Field field, final Object target, final Object parameter) {
-        try {
-            field.setAccessible(true);
-            field.set(target, parameter);
-        } catch (final IllegalArgumentException e) {
-            throw new MetaModelException(e);
-        } catch (final IllegalAccessException e) {
-            throw new MetaModelException(String.format("Cannot access the %s field in %s", field.getName(), target.getClass().getName()));
-        }
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("injected " + parameter + " into " + new ToString(target));
+    static abstract class Injection {
+
+        protected final Object parameter;
+
+        Injection(final Object parameter) {
+            this.parameter = parameter;
         }
+
+        abstract void injectInto(final Object target);
     }
 
-    private static void invokeInjectorMethod(final Method method, final Object target, final Object parameter) {
-        final Object[] parameters = new Object[] { parameter };
-        invokeMethod(method, target, parameters);
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("injected " + parameter + " into " + new ToString(target));
+    static class FieldInjection extends Injection {
+
+        private final Field field;
+
+        FieldInjection(final Field field, final Object parameter) {
+            super(parameter);
+            this.field = field;
+            field.setAccessible(true);
+        }
+
+        @Override
+        void injectInto(final Object target) {
+            try {
+                field.set(target, parameter);
+            } catch (final IllegalArgumentException e) {
+                throw new MetaModelException(e);
+            } catch (final IllegalAccessException e) {
+                throw new MetaModelException(String.format("Cannot access the %s field in %s", field.getName(), target.getClass().getName()));
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("injected " + parameter + " into " + new ToString(target));
+            }
         }
     }
 
+    static class MethodInjection extends Injection {
 
+        private final Method method;
+        private final MethodInvoker invoker;
 
+        MethodInjection(final Method method, final Object parameter) {
+            super(parameter);
+            this.method = method;
+            method.setAccessible(true);
+            this.invoker = MethodInvoker.of(method);
+        }
 
-    //endregion
+        @Override
+        void injectInto(final Object target) {
+            try {
+                invoker.invoke(target, new Object[] { parameter });
+            } catch (final SecurityException | IllegalAccessException e) {
+                throw new MetaModelException(String.format("Cannot access the %s method in %s", method.getName(), target.getClass().getName()));
+            } catch (final IllegalArgumentException e1) {
+                throw new MetaModelException(e1);
+            } catch (final InvocationTargetException e) {
+                final Throwable targetException = e.getTargetException();
+                if (targetException instanceof RuntimeException) {
+                    throw (RuntimeException) targetException;
+                } else {
+                    throw new MetaModelException(targetException);
+                }
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("injected " + parameter + " into " + new ToString(target));
+            }
+        }
+    }
 
+    //endregion
 
 
     //region > autoWire
@@ -23,6 +23,7 @@
 
 import javax.inject.Inject;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.apache.isis.applib.annotation.DomainService;
@@ -97,6 +98,35 @@ public Object lookup(
 
 
 
+    @Programmatic
+    @Override
+    public List<Object> lookupAll(
+            final List<Bookmark> bookmarks,
+            final FieldResetPolicy fieldResetPolicy) {
+
+        // services are resolved here; everything else is delegated as a single batch
+        final List<Object> objects = Lists.newArrayList();
+        final List<Bookmark> bookmarksToLookup = Lists.newArrayList();
+        final List<Integer> indicesToLookup = Lists.newArrayList();
+        for (final Bookmark bookmark : bookmarks) {
+            final Object service = bookmark != null ? lookupService(bookmark.getObjectType()) : null;
+            if(bookmark != null && service == null) {
+                indicesToLookup.add(objects.size());
+                bookmarksToLookup.add(bookmark);
+            }
+            objects.add(service);
+        }
+        if(bookmarksToLookup.isEmpty()) {
+            return objects;
+        }
+
+        final List<Object> lookedUp = persistenceSessionServiceInternal.lookupAll(bookmarksToLookup, fieldResetPolicy);
+        for (int i = 0; i < indicesToLookup.size(); i++) {
+            objects.set(indicesToLookup.get(i), lookedUp.get(i));
+        }
+        return objects;
+    }
+
     @Programmatic
     @Override
     public Object lookup(final Bookmark bookmark) {
@@ -22,6 +22,7 @@
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.applib.services.xactn.Transaction;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
@@ -79,6 +80,15 @@ public interface PersistenceSessionServiceInternal extends AdapterManager {
     @Programmatic
     Object lookup(Bookmark bookmark, final BookmarkService2.FieldResetPolicy fieldResetPolicy);
 
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Called by <tt>BookmarkServicesDefault</tt>.
+     */
+    @Programmatic
+    List<Object> lookupAll(List<Bookmark> bookmarks, final BookmarkService2.FieldResetPolicy fieldResetPolicy);
+
     @Programmatic
     Bookmark bookmarkFor(Object domainObject);
 
@@ -137,9 +147,27 @@ public interface PersistenceSessionServiceInternal extends AdapterManager {
     @Programmatic
     void remove(ObjectAdapter adapter);
 
+    /**
+     * As {@link #makePersistent(ObjectAdapter)}, but for many adapters at once.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    void makePersistentAll(List<ObjectAdapter> adapters);
+
+    /**
+     * As {@link #remove(ObjectAdapter)}, but for many adapters at once.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    void removeAll(List<ObjectAdapter> adapters);
+
     //endregion
 
-    //region > allMatchingQuery, firstMatchingQuery
+    //region > allMatchingQuery, streamMatchingQuery, countMatchingQuery, firstMatchingQuery
     /**
      * Provided by <tt>PersistenceSession</tt> when used by framework.
      *
@@ -150,6 +178,38 @@ public interface PersistenceSessionServiceInternal extends AdapterManager {
     @Programmatic
     <T> List<ObjectAdapter> allMatchingQuery(Query<T> query);
 
+    /**
+     * As {@link #allMatchingQuery(Query)}, but obtaining the results lazily, <tt>fetchSize</tt> at a time, and only
+     * mapping each to an adapter as it is iterated over.
+     *
+     * <p>
+     * If <tt>evict</tt> is set, then each (unmodified) object is evicted from the session once the iteration has
+     * moved past it.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> CloseableIterator<ObjectAdapter> streamMatchingQuery(Query<T> query, int fetchSize, boolean evict);
+
+    /**
+     * Evicts the (persistent) object from the session, unless it has been modified.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>, for streamed objects that it does not return.
+     */
+    @Programmatic
+    void evictIfUnmodified(ObjectAdapter adapter);
+
+    /**
+     * The number of objects that {@link #allMatchingQuery(Query)} would return, without loading them.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> long countMatchingQuery(Query<T> query);
+
     /**
      * Provided by <tt>PersistenceSession</tt> when used by framework.
      *
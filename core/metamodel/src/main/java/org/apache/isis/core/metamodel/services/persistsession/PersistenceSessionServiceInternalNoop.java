@@ -25,6 +25,7 @@
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.applib.services.xactn.Transaction;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.oid.Oid;
@@ -86,6 +87,13 @@ public Object lookup(
         throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
     }
 
+    @Override
+    public List<Object> lookupAll(
+            final List<Bookmark> bookmarks,
+            final BookmarkService2.FieldResetPolicy fieldResetPolicy) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
     @Override
     public Bookmark bookmarkFor(Object domainObject) {
         throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
@@ -141,6 +149,16 @@ public void makePersistent(final ObjectAdapter adapter) {
         throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
     }
 
+    @Override
+    public void removeAll(final List<ObjectAdapter> adapters) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
+    @Override
+    public void makePersistentAll(final List<ObjectAdapter> adapters) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
     @Override
     public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
         throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
@@ -151,4 +169,20 @@ public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
         throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
     }
 
+    @Override
+    public <T> CloseableIterator<ObjectAdapter> streamMatchingQuery(
+            final Query<T> query, final int fetchSize, final boolean evict) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
+    @Override
+    public void evictIfUnmodified(final ObjectAdapter adapter) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
+    @Override
+    public <T> long countMatchingQuery(final Query<T> query) {
+        throw new UnsupportedOperationException("Not supported by this implementation of PersistenceSessionServiceInternal");
+    }
+
 }
@@ -20,12 +20,14 @@
 package org.apache.isis.core.metamodel.services.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import javax.annotation.PostConstruct;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 
 import org.apache.isis.applib.PersistFailedException;
 import org.apache.isis.applib.RepositoryException;
@@ -34,7 +36,10 @@
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindByPredicate;
+import org.apache.isis.applib.query.QueryPredicate;
 import org.apache.isis.applib.services.factory.FactoryService;
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.applib.services.repository.RepositoryService;
 import org.apache.isis.applib.services.wrapper.WrapperFactory;
 import org.apache.isis.applib.services.xactn.TransactionService;
@@ -49,12 +54,18 @@ public class RepositoryServiceInternalDefault implements RepositoryService {
 
 
     private boolean autoFlush;
+    private int streamFetchSize;
+    private boolean streamEvict;
 
     @Programmatic
     @PostConstruct
     public void init(Map<String, String> properties) {
         final boolean disableAutoFlush = Boolean.parseBoolean(properties.get(KEY_DISABLE_AUTOFLUSH));
         this.autoFlush = !disableAutoFlush;
+
+        final String streamFetchSize = properties.get(KEY_STREAM_FETCH_SIZE);
+        this.streamFetchSize = streamFetchSize != null ? Integer.parseInt(streamFetchSize) : STREAM_FETCH_SIZE_DEFAULT;
+        this.streamEvict = Boolean.parseBoolean(properties.get(KEY_STREAM_EVICT));
     }
 
 
@@ -103,6 +114,26 @@ public void persistAndFlush(final Object object) {
 	transactionService.flushTransaction();
     }
 
+    @Programmatic
+    @Override
+    public void persistAll(final Collection<?> domainObjects) {
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+        for (final Object domainObject : domainObjects) {
+            final ObjectAdapter adapter = persistenceSessionServiceInternal.adapterFor(unwrapped(domainObject));
+            if(adapter == null) {
+                throw new PersistFailedException("Object not known to framework; instantiate using newTransientInstance(...) rather than simply new'ing up.");
+            }
+            if (adapter.representsPersistent() || adapter.isParentedCollection()) {
+                continue;
+            }
+            adapters.add(adapter);
+        }
+        if(adapters.isEmpty()) {
+            return;
+        }
+        persistenceSessionServiceInternal.makePersistentAll(adapters);
+    }
+
     @Override
     @Programmatic
     public void remove(final Object domainObject) {
@@ -131,11 +162,31 @@ public void removeAndFlush(final Object domainObject) {
 	transactionService.flushTransaction();
     }
 
+    @Override
+    @Programmatic
+    public void removeAll(final Collection<?> domainObjects) {
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+        for (final Object domainObject : domainObjects) {
+            if (domainObject == null) {
+                throw new IllegalArgumentException("Must specify a reference for disposing an object");
+            }
+            final ObjectAdapter adapter = persistenceSessionServiceInternal.adapterFor(unwrapped(domainObject));
+            if (!adapter.representsPersistent()) {
+                continue;
+            }
+            adapters.add(adapter);
+        }
+        if(adapters.isEmpty()) {
+            return;
+        }
+        persistenceSessionServiceInternal.removeAll(adapters);
+    }
+
 
     // //////////////////////////////////////
 
 
-    //region > allInstances, allMatches, uniqueMatch, firstMatch
+    //region > allInstances, allMatches, stream, count, uniqueMatch, firstMatch
 
     @Programmatic
     @Override
@@ -147,12 +198,37 @@ public <T> List<T> allInstances(final Class<T> type, long... range) {
 
     @Programmatic
     @Override
+    @SuppressWarnings("unchecked")
     public <T> List<T> allMatches(final Class<T> cls, final Predicate<? super T> predicate, long... range) {
-        final List<T> allInstances = allInstances(cls, range);
+        if(predicate instanceof QueryPredicate) {
+            // evaluated by the object store
+            return allMatches(new QueryFindByPredicate<T>(cls, (QueryPredicate<? super T>) predicate, range));
+        }
+
+        // otherwise, have to filter client-side; we iterate over all instances rather than loading them up-front,
+        // and apply the range to those that match.  Those that aren't returned are evicted as we go, so that the
+        // session does not end up holding the entire extent.
+        final long start = range.length > 0 ? range[0] : 0;
+        final long count = range.length > 1 ? range[1] : 0;
+
+        if(autoFlush) {
+            transactionService.flushTransaction();
+        }
         final List<T> filtered = new ArrayList<T>();
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
+        try (final CloseableIterator<ObjectAdapter> instances = persistenceSessionServiceInternal.streamMatchingQuery(
+                new QueryFindAllInstances<T>(cls), streamFetchSize, false)) {
+            long index = 0;
+            while (instances.hasNext()) {
+                final ObjectAdapter adapter = instances.next();
+                final T instance = (T) ObjectAdapter.Util.unwrap(adapter);
+                if (!predicate.apply(instance) || index++ < start) {
+                    persistenceSessionServiceInternal.evictIfUnmodified(adapter);
+                    continue;
+                }
                 filtered.add(instance);
+                if (count != 0 && filtered.size() >= count) {
+                    break;
+                }
             }
         }
         return filtered;
@@ -168,6 +244,47 @@ public <T> List<T> allMatches(final Query<T> query) {
         return submitQuery(query);
     }
 
+    @Programmatic
+    @Override
+    public <T> CloseableIterator<T> stream(final Query<T> query) {
+        if(autoFlush) {
+            transactionService.flushTransaction();
+        }
+        final CloseableIterator<ObjectAdapter> adapters =
+                persistenceSessionServiceInternal.streamMatchingQuery(query, streamFetchSize, streamEvict);
+        return new CloseableIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return adapters.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                return (T) ObjectAdapter.Util.unwrap(adapters.next());
+            }
+
+            @Override
+            public void remove() {
+                adapters.remove();
+            }
+
+            @Override
+            public void close() {
+                adapters.close();
+            }
+        };
+    }
+
+    @Programmatic
+    @Override
+    public <T> long count(final Query<T> query) {
+        if(autoFlush) {
+            transactionService.flushTransaction();
+        }
+        return persistenceSessionServiceInternal.countMatchingQuery(query);
+    }
+
     <T> List<T> submitQuery(final Query<T> query) {
         final List<ObjectAdapter> allMatching = persistenceSessionServiceInternal.allMatchingQuery(query);
         return ObjectAdapter.Util.unwrapT(allMatching);
@@ -205,13 +322,8 @@ public <T> T uniqueMatch(final Query<T> query) {
     @Programmatic
     @Override
     public <T> T firstMatch(final Class<T> cls, final Predicate<T> predicate) {
-        final List<T> allInstances = allInstances(cls); // Have to fetch all, as matching is done in next loop
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
-                return instance;
-            }
-        }
-        return null;
+        final List<T> instances = allMatches(cls, predicate, 0, 1); // No need to fetch more than 1.
+        return firstInstanceElseNull(instances);
     }
 
 
@@ -29,6 +29,19 @@
 
 public interface OneToManyAssociation extends ObjectAssociation, OneToManyFeature {
 
+    // /////////////////////////////////////////////////////////////
+    // count
+    // /////////////////////////////////////////////////////////////
+
+    /**
+     * The number of elements in this collection field of the specified object, as would be returned by
+     * {@link #get(ObjectAdapter, InteractionInitiatedBy) get}, but where possible without loading them (see
+     * {@link org.apache.isis.core.metamodel.facets.collections.count.CollectionCountFacet}).
+     */
+    int count(
+            ObjectAdapter owningObjectAdapter,
+            final InteractionInitiatedBy interactionInitiatedBy);
+
     // /////////////////////////////////////////////////////////////
     // add
     // /////////////////////////////////////////////////////////////
@@ -76,6 +76,37 @@ public final class ReflectorConstants {
     public static final String LAYOUT_METADATA_READER_LIST_DEFAULT = LayoutMetadataReaderFromJson.class.getName();
 
 
+    /**
+     * Key used to determine whether the specifications of services and mixins should be introspected in parallel
+     * on bootstrapping.
+     *
+     * @see #INTROSPECTOR_PARALLELISM
+     */
+    public static final String INTROSPECTOR_PARALLELIZE = ConfigurationConstants.ROOT + "reflector.introspector.parallelize";
+    public static final boolean INTROSPECTOR_PARALLELIZE_DEFAULT = false;
+
+    /**
+     * Key used to lookup the number of threads to use if {@link #INTROSPECTOR_PARALLELIZE parallelized}; defaults
+     * to the number of available processors.
+     */
+    public static final String INTROSPECTOR_PARALLELISM = ConfigurationConstants.ROOT + "reflector.introspector.parallelism";
+
+
+    /**
+     * Key used to lookup the {@link org.apache.isis.core.commons.lang.MethodInvoker.Strategy strategy} used to
+     * invoke domain object methods (accessors, actions, supporting methods and so on): either
+     * <tt>reflection</tt> or <tt>method_handles</tt>.
+     */
+    public static final String INVOKER_STRATEGY = ConfigurationConstants.ROOT + "reflector.invoker.strategy";
+    public static final String INVOKER_STRATEGY_DEFAULT = "reflection";
+
+    /**
+     * Key used to lookup the maximum number of {@link org.apache.isis.core.commons.lang.MethodInvoker}s cached by
+     * the {@link SpecificationLoader}.
+     */
+    public static final String INVOKER_CACHE_SIZE = ConfigurationConstants.ROOT + "reflector.invoker.cacheSize";
+
+
     private ReflectorConstants() {
     }
 
@@ -22,6 +22,8 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 
 import com.google.common.collect.Maps;
 
@@ -33,8 +35,8 @@
 
 class SpecificationCacheDefault {
     
-    private final Map<String, ObjectSpecification> specByClassName = Maps.newHashMap();
-    private Map<ObjectSpecId, String> classNameBySpecId;
+    private final ConcurrentMap<String, ObjectSpecification> specByClassName = Maps.newConcurrentMap();
+    private volatile Map<ObjectSpecId, String> classNameBySpecId;
 
     public ObjectSpecification get(final String className) {
         return specByClassName.get(className);
@@ -67,14 +69,15 @@ public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
      * xxxallxxx most specs have been loaded.
      */
     void setCacheBySpecId(final Map<ObjectSpecId, ObjectSpecification> specById) {
-        this.classNameBySpecId = Maps.newHashMap();
+        final Map<ObjectSpecId, String> classNameBySpecId = Maps.newConcurrentMap();
 
         for (ObjectSpecId objectSpecId : specById.keySet()) {
             final ObjectSpecification objectSpec = specById.get(objectSpecId);
             final String className = objectSpec.getCorrespondingClass().getName();
-            this.classNameBySpecId.put(objectSpecId, className);
+            classNameBySpecId.put(objectSpecId, className);
             this.specByClassName.put(className, objectSpec);
         }
+        this.classNameBySpecId = classNameBySpecId;
     }
 
     public ObjectSpecification remove(String typeName) {
@@ -109,4 +112,104 @@ boolean isInitialized() {
         return classNameBySpecId != null;
     }
 
+
+    //region > introspection (parallel mode only)
+
+    /**
+     * The specs currently being introspected, keyed by class name; each acts as a future that completes once
+     * its introspection has finished.
+     */
+    private final ConcurrentMap<String, Introspection> introspectionByClassName = Maps.newConcurrentMap();
+
+    /**
+     * For each thread blocked in {@link #awaitIntrospected(String)}, the introspection that it is waiting upon.
+     *
+     * <p>
+     *     Guarded by its own monitor, so that checking for and registering a wait is atomic.
+     * </p>
+     */
+    private final Map<Thread, Introspection> introspectionAwaitedByThread = Maps.newHashMap();
+
+    static class Introspection {
+        private final Thread owner;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        Introspection(final Thread owner) {
+            this.owner = owner;
+        }
+
+        Thread getOwner() {
+            return owner;
+        }
+    }
+
+    /**
+     * Records that the current thread is about to introspect the spec of the specified class; other threads
+     * requesting that spec will {@link #awaitIntrospected(String) wait} until {@link #introspected(String)} is
+     * called.
+     */
+    void introspecting(final String className) {
+        introspectionByClassName.put(className, new Introspection(Thread.currentThread()));
+    }
+
+    void introspected(final String className) {
+        final Introspection introspection = introspectionByClassName.remove(className);
+        if(introspection != null) {
+            introspection.latch.countDown();
+        }
+    }
+
+    /**
+     * Blocks until the spec of the specified class (if being introspected by some other thread) has been fully
+     * introspected.
+     *
+     * <p>
+     *     Returns immediately if the spec is being introspected by the current thread (that is, a recursive
+     *     request, just as for serial introspection), or if waiting would result in a deadlock because the other
+     *     thread is itself (transitively) waiting upon the current thread.  In either case the caller is given
+     *     the partially introspected spec, which is exactly what serial introspection does for a cycle.
+     * </p>
+     *
+     * @return the number of nanoseconds spent waiting.
+     */
+    long awaitIntrospected(final String className) {
+        final Introspection introspection = introspectionByClassName.get(className);
+        if(introspection == null) {
+            return 0L;
+        }
+        final Thread currentThread = Thread.currentThread();
+        synchronized (introspectionAwaitedByThread) {
+            if(wouldDeadlock(introspection, currentThread)) {
+                return 0L;
+            }
+            introspectionAwaitedByThread.put(currentThread, introspection);
+        }
+        final long start = System.nanoTime();
+        try {
+            introspection.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (introspectionAwaitedByThread) {
+                introspectionAwaitedByThread.remove(currentThread);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private boolean wouldDeadlock(final Introspection introspection, final Thread currentThread) {
+        Introspection next = introspection;
+        // bounded by the number of waiting threads, so no need to guard against cycles here.
+        while(next != null) {
+            final Thread owner = next.getOwner();
+            if(owner == currentThread) {
+                return true;
+            }
+            next = introspectionAwaitedByThread.get(owner);
+        }
+        return false;
+    }
+
+    //endregion
+
 }
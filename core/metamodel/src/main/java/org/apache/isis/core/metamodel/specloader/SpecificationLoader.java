@@ -16,15 +16,25 @@
  */
 package org.apache.isis.core.metamodel.specloader;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,9 +44,12 @@
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.core.commons.components.ApplicationScopedComponent;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.ensure.Assert;
 import org.apache.isis.core.commons.exceptions.IsisException;
 import org.apache.isis.core.commons.lang.ClassUtil;
+import org.apache.isis.core.commons.lang.MethodInvoker;
+import org.apache.isis.core.commons.lang.MethodInvokerCache;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facets.FacetFactory;
 import org.apache.isis.core.metamodel.facets.object.autocomplete.AutoCompleteFacet;
@@ -79,6 +92,14 @@
  * must be annotated using {@link Programmatic}.
  * </p>
  *
+ * <p>
+ * If {@link ReflectorConstants#INTROSPECTOR_PARALLELIZE} is set, then the specifications of services and mixins
+ * are primed in parallel using a fork-join pool.  In this mode specifications are created under a lock striped
+ * by class name (rather than the single monitor of this loader), and a request for a specification that is
+ * being introspected by some other thread waits for that introspection to complete, unless doing so would
+ * deadlock (in which case, as for serial introspection, the partially introspected specification is returned).
+ * </p>
+ *
 */
 public class SpecificationLoader implements ApplicationScopedComponent {
 
@@ -124,6 +145,13 @@ protected void finalize() throws Throwable {
 
     private boolean initialized = false;
 
+    /**
+     * Whether to prime the cache in parallel; read from configuration in {@link #init()}, and reset once the cache
+     * has been primed (specs loaded lazily thereafter are loaded using the single-threaded path).
+     */
+    private volatile boolean parallelize;
+    private int parallelism;
+
     /**
      * Initializes and wires up, and primes the cache based on any service
      * classes (provided by the {@link ServicesInjector}).
@@ -135,6 +163,22 @@ public void init() {
             LOG.debug("initialising {}", this);
         }
 
+        final IsisConfiguration configuration = servicesInjector.getConfigurationServiceInternal();
+        parallelize = configuration.getBoolean(
+                ReflectorConstants.INTROSPECTOR_PARALLELIZE,
+                ReflectorConstants.INTROSPECTOR_PARALLELIZE_DEFAULT);
+        parallelism = configuration.getInteger(
+                ReflectorConstants.INTROSPECTOR_PARALLELISM,
+                Runtime.getRuntime().availableProcessors());
+        final String invokerStrategy = configuration.getString(
+                ReflectorConstants.INVOKER_STRATEGY,
+                ReflectorConstants.INVOKER_STRATEGY_DEFAULT);
+        methodInvokers = new MethodInvokerCache(
+                MethodInvoker.Strategy.parse(invokerStrategy, MethodInvoker.Strategy.REFLECTION),
+                configuration.getInteger(
+                        ReflectorConstants.INVOKER_CACHE_SIZE,
+                        MethodInvokerCache.MAXIMUM_SIZE_DEFAULT));
+
         // wire subcomponents into each other
         facetProcessor.setServicesInjector(servicesInjector);
         for (final LayoutMetadataReader layoutMetadataReader : layoutMetadataReaders) {
@@ -148,18 +192,27 @@ public void init() {
 
         loadSpecificationsForServices();
         loadSpecificationsForMixins();
+        // primed; no need to pay for the striped locks (nor to await other introspecting threads) from now on
+        parallelize = false;
         cacheBySpecId();
 
         initialized = true;
     }
 
     private void loadSpecificationsForServices() {
+        final List<Callable<ObjectSpecification>> loaders = Lists.newArrayList();
         for (final Class<?> serviceClass : allServiceClasses()) {
             final DomainService domainService = serviceClass.getAnnotation(DomainService.class);
             final NatureOfService nature = domainService != null ? domainService.nature() : NatureOfService.DOMAIN;
-            // will 'markAsService'
-            internalLoadSpecification(serviceClass, nature);
+            loaders.add(new Callable<ObjectSpecification>() {
+                @Override
+                public ObjectSpecification call() {
+                    // will 'markAsService'
+                    return internalLoadSpecification(serviceClass, nature);
+                }
+            });
         }
+        load("services", loaders);
     }
 
     private void loadSpecificationsForMixins() {
@@ -167,8 +220,102 @@ private void loadSpecificationsForMixins() {
         if(mixinTypes == null) {
             return;
         }
+        final List<Callable<ObjectSpecification>> loaders = Lists.newArrayList();
         for (final Class<?> mixinType : mixinTypes) {
-            internalLoadSpecification(mixinType);
+            loaders.add(new Callable<ObjectSpecification>() {
+                @Override
+                public ObjectSpecification call() {
+                    return internalLoadSpecification(mixinType);
+                }
+            });
+        }
+        load("mixins", loaders);
+    }
+
+    private void load(final String what, final List<Callable<ObjectSpecification>> loaders) {
+        if(!parallelize) {
+            for (final Callable<ObjectSpecification> loader : loaders) {
+                try {
+                    loader.call();
+                } catch (final RuntimeException e) {
+                    throw e;
+                } catch (final Exception e) {
+                    throw new IsisException(e);
+                }
+            }
+            return;
+        }
+
+        final AtomicLong busyNanos = new AtomicLong();
+        final List<Callable<ObjectSpecification>> timedLoaders = Lists.newArrayList();
+        for (final Callable<ObjectSpecification> loader : loaders) {
+            timedLoaders.add(new Callable<ObjectSpecification>() {
+                @Override
+                public ObjectSpecification call() throws Exception {
+                    final long start = System.nanoTime();
+                    try {
+                        return loader.call();
+                    } finally {
+                        busyNanos.addAndGet(System.nanoTime() - start - awaitedNanos.get());
+                        awaitedNanos.remove();
+                    }
+                }
+            });
+        }
+
+        final long start = System.nanoTime();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism,
+                new IntrospectorThreadFactory(Thread.currentThread().getContextClassLoader()), null, false);
+        try {
+            final List<Future<ObjectSpecification>> futures = pool.invokeAll(timedLoaders);
+            for (final Future<ObjectSpecification> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IsisException("Interrupted while introspecting " + what, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IsisException("Failed to introspect " + what, cause);
+        } finally {
+            pool.shutdown();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        final long serialMillis = TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+        LOG.info(String.format(
+                "introspected %d %s in %d ms using %d threads; serial introspection estimated at %d ms (speedup %.1fx)",
+                loaders.size(), what, elapsedMillis, parallelism, serialMillis,
+                elapsedNanos > 0 ? (double) busyNanos.get() / elapsedNanos : 1.0));
+    }
+
+    /**
+     * Time spent by the current (pool) thread waiting for other threads to complete their introspection;
+     * excluded from the estimate of the serial introspection cost.
+     */
+    private final ThreadLocal<Long> awaitedNanos = new ThreadLocal<Long>() {
+        @Override
+        protected Long initialValue() {
+            return 0L;
+        }
+    };
+
+    private static class IntrospectorThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final ClassLoader classLoader;
+
+        IntrospectorThreadFactory(final ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {};
+            thread.setContextClassLoader(classLoader);
+            return thread;
         }
     }
 
@@ -202,6 +349,35 @@ public void shutdown() {
         initialized = false;
 
         cache.clear();
+        if(methodInvokers != null) {
+            methodInvokers.invalidateAll();
+            methodInvokers = null;
+        }
+    }
+
+    //endregion
+
+    //region > getMethodInvokers
+
+    private MethodInvokerCache methodInvokers;
+
+    /**
+     * The invokers of domain object methods, created using the configured
+     * {@link ReflectorConstants#INVOKER_STRATEGY strategy}; <tt>null</tt> until {@link #init() initialized}.
+     */
+    @Programmatic
+    public MethodInvokerCache getMethodInvokers() {
+        return methodInvokers;
+    }
+
+    /**
+     * The {@link MethodInvoker} for a domain object method, from the {@link #getMethodInvokers() cache}; if not yet
+     * initialized, then a plain reflective invoker (not cached).
+     */
+    @Programmatic
+    public MethodInvoker invokerFor(final Method method) {
+        final MethodInvokerCache methodInvokers = this.methodInvokers;
+        return methodInvokers != null ? methodInvokers.invokerFor(method) : MethodInvoker.of(method);
     }
 
     //endregion
@@ -335,10 +511,74 @@ private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?>
         final String typeName = type.getName();
         final ObjectSpecification spec = cache.get(typeName);
         if (spec != null) {
+            if(parallelize) {
+                awaitIntrospected(typeName);
+            }
             return spec;
         }
 
-        return loadSpecificationForSubstitutedClassSynchronized(type, nature);
+        return parallelize
+                ? loadSpecificationForSubstitutedClassStriped(type, nature)
+                : loadSpecificationForSubstitutedClassSynchronized(type, nature);
+    }
+
+    private void awaitIntrospected(final String typeName) {
+        final long nanos = cache.awaitIntrospected(typeName);
+        if(nanos > 0) {
+            awaitedNanos.set(awaitedNanos.get() + nanos);
+        }
+    }
+
+    /**
+     * Only one thread may create the spec for any given class, but different classes can be created concurrently.
+     */
+    private final Striped<Lock> creationLocks = Striped.lock(64);
+
+    private ObjectSpecification loadSpecificationForSubstitutedClassStriped(
+            final Class<?> type,
+            final NatureOfService natureOfService) {
+
+        final String typeName = type.getName();
+        final ObjectSpecification existing;
+        final ObjectSpecification specification;
+
+        final Lock lock = creationLocks.get(typeName);
+        lock.lock();
+        try {
+            existing = cache.get(typeName);
+            if (existing != null) {
+                specification = null;
+            } else {
+                specification = createSpecification(type, natureOfService);
+                if (specification == null) {
+                    throw new IsisException("Failed to create specification for class " + typeName);
+                }
+
+                // as for the synchronized case, put into the cache prior to introspecting, to prevent infinite
+                // loops.  We also register that this thread is introspecting, so that other threads wait rather
+                // than see a partially introspected spec.
+                cache.introspecting(typeName);
+                cache.cache(typeName, specification);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (existing != null) {
+            // because caller isn't locked; done outside of the lock because may block.
+            awaitIntrospected(typeName);
+            return existing;
+        }
+
+        // the introspection itself is done outside of the lock, because will recursively load other specs
+        // (whose stripe may be the same as this one).
+        try {
+            introspectIfRequired(specification);
+        } finally {
+            cache.introspected(typeName);
+        }
+
+        return specification;
     }
 
     private synchronized ObjectSpecification loadSpecificationForSubstitutedClassSynchronized(
@@ -227,6 +227,11 @@ public List<Facet> getFacets(Filter<Facet> filter) {
         return facetHolder.getFacets(filter);
     }
 
+    @Override
+    public <T> List<T> getFacetsOfType(Class<T> type) {
+        return facetHolder.getFacetsOfType(type);
+    }
+
     @Override
     public void addFacet(Facet facet) {
         facetHolder.addFacet(facet);
@@ -19,6 +19,7 @@
 
 package org.apache.isis.core.metamodel.specloader.specimpl;
 
+import java.util.Collections;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -233,6 +234,12 @@ public List<Facet> getFacets(final Filter<Facet> filter) {
         return facetHolder != null ? facetHolder.getFacets(filter) : Lists.<Facet> newArrayList();
     }
 
+    @Override
+    public <T> List<T> getFacetsOfType(final Class<T> type) {
+        final FacetHolder facetHolder = getFacetHolder();
+        return facetHolder != null ? facetHolder.getFacetsOfType(type) : Collections.<T> emptyList();
+    }
+
     @Override
     public void addFacet(final Facet facet) {
         final FacetHolder facetHolder = getFacetHolder();
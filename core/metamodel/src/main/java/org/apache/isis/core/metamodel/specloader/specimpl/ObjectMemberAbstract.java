@@ -151,6 +151,11 @@ public List<Facet> getFacets(final Filter<Facet> filter) {
         return getFacetHolder().getFacets(filter);
     }
 
+    @Override
+    public <T> List<T> getFacetsOfType(final Class<T> type) {
+        return getFacetHolder().getFacetsOfType(type);
+    }
+
     @Override
     public void addFacet(final Facet facet) {
         getFacetHolder().addFacet(facet);
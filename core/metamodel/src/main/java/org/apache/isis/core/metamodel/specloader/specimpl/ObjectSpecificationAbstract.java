@@ -19,17 +19,19 @@
 
 package org.apache.isis.core.metamodel.specloader.specimpl;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -56,7 +58,9 @@
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facetapi.FacetHolderImpl;
+import org.apache.isis.core.metamodel.facetapi.FacetTypeIndex;
 import org.apache.isis.core.metamodel.facetapi.FeatureType;
+import org.apache.isis.core.metamodel.facetapi.MultiTypedFacet;
 import org.apache.isis.core.metamodel.facets.actions.notcontributed.NotContributedFacet;
 import org.apache.isis.core.metamodel.facets.all.describedas.DescribedAsFacet;
 import org.apache.isis.core.metamodel.facets.all.help.HelpFacet;
@@ -105,19 +109,20 @@ public abstract class ObjectSpecificationAbstract extends FacetHolderImpl implem
     private static class SubclassList {
         private final List<ObjectSpecification> classes = Lists.newArrayList();
 
-        public void addSubclass(final ObjectSpecification subclass) {
+        // synchronized because subclasses may be introspected concurrently (if parallelized)
+        public synchronized void addSubclass(final ObjectSpecification subclass) {
             if(classes.contains(subclass)) { 
                 return;
             }
             classes.add(subclass);
         }
 
-        public boolean hasSubclasses() {
+        public synchronized boolean hasSubclasses() {
             return !classes.isEmpty();
         }
 
-        public List<ObjectSpecification> toList() {
-            return Collections.unmodifiableList(classes);
+        public synchronized List<ObjectSpecification> toList() {
+            return Collections.unmodifiableList(Lists.newArrayList(classes));
         }
     }
 
@@ -151,6 +156,14 @@ private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
     private boolean contributeeAndMixedInAssociationsAdded;
     private boolean contributeeAndMixedInActionsAdded;
 
+    // memoized (immutable) member lists, as most frequently requested; guarded by, and discarded within,
+    // the monitor of associations or objectActions respectively whenever those are updated.
+    private final Map<Contributed, List<ObjectAssociation>> associationsByContributed = Maps.newConcurrentMap();
+    private final Map<Contributed, List<OneToOneAssociation>> propertiesByContributed = Maps.newConcurrentMap();
+    private final Map<Contributed, List<OneToManyAssociation>> collectionsByContributed = Maps.newConcurrentMap();
+    private final Map<Contributed, List<ObjectAction>> objectActionsByContributed = Maps.newConcurrentMap();
+    private final Map<Contributed, Map<ActionType, List<ObjectAction>>> objectActionsByTypeByContributed = Maps.newConcurrentMap();
+
 
     private final List<ObjectSpecification> interfaces = Lists.newArrayList();
     private final SubclassList subclasses = new SubclassList();
@@ -261,6 +274,7 @@ public IntrospectionState getIntrospectionState() {
 
     public void setIntrospectionState(IntrospectionState introspectationState) {
         this.introspected = introspectationState;
+        this.resolvedFacets = null;
     }
     
     protected boolean isNotIntrospected() {
@@ -332,6 +346,10 @@ protected void sortAndUpdateAssociations(final List<ObjectAssociation> associati
         synchronized (this.associations) {
             this.associations.clear();
             this.associations.addAll(orderedAssociations);
+
+            associationsByContributed.clear();
+            propertiesByContributed.clear();
+            collectionsByContributed.clear();
         }
     }
 
@@ -346,6 +364,9 @@ protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions)
                 objectActionForType.clear();
                 objectActionForType.addAll(Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)));
             }
+
+            objectActionsByContributed.clear();
+            objectActionsByTypeByContributed.clear();
         }
     }
 
@@ -511,8 +532,79 @@ public Persistability persistability() {
 
     //region > Facet Handling
 
+    /**
+     * Incremented whenever a facet is added to or removed from this specification or any of its supertypes,
+     * invalidating any {@link ResolvedFacets} table built beforehand (such changes are rare once the metamodel
+     * is built).
+     */
+    private final AtomicInteger facetsGeneration = new AtomicInteger();
+
+    /**
+     * Built lazily once this specification and its supertypes are all introspected; <tt>null</tt> until then.
+     */
+    private volatile ResolvedFacets resolvedFacets;
+
+    /**
+     * Marks, in a {@link ResolvedFacets table}, a facet type that has been resolved but for which there is no facet.
+     */
+    private static final Object NO_FACET = new Object();
+
+    @Override
+    public void addFacet(final Facet facet) {
+        super.addFacet(facet);
+        facetsChanged();
+    }
+
+    @Override
+    public void addFacet(final MultiTypedFacet facet) {
+        super.addFacet(facet);
+        facetsChanged();
+    }
+
+    @Override
+    public void removeFacet(final Facet facet) {
+        super.removeFacet(facet);
+        facetsChanged();
+    }
+
+    @Override
+    public void removeFacet(final Class<? extends Facet> facetType) {
+        super.removeFacet(facetType);
+        facetsChanged();
+    }
+
+    /**
+     * Invalidates the {@link ResolvedFacets} of this specification and of all of its subtypes, any of which may
+     * have inherited the facet that was added or removed.
+     */
+    private void facetsChanged() {
+        facetsGeneration.incrementAndGet();
+        for (final ObjectSpecification subclass : subclasses.toList()) {
+            if(subclass instanceof ObjectSpecificationAbstract) {
+                ((ObjectSpecificationAbstract) subclass).facetsChanged();
+            }
+        }
+    }
+
+    /**
+     * Once introspected, returns the facet from a {@link ResolvedFacets table} that already takes into account
+     * any facets inherited from interfaces or the superclass; otherwise (or if this specification's type hierarchy
+     * is still being introspected) {@link #resolveFacet(Class) resolves} it by walking that hierarchy.
+     */
     @Override
     public <Q extends Facet> Q getFacet(final Class<Q> facetType) {
+        ResolvedFacets resolvedFacets = this.resolvedFacets;
+        final int generation = facetsGeneration.get();
+        if(resolvedFacets == null || resolvedFacets.generation != generation) {
+            if(!isTypeHierarchyIntrospected()) {
+                return resolveFacet(facetType);
+            }
+            resolvedFacets = this.resolvedFacets = new ResolvedFacets(generation);
+        }
+        return resolvedFacets.get(facetType);
+    }
+
+    private <Q extends Facet> Q resolveFacet(final Class<Q> facetType) {
         final Q facet = super.getFacet(facetType);
         Q noopFacet = null;
         if (isNotANoopFacet(facet)) {
@@ -555,6 +647,67 @@ private boolean isNotANoopFacet(final Facet facet) {
         return facet != null && !facet.isNoop();
     }
 
+    private boolean isTypeHierarchyIntrospected() {
+        if (isNotIntrospected()) {
+            return false;
+        }
+        final List<ObjectSpecification> interfaces = interfaces();
+        if (interfaces != null) {
+            for (final ObjectSpecification interfaceSpec : interfaces) {
+                if (interfaceSpec == null) {
+                    // as per the HACK in resolveFacet; don't cache
+                    return false;
+                }
+                if (!isTypeHierarchyIntrospected(interfaceSpec)) {
+                    return false;
+                }
+            }
+        }
+        final ObjectSpecification superSpec = superclass();
+        return superSpec == null || isTypeHierarchyIntrospected(superSpec);
+    }
+
+    private static boolean isTypeHierarchyIntrospected(final ObjectSpecification spec) {
+        return !(spec instanceof ObjectSpecificationAbstract) ||
+                ((ObjectSpecificationAbstract) spec).isTypeHierarchyIntrospected();
+    }
+
+    /**
+     * The facets of this specification (including those inherited), indexed by
+     * {@link FacetTypeIndex#idOf(Class) facet type id} and populated on demand.
+     *
+     * <p>
+     *     Concurrent callers may race to populate (or grow) the table; this is benign because the resolved facet
+     *     for any given type is always the same, and an entry that is lost is simply resolved again.
+     * </p>
+     */
+    private final class ResolvedFacets {
+
+        private final int generation;
+        private Object[] facets;
+
+        ResolvedFacets(final int generation) {
+            this.generation = generation;
+            this.facets = new Object[FacetTypeIndex.size()];
+        }
+
+        @SuppressWarnings("unchecked")
+        <Q extends Facet> Q get(final Class<Q> facetType) {
+            final int id = FacetTypeIndex.idOf(facetType);
+            Object[] facets = this.facets;
+            if (id >= facets.length) {
+                facets = this.facets = Arrays.copyOf(facets, Math.max(FacetTypeIndex.size(), id + 1));
+            }
+            final Object facet = facets[id];
+            if (facet != null) {
+                return facet != NO_FACET ? (Q) facet : null;
+            }
+            final Q resolvedFacet = resolveFacet(facetType);
+            facets[id] = resolvedFacet != null ? resolvedFacet : NO_FACET;
+            return resolvedFacet;
+        }
+    }
+
     //endregion
 
     //region > DefaultValue - unused
@@ -628,9 +781,15 @@ public List<ObjectAssociation> getAssociations(final Contributed contributed) {
                 contributeeAndMixedInAssociationsAdded = true;
             }
         }
-        final List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-        return Lists.newArrayList(Iterables.filter(
-                associations, ContributeeMember.Predicates.regularElse(contributed)));
+        List<ObjectAssociation> associations = associationsByContributed.get(contributed);
+        if(associations == null) {
+            synchronized (this.associations) {
+                associations = ImmutableList.copyOf(Iterables.filter(
+                        this.associations, ContributeeMember.Predicates.regularElse(contributed)));
+                associationsByContributed.put(contributed, associations);
+            }
+        }
+        return associations;
     }
 
 
@@ -712,15 +871,29 @@ public List<ObjectAssociation> getAssociations(Contributed contributed, final Fi
     @SuppressWarnings({ "rawtypes", "unchecked" })
     @Override
     public List<OneToOneAssociation> getProperties(Contributed contributed) {
-        final List list = getAssociations(contributed, ObjectAssociation.Filters.PROPERTIES);
-        return list;
+        List<OneToOneAssociation> properties = propertiesByContributed.get(contributed);
+        if(properties == null) {
+            synchronized (this.associations) {
+                final List list = getAssociations(contributed, ObjectAssociation.Filters.PROPERTIES);
+                properties = ImmutableList.copyOf((List<OneToOneAssociation>) list);
+                propertiesByContributed.put(contributed, properties);
+            }
+        }
+        return properties;
     }
 
     @Override
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public List<OneToManyAssociation> getCollections(Contributed contributed) {
-        final List list = getAssociations(contributed, ObjectAssociation.Filters.COLLECTIONS);
-        return list;
+        List<OneToManyAssociation> collections = collectionsByContributed.get(contributed);
+        if(collections == null) {
+            synchronized (this.associations) {
+                final List list = getAssociations(contributed, ObjectAssociation.Filters.COLLECTIONS);
+                collections = ImmutableList.copyOf((List<OneToManyAssociation>) list);
+                collectionsByContributed.put(contributed, collections);
+            }
+        }
+        return collections;
     }
 
     //endregion
@@ -756,22 +929,41 @@ public List<ObjectAction> getObjectActions(
             }
         }
 
+        final Map<ActionType, List<ObjectAction>> objectActionsByType = getObjectActionsByType(contributed);
         final List<ObjectAction> actions = Lists.newArrayList();
         for (final ActionType type : types) {
-            final Collection<ObjectAction> filterActions =
-                    Collections2.filter(objectActionsByType.get(type), Filters.asPredicate(filter));
-            actions.addAll(filterActions);
+            actions.addAll(Collections2.filter(objectActionsByType.get(type), Filters.asPredicate(filter)));
         }
-        return Lists.newArrayList(
-                Iterables.filter(
-                        actions,
-                        ContributeeMember.Predicates.regularElse(contributed)));
+        return actions;
+    }
+
+    private Map<ActionType, List<ObjectAction>> getObjectActionsByType(final Contributed contributed) {
+        Map<ActionType, List<ObjectAction>> objectActionsByType = objectActionsByTypeByContributed.get(contributed);
+        if(objectActionsByType == null) {
+            synchronized (this.objectActions) {
+                objectActionsByType = Maps.newEnumMap(ActionType.class);
+                for (final ActionType type : ActionType.values()) {
+                    objectActionsByType.put(type, ImmutableList.copyOf(Iterables.filter(
+                            this.objectActionsByType.get(type), ContributeeMember.Predicates.regularElse(contributed))));
+                }
+                objectActionsByTypeByContributed.put(contributed, objectActionsByType);
+            }
+        }
+        return objectActionsByType;
     }
 
     @Override
     public List<ObjectAction> getObjectActions(
             final Contributed contributed) {
-        return getObjectActions(ActionType.ALL, contributed, Filters.<ObjectAction>any());
+        List<ObjectAction> actions = objectActionsByContributed.get(contributed);
+        if(actions == null) {
+            synchronized (this.objectActions) {
+                actions = ImmutableList.copyOf(
+                        getObjectActions(ActionType.ALL, contributed, Filters.<ObjectAction>any()));
+                objectActionsByContributed.put(contributed, actions);
+            }
+        }
+        return actions;
     }
 
     @Override
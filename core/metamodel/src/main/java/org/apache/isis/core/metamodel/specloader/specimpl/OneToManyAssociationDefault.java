@@ -32,6 +32,7 @@
 import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.facetapi.FeatureType;
 import org.apache.isis.core.metamodel.facets.FacetedMethod;
+import org.apache.isis.core.metamodel.facets.collections.count.CollectionCountFacet;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionAddToFacet;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionClearFacet;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionFacet;
@@ -41,6 +42,7 @@
 import org.apache.isis.core.metamodel.interactions.CollectionRemoveFromContext;
 import org.apache.isis.core.metamodel.interactions.CollectionUsabilityContext;
 import org.apache.isis.core.metamodel.interactions.CollectionVisibilityContext;
+import org.apache.isis.core.metamodel.interactions.HidingInteractionAdvisor;
 import org.apache.isis.core.metamodel.interactions.InteractionUtils;
 import org.apache.isis.core.metamodel.interactions.UsabilityContext;
 import org.apache.isis.core.metamodel.interactions.ValidityContext;
@@ -185,11 +187,54 @@ public ObjectAdapter get(
 
     @Override
     public boolean isEmpty(final ObjectAdapter parentAdapter, final InteractionInitiatedBy interactionInitiatedBy) {
-        // REVIEW should we be able to determine if a collection is empty
-        // without loading it?
-        final ObjectAdapter collection = get(parentAdapter, interactionInitiatedBy);
+        return count(parentAdapter, interactionInitiatedBy) == 0;
+    }
+
+    //endregion
+
+    //region > count
+
+    @Override
+    public int count(
+            final ObjectAdapter ownerAdapter,
+            final InteractionInitiatedBy interactionInitiatedBy) {
+
+        final CollectionCountFacet countFacet = getFacet(CollectionCountFacet.class);
+        if (countFacet != null && !mayFilterElements(interactionInitiatedBy)) {
+            return countFacet.count(ownerAdapter);
+        }
+
+        final ObjectAdapter collection = get(ownerAdapter, interactionInitiatedBy);
+        if (collection == null) {
+            return 0;
+        }
         final CollectionFacet facet = CollectionFacet.Utils.getCollectionFacetFromSpec(collection);
-        return facet.size(collection) == 0;
+        return facet.size(collection);
+    }
+
+    /**
+     * Whether {@link #get(ObjectAdapter, InteractionInitiatedBy)} might filter out some of the elements as not visible
+     * to the user, in which case they cannot be counted without loading them.
+     *
+     * <p>
+     * Any element type that is abstract, or that has subtypes, is assumed to be able to hide its instances (because
+     * a subtype might do so), as is any element type that itself has a hiding advisor.  Only those subtypes whose
+     * specifications have been loaded are known; once bootstrapped that includes every entity registered through
+     * the app manifest.
+     */
+    private boolean mayFilterElements(final InteractionInitiatedBy interactionInitiatedBy) {
+        if (interactionInitiatedBy == InteractionInitiatedBy.FRAMEWORK) {
+            return false;
+        }
+        final boolean filterForVisibility = getServicesInjector().getConfigurationServiceInternal()
+                .getBoolean("isis.reflector.facet.filterVisibility", true);
+        if (!filterForVisibility) {
+            return false;
+        }
+        final ObjectSpecification elementSpec = getSpecification();
+        return elementSpec.isAbstract() ||
+               !elementSpec.subclasses().isEmpty() ||
+               !elementSpec.getFacetsOfType(HidingInteractionAdvisor.class).isEmpty();
     }
 
     //endregion
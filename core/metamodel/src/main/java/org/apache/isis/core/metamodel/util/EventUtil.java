@@ -19,6 +19,14 @@
 
 package org.apache.isis.core.metamodel.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+
 import org.apache.isis.core.commons.config.IsisConfiguration;
 
 public final class EventUtil {
@@ -41,5 +49,71 @@ public static <T> boolean eventTypeIsPostable(
         return true;
     }
 
+    //region > newEvent
+
+    private static final MethodType NO_ARG_CONSTRUCTOR_TYPE = MethodType.methodType(void.class);
+    private static final MethodType NO_ARG_FACTORY_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * The public no-arg constructor of each event type (as a factory returning {@link Object}), if there is one
+     * and it is accessible.
+     *
+     * <p>
+     *     Held as a {@link ClassValue} so that event types (and their class loaders) are not pinned.
+     * </p>
+     */
+    private static final ClassValue<Optional<MethodHandle>> noArgConstructorByEventType =
+            new ClassValue<Optional<MethodHandle>>() {
+                @Override
+                protected Optional<MethodHandle> computeValue(final Class<?> eventType) {
+                    return lookupNoArgConstructor(eventType);
+                }
+            };
+
+    /**
+     * Whether the event type has a public no-arg constructor, usable by {@link #newEvent(Class)}.
+     */
+    public static boolean hasNoArgConstructor(final Class<?> eventType) {
+        return noArgConstructorFor(eventType).isPresent();
+    }
+
+    /**
+     * Instantiates the event type, as per {@link Class#newInstance()}.
+     *
+     * <p>
+     *     The event type's no-arg constructor is looked up only once, and then invoked as a {@link MethodHandle}.
+     * </p>
+     */
+    public static <T> T newEvent(final Class<? extends T> eventType)
+            throws InstantiationException, IllegalAccessException {
+        final Optional<MethodHandle> noArgConstructor = noArgConstructorFor(eventType);
+        if(!noArgConstructor.isPresent()) {
+            // will throw the appropriate exception, if any
+            return eventType.newInstance();
+        }
+        try {
+            return eventType.cast((Object) noArgConstructor.get().invokeExact());
+        } catch (final Throwable ex) {
+            throw Throwables.propagate(ex);
+        }
+    }
+
+    private static Optional<MethodHandle> noArgConstructorFor(final Class<?> eventType) {
+        return noArgConstructorByEventType.get(eventType);
+    }
+
+    private static Optional<MethodHandle> lookupNoArgConstructor(final Class<?> eventType) {
+        if(Modifier.isAbstract(eventType.getModifiers())) {
+            return Optional.absent();
+        }
+        try {
+            final MethodHandle constructor = MethodHandles.publicLookup().findConstructor(eventType, NO_ARG_CONSTRUCTOR_TYPE);
+            return Optional.of(constructor.asType(NO_ARG_FACTORY_TYPE));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            return Optional.absent();
+        }
+    }
+
+    //endregion
 
 }
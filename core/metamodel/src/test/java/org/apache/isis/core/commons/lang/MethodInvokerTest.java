@@ -0,0 +1,196 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.commons.lang;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MethodInvokerTest {
+
+    public static class Customer {
+        private long counter;
+
+        public int getAge() {
+            return 42;
+        }
+
+        public void increment(final long by) {
+            counter += by;
+        }
+
+        public long getCounter() {
+            return counter;
+        }
+
+        public String greet(final String name, final int times) {
+            final StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                buf.append("hello ").append(name).append(";");
+            }
+            return buf.toString();
+        }
+
+        public static String describe() {
+            return "customer";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @Test
+    public void method_handles_used_when_accessible() throws Exception {
+        assertThat(MethodInvoker.create(method(Customer.class, "getAge"), MethodInvoker.Strategy.METHOD_HANDLES),
+                is(instanceOf(MethodInvoker.UsingMethodHandle.class)));
+        assertThat(MethodInvoker.create(method(Customer.class, "getAge"), MethodInvoker.Strategy.REFLECTION),
+                is(instanceOf(MethodInvoker.UsingReflection.class)));
+    }
+
+    @Test
+    public void falls_back_to_reflection_when_class_not_accessible() throws Exception {
+        // declared by a non-public class of java.util
+        final Class<?> cls = Collections.unmodifiableList(Collections.emptyList()).getClass();
+        final MethodInvoker invoker =
+                MethodInvoker.create(method(cls, "size"), MethodInvoker.Strategy.METHOD_HANDLES);
+        assertThat(invoker, is(instanceOf(MethodInvoker.UsingReflection.class)));
+    }
+
+    @Test
+    public void invokes_using_reflection() throws Exception {
+        assertInvokes(MethodInvoker.Strategy.REFLECTION);
+    }
+
+    @Test
+    public void invokes_using_method_handles() throws Exception {
+        assertInvokes(MethodInvoker.Strategy.METHOD_HANDLES);
+    }
+
+    @Test
+    public void exceptions_using_reflection() throws Exception {
+        assertExceptions(MethodInvoker.Strategy.REFLECTION);
+    }
+
+    @Test
+    public void exceptions_using_method_handles() throws Exception {
+        assertExceptions(MethodInvoker.Strategy.METHOD_HANDLES);
+    }
+
+    @Test
+    public void cache_creates_invokers_using_its_strategy() throws Exception {
+        final Method getAge = method(Customer.class, "getAge");
+
+        final MethodInvokerCache usingReflection = new MethodInvokerCache(MethodInvoker.Strategy.REFLECTION, 10);
+        final MethodInvokerCache usingMethodHandles = new MethodInvokerCache(MethodInvoker.Strategy.METHOD_HANDLES, 10);
+
+        assertThat(usingReflection.invokerFor(getAge), is(instanceOf(MethodInvoker.UsingReflection.class)));
+        assertThat(usingMethodHandles.invokerFor(getAge), is(instanceOf(MethodInvoker.UsingMethodHandle.class)));
+        assertThat(usingMethodHandles.invokerFor(getAge), is(sameInstance(usingMethodHandles.invokerFor(getAge))));
+    }
+
+    @Test
+    public void cache_is_bounded() throws Exception {
+        final MethodInvokerCache cache = new MethodInvokerCache(MethodInvoker.Strategy.REFLECTION, 2);
+        for (final Method method : Customer.class.getMethods()) {
+            cache.invokerFor(method);
+        }
+        assertThat(cache.size() <= 2, is(true));
+    }
+
+    @Test
+    public void parse() throws Exception {
+        assertThat(MethodInvoker.Strategy.parse("method_handles", MethodInvoker.Strategy.REFLECTION),
+                is(MethodInvoker.Strategy.METHOD_HANDLES));
+        assertThat(MethodInvoker.Strategy.parse(" Reflection ", MethodInvoker.Strategy.METHOD_HANDLES),
+                is(MethodInvoker.Strategy.REFLECTION));
+        assertThat(MethodInvoker.Strategy.parse("bogus", MethodInvoker.Strategy.REFLECTION),
+                is(MethodInvoker.Strategy.REFLECTION));
+        assertThat(MethodInvoker.Strategy.parse(null, MethodInvoker.Strategy.REFLECTION),
+                is(MethodInvoker.Strategy.REFLECTION));
+    }
+
+    private static void assertInvokes(final MethodInvoker.Strategy strategy) throws Exception {
+        final Customer customer = new Customer();
+
+        assertThat(invoker(strategy, "getAge").invoke(customer, null), is((Object) 42));
+        assertThat(invoker(strategy, "greet", String.class, int.class).invoke(customer, new Object[] { "joe", 2 }),
+                is((Object) "hello joe;hello joe;"));
+        assertThat(invoker(strategy, "describe").invoke(null, new Object[0]), is((Object) "customer"));
+
+        // void, and widening of an int to the long parameter
+        assertThat(invoker(strategy, "increment", long.class).invoke(customer, new Object[] { 3L }), is(nullValue()));
+        assertThat(invoker(strategy, "increment", long.class).invoke(customer, new Object[] { 4 }), is(nullValue()));
+        assertThat(customer.getCounter(), is(7L));
+    }
+
+    private static void assertExceptions(final MethodInvoker.Strategy strategy) throws Exception {
+        final Customer customer = new Customer();
+
+        try {
+            invoker(strategy, "fail").invoke(customer, null);
+            fail();
+        } catch (final InvocationTargetException ex) {
+            assertThat(ex.getTargetException(), is(instanceOf(IllegalStateException.class)));
+        }
+
+        try {
+            invoker(strategy, "increment", long.class).invoke(customer, new Object[] { null });
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+
+        try {
+            invoker(strategy, "greet", String.class, int.class).invoke(customer, new Object[] { "joe" });
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+
+        try {
+            invoker(strategy, "getAge").invoke("not a customer", null);
+            fail();
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    private static MethodInvoker invoker(
+            final MethodInvoker.Strategy strategy, final String methodName, final Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return MethodInvoker.create(method(Customer.class, methodName, parameterTypes), strategy);
+    }
+
+    private static Method method(final Class<?> cls, final String methodName, final Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return cls.getMethod(methodName, parameterTypes);
+    }
+
+}
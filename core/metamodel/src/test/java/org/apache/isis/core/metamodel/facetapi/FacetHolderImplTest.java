@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facetapi;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.events.VisibilityEvent;
+import org.apache.isis.core.metamodel.interactions.HidingInteractionAdvisor;
+import org.apache.isis.core.metamodel.interactions.VisibilityContext;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FacetHolderImplTest {
+
+    public interface FooFacet extends Facet {
+    }
+
+    public static class FooFacetHiding extends FacetAbstract implements FooFacet, HidingInteractionAdvisor {
+        public FooFacetHiding(final FacetHolder holder) {
+            super(FooFacet.class, holder, Derivation.NOT_DERIVED);
+        }
+
+        @Override
+        public String hides(final VisibilityContext<? extends VisibilityEvent> ic) {
+            return "hidden";
+        }
+    }
+
+    public interface BarFacet extends Facet {
+    }
+
+    public static class BarFacetHiding extends FacetAbstract implements BarFacet, HidingInteractionAdvisor {
+        public BarFacetHiding(final FacetHolder holder) {
+            super(BarFacet.class, holder, Derivation.NOT_DERIVED);
+        }
+
+        @Override
+        public String hides(final VisibilityContext<? extends VisibilityEvent> ic) {
+            return null;
+        }
+    }
+
+    private FacetHolderImpl facetHolder;
+    private FooFacetHiding fooFacet;
+
+    @Before
+    public void setUp() throws Exception {
+        facetHolder = new FacetHolderImpl();
+        fooFacet = new FooFacetHiding(facetHolder);
+        facetHolder.addFacet(fooFacet);
+    }
+
+    @Test
+    public void getFacetsOfType_is_cached() throws Exception {
+        final List<HidingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+
+        assertThat(advisors.size(), is(1));
+        assertThat(advisors, hasItem((HidingInteractionAdvisor) fooFacet));
+        assertThat(facetHolder.getFacetsOfType(HidingInteractionAdvisor.class), is(sameInstance(advisors)));
+    }
+
+    @Test
+    public void getFacetsOfType_when_facet_added() throws Exception {
+        final List<HidingInteractionAdvisor> advisors = facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+
+        final BarFacetHiding barFacet = new BarFacetHiding(facetHolder);
+        facetHolder.addFacet(barFacet);
+
+        final List<HidingInteractionAdvisor> advisorsAfter = facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+        assertThat(advisorsAfter, is(not(sameInstance(advisors))));
+        assertThat(advisorsAfter.size(), is(2));
+        assertThat(advisorsAfter, hasItem((HidingInteractionAdvisor) barFacet));
+    }
+
+    @Test
+    public void getFacetsOfType_when_facet_removed() throws Exception {
+        facetHolder.getFacetsOfType(HidingInteractionAdvisor.class);
+
+        facetHolder.removeFacet(FooFacet.class);
+
+        assertThat(facetHolder.getFacetsOfType(HidingInteractionAdvisor.class).size(), is(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getFacetsOfType_is_immutable() throws Exception {
+        facetHolder.getFacetsOfType(HidingInteractionAdvisor.class).clear();
+    }
+
+}
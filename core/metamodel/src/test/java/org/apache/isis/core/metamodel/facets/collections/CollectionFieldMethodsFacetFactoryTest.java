@@ -20,12 +20,16 @@
 package org.apache.isis.core.metamodel.facets.collections;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import org.jmock.Expectations;
+
 import org.apache.isis.applib.annotation.When;
 import org.apache.isis.applib.security.UserMemento;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facets.AbstractFacetFactoryTest;
 import org.apache.isis.core.metamodel.facets.FacetFactory.ProcessMethodContext;
@@ -34,7 +38,9 @@
 import org.apache.isis.core.metamodel.facets.all.named.NamedFacet;
 import org.apache.isis.core.metamodel.facets.collections.accessor.CollectionAccessorFacetViaAccessor;
 import org.apache.isis.core.metamodel.facets.collections.accessor.CollectionAccessorFacetViaAccessorFactory;
+import org.apache.isis.core.metamodel.facets.collections.accessor.CollectionCountFacetViaAccessor;
 import org.apache.isis.core.metamodel.facets.collections.clear.CollectionClearFacetFactory;
+import org.apache.isis.core.metamodel.facets.collections.count.CollectionCountFacet;
 import org.apache.isis.core.metamodel.facets.collections.clear.CollectionClearFacetViaAccessor;
 import org.apache.isis.core.metamodel.facets.collections.clear.CollectionClearFacetViaClearMethod;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionAddToFacet;
@@ -102,6 +108,34 @@ public Collection getOrders() {
         assertTrue(methodRemover.getRemovedMethodMethodCalls().contains(collectionAccessorMethod));
     }
 
+    public static class CustomerWithOrders {
+        public List<String> getOrders() {
+            return Arrays.asList("a", "b", "c");
+        }
+    }
+
+    public void testCollectionCountFacetIsInstalledAndCountsUsingSize() {
+        final CollectionAccessorFacetViaAccessorFactory facetFactory = new CollectionAccessorFacetViaAccessorFactory();
+
+        facetFactory.setServicesInjector(stubServicesInjector);
+
+        final Method collectionAccessorMethod = findMethod(CustomerWithOrders.class, "getOrders");
+
+        facetFactory.process(new ProcessMethodContext(CustomerWithOrders.class, null, null, collectionAccessorMethod, methodRemover, facetedMethod));
+
+        final Facet facet = facetedMethod.getFacet(CollectionCountFacet.class);
+        assertNotNull(facet);
+        assertTrue(facet instanceof CollectionCountFacetViaAccessor);
+
+        final ObjectAdapter mockAdapter = context.mock(ObjectAdapter.class);
+        final CustomerWithOrders customer = new CustomerWithOrders();
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).getObject();
+            will(returnValue(customer));
+        }});
+        assertEquals(3, ((CollectionCountFacet) facet).count(mockAdapter));
+    }
+
     public void testPropertyAccessorFacetIsInstalledForJavaUtilListAndMethodRemoved() {
         final CollectionAccessorFacetViaAccessorFactory facetFactory = new CollectionAccessorFacetViaAccessorFactory();
 
@@ -0,0 +1,148 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.services;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.metamodel.spec.InjectorMethodEvaluator;
+import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ServicesInjectorInjectionPlanTest {
+
+    public static class SomeService1 { }
+
+    public static class SomeService2 { }
+
+    public static class SomeService2Replacement extends SomeService2 { }
+
+    public static class SomeDomainObjectAbstract {
+        @javax.inject.Inject
+        private SomeService1 someService1;
+        SomeService1 getSomeService1() {
+            return someService1;
+        }
+    }
+
+    public static class SomeDomainObject extends SomeDomainObjectAbstract {
+        @javax.inject.Inject
+        private List<Object> allServices;
+        List<Object> getAllServices() {
+            return allServices;
+        }
+
+        private SomeService2 someService2;
+        SomeService2 getSomeService2() {
+            return someService2;
+        }
+        public void setSomeService2(final SomeService2 someService2) {
+            this.someService2 = someService2;
+        }
+    }
+
+    static class InjectorMethodEvaluatorCounting implements InjectorMethodEvaluator {
+        private final InjectorMethodEvaluator delegate = new InjectorMethodEvaluatorDefault();
+        int count;
+
+        @Override
+        public boolean isInjectorMethodFor(final Method method, final Class<? extends Object> serviceClass) {
+            count++;
+            return delegate.isInjectorMethodFor(method, serviceClass);
+        }
+    }
+
+    private SomeService1 service1;
+    private SomeService2 service2;
+    private InjectorMethodEvaluatorCounting injectorMethodEvaluator;
+    private ServicesInjector injector;
+
+    @Before
+    public void setUp() throws Exception {
+        service1 = new SomeService1();
+        service2 = new SomeService2();
+        injectorMethodEvaluator = new InjectorMethodEvaluatorCounting();
+        injector = new ServicesInjector(
+                Lists.<Object>newArrayList(service1, service2), new IsisConfigurationDefault(), injectorMethodEvaluator);
+    }
+
+    @Test
+    public void injects_fields_and_setters() throws Exception {
+        final SomeDomainObject domainObject = new SomeDomainObject();
+
+        injector.injectServicesInto(domainObject);
+
+        assertThat(domainObject.getSomeService1(), is(sameInstance(service1)));
+        assertThat(domainObject.getSomeService2(), is(sameInstance(service2)));
+        assertThat(domainObject.getAllServices().size(), is(2));
+    }
+
+    @Test
+    public void plan_is_computed_once_per_class() throws Exception {
+        injector.injectServicesInto(new SomeDomainObject());
+        final int count = injectorMethodEvaluator.count;
+
+        final SomeDomainObject domainObject = new SomeDomainObject();
+        injector.injectServicesInto(domainObject);
+
+        assertThat(injectorMethodEvaluator.count, is(count));
+        assertThat(domainObject.getSomeService1(), is(sameInstance(service1)));
+        assertThat(domainObject.getSomeService2(), is(sameInstance(service2)));
+    }
+
+    @Test
+    public void plan_is_recomputed_when_service_replaced() throws Exception {
+        injector.injectServicesInto(new SomeDomainObject());
+
+        final SomeService2Replacement replacement = new SomeService2Replacement();
+        injector.replaceService(service2, replacement);
+
+        final SomeDomainObject domainObject = new SomeDomainObject();
+        injector.injectServicesInto(domainObject);
+
+        assertThat(domainObject.getSomeService2(), is(sameInstance((SomeService2) replacement)));
+        assertThat(domainObject.getAllServices().contains(replacement), is(true));
+    }
+
+    @Test
+    public void plan_is_recomputed_when_fallback_added() throws Exception {
+        final ServicesInjector injector = new ServicesInjector(
+                Lists.<Object>newArrayList(service1), new IsisConfigurationDefault(), injectorMethodEvaluator);
+        final SomeDomainObject before = new SomeDomainObject();
+        injector.injectServicesInto(before);
+        assertThat(before.getSomeService2(), is((SomeService2) null));
+
+        injector.addFallbackIfRequired(SomeService2.class, service2);
+
+        final SomeDomainObject after = new SomeDomainObject();
+        injector.injectServicesInto(after);
+        assertThat(after.getSomeService2(), is(sameInstance(service2)));
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.services.bookmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.registry.ServiceRegistry2;
+import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BookmarkServiceInternalDefaultTest_lookupAll {
+
+    public static class SomeService {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSessionServiceInternal mockPersistenceSessionServiceInternal;
+
+    @Mock
+    private ServiceRegistry2 mockServiceRegistry2;
+
+    private final SomeService someService = new SomeService();
+
+    private BookmarkServiceInternalDefault bookmarkService;
+
+    @Before
+    public void setUp() throws Exception {
+        bookmarkService = new BookmarkServiceInternalDefault();
+        bookmarkService.persistenceSessionServiceInternal = mockPersistenceSessionServiceInternal;
+        bookmarkService.serviceRegistry2 = mockServiceRegistry2;
+
+        context.checking(new Expectations() {{
+            allowing(mockServiceRegistry2).getRegisteredServices();
+            will(returnValue(Collections.<Object>singletonList(someService)));
+        }});
+    }
+
+    @Test
+    public void looks_up_entities_in_one_batch_preserving_order() throws Exception {
+
+        final Bookmark customer1 = new Bookmark("CUS", "1");
+        final Bookmark order1 = new Bookmark("ORD", "1");
+        final Bookmark customer2 = new Bookmark("CUS", "2");
+        final Bookmark service = new Bookmark(SomeService.class.getName(), "1");
+
+        final Object customer1Obj = new Object();
+        final Object order1Obj = new Object();
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSessionServiceInternal).lookupAll(
+                    Arrays.asList(customer1, order1, customer2), BookmarkService2.FieldResetPolicy.DONT_RESET);
+            will(returnValue(Arrays.asList(customer1Obj, order1Obj, null)));
+        }});
+
+        final List<Object> objects = bookmarkService.lookupAll(
+                Arrays.asList(customer1, service, null, order1, customer2),
+                BookmarkService2.FieldResetPolicy.DONT_RESET);
+
+        assertThat(objects, is(Arrays.asList(customer1Obj, someService, null, order1Obj, null)));
+    }
+
+    @Test
+    public void when_only_services() throws Exception {
+
+        final Bookmark service = new Bookmark(SomeService.class.getName(), "1");
+
+        context.checking(new Expectations() {{
+            never(mockPersistenceSessionServiceInternal);
+        }});
+
+        final List<Object> objects = bookmarkService.lookupAll(
+                Arrays.asList(service, null), BookmarkService2.FieldResetPolicy.RESET);
+
+        assertThat(objects, is(Arrays.<Object>asList(someService, null)));
+    }
+
+}
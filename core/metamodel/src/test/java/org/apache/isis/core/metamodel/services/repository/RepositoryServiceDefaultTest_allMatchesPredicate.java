@@ -0,0 +1,149 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.services.repository;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindByPredicate;
+import org.apache.isis.applib.query.QueryPredicate;
+import org.apache.isis.applib.services.repository.CloseableIterator;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class RepositoryServiceDefaultTest_allMatchesPredicate {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSessionServiceInternal mockPersistenceSessionServiceInternal;
+
+    private final List<Query<?>> submitted = Lists.newArrayList();
+    private boolean closed;
+
+    private RepositoryServiceInternalDefault repositoryService;
+
+    @Before
+    public void setUp() throws Exception {
+        repositoryService = new RepositoryServiceInternalDefault() {
+            @Override <T> List<T> submitQuery(final Query<T> query) {
+                submitted.add(query);
+                return Collections.emptyList();
+            }
+        };
+        repositoryService.persistenceSessionServiceInternal = mockPersistenceSessionServiceInternal;
+        repositoryService.init(Collections.singletonMap(RepositoryServiceInternalDefault.KEY_DISABLE_AUTOFLUSH, "true"));
+    }
+
+    @Test
+    public void when_query_predicate() throws Exception {
+        final QueryPredicate<Integer> predicate = QueryPredicate.gt("value", 5);
+
+        repositoryService.allMatches(Integer.class, predicate, 10, 20);
+
+        assertThat(submitted.size(), is(1));
+        assertThat(submitted.get(0), is(instanceOf(QueryFindByPredicate.class)));
+        final QueryFindByPredicate<?> query = (QueryFindByPredicate<?>) submitted.get(0);
+        assertThat(query.getPredicate(), is(sameInstance((Object) predicate)));
+        assertThat(query.getStart(), is(10L));
+        assertThat(query.getCount(), is(20L));
+    }
+
+    @Test
+    public void when_opaque_predicate_then_range_applies_to_those_matching_and_others_evicted() throws Exception {
+        // given
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            final ObjectAdapter mockAdapter = context.mock(ObjectAdapter.class, "adapter" + i);
+            final Integer pojo = i;
+            context.checking(new Expectations() {{
+                allowing(mockAdapter).getObject();
+                will(returnValue(pojo));
+            }});
+            adapters.add(mockAdapter);
+        }
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSessionServiceInternal).streamMatchingQuery(
+                    with(any(QueryFindAllInstances.class)), with(any(Integer.class)), with(false));
+            will(returnValue(closeableIteratorOver(adapters)));
+
+            // those that don't match, or match but precede the range, are evicted
+            oneOf(mockPersistenceSessionServiceInternal).evictIfUnmodified(adapters.get(0));
+            oneOf(mockPersistenceSessionServiceInternal).evictIfUnmodified(adapters.get(1));
+            oneOf(mockPersistenceSessionServiceInternal).evictIfUnmodified(adapters.get(3));
+        }});
+
+        // when
+        final List<Integer> matching = repositoryService.allMatches(Integer.class, new Predicate<Integer>() {
+            @Override
+            public boolean apply(final Integer input) {
+                return input % 2 == 0;
+            }
+        }, 1, 2);
+
+        // then
+        assertThat(matching, is((List<Integer>) Lists.newArrayList(2, 4)));
+        assertThat(closed, is(true));
+        assertThat(submitted.isEmpty(), is(true));
+    }
+
+    private CloseableIterator<ObjectAdapter> closeableIteratorOver(final List<ObjectAdapter> adapters) {
+        final Iterator<ObjectAdapter> iterator = adapters.iterator();
+        return new CloseableIterator<ObjectAdapter>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+            @Override
+            public ObjectAdapter next() {
+                return iterator.next();
+            }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+
+}
@@ -20,6 +20,7 @@
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.collect.Maps;
 
@@ -37,6 +38,7 @@
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
@@ -116,4 +118,70 @@ public void getByObjectType_whenSet() {
         assertSame(objectSpec, customerSpec);
     }
 
+    @Test
+    public void awaitIntrospected_whenNotIntrospecting() {
+        assertThat(specificationCache.awaitIntrospected(Customer.class.getName()), is(0L));
+    }
+
+    @Test
+    public void awaitIntrospected_whenIntrospectingOnSameThread() {
+        specificationCache.introspecting(Customer.class.getName());
+
+        assertThat(specificationCache.awaitIntrospected(Customer.class.getName()), is(0L));
+    }
+
+    @Test
+    public void awaitIntrospected_whenIntrospectingOnOtherThread() throws Exception {
+        final String customerClassName = Customer.class.getName();
+        specificationCache.introspecting(customerClassName);
+
+        final AtomicLong awaited = new AtomicLong(-1L);
+        final Thread other = new Thread() {
+            @Override
+            public void run() {
+                awaited.set(specificationCache.awaitIntrospected(customerClassName));
+            }
+        };
+        other.start();
+        awaitBlocked(other);
+
+        specificationCache.introspected(customerClassName);
+        other.join();
+
+        assertFalse(awaited.get() <= 0L);
+    }
+
+    @Test
+    public void awaitIntrospected_whenWouldDeadlock() throws Exception {
+        final String customerClassName = Customer.class.getName();
+        final String orderClassName = Order.class.getName();
+
+        // this thread introspects Customer...
+        specificationCache.introspecting(customerClassName);
+
+        // ... while the other introspects Order and then waits for Customer
+        final Thread other = new Thread() {
+            @Override
+            public void run() {
+                specificationCache.introspecting(orderClassName);
+                specificationCache.awaitIntrospected(customerClassName);
+                specificationCache.introspected(orderClassName);
+            }
+        };
+        other.start();
+        awaitBlocked(other);
+
+        // so waiting for Order would deadlock; returns immediately instead.
+        assertThat(specificationCache.awaitIntrospected(orderClassName), is(0L));
+
+        specificationCache.introspected(customerClassName);
+        other.join();
+    }
+
+    private static void awaitBlocked(final Thread thread) throws InterruptedException {
+        while(thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
 }
@@ -0,0 +1,209 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.metamodel.deployment.DeploymentCategoryProvider;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.services.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectSpecificationAbstractTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private SpecificationLoader mockSpecificationLoader;
+    @Mock
+    private DeploymentCategoryProvider mockDeploymentCategoryProvider;
+    @Mock
+    private OneToOneAssociation mockAssociation;
+
+    public interface MarkerFacet extends Facet {
+    }
+
+    public static class MarkerFacetImpl extends FacetAbstract implements MarkerFacet {
+        public MarkerFacetImpl(final FacetHolder holder) {
+            super(MarkerFacet.class, holder, Derivation.NOT_DERIVED);
+        }
+    }
+
+    /**
+     * The superclass is set directly (and this spec registered as its subclass), rather than by introspection.
+     */
+    static class SpecWithSuperclass extends ObjectSpecificationOnStandaloneList {
+        private final ObjectSpecification superclassSpec;
+
+        SpecWithSuperclass(final ServicesInjector servicesInjector, final ObjectSpecification superclassSpec) {
+            super(servicesInjector, null);
+            this.superclassSpec = superclassSpec;
+            if(superclassSpec != null) {
+                updateAsSubclassTo(superclassSpec);
+            }
+            setIntrospectionState(IntrospectionState.INTROSPECTED);
+        }
+
+        @Override
+        public ObjectSpecification superclass() {
+            return superclassSpec;
+        }
+    }
+
+    private SpecWithSuperclass rootSpec;
+    private SpecWithSuperclass middleSpec;
+    private SpecWithSuperclass leafSpec;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockDeploymentCategoryProvider).getDeploymentCategory();
+            will(returnValue(DeploymentCategory.PRODUCTION));
+        }});
+
+        final IsisConfigurationDefault stubConfiguration = new IsisConfigurationDefault(null);
+        final ServicesInjector stubServicesInjector = new ServicesInjector(
+                Lists.<Object>newArrayList(mockSpecificationLoader, mockDeploymentCategoryProvider),
+                stubConfiguration);
+
+        rootSpec = new SpecWithSuperclass(stubServicesInjector, null);
+        middleSpec = new SpecWithSuperclass(stubServicesInjector, rootSpec);
+        leafSpec = new SpecWithSuperclass(stubServicesInjector, middleSpec);
+    }
+
+    @Test
+    public void inherits_facet_added_to_superclass_after_being_resolved_as_absent() throws Exception {
+        // given
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(nullValue()));
+
+        // when
+        final MarkerFacetImpl facet = new MarkerFacetImpl(rootSpec);
+        rootSpec.addFacet(facet);
+
+        // then
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(sameInstance((MarkerFacet) facet)));
+        assertThat(middleSpec.getFacet(MarkerFacet.class), is(sameInstance((MarkerFacet) facet)));
+    }
+
+    @Test
+    public void own_facet_overrides_that_of_superclass() throws Exception {
+        // given
+        rootSpec.addFacet(new MarkerFacetImpl(rootSpec));
+        leafSpec.getFacet(MarkerFacet.class);
+
+        // when
+        final MarkerFacetImpl facet = new MarkerFacetImpl(leafSpec);
+        leafSpec.addFacet(facet);
+
+        // then
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(sameInstance((MarkerFacet) facet)));
+    }
+
+    @Test
+    public void no_longer_inherits_facet_removed_from_superclass() throws Exception {
+        // given
+        final MarkerFacetImpl facet = new MarkerFacetImpl(middleSpec);
+        middleSpec.addFacet(facet);
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(sameInstance((MarkerFacet) facet)));
+
+        // when
+        middleSpec.removeFacet(facet);
+
+        // then
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(nullValue()));
+    }
+
+    @Test
+    public void resolves_through_hierarchy_while_superclass_not_yet_introspected() throws Exception {
+        // given
+        rootSpec.setIntrospectionState(ObjectSpecificationAbstract.IntrospectionState.BEING_INTROSPECTED);
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(nullValue()));
+
+        // when
+        final MarkerFacetImpl facet = new MarkerFacetImpl(rootSpec);
+        rootSpec.addFacet(facet);
+
+        // then
+        assertThat(leafSpec.getFacet(MarkerFacet.class), is(sameInstance((MarkerFacet) facet)));
+    }
+
+    @Test
+    public void member_lists_are_memoized() throws Exception {
+        final List<ObjectAssociation> associations = leafSpec.getAssociations(Contributed.EXCLUDED);
+        final List<ObjectAction> actions = leafSpec.getObjectActions(Contributed.EXCLUDED);
+
+        assertThat(leafSpec.getAssociations(Contributed.EXCLUDED), is(sameInstance(associations)));
+        assertThat(leafSpec.getObjectActions(Contributed.EXCLUDED), is(sameInstance(actions)));
+    }
+
+    @Test
+    public void memoized_member_lists_are_discarded_when_updated() throws Exception {
+        // given
+        assertThat(leafSpec.getAssociations(Contributed.EXCLUDED).size(), is(0));
+        context.checking(new Expectations() {{
+            allowing(mockAssociation).getFacet(with(any(Class.class)));
+            will(returnValue(null));
+            allowing(mockAssociation).getIdentifier();
+            will(returnValue(Identifier.propertyOrCollectionIdentifier(Object.class, "someProperty")));
+        }});
+
+        // when
+        leafSpec.sortAndUpdateAssociations(Collections.<ObjectAssociation>singletonList(mockAssociation));
+
+        // then
+        final List<ObjectAssociation> associations = leafSpec.getAssociations(Contributed.EXCLUDED);
+        assertThat(associations.size(), is(1));
+        assertThat(associations.get(0), is(sameInstance((ObjectAssociation) mockAssociation)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void memoized_member_lists_are_immutable() throws Exception {
+        leafSpec.getObjectActions(Contributed.EXCLUDED).clear();
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.util;
+
+import org.junit.Test;
+
+import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
+import org.apache.isis.applib.services.eventbus.TitleUiEvent;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class EventUtilTest {
+
+    public static class EventWithoutNoArgConstructor extends ActionDomainEvent<Object> {
+        public EventWithoutNoArgConstructor(final String unused) {
+        }
+    }
+
+    public static class EventThrowingFromConstructor extends ActionDomainEvent<Object> {
+        public EventThrowingFromConstructor() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @Test
+    public void hasNoArgConstructor() throws Exception {
+        assertThat(EventUtil.hasNoArgConstructor(ActionDomainEvent.Default.class), is(true));
+        assertThat(EventUtil.hasNoArgConstructor(ActionDomainEvent.class), is(false));
+        assertThat(EventUtil.hasNoArgConstructor(EventWithoutNoArgConstructor.class), is(false));
+    }
+
+    @Test
+    public void newEvent() throws Exception {
+        final TitleUiEvent<Object> event1 = EventUtil.newEvent(TitleUiEvent.Default.class);
+        final TitleUiEvent<Object> event2 = EventUtil.newEvent(TitleUiEvent.Default.class);
+
+        assertThat(event1, is(instanceOf(TitleUiEvent.Default.class)));
+        assertThat(event2, is(not(sameInstance(event1))));
+    }
+
+    @Test(expected = InstantiationException.class)
+    public void newEvent_whenNoArgConstructorMissing() throws Exception {
+        EventUtil.newEvent(EventWithoutNoArgConstructor.class);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void newEvent_whenConstructorThrows() throws Exception {
+        EventUtil.newEvent(EventThrowingFromConstructor.class);
+    }
+
+}
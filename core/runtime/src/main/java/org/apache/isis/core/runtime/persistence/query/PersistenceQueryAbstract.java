@@ -86,6 +86,20 @@ public long getStart() {
     public long getCount() {
         return count;
     }
+
+    /**
+     * The (exclusive) index of the last item to return, as per <tt>javax.jdo.Query#setRange(long, long)</tt>.
+     */
+    public long getEnd() {
+        // we default to Integer.MAX_VALUE because HSQLDB blows up 
+        // (with a ClassCastException from Long to Integer) 
+        // if we return Long.MAX_VALUE 
+        return getCount() != 0? getStart() + getCount(): Integer.MAX_VALUE;
+    }
+
+    public boolean hasRange() {
+        return getStart() != 0 || getCount() != 0;
+    }
     
 
     @Override
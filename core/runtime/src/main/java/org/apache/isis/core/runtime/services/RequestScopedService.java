@@ -38,6 +38,11 @@ public interface RequestScopedService {
      * service and bind to the thread, and inject into that service using the provided {@link ServicesInjector}.
      *
      * <p>
+     *     If {@link ServiceInstantiator#KEY_REQUEST_SCOPED_LAZY lazy}, then the underlying service is instead only
+     *     instantiated (and injected into, and its <code>@PostConstruct</code> called) when first used.
+     * </p>
+     *
+     * <p>
      *     This is done before the <code>@PostConstruct</code>, see {@link #__isis_postConstruct()}.
      * </p>
      */
@@ -30,6 +30,10 @@
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+
+import org.axonframework.eventhandling.annotation.EventHandler;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +71,10 @@
  * services can continue to be considered to be singletons.
  * 
  * <p>
+ * If {@link #KEY_REQUEST_SCOPED_LAZY configured}, the actual service object is only created on first use
+ * within the request (unless it subscribes to events).
+ *
+ * <p>
  * <b>Note</b>: there is one limitation to using proxies, namely that field-level injection into
  * request-scoped services is not (yet) supported.
  */
@@ -74,6 +82,28 @@ public final class ServiceInstantiator {
 
     private final static Logger LOG = LoggerFactory.getLogger(ServiceInstantiator.class);
 
+    /**
+     * If set, then the underlying instance of a request-scoped service is only instantiated (and injected into,
+     * and its <code>@PostConstruct</code> called) when the service is first used within the request, rather than
+     * for every request up-front.  Its <code>@PreDestroy</code> is then only called if it was instantiated.
+     *
+     * <p>
+     *     A service's <code>@PostConstruct</code> is then not called at all in a request that does not otherwise use
+     *     it.  A request-scoped subscriber (one declaring <code>@Subscribe</code> or <code>@EventHandler</code>
+     *     methods) typically registers itself with the <code>EventBusService</code> in its
+     *     <code>@PostConstruct</code>, and is otherwise never called directly; if instantiated lazily it would never
+     *     be registered, and (because events that no subscriber could receive are not even posted) its events would
+     *     be silently dropped.  Such services are therefore always instantiated eagerly, even if this is set.  Any
+     *     other request-scoped service relying on the side-effects of its <code>@PostConstruct</code> should not be
+     *     used with this setting.
+     * </p>
+     *
+     * <p>
+     *     Not enabled by default.
+     * </p>
+     */
+    public static final String KEY_REQUEST_SCOPED_LAZY = "isis.services.requestScoped.lazy";
+
     public ServiceInstantiator() {
     }
 
@@ -85,8 +115,18 @@ public ServiceInstantiator() {
      */
     private Map<String, String> props;
 
+    /**
+     * Whether request-scoped services are instantiated lazily; see {@link #KEY_REQUEST_SCOPED_LAZY}.
+     */
+    private boolean lazy;
+
     public void setConfiguration(IsisConfiguration configuration) {
         this.props = configuration.asMap();
+        this.lazy = configuration.getBoolean(KEY_REQUEST_SCOPED_LAZY, false);
+    }
+
+    public boolean isLazy() {
+        return lazy;
     }
 
     private void ensureInitialized() {
@@ -139,6 +179,11 @@ private static <T> T instantiateSingleton(final Class<T> cls) {
     
      
     private <T> T instantiateRequestScopedProxy(final Class<T> cls) {
+        final boolean lazy = this.lazy && !declaresSubscriberMethods(cls);
+        if(this.lazy && !lazy) {
+            LOG.info("Request-scoped service {} subscribes to events, so will be instantiated eagerly", cls.getName());
+        }
+
         final ProxyFactory proxyFactory = new ProxyFactory();
         proxyFactory.setSuperclass(cls);
         proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { RequestScopedService.class, JavassistEnhanced.class }));
@@ -158,7 +203,13 @@ public boolean isHandled(final Method m) {
             final ProxyObject proxyObject = (ProxyObject) newInstance;
             proxyObject.setHandler(new MethodHandler() {
                 private ThreadLocal<T> serviceByThread = new ThreadLocal<>();
-                
+
+                /**
+                 * Only used if lazy; the injector provided at the start of the request, used when the service is
+                 * first used.
+                 */
+                private ThreadLocal<ServicesInjector> servicesInjectorByThread = new ThreadLocal<>();
+
                 @Override
                 public Object invoke(final Object proxied, final Method proxyMethod, final Method proxiedMethod, final Object[] args) throws Throwable {
 
@@ -166,16 +217,27 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
 
                     if(proxyMethod.getName().equals("__isis_startRequest")) {
 
+                        ServicesInjector servicesInjector = (ServicesInjector) args[0];
+                        if(lazy) {
+                            serviceByThread.set(null);
+                            servicesInjectorByThread.set(servicesInjector);
+                            return null;
+                        }
+
                         T service = instantiate(cls);
                         serviceByThread.set(service);
 
-                        ServicesInjector servicesInjector = (ServicesInjector) args[0];
                         servicesInjector.injectServicesInto(service);
 
                         return null;
 
                     } else if(proxyMethod.getName().equals("__isis_postConstruct")) {
 
+                        if(lazy) {
+                            // called when the service is instantiated, if at all
+                            return null;
+                        }
+
                         final T service = serviceByThread.get();
 
                         callPostConstructIfPresent(service);
@@ -185,6 +247,10 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
                     } else if(proxyMethod.getName().equals("__isis_preDestroy")) {
 
                         final T service = serviceByThread.get();
+                        if(service == null) {
+                            // lazy, and never used during this request
+                            return null;
+                        }
 
                         callPreDestroyIfPresent(service);
 
@@ -193,6 +259,7 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
                     } else if(proxyMethod.getName().equals("__isis_endRequest")) {
 
                         serviceByThread.set(null);
+                        servicesInjectorByThread.remove();
                         return null;
 
                     } else if(proxyMethod.getName().equals("hashCode") && proxyMethod.getParameterTypes().length == 0) {
@@ -213,8 +280,17 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
                     } else {
                         T service = serviceByThread.get();
                         if(service == null) {
-                            // shouldn't happen...
-                            throw new IllegalStateException("No service of type " + cls + " is available on this ");
+                            final ServicesInjector servicesInjector = servicesInjectorByThread.get();
+                            if(servicesInjector == null) {
+                                // shouldn't happen...
+                                throw new IllegalStateException("No service of type " + cls + " is available on this ");
+                            }
+
+                            // lazy, and first used during this request
+                            service = instantiate(cls);
+                            serviceByThread.set(service);
+                            servicesInjector.injectServicesInto(service);
+                            callPostConstructIfPresent(service);
                         }
                         final Object proxiedReturn = proxyMethod.invoke(service, args);
                         return proxiedReturn;
@@ -228,6 +304,22 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
         }
     }
 
+    /**
+     * Whether the service declares any methods (in its type hierarchy) annotated with {@link Subscribe} or
+     * {@link EventHandler}; if so, it will need to have registered with the event bus (in its
+     * <code>@PostConstruct</code>) before any events are posted.
+     */
+    static boolean declaresSubscriberMethods(final Class<?> cls) {
+        for (final Class<?> type : TypeToken.of(cls).getTypes().rawTypes()) {
+            for (final Method method : type.getDeclaredMethods()) {
+                if(method.isAnnotationPresent(Subscribe.class) || method.isAnnotationPresent(EventHandler.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private Set<Class<?>> cached = Sets.newHashSet();
     private Map<Class<?>, Method> postConstructMethodsByServiceClass = Maps.newConcurrentMap();
     private Map<Class<?>, Method> preDestroyMethodsByServiceClass = Maps.newConcurrentMap();
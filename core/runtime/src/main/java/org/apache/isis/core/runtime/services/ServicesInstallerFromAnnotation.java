@@ -36,15 +36,12 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
-import org.reflections.Reflections;
-import org.reflections.vfs.Vfs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.isis.applib.AppManifest;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.DomainServiceLayout;
-import org.apache.isis.applib.services.classdiscovery.ClassDiscoveryServiceUsingReflections;
 import org.apache.isis.core.commons.config.IsisConfigurationDefault;
 import org.apache.isis.core.metamodel.util.DeweyOrderComparator;
 
@@ -211,10 +208,9 @@ public void appendServices(final SortedMap<String, SortedSet<String>> positioned
 
         Set<Class<?>> domainServiceTypes = AppManifest.Registry.instance().getDomainServiceTypes();
         if(domainServiceTypes == null) {
-            // if no appManifest
-            Vfs.setDefaultURLTypes(ClassDiscoveryServiceUsingReflections.getUrlTypes());
-            final Reflections reflections = new Reflections(packagePrefixList);
-            domainServiceTypes = reflections.getTypesAnnotatedWith(DomainService.class);
+            // if no appManifest; the scan is shared with RegisterEntities
+            domainServiceTypes = AppManifest.Registry.instance().getTypesAnnotatedWith(
+                    DomainService.class, packagePrefixList);
         }
 
         final List<Class<?>> domainServiceClasses = Lists.newArrayList(Iterables.filter(domainServiceTypes, instantiatable()));
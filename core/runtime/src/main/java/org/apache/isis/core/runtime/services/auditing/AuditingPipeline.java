@@ -0,0 +1,465 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.auditing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.AuditerService2;
+
+/**
+ * Delivers the {@link AuditEntry audit entries} of committed transactions to the auditers on a pool of worker
+ * threads, so that transactions do not wait on (possibly slow) audit sinks.
+ *
+ * <p>
+ *     Each worker has its own bounded queue; all of the entries of a given interaction are routed to the same worker,
+ *     and are delivered in batches (of {@link AuditerService2#auditAll(List) up to around} the configured size) in
+ *     the order in which their transactions committed.  The entries of a transaction are never split across batches.
+ * </p>
+ *
+ * <p>
+ *     If a worker's queue is full then the committing thread waits for up to the configured time (the back-pressure)
+ *     and then, if the queue is still full, instead writes the entries to the spill directory.  Entries still queued on
+ *     shutdown are also spilled.  Spilled entries are replayed (oldest first) whenever a worker is idle, including
+ *     after a restart; they will therefore be delivered after later entries that were not spilled.
+ * </p>
+ *
+ * <p>
+ *     Each batch is delivered to each auditer separately.  If an auditer throws an exception then the batch is
+ *     spilled for that auditer alone, so that the auditers that did record it are not sent it again when it is
+ *     replayed.
+ * </p>
+ *
+ * <p>
+ *     Note that this is <i>not</i> a durable queue: entries are held only in memory until they are either delivered
+ *     or spilled.  They are therefore lost if the JVM exits without an orderly {@link #shutdown() shutdown} (eg is
+ *     killed or crashes), and also if a worker is still delivering a batch when shutdown gives up waiting for it (in
+ *     which case that batch is neither confirmed as delivered nor spilled).  Applications for which the audit trail
+ *     must be complete should either audit synchronously (the default) or ensure that the auditers can keep up.
+ * </p>
+ *
+ * <p>
+ *     The {@link #KEY_SPILL_DIRECTORY spill directory} must be configured explicitly; it should be on persistent
+ *     storage (rather than, for example, a <tt>tmpfs</tt> mount that is cleared on restart) that is not shared with
+ *     any other instance of the application.
+ * </p>
+ */
+public class AuditingPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditingPipeline.class);
+
+    public static final String KEY_ENABLED = "isis.services.auditing.async.enabled";
+
+    public static final String KEY_THREADS = "isis.services.auditing.async.threads";
+    public static final int THREADS_DEFAULT = 1;
+
+    /**
+     * The number of transactions (rather than of entries) that can be queued, per worker thread.
+     */
+    public static final String KEY_QUEUE_CAPACITY = "isis.services.auditing.async.queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 1000;
+
+    public static final String KEY_BATCH_SIZE = "isis.services.auditing.async.batchSize";
+    public static final int BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * How long a committing transaction will wait for space on a full queue before spilling its entries to disk.
+     */
+    public static final String KEY_BLOCK_MILLIS = "isis.services.auditing.async.blockMillis";
+    public static final int BLOCK_MILLIS_DEFAULT = 0;
+
+    /**
+     * Mandatory if {@link #KEY_ENABLED enabled}; there is no default.
+     */
+    public static final String KEY_SPILL_DIRECTORY = "isis.services.auditing.async.spillDirectory";
+
+    private static final long IDLE_MILLIS = 1000L;
+    private static final long REPLAY_RETRY_MILLIS = 30000L;
+
+    private static final String SPILL_FILE_SUFFIX = ".audit";
+
+    /**
+     * Delivers a batch of entries to the auditers, each identified by a name that is stable across restarts.
+     */
+    interface Sink {
+        /**
+         * The names of the (enabled) auditers.
+         */
+        List<String> auditerNames();
+
+        /**
+         * Delivers the entries to the named auditer (only).
+         */
+        void deliver(String auditerName, List<AuditEntry> entries) throws Exception;
+    }
+
+    public static boolean isEnabled(final Map<String, String> properties) {
+        return Boolean.parseBoolean(properties.get(KEY_ENABLED));
+    }
+
+    //region > constructor, start, shutdown
+
+    private final Sink sink;
+    private final int batchSize;
+    private final long blockMillis;
+    private final File spillDirectory;
+    private final List<Worker> workers = Lists.newArrayList();
+
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private volatile long nextReplayAt;
+    private volatile boolean shutdown;
+
+    private final AtomicLong spillSequence = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    AuditingPipeline(final Map<String, String> properties, final Sink sink) {
+        this.sink = sink;
+        this.batchSize = intProperty(properties, KEY_BATCH_SIZE, BATCH_SIZE_DEFAULT);
+        this.blockMillis = intProperty(properties, KEY_BLOCK_MILLIS, BLOCK_MILLIS_DEFAULT);
+
+        final String spillDirectory = properties.get(KEY_SPILL_DIRECTORY);
+        if(Strings.isNullOrEmpty(spillDirectory)) {
+            throw new IllegalStateException(String.format(
+                    "'%s' must be specified if auditing asynchronously ('%s')", KEY_SPILL_DIRECTORY, KEY_ENABLED));
+        }
+        this.spillDirectory = new File(spillDirectory);
+
+        final int threads = intProperty(properties, KEY_THREADS, THREADS_DEFAULT);
+        final int queueCapacity = intProperty(properties, KEY_QUEUE_CAPACITY, QUEUE_CAPACITY_DEFAULT);
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Worker(i, queueCapacity));
+        }
+    }
+
+    private static int intProperty(final Map<String, String> properties, final String key, final int defaultValue) {
+        final String value = properties.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    void start() {
+        if(!spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            LOG.warn("Unable to create audit spill directory '{}'", spillDirectory);
+        }
+        for (final Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Stops the workers, spilling any entries still queued so that they are replayed on the next startup.
+     *
+     * <p>
+     *     Each worker is given a few seconds to finish delivering its current batch; if it has not done so by then,
+     *     that batch is abandoned (and so may or may not have been audited).  Entries submitted concurrently with
+     *     shutdown, after the queues have been drained, are likewise lost.
+     * </p>
+     */
+    void shutdown() {
+        shutdown = true;
+        for (final Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (final Worker worker : workers) {
+            try {
+                worker.thread.join(IDLE_MILLIS * 5);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final List<List<AuditEntry>> remaining = Lists.newArrayList();
+            worker.queue.drainTo(remaining);
+            for (final List<AuditEntry> entries : remaining) {
+                spill(entries);
+            }
+        }
+    }
+
+    //endregion
+
+    //region > submit
+
+    /**
+     * Hands off the entries of a (committed) transaction, to be delivered asynchronously.
+     */
+    void submit(final List<AuditEntry> entries) {
+        if(entries.isEmpty()) {
+            return;
+        }
+        if(shutdown) {
+            spill(entries);
+            return;
+        }
+        final Worker worker = workerFor(entries.get(0).getInteractionId());
+        boolean queued;
+        try {
+            queued = blockMillis > 0
+                    ? worker.queue.offer(entries, blockMillis, TimeUnit.MILLISECONDS)
+                    : worker.queue.offer(entries);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if(!queued) {
+            spill(entries);
+        }
+    }
+
+    private Worker workerFor(final UUID interactionId) {
+        final int hash = interactionId != null ? interactionId.hashCode() : 0;
+        return workers.get((hash & Integer.MAX_VALUE) % workers.size());
+    }
+
+    //endregion
+
+    //region > worker
+
+    private class Worker implements Runnable {
+
+        private final BlockingQueue<List<AuditEntry>> queue;
+        private final Thread thread;
+
+        Worker(final int number, final int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "isis-auditing-" + number);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while(!shutdown) {
+                final List<AuditEntry> first;
+                try {
+                    first = queue.poll(IDLE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    return;
+                }
+                if(first == null) {
+                    replaySpilled();
+                    continue;
+                }
+                final List<AuditEntry> batch = Lists.newArrayList(first);
+                List<AuditEntry> next;
+                while(batch.size() < batchSize && (next = queue.poll()) != null) {
+                    batch.addAll(next);
+                }
+                deliverElseSpill(batch);
+            }
+        }
+    }
+
+    private void deliverElseSpill(final List<AuditEntry> batch) {
+        final List<String> failedAuditerNames = deliver(sink.auditerNames(), batch);
+        if(failedAuditerNames.isEmpty()) {
+            delivered.addAndGet(batch.size());
+            return;
+        }
+        for (final String auditerName : failedAuditerNames) {
+            spill(auditerName, batch);
+        }
+    }
+
+    /**
+     * @return the names of those auditers to which the entries could not be delivered.
+     */
+    private List<String> deliver(final List<String> auditerNames, final List<AuditEntry> entries) {
+        final List<String> failedAuditerNames = Lists.newArrayList();
+        for (final String auditerName : auditerNames) {
+            try {
+                sink.deliver(auditerName, entries);
+            } catch (final Exception ex) {
+                LOG.error("Unable to deliver {} audit entries to '{}'; spilling", entries.size(), auditerName, ex);
+                failedAuditerNames.add(auditerName);
+            }
+        }
+        return failedAuditerNames;
+    }
+
+    //endregion
+
+    //region > spill, replay
+
+    private void spill(final List<AuditEntry> entries) {
+        spill(null, entries);
+    }
+
+    /**
+     * @param auditerName - the auditer to which the entries are still to be delivered, or <tt>null</tt> for all of them.
+     */
+    private void spill(final String auditerName, final List<AuditEntry> entries) {
+        final String name = String.format("%013d-%06d",
+                System.currentTimeMillis(), spillSequence.incrementAndGet() % 1000000);
+        final File tmpFile = new File(spillDirectory, name + ".tmp");
+        final File spillFile = new File(spillDirectory, name + SPILL_FILE_SUFFIX);
+        try {
+            final FileOutputStream fos = new FileOutputStream(tmpFile);
+            try {
+                final ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos));
+                oos.writeObject(auditerName);
+                oos.writeObject(Lists.newArrayList(entries));
+                oos.flush();
+                fos.getFD().sync();
+            } finally {
+                fos.close();
+            }
+            if(!tmpFile.renameTo(spillFile)) {
+                throw new IOException("Unable to rename " + tmpFile + " to " + spillFile);
+            }
+            spilled.addAndGet(entries.size());
+        } catch (final IOException ex) {
+            // last resort, so that they are at least recorded somewhere
+            LOG.error("Unable to spill audit entries to '{}'; entries: {}", spillDirectory, entries, ex);
+        }
+    }
+
+    /**
+     * Delivers any spilled entries, oldest first; performed by only one worker at a time.
+     */
+    void replaySpilled() {
+        if(System.currentTimeMillis() < nextReplayAt || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final File[] spillFiles = spillDirectory.listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(final File dir, final String name) {
+                    return name.endsWith(SPILL_FILE_SUFFIX);
+                }
+            });
+            if(spillFiles == null) {
+                return;
+            }
+            Arrays.sort(spillFiles);
+            for (final File spillFile : spillFiles) {
+                if(shutdown) {
+                    return;
+                }
+                final Spilled spilled = read(spillFile);
+                if(spilled == null) {
+                    continue;
+                }
+                final List<String> auditerNames = sink.auditerNames();
+                if(spilled.auditerName != null && !auditerNames.contains(spilled.auditerName)) {
+                    final File undeliverableFile = new File(spillFile.getPath() + ".undeliverable");
+                    LOG.error("Auditer '{}' of spilled audit entries in '{}' is no longer available; renaming to '{}'",
+                            spilled.auditerName, spillFile, undeliverableFile);
+                    spillFile.renameTo(undeliverableFile);
+                    continue;
+                }
+
+                final List<String> targetAuditerNames = spilled.auditerName != null
+                        ? Collections.singletonList(spilled.auditerName)
+                        : auditerNames;
+                final List<String> failedAuditerNames = deliver(targetAuditerNames, spilled.entries);
+                if(failedAuditerNames.size() == targetAuditerNames.size() && !targetAuditerNames.isEmpty()) {
+                    // nothing delivered; leave in place (so that order is preserved) and retry later
+                    nextReplayAt = System.currentTimeMillis() + REPLAY_RETRY_MILLIS;
+                    return;
+                }
+                // re-spill only for those auditers that have still not recorded the entries
+                for (final String auditerName : failedAuditerNames) {
+                    spill(auditerName, spilled.entries);
+                }
+                if(!spillFile.delete()) {
+                    LOG.warn("Unable to delete '{}'; entries may be audited twice", spillFile);
+                }
+                if(!failedAuditerNames.isEmpty()) {
+                    nextReplayAt = System.currentTimeMillis() + REPLAY_RETRY_MILLIS;
+                    return;
+                }
+                delivered.addAndGet(spilled.entries.size());
+            }
+        } finally {
+            replaying.set(false);
+        }
+    }
+
+    private static class Spilled {
+        private final String auditerName;
+        private final List<AuditEntry> entries;
+        Spilled(final String auditerName, final List<AuditEntry> entries) {
+            this.auditerName = auditerName;
+            this.entries = entries;
+        }
+    }
+
+    private static Spilled read(final File spillFile) {
+        try {
+            final ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+            try {
+                final String auditerName = (String) ois.readObject();
+                @SuppressWarnings("unchecked")
+                final List<AuditEntry> entries = (List<AuditEntry>) ois.readObject();
+                return new Spilled(auditerName, entries);
+            } finally {
+                ois.close();
+            }
+        } catch (final IOException | ClassNotFoundException | ClassCastException ex) {
+            final File corruptFile = new File(spillFile.getPath() + ".corrupt");
+            LOG.error("Unable to read spilled audit entries from '{}'; renaming to '{}'", spillFile, corruptFile, ex);
+            spillFile.renameTo(corruptFile);
+            return null;
+        }
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of entries (since startup) delivered to all of the auditers.
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * The number of entries (since startup) spilled to disk, because the queue was full, an auditer failed (counted
+     * once per failing auditer), or on shutdown.
+     */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    //endregion
+
+}
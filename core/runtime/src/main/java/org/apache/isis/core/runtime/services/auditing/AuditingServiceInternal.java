@@ -18,17 +18,24 @@
  */
 package org.apache.isis.core.runtime.services.auditing;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import com.google.common.collect.Lists;
+
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.audit.AuditEntry;
 import org.apache.isis.applib.services.audit.AuditerService;
+import org.apache.isis.applib.services.audit.AuditerService2;
 import org.apache.isis.applib.services.audit.AuditingService3;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.clock.ClockService;
@@ -39,16 +46,76 @@
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facets.actions.action.invocation.CommandUtil;
 import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.runtime.services.RequestScopedService;
 import org.apache.isis.core.runtime.services.changes.AdapterAndProperty;
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
 import org.apache.isis.core.runtime.services.changes.PreAndPostValues;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
 
 /**
  * Wrapper around {@link org.apache.isis.applib.services.audit.AuditingService3}.  Is a no-op if there is no injected service.
+ *
+ * <p>
+ *     The {@link AuditerService}s are by default called synchronously, as the transaction commits.  If the
+ *     {@link AuditingPipeline} is {@link AuditingPipeline#KEY_ENABLED enabled}, then they are instead called
+ *     asynchronously, once the transaction has committed.
+ * </p>
  */
 @DomainService(nature = NatureOfService.DOMAIN)
 public class AuditingServiceInternal {
 
+    private AuditingPipeline auditingPipeline;
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        if(!AuditingPipeline.isEnabled(properties)) {
+            return;
+        }
+        auditingPipeline = new AuditingPipeline(properties, new AuditingPipeline.Sink() {
+            @Override
+            public List<String> auditerNames() {
+                final List<String> auditerNames = Lists.newArrayList();
+                for (final AuditerService auditerService : auditerServices) {
+                    if (auditerService.isEnabled()) {
+                        auditerNames.add(auditerNameOf(auditerService));
+                    }
+                }
+                return auditerNames;
+            }
+
+            @Override
+            public void deliver(final String auditerName, final List<AuditEntry> entries) {
+                for (final AuditerService auditerService : auditerServices) {
+                    if (auditerNameOf(auditerService).equals(auditerName)) {
+                        auditInSession(auditerService, entries);
+                        return;
+                    }
+                }
+                throw new IllegalArgumentException("No such auditer: " + auditerName);
+            }
+        });
+        auditingPipeline.start();
+    }
+
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if(auditingPipeline != null) {
+            auditingPipeline.shutdown();
+        }
+    }
+
+    /**
+     * The pipeline used to audit asynchronously, or <tt>null</tt> if auditing synchronously.
+     */
+    @Programmatic
+    public AuditingPipeline getAuditingPipeline() {
+        return auditingPipeline;
+    }
+
     Boolean whetherCanAudit;
 
     private boolean canAudit() {
@@ -70,10 +137,16 @@ private boolean determineWhetherCanAudit() {
         return false;
     }
 
+    /**
+     * Audits the changes made to auditable objects in the current transaction.
+     *
+     * @return the entries still to be audited {@link #auditCommitted(List) once the transaction has committed}
+     *          (empty unless auditing asynchronously).
+     */
     @Programmatic
-    public void audit() {
+    public List<AuditEntry> audit() {
         if(!canAudit()) {
-            return;
+            return Collections.emptyList();
         }
         final Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties =
                 changedObjectsServiceInternal.getChangedObjectProperties();
@@ -81,12 +154,49 @@ public void audit() {
         final String currentUser = userService.getUser().getName();
         final java.sql.Timestamp currentTime = clockService.nowAsJavaSqlTimestamp();
 
+        final List<AuditEntry> entries = Lists.newArrayList();
         for (Map.Entry<AdapterAndProperty, PreAndPostValues> auditEntry : changedObjectProperties) {
-            auditChangedProperty(currentTime, currentUser, auditEntry);
+            final AuditEntry entry = auditEntryFor(currentTime, currentUser, auditEntry);
+            if(entry != null) {
+                entries.add(entry);
+            }
+        }
+
+        if(auditingServiceIfAny != null) {
+            for (final AuditEntry entry : entries) {
+                auditingServiceIfAny.audit(
+                        entry.getInteractionId(), entry.getTargetClassName(), entry.getTarget(),
+                        entry.getMemberIdentifier(), entry.getPropertyName(),
+                        entry.getPreValue(), entry.getPostValue(), entry.getUser(), entry.getTimestamp());
+            }
+        }
+
+        if(auditingPipeline != null) {
+            return entries;
         }
+        for (final AuditerService auditerService : auditerServices) {
+            if (auditerService.isEnabled()) {
+                for (final AuditEntry entry : entries) {
+                    audit(auditerService, entry);
+                }
+            }
+        }
+        return Collections.emptyList();
     }
 
-    private void auditChangedProperty(
+    /**
+     * Hands off the entries returned by {@link #audit()} once the transaction has committed, to be audited
+     * asynchronously.
+     */
+    @Programmatic
+    public void auditCommitted(final List<AuditEntry> entries) {
+        if(auditingPipeline == null || entries.isEmpty()) {
+            return;
+        }
+        auditingPipeline.submit(entries);
+    }
+
+    private AuditEntry auditEntryFor(
             final java.sql.Timestamp timestamp,
             final String user,
             final Map.Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
@@ -96,7 +206,7 @@ private void auditChangedProperty(
 
         final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
         if(auditableFacet == null || auditableFacet.isDisabled()) {
-            return;
+            return null;
         }
 
         final Bookmark target = aap.getBookmark();
@@ -113,15 +223,56 @@ private void auditChangedProperty(
         final UUID transactionId = transaction.getTransactionId();
         final int sequence = transaction.getSequence();
 
+        return new AuditEntry(
+                transactionId, sequence, targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+    }
 
-        if(auditingServiceIfAny != null) {
-            auditingServiceIfAny
-                    .audit(transactionId, targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
-        }
-        for (AuditerService auditerService : auditerServices) {
-            if (auditerService.isEnabled()) {
-                auditerService
-                        .audit(transactionId, sequence, targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+    private static void audit(final AuditerService auditerService, final AuditEntry entry) {
+        auditerService.audit(
+                entry.getInteractionId(), entry.getSequence(), entry.getTargetClassName(), entry.getTarget(),
+                entry.getMemberIdentifier(), entry.getPropertyName(),
+                entry.getPreValue(), entry.getPostValue(), entry.getUser(), entry.getTimestamp());
+    }
+
+    /**
+     * Identifies the auditer to the {@link AuditingPipeline}, including within spilled entries (so must be stable
+     * across restarts).  Request-scoped auditers are proxies, so the name is that of the underlying service class
+     * (the proxy's superclass) rather than of the generated proxy class.
+     */
+    private static String auditerNameOf(final AuditerService auditerService) {
+        final Class<?> auditerClass = auditerService instanceof RequestScopedService
+                ? auditerService.getClass().getSuperclass()
+                : auditerService.getClass();
+        return auditerClass.getName();
+    }
+
+    /**
+     * Called by the {@link AuditingPipeline} (on one of its worker threads) to audit a batch of entries with a single
+     * auditer, in a session and transaction of its own (so that a failure of one auditer does not roll back the
+     * entries recorded by another).
+     */
+    private void auditInSession(final AuditerService auditerService, final List<AuditEntry> entries) {
+        isisSessionFactory.doInSession(new Runnable() {
+            @Override
+            public void run() {
+                final IsisTransactionManager transactionManager =
+                        isisSessionFactory.getCurrentSession().getPersistenceSession().getTransactionManager();
+                transactionManager.executeWithinTransaction(new TransactionalClosure() {
+                    @Override
+                    public void execute() {
+                        auditAll(auditerService, entries);
+                    }
+                });
+            }
+        });
+    }
+
+    private static void auditAll(final AuditerService auditerService, final List<AuditEntry> entries) {
+        if(auditerService instanceof AuditerService2) {
+            ((AuditerService2) auditerService).auditAll(entries);
+        } else {
+            for (final AuditEntry entry : entries) {
+                audit(auditerService, entry);
             }
         }
     }
@@ -150,4 +301,7 @@ private void auditChangedProperty(
     @javax.inject.Inject
     TransactionService transactionService;
 
+    @javax.inject.Inject
+    IsisSessionFactory isisSessionFactory;
+
 }
@@ -18,11 +18,22 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.isis.applib.services.background.ActionInvocationMemento;
 import org.apache.isis.applib.services.bookmark.Bookmark;
@@ -34,6 +45,7 @@
 import org.apache.isis.applib.services.iactn.Interaction;
 import org.apache.isis.applib.services.iactn.InteractionContext;
 import org.apache.isis.applib.services.jaxb.JaxbService;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
 import org.apache.isis.core.metamodel.facets.actions.action.invocation.CommandUtil;
@@ -42,6 +54,7 @@
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
 import org.apache.isis.core.runtime.services.memento.MementoServiceDefault;
 import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
@@ -66,9 +79,23 @@
  * <p>
  * This implementation uses the {@link #findBackgroundCommandsToExecute() hook method} so that it is
  * independent of the location where the actions have actually been persisted to.
+ *
+ * <p>
+ * By default the commands are executed one after another, in the calling thread.  If more than one
+ * {@link #KEY_THREADS thread} is configured, then they are instead executed on a pool of worker threads, each with
+ * its own {@link org.apache.isis.core.runtime.system.session.IsisSession session} (and
+ * {@link #workerSessionFor(AuthenticationSession) authentication session}, for the same user).  The commands are partitioned
+ * between the workers by their {@link #targetsOf(Command) targets} (all of them, for a bulk action), so commands for
+ * the same target are still executed in the order in which they were found.  This requires that the commands are themselves entities (so that
+ * each worker can look them up, by bookmark, in its own session); if not, they are executed in the calling thread.
  */
 public abstract class BackgroundCommandExecution extends AbstractIsisSessionTemplate {
 
+    private static final Logger LOG = LoggerFactory.getLogger(BackgroundCommandExecution.class);
+
+    public static final String KEY_THREADS = "isis.services.background.executor.threads";
+    public static final int THREADS_DEFAULT = 1;
+
     private final MementoServiceDefault mementoService;
 
     public BackgroundCommandExecution() {
@@ -91,11 +118,38 @@ public void execute() {
             }
         });
 
-        for (final Command backgroundCommand : backgroundCommands) {
-            execute(transactionManager, backgroundCommand);
+        numberExecuted.set(0);
+        numberFailed.set(0);
+        numberSkipped.set(0);
+        numberPending.set(backgroundCommands.size());
+        final long startedAt = System.currentTimeMillis();
+
+        final int threads = Math.min(threads(), backgroundCommands.size());
+        final List<Bookmark> commandBookmarks = threads > 1 ? commandBookmarksFor(backgroundCommands) : null;
+        if(commandBookmarks != null) {
+            executeInParallel(backgroundCommands, commandBookmarks, threads);
+        } else {
+            for (final Command backgroundCommand : backgroundCommands) {
+                executeAndCount(transactionManager, backgroundCommand);
+            }
+        }
+
+        if(!backgroundCommands.isEmpty()) {
+            final int threadsUsed = commandBookmarks != null ? threads : 1;
+            final long elapsedMillis = Math.max(System.currentTimeMillis() - startedAt, 1L);
+            LOG.info("Executed {} background commands ({} failed, {} skipped) in {}ms, {} per second, using {} thread(s)",
+                    numberExecuted.get(), numberFailed.get(), numberSkipped.get(), elapsedMillis,
+                    numberExecuted.get() * 1000L / elapsedMillis, threadsUsed);
         }
     }
 
+    /**
+     * The number of worker threads to execute the commands on; by default as {@link #KEY_THREADS configured}.
+     */
+    protected int threads() {
+        return getIsisSessionFactory().getConfiguration().getInteger(KEY_THREADS, THREADS_DEFAULT);
+    }
+
     /**
      * Mandatory hook method
      */
@@ -103,11 +157,252 @@ public void execute() {
 
     // //////////////////////////////////////
 
-    
-    private void execute(
+    /**
+     * The bookmarks of the commands, or <tt>null</tt> if any is not an entity (and so could not be looked up by a
+     * worker).
+     */
+    private List<Bookmark> commandBookmarksFor(final List<Command> backgroundCommands) {
+        final List<Bookmark> commandBookmarks = Lists.newArrayList();
+        for (final Command backgroundCommand : backgroundCommands) {
+            final Bookmark commandBookmark = bookmarkService.bookmarkFor(backgroundCommand);
+            if(commandBookmark == null) {
+                return null;
+            }
+            commandBookmarks.add(commandBookmark);
+        }
+        return commandBookmarks;
+    }
+
+    private void executeInParallel(
+            final List<Command> backgroundCommands,
+            final List<Bookmark> commandBookmarks,
+            final int threads) {
+
+        final AuthenticationSession authenticationSession =
+                getIsisSessionFactory().getCurrentSession().getAuthenticationSession();
+        final List<List<Bookmark>> targetsByCommand = Lists.newArrayList();
+        for (final Command backgroundCommand : backgroundCommands) {
+            targetsByCommand.add(targetsOf(backgroundCommand));
+        }
+        final List<List<Bookmark>> partitions = partitionByTargets(targetsByCommand, commandBookmarks, threads);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("isis-background-command-%d").setDaemon(true).build());
+        try {
+            final List<Future<?>> futures = Lists.newArrayList();
+            for (final List<Bookmark> partition : partitions) {
+                if(partition.isEmpty()) {
+                    continue;
+                }
+                final AuthenticationSession workerSession = workerSessionFor(authenticationSession);
+                futures.add(executorService.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        executeInSession(workerSession, partition);
+                    }
+                }));
+            }
+            RuntimeException failure = null;
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException ex) {
+                    if(failure == null) {
+                        failure = Throwables.propagate(ex.getCause());
+                    }
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(ex);
+                }
+            }
+            if(failure != null) {
+                throw failure;
+            }
+        } finally {
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * All of the targets of the command; for a bulk action, {@link Command#getTarget()} is only the first of them.
+     */
+    protected List<Bookmark> targetsOf(final Command backgroundCommand) {
+        final String memento = backgroundCommand.getMemento();
+        if(memento == null || memento.startsWith("<memento")) {
+            final Bookmark target = backgroundCommand.getTarget();
+            return target != null ? Collections.singletonList(target) : Collections.<Bookmark>emptyList();
+        }
+        final CommandDto dto = jaxbService.fromXml(CommandDto.class, memento);
+        return bookmarksFor(CommandDtoUtils.targetsFor(dto).getOid());
+    }
+
+    /**
+     * Partitions the commands (represented by the corresponding element of <tt>items</tt>, with their targets the
+     * corresponding element of <tt>targetsByCommand</tt>) so that all those sharing any target are in the same
+     * partition, retaining their order.
+     *
+     * <p>
+     *     Each target is assigned to a partition by its hash; a command with several targets (a bulk action) assigned
+     *     to different partitions causes those partitions to be merged, so that it is ordered with respect to the
+     *     commands of all of its targets.  Partitions merged into another are left empty.
+     * </p>
+     */
+    static <T> List<List<T>> partitionByTargets(
+            final List<? extends List<Bookmark>> targetsByCommand,
+            final List<T> items,
+            final int numberOfPartitions) {
+
+        // union-find over the partitions; each is merged into the lowest-numbered partition it shares a command with
+        final int[] mergedInto = new int[numberOfPartitions];
+        for (int i = 0; i < numberOfPartitions; i++) {
+            mergedInto[i] = i;
+        }
+        for (final List<Bookmark> targets : targetsByCommand) {
+            for (int j = 1; j < targets.size(); j++) {
+                final int first = find(mergedInto, partitionFor(targets.get(0), numberOfPartitions));
+                final int other = find(mergedInto, partitionFor(targets.get(j), numberOfPartitions));
+                mergedInto[Math.max(first, other)] = Math.min(first, other);
+            }
+        }
+
+        final List<List<T>> partitions = Lists.newArrayList();
+        for (int i = 0; i < numberOfPartitions; i++) {
+            partitions.add(Lists.<T>newArrayList());
+        }
+        for (int i = 0; i < targetsByCommand.size(); i++) {
+            final List<Bookmark> targets = targetsByCommand.get(i);
+            final int partition = targets.isEmpty() ? 0 : partitionFor(targets.get(0), numberOfPartitions);
+            partitions.get(find(mergedInto, partition)).add(items.get(i));
+        }
+        return partitions;
+    }
+
+    private static int partitionFor(final Bookmark target, final int numberOfPartitions) {
+        return (target.hashCode() & Integer.MAX_VALUE) % numberOfPartitions;
+    }
+
+    private static int find(final int[] mergedInto, final int partition) {
+        int root = partition;
+        while(mergedInto[root] != root) {
+            root = mergedInto[root];
+        }
+        return root;
+    }
+
+    /**
+     * An authentication session for a worker, with the same user and roles as that of the caller but with a
+     * {@link AuthenticationSession#getMessageBroker() message broker} (not thread-safe) of its own.
+     */
+    static AuthenticationSession workerSessionFor(final AuthenticationSession authenticationSession) {
+        return new SimpleSession(
+                authenticationSession.getUserName(),
+                authenticationSession.getRoles(),
+                authenticationSession.getValidationCode());
+    }
+
+    /**
+     * Runs on a worker thread; looks up and then executes its commands, in a session of its own.
+     */
+    private void executeInSession(
+            final AuthenticationSession authenticationSession,
+            final List<Bookmark> commandBookmarks) {
+        getIsisSessionFactory().doInSession(new Runnable() {
+            @Override
+            public void run() {
+                final IsisTransactionManager transactionManager = getTransactionManager(getPersistenceSession());
+                final List<Command> backgroundCommands = Lists.newArrayList();
+                transactionManager.executeWithinTransaction(new TransactionalClosure() {
+                    @Override
+                    public void execute() {
+                        final List<Object> commands =
+                                bookmarkService.lookupAll(commandBookmarks, BookmarkService2.FieldResetPolicy.DONT_RESET);
+                        for (int i = 0; i < commands.size(); i++) {
+                            final Object command = commands.get(i);
+                            if(command != null) {
+                                backgroundCommands.add((Command) command);
+                            } else {
+                                // eg deleted since it was found; will never be executed
+                                LOG.warn("Background command {} no longer exists; skipping", commandBookmarks.get(i));
+                                numberSkipped.incrementAndGet();
+                                numberPending.decrementAndGet();
+                            }
+                        }
+                    }
+                });
+                for (final Command backgroundCommand : backgroundCommands) {
+                    executeAndCount(transactionManager, backgroundCommand);
+                }
+            }
+        }, authenticationSession);
+    }
+
+    // //////////////////////////////////////
+
+    private final AtomicInteger numberExecuted = new AtomicInteger();
+    private final AtomicInteger numberFailed = new AtomicInteger();
+    private final AtomicInteger numberSkipped = new AtomicInteger();
+    private final AtomicInteger numberPending = new AtomicInteger();
+
+    /**
+     * The number of commands executed (including those that failed) by the current (or most recent) execution.
+     */
+    public int getNumberExecuted() {
+        return numberExecuted.get();
+    }
+
+    /**
+     * The number of commands that failed (threw an exception) in the current (or most recent) execution.
+     */
+    public int getNumberFailed() {
+        return numberFailed.get();
+    }
+
+    /**
+     * The number of commands that were skipped (not executed) in the current (or most recent) execution, because
+     * they could no longer be looked up by the worker thread assigned to them.
+     */
+    public int getNumberSkipped() {
+        return numberSkipped.get();
+    }
+
+    /**
+     * The number of commands still to be executed by the current execution.
+     */
+    public int getNumberPending() {
+        return numberPending.get();
+    }
+
+    private void executeAndCount(
+            final IsisTransactionManager transactionManager,
+            final Command backgroundCommand) {
+        boolean failed = true;
+        try {
+            failed = !execute(transactionManager, backgroundCommand);
+        } finally {
+            if(failed) {
+                numberFailed.incrementAndGet();
+            }
+            numberExecuted.incrementAndGet();
+            numberPending.decrementAndGet();
+        }
+    }
+
+    // //////////////////////////////////////
+
+
+    /**
+     * @return whether the command succeeded; if not, its exception will have been captured on the command.
+     */
+    private boolean execute(
             final IsisTransactionManager transactionManager,
             final Command backgroundCommand) {
 
+        final AtomicBoolean succeeded = new AtomicBoolean(true);
         transactionManager.executeWithinTransaction(
                 backgroundCommand,
                 new TransactionalClosure() {
@@ -172,6 +467,9 @@ public void execute() {
 
                             final ActionDto actionDto = (ActionDto) memberDto;
 
+                            // load all of the targets up-front, in as few round trips as possible
+                            bookmarkService.lookupAll(bookmarksFor(targetOidDtos), BookmarkService2.FieldResetPolicy.DONT_RESET);
+
                             for (OidDto targetOidDto : targetOidDtos) {
 
                                 final ObjectAdapter targetAdapter = targetAdapterFor(targetOidDto);
@@ -198,10 +496,10 @@ public void execute() {
 
                             final PropertyDto propertyDto = (PropertyDto) memberDto;
 
-                            for (OidDto targetOidDto : targetOidDtos) {
+                            final List<Object> targetObjects =
+                                    bookmarkService.lookupAll(bookmarksFor(targetOidDtos), BookmarkService2.FieldResetPolicy.RESET);
 
-                                final Bookmark bookmark = Bookmark.from(targetOidDto);
-                                final Object targetObject = bookmarkService.lookup(bookmark);
+                            for (Object targetObject : targetObjects) {
 
                                 final ObjectAdapter targetAdapter = adapterFor(targetObject);
 
@@ -217,6 +515,8 @@ public void execute() {
                     }
 
                 } catch (RuntimeException e) {
+                    succeeded.set(false);
+
                     // hmmm, this doesn't really make sense if >1 action
                     //
                     // in any case, the capturing of the result of the action invocation should be the
@@ -261,6 +561,7 @@ private OneToOneAssociation findOneToOneAssociation(
                 return property;
             }
         });
+        return succeeded.get();
     }
 
     protected ObjectAdapter newValueAdapterFor(final PropertyDto propertyDto) {
@@ -319,6 +620,14 @@ private ObjectAdapter argAdapterFor(final ActionInvocationMemento aim, int num)
         }
     }
 
+    private static List<Bookmark> bookmarksFor(final List<OidDto> oidDtos) {
+        final List<Bookmark> bookmarks = Lists.newArrayList();
+        for (final OidDto oidDto : oidDtos) {
+            bookmarks.add(Bookmark.from(oidDto));
+        }
+        return bookmarks;
+    }
+
     protected ObjectAdapter targetAdapterFor(final OidDto targetOidDto) {
 
 //        // this is the original code, but it can be simplified ...
@@ -375,7 +684,7 @@ private static List<ParamDto> paramDtosFrom(final ActionDto actionDto) {
     // //////////////////////////////////////
 
     @javax.inject.Inject
-    private BookmarkService2 bookmarkService;
+    BookmarkService2 bookmarkService;
 
     @javax.inject.Inject
     private JaxbService jaxbService;
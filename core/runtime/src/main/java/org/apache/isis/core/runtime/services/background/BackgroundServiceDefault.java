@@ -22,11 +22,14 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import com.google.common.collect.MapMaker;
+
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
@@ -119,25 +122,24 @@ public <T> T executeMixin(Class<T> mixinClass, Object mixedIn) {
         return newProxy(mixinClass, mixedIn, methodHandler);
     }
 
+    /**
+     * The proxy subclasses, keyed by the class of the domain object or mixin being proxied; lazily constructed.
+     *
+     * <p>
+     *     The proxy subclasses do not depend on the target (nor, for mixins, on the mixed-in domain object); it is the
+     *     {@link MethodHandler} set on each proxy instance that does.
+     * </p>
+     */
+    private final ConcurrentMap<Class<?>, Class<?>> proxySubclassByClass =
+            new MapMaker().weakKeys().concurrencyLevel(10).<Class<?>, Class<?>>makeMap();
+
     @SuppressWarnings("unchecked")
     private <T> T newProxy(
             final Class<? extends Object> cls,
             final Object mixedInIfAny,
             final MethodHandler methodHandler) {
 
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(cls);
-        proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
-
-        proxyFactory.setFilter(new MethodFilter() {
-            @Override
-            public boolean isHandled(final Method m) {
-                // ignore finalize()
-                return !m.getName().equals("finalize");
-            }
-        });
-
-        final Class<T> proxySubclass = proxyFactory.createClass();
+        final Class<T> proxySubclass = (Class<T>) proxySubclassFor(cls);
         try {
             final T newInstance;
             if(mixedInIfAny == null) {
@@ -157,6 +159,34 @@ public boolean isHandled(final Method m) {
         }
     }
 
+    Class<?> proxySubclassFor(final Class<?> cls) {
+        Class<?> proxySubclass = proxySubclassByClass.get(cls);
+        if(proxySubclass == null) {
+            proxySubclass = createProxySubclassFor(cls);
+            final Class<?> existing = proxySubclassByClass.putIfAbsent(cls, proxySubclass);
+            if(existing != null) {
+                proxySubclass = existing;
+            }
+        }
+        return proxySubclass;
+    }
+
+    private static Class<?> createProxySubclassFor(final Class<?> cls) {
+        final ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setSuperclass(cls);
+        proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
+
+        proxyFactory.setFilter(new MethodFilter() {
+            @Override
+            public boolean isHandled(final Method m) {
+                // ignore finalize()
+                return !m.getName().equals("finalize");
+            }
+        });
+
+        return proxyFactory.createClass();
+    }
+
     private <T> Constructor<?> findConstructor(final Class<T> proxySubclass, final Object mixedInIfAny) {
         final Constructor<?>[] constructors = proxySubclass.getConstructors();
         for (Constructor<?> constructor : constructors) {
@@ -19,10 +19,12 @@
 package org.apache.isis.core.runtime.services.changes;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -33,10 +35,15 @@
 import org.apache.isis.applib.annotation.PublishedObject;
 import org.apache.isis.applib.services.HasTransactionId;
 import org.apache.isis.applib.services.WithTransactionScope;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.feature.Contributed;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 
 @DomainService(nature = NatureOfService.DOMAIN)
@@ -62,6 +69,22 @@ public class ChangedObjectsServiceInternal implements WithTransactionScope {
      */
     private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties;
 
+    /**
+     * Used for auditing; for each object enlisted as updated, the names of the fields that the object store reported
+     * as dirty each time that it was flushed (whereupon the object store forgets them).
+     *
+     * <p>
+     *     Together with the fields still dirty at the end of the transaction, these are the only properties whose
+     *     post- values need to be captured.
+     * </p>
+     */
+    private final Map<ObjectAdapter, Set<String>> flushedDirtyFieldNamesByAdapter = Maps.newHashMap();
+
+    /**
+     * The number of property values (pre- and post-) read so far in this transaction.
+     */
+    private int numberObjectPropertiesCaptured;
+
 
     // used for publishing
     private final Map<ObjectAdapter,PublishedObject.ChangeKind> changeKindByEnlistedAdapter = Maps.newLinkedHashMap();
@@ -89,8 +112,14 @@ public void enlistCreated(final ObjectAdapter adapter) {
             return;
         }
 
+        notifyQueryResultsCache(adapter);
+
         enlistForPublishing(adapter, PublishedObject.ChangeKind.CREATE);
 
+        if(!shouldCapturePropertyValues(adapter)) {
+            return;
+        }
+
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
             final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
             if(property.isNotPersisted()) {
@@ -123,8 +152,14 @@ public void enlistUpdating(final ObjectAdapter adapter) {
             return;
         }
 
+        notifyQueryResultsCache(adapter);
+
         enlistForPublishing(adapter, PublishedObject.ChangeKind.UPDATE);
 
+        if(!shouldCapturePropertyValues(adapter)) {
+            return;
+        }
+
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
             final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
             if(property.isNotPersisted()) {
@@ -135,6 +170,7 @@ public void enlistUpdating(final ObjectAdapter adapter) {
                 continue;
             }
             PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
+            numberObjectPropertiesCaptured++;
             enlistedObjectProperties.put(aap, papv);
         }
     }
@@ -157,11 +193,17 @@ public void enlistDeleting(final ObjectAdapter adapter) {
             return;
         }
 
+        notifyQueryResultsCache(adapter);
+
         final boolean enlisted = enlistForPublishing(adapter, PublishedObject.ChangeKind.DELETE);
         if(!enlisted) {
             return;
         }
 
+        if(!shouldCapturePropertyValues(adapter)) {
+            return;
+        }
+
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
             final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
             if(property.isNotPersisted()) {
@@ -172,11 +214,33 @@ public void enlistDeleting(final ObjectAdapter adapter) {
                 return;
             }
             PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
+            numberObjectPropertiesCaptured++;
             enlistedObjectProperties.put(aap, papv);
         }
     }
 
 
+    /**
+     * Auditing support: for object stores to report the fields of an object that are dirty as it is about to be
+     * flushed, so that the post-modification values of (only) these properties are captured when the transaction
+     * commits.
+     *
+     * <p>
+     * Supported by the JDO object store; check documentation for support in other objectstores.
+     */
+    @Programmatic
+    public void enlistFlushing(final ObjectAdapter adapter, final String[] dirtyFieldNames) {
+        if(dirtyFieldNames == null || changeKindByEnlistedAdapter.get(adapter) != PublishedObject.ChangeKind.UPDATE) {
+            return;
+        }
+        Set<String> flushedDirtyFieldNames = flushedDirtyFieldNamesByAdapter.get(adapter);
+        if(flushedDirtyFieldNames == null) {
+            flushedDirtyFieldNames = Sets.newHashSet();
+            flushedDirtyFieldNamesByAdapter.put(adapter, flushedDirtyFieldNames);
+        }
+        Collections.addAll(flushedDirtyFieldNames, dirtyFieldNames);
+    }
+
     /**
      * @return <code>true</code> if successfully enlisted, <code>false</code> if was already enlisted
      */
@@ -224,6 +288,7 @@ public Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> getChangedObjectProp
 
     private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> capturePostValuesAndDrain(final Map<AdapterAndProperty, PreAndPostValues> changedObjectProperties) {
         final Map<AdapterAndProperty, PreAndPostValues> processedObjectProperties1 = Maps.newLinkedHashMap();
+        final Map<ObjectAdapter, Set<String>> modifiedPropertyIdsByAdapter = Maps.newHashMap();
 
         while(!changedObjectProperties.isEmpty()) {
 
@@ -238,7 +303,16 @@ private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> capturePostValuesAn
                     // JDO, for example, will complain otherwise...
                     papv.setPost(IsisTransaction.Placeholder.DELETED);
                 } else {
+                    if(!modifiedPropertyIdsByAdapter.containsKey(adapter)) {
+                        modifiedPropertyIdsByAdapter.put(adapter, modifiedPropertyIdsOf(adapter));
+                    }
+                    final Set<String> modifiedPropertyIds = modifiedPropertyIdsByAdapter.get(adapter);
+                    if(modifiedPropertyIds != null && !modifiedPropertyIds.contains(aap.getPropertyId())) {
+                        // not dirtied, so unchanged
+                        continue;
+                    }
                     papv.setPost(aap.getPropertyValue());
+                    numberObjectPropertiesCaptured++;
                 }
 
                 // if we encounter the same objectProperty again, this will simply overwrite it
@@ -250,12 +324,72 @@ private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> capturePostValuesAn
                 Sets.filter(processedObjectProperties1.entrySet(), PreAndPostValues.Predicates.CHANGED));
     }
 
+    /**
+     * The ids of the properties of an object enlisted as updated that have been modified, or <tt>null</tt> if these
+     * cannot be determined (in which case all properties must be checked).
+     */
+    private Set<String> modifiedPropertyIdsOf(final ObjectAdapter adapter) {
+        if(changeKindByEnlistedAdapter.get(adapter) != PublishedObject.ChangeKind.UPDATE) {
+            return null;
+        }
+        final String[] dirtyFieldNames = dirtyFieldNamesOf(adapter);
+        if(dirtyFieldNames == null) {
+            return null;
+        }
+        final Set<String> modifiedPropertyIds = Sets.newHashSet(dirtyFieldNames);
+        final Set<String> flushedDirtyFieldNames = flushedDirtyFieldNamesByAdapter.get(adapter);
+        if(flushedDirtyFieldNames != null) {
+            modifiedPropertyIds.addAll(flushedDirtyFieldNames);
+        }
+
+        // the object store reports the names of fields; if any of these does not correspond to the id of a
+        // property or collection, then we cannot rely on them
+        final List<ObjectAssociation> associations = adapter.getSpecification().getAssociations(Contributed.EXCLUDED);
+        final Set<String> associationIds = Sets.newHashSet();
+        for (final ObjectAssociation association : associations) {
+            associationIds.add(association.getId());
+        }
+        if(!associationIds.containsAll(modifiedPropertyIds)) {
+            return null;
+        }
+        return modifiedPropertyIds;
+    }
+
+    /**
+     * The names of the fields of the object that the object store currently reports as dirty, or <tt>null</tt> if
+     * not known.
+     */
+    protected String[] dirtyFieldNamesOf(final ObjectAdapter adapter) {
+        final IsisSession isisSession = isisSessionFactory != null ? isisSessionFactory.getCurrentSession() : null;
+        return isisSession != null
+                ? isisSession.getPersistenceSession().getDirtyFieldNames(adapter)
+                : null;
+    }
+
+    private void notifyQueryResultsCache(final ObjectAdapter adapter) {
+        if(queryResultsCache != null) {
+            queryResultsCache.onChanged(adapter.getSpecification().getCorrespondingClass());
+        }
+    }
+
     protected boolean shouldIgnore(final ObjectAdapter adapter) {
         final ObjectSpecification adapterSpec = adapter.getSpecification();
         final Class<?> adapterClass = adapterSpec.getCorrespondingClass();
         return HasTransactionId.class.isAssignableFrom(adapterClass);
     }
 
+    /**
+     * The values of properties need only be captured for objects that are audited or published.
+     */
+    protected boolean shouldCapturePropertyValues(final ObjectAdapter adapter) {
+        final ObjectSpecification adapterSpec = adapter.getSpecification();
+        final AuditableFacet auditableFacet = adapterSpec.getFacet(AuditableFacet.class);
+        if(auditableFacet != null && !auditableFacet.isDisabled()) {
+            return true;
+        }
+        return adapterSpec.containsFacet(PublishedObjectFacet.class);
+    }
+
 
     @Programmatic
     public Map<ObjectAdapter, PublishedObject.ChangeKind> getChangeKindByEnlistedAdapter() {
@@ -276,6 +410,24 @@ public int numberObjectPropertiesModified() {
         return changedObjectProperties.size();
     }
 
+    /**
+     * The number of property values (pre- and post-) read so far in this transaction in order to determine
+     * {@link #numberObjectPropertiesModified() which have been modified}.
+     */
+    @Programmatic
+    public int numberObjectPropertiesCaptured() {
+        return numberObjectPropertiesCaptured;
+    }
+
+    /**
+     * Whether the post- values have been captured, that is, whether the
+     * {@link #numberObjectPropertiesModified() number of properties modified} is known without further work.
+     */
+    @Programmatic
+    public boolean isPostValuesCaptured() {
+        return changedObjectProperties != null;
+    }
+
     /**
      * Intended to be called at the end of a transaction.  (This service really ought to be considered
      * a transaction-scoped service; since that isn't yet supported by the framework, we have to manually reset).
@@ -285,6 +437,8 @@ public int numberObjectPropertiesModified() {
     public void resetForNextTransaction() {
         enlistedObjectProperties.clear();
         changedObjectProperties = null;
+        flushedDirtyFieldNamesByAdapter.clear();
+        numberObjectPropertiesCaptured = 0;
     }
 
 
@@ -293,4 +447,10 @@ static String asString(Object object) {
     }
 
 
+    @Inject
+    QueryResultsCache queryResultsCache;
+
+    @Inject
+    IsisSessionFactory isisSessionFactory;
+
 }
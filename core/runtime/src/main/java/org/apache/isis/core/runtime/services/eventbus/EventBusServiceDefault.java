@@ -16,12 +16,21 @@
  */
 package org.apache.isis.core.runtime.services.eventbus;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+
+import org.axonframework.eventhandling.annotation.EventHandler;
 
 import org.apache.isis.applib.NonRecoverableException;
 import org.apache.isis.applib.annotation.Programmatic;
@@ -31,6 +40,7 @@
 import org.apache.isis.core.commons.lang.ClassUtil;
 import org.apache.isis.core.metamodel.facets.Annotations;
 import org.apache.isis.core.runtime.services.RequestScopedService;
+import org.apache.isis.core.runtime.services.eventbus.adapter.EventBusImplementationCompiled;
 import org.apache.isis.core.runtime.services.eventbus.adapter.EventBusImplementationForAxonSimple;
 import org.apache.isis.core.runtime.services.eventbus.adapter.EventBusImplementationForGuava;
 
@@ -81,6 +91,8 @@ public void register(final Object domainService) {
     public void init(final Map<String, String> properties) {
         this.allowLateRegistration = getElseFalse(properties, KEY_ALLOW_LATE_REGISTRATION);
         this.implementation = getNormalized(properties.get(KEY_EVENT_BUS_IMPLEMENTATION));
+        // subscribers may have registered before the implementation was known
+        resetPotentialSubscribers();
     }
 
     private static String getNormalized(final String implementation) {
@@ -92,6 +104,8 @@ private static String getNormalized(final String implementation) {
                 return "guava";
             } else if("axon".equalsIgnoreCase(implementationTrimmed)) {
                 return "axon";
+            } else if("compiled".equalsIgnoreCase(implementationTrimmed)) {
+                return "compiled";
             } else {
                 return implementationTrimmed;
             }
@@ -110,7 +124,7 @@ boolean isAllowLateRegistration() {
     }
 
     /**
-     * Either &lt;guava&gt; or &lt;axon&gt;, or else the fully qualified class name of an
+     * Either &lt;guava&gt;, &lt;axon&gt; or &lt;compiled&gt;, or else the fully qualified class name of an
      * implementation of {@link org.apache.isis.applib.services.eventbus.EventBusImplementation}.
      */
     private String implementation;
@@ -132,6 +146,9 @@ private EventBusImplementation instantiateEventBus() {
         if("axon".equals(implementation)) {
             return new EventBusImplementationForAxonSimple();
         }
+        if("compiled".equals(implementation)) {
+            return new EventBusImplementationCompiled();
+        }
 
         final Class<?> aClass = ClassUtil.forName(implementation);
         if(EventBusImplementation.class.isAssignableFrom(aClass)) {
@@ -146,6 +163,50 @@ private EventBusImplementation instantiateEventBus() {
     }
     //endregion
 
+    //region > subscribedEventTypesOf
+
+    /**
+     * For the Guava and Axon implementations, the types of the single (respectively first) parameter of methods
+     * annotated with {@link Subscribe} (respectively {@link EventHandler}) anywhere in the subscriber's type
+     * hierarchy.
+     *
+     * <p>
+     *     For a Guava subscriber to {@link DeadEvent}s, returns <tt>null</tt>: such a subscriber would expect to be
+     *     notified of events that no other subscriber has received.
+     * </p>
+     */
+    @Override
+    protected Set<Class<?>> subscribedEventTypesOf(final Class<?> subscriberClass) {
+        if("guava".equals(implementation) || "compiled".equals(implementation)) {
+            final Set<Class<?>> eventTypes = annotatedParameterTypesOf(subscriberClass, Subscribe.class);
+            return eventTypes.contains(DeadEvent.class) ? null : eventTypes;
+        }
+        if("axon".equals(implementation)) {
+            return annotatedParameterTypesOf(subscriberClass, EventHandler.class);
+        }
+        return null;
+    }
+
+    private static Set<Class<?>> annotatedParameterTypesOf(
+            final Class<?> subscriberClass,
+            final Class<? extends Annotation> annotationClass) {
+        final Set<Class<?>> parameterTypes = Sets.newHashSet();
+        for (final Class<?> type : TypeToken.of(subscriberClass).getTypes().rawTypes()) {
+            for (final Method method : type.getDeclaredMethods()) {
+                if(method.isSynthetic() || !method.isAnnotationPresent(annotationClass)) {
+                    continue;
+                }
+                final Class<?>[] methodParameterTypes = method.getParameterTypes();
+                if(methodParameterTypes.length > 0) {
+                    parameterTypes.add(methodParameterTypes[0]);
+                }
+            }
+        }
+        return parameterTypes;
+    }
+
+    //endregion
+
     @javax.inject.Inject
     ServiceRegistry2 serviceRegistry2;
 
@@ -0,0 +1,241 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.eventbus.adapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+
+import org.apache.isis.core.runtime.services.eventbus.EventBusImplementationAbstract;
+
+/**
+ * An event bus that dispatches to methods annotated with Guava's {@link Subscribe} (the same as
+ * {@link EventBusImplementationForGuava}), but which resolves the subscribers of each event type only once
+ * rather than for every event posted, and invokes them using {@link MethodHandle}s.
+ *
+ * <p>
+ *     As for Guava, subscriber methods must accept a single parameter, receive events of that type or any subtype,
+ *     and (unless annotated with {@link AllowConcurrentEvents}) are not called concurrently; an event that no
+ *     subscriber receives is re-posted as a {@link DeadEvent}.  Unlike Guava, though, an event posted by a subscriber
+ *     is dispatched immediately (as is the case for {@link EventBusImplementationForAxonSimple}), rather than being
+ *     queued until all subscribers have received the current event.
+ * </p>
+ *
+ * <p>
+ *     Registering a subscriber replaces the (immutable) tables of subscribers; posting an event does not lock.
+ * </p>
+ */
+public class EventBusImplementationCompiled extends EventBusImplementationAbstract {
+
+    private static final MethodType SUBSCRIBER_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    /**
+     * Those objects already registered, to ignore any subsequent registrations (eg of the proxies of request-scoped
+     * services, which register for every transaction).
+     */
+    private final Set<Object> registered = Sets.newIdentityHashSet();
+
+    /**
+     * The subscribers for each event type, exactly as declared by their subscriber methods.
+     */
+    private volatile Map<Class<?>, List<Subscriber>> subscribersByDeclaredType = ImmutableMap.of();
+
+    /**
+     * The subscribers for each event type actually posted (that is, to the type or any of its supertypes).
+     *
+     * <p>
+     *     Lazily populated, and replaced whenever a new subscriber is registered.
+     * </p>
+     */
+    private volatile ConcurrentMap<Class<?>, Subscriber[]> subscribersByEventType = Maps.newConcurrentMap();
+
+    //region > register, unregister
+
+    @Override
+    public synchronized void register(final Object domainService) {
+        if(!registered.add(domainService)) {
+            return;
+        }
+        final List<Subscriber> subscribers = subscribersFor(domainService);
+        if(subscribers.isEmpty()) {
+            return;
+        }
+
+        final Map<Class<?>, List<Subscriber>> subscribersByDeclaredType = Maps.newLinkedHashMap();
+        for (final Map.Entry<Class<?>, List<Subscriber>> entry : this.subscribersByDeclaredType.entrySet()) {
+            subscribersByDeclaredType.put(entry.getKey(), Lists.newArrayList(entry.getValue()));
+        }
+        for (final Subscriber subscriber : subscribers) {
+            List<Subscriber> subscribersForType = subscribersByDeclaredType.get(subscriber.eventType);
+            if(subscribersForType == null) {
+                subscribersForType = Lists.newArrayList();
+                subscribersByDeclaredType.put(subscriber.eventType, subscribersForType);
+            }
+            subscribersForType.add(subscriber);
+        }
+
+        this.subscribersByDeclaredType = ImmutableMap.copyOf(subscribersByDeclaredType);
+        this.subscribersByEventType = Maps.newConcurrentMap();
+    }
+
+    @Override
+    public void unregister(final Object domainService) {
+        // Intentionally no-op, as for the other implementations (see EventBusService).
+    }
+
+    private static List<Subscriber> subscribersFor(final Object domainService) {
+        final List<Subscriber> subscribers = Lists.newArrayList();
+        final Set<List<Object>> signatures = Sets.newHashSet();
+        for (final Class<?> type : TypeToken.of(domainService.getClass()).getTypes().rawTypes()) {
+            for (final Method method : type.getDeclaredMethods()) {
+                if(method.isSynthetic() || !method.isAnnotationPresent(Subscribe.class)) {
+                    continue;
+                }
+                final Class<?>[] parameterTypes = method.getParameterTypes();
+                if(parameterTypes.length != 1) {
+                    throw new IllegalArgumentException(String.format(
+                            "Method %s has @Subscribe annotation but has %d parameters; subscriber methods must have exactly 1 parameter",
+                            method, parameterTypes.length));
+                }
+                // an overridden method is only subscribed once
+                if(!signatures.add(Arrays.<Object>asList(method.getName(), parameterTypes[0]))) {
+                    continue;
+                }
+                subscribers.add(Subscriber.create(domainService, method, parameterTypes[0]));
+            }
+        }
+        return subscribers;
+    }
+
+    //endregion
+
+    //region > post
+
+    @Override
+    public void post(final Object event) {
+        final Subscriber[] subscribers = subscribersFor(event.getClass());
+        if(subscribers.length == 0) {
+            if(!(event instanceof DeadEvent)) {
+                post(new DeadEvent(this, event));
+            }
+            return;
+        }
+        for (final Subscriber subscriber : subscribers) {
+            try {
+                subscriber.dispatch(event);
+            } catch (final Error error) {
+                throw error;
+            } catch (final Throwable exception) {
+                processException(exception, event);
+            }
+        }
+    }
+
+    private Subscriber[] subscribersFor(final Class<?> eventType) {
+        final ConcurrentMap<Class<?>, Subscriber[]> subscribersByEventType = this.subscribersByEventType;
+        Subscriber[] subscribers = subscribersByEventType.get(eventType);
+        if(subscribers == null) {
+            subscribers = resolveSubscribersFor(eventType);
+            subscribersByEventType.put(eventType, subscribers);
+        }
+        return subscribers;
+    }
+
+    private Subscriber[] resolveSubscribersFor(final Class<?> eventType) {
+        final Map<Class<?>, List<Subscriber>> subscribersByDeclaredType = this.subscribersByDeclaredType;
+        final List<Subscriber> subscribers = Lists.newArrayList();
+        for (final Class<?> type : TypeToken.of(eventType).getTypes().rawTypes()) {
+            final List<Subscriber> subscribersForType = subscribersByDeclaredType.get(type);
+            if(subscribersForType != null) {
+                subscribers.addAll(subscribersForType);
+            }
+        }
+        return subscribers.isEmpty() ? NO_SUBSCRIBERS : subscribers.toArray(new Subscriber[subscribers.size()]);
+    }
+
+    //endregion
+
+    //region > Subscriber
+
+    static class Subscriber {
+
+        static Subscriber create(final Object target, final Method method, final Class<?> eventType) {
+            method.setAccessible(true);
+            final MethodHandle methodHandle;
+            try {
+                final MethodHandle unreflected = MethodHandles.lookup().unreflect(method);
+                methodHandle = (Modifier.isStatic(method.getModifiers()) ? unreflected : unreflected.bindTo(target))
+                        .asType(SUBSCRIBER_TYPE);
+            } catch (final IllegalAccessException e) {
+                // not expected, since made accessible
+                throw new IllegalArgumentException(String.format("Could not access subscriber method %s", method), e);
+            }
+            return method.isAnnotationPresent(AllowConcurrentEvents.class)
+                    ? new Subscriber(eventType, methodHandle)
+                    : new SynchronizedSubscriber(eventType, methodHandle);
+        }
+
+        final Class<?> eventType;
+        private final MethodHandle methodHandle;
+
+        private Subscriber(final Class<?> eventType, final MethodHandle methodHandle) {
+            this.eventType = eventType;
+            this.methodHandle = methodHandle;
+        }
+
+        void dispatch(final Object event) throws Throwable {
+            methodHandle.invokeExact(event);
+        }
+    }
+
+    static class SynchronizedSubscriber extends Subscriber {
+
+        private SynchronizedSubscriber(final Class<?> eventType, final MethodHandle methodHandle) {
+            super(eventType, methodHandle);
+        }
+
+        @Override
+        void dispatch(final Object event) throws Throwable {
+            synchronized (this) {
+                super.dispatch(event);
+            }
+        }
+    }
+
+    //endregion
+
+}
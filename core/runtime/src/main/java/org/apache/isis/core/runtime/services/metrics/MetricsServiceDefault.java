@@ -29,13 +29,14 @@
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
-import org.apache.isis.applib.services.metrics.MetricsService;
+import org.apache.isis.applib.services.metrics.MetricsService2;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
 import org.apache.isis.applib.services.WithTransactionScope;
 
 @RequestScoped
 @DomainService(nature = NatureOfService.DOMAIN)
-public class MetricsServiceDefault implements MetricsService, InstanceLifecycleListener, LoadLifecycleListener, WithTransactionScope {
+public class MetricsServiceDefault implements MetricsService2, InstanceLifecycleListener, LoadLifecycleListener, WithTransactionScope {
 
     private AtomicInteger numberLoaded = new AtomicInteger(0);
 
@@ -49,6 +50,38 @@ public int numberObjectsDirtied() {
         return changedObjectsServiceInternal.numberObjectsDirtied();
     }
 
+    @Override
+    public int numberObjectPropertiesCaptured() {
+        return changedObjectsServiceInternal.numberObjectPropertiesCaptured();
+    }
+
+    @Override
+    public int numberObjectPropertiesModified() {
+        // don't force the post-values to be captured prematurely
+        return changedObjectsServiceInternal.isPostValuesCaptured()
+                ? changedObjectsServiceInternal.numberObjectPropertiesModified()
+                : 0;
+    }
+
+    @Override
+    public long numberSharedQueryResultsCacheHits() {
+        return isSharedQueryResultsCacheEnabled() ? sharedQueryResultsCache.getHitCount() : 0L;
+    }
+
+    @Override
+    public long numberSharedQueryResultsCacheMisses() {
+        return isSharedQueryResultsCacheEnabled() ? sharedQueryResultsCache.getMissCount() : 0L;
+    }
+
+    @Override
+    public long numberSharedQueryResultsCacheEvictions() {
+        return isSharedQueryResultsCacheEnabled() ? sharedQueryResultsCache.getEvictionCount() : 0L;
+    }
+
+    private boolean isSharedQueryResultsCacheEnabled() {
+        return sharedQueryResultsCache != null && sharedQueryResultsCache.isEnabled();
+    }
+
     @Programmatic
     @Override
     public void postLoad(final InstanceLifecycleEvent event) {
@@ -68,4 +101,7 @@ public void resetForNextTransaction() {
     @javax.inject.Inject
     ChangedObjectsServiceInternal changedObjectsServiceInternal;
 
+    @javax.inject.Inject
+    SharedQueryResultsCache sharedQueryResultsCache;
+
 }
@@ -26,6 +26,7 @@
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.applib.services.xactn.Transaction;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.oid.Oid;
@@ -88,6 +89,16 @@ public void remove(final ObjectAdapter adapter) {
         getPersistenceSession().destroyObjectInTransaction(adapter);
     }
 
+    @Override
+    public void makePersistentAll(final List<ObjectAdapter> adapters) {
+        getPersistenceSession().makePersistentInTransaction(adapters);
+    }
+
+    @Override
+    public void removeAll(final List<ObjectAdapter> adapters) {
+        getPersistenceSession().destroyObjectsInTransaction(adapters);
+    }
+
     @Override
     public ObjectAdapter createTransientInstance(final ObjectSpecification spec) {
         return getPersistenceSession().createTransientInstance(spec);
@@ -105,6 +116,13 @@ public Object lookup(
         return getPersistenceSession().lookup(bookmark, fieldResetPolicy);
     }
 
+    @Override
+    public List<Object> lookupAll(
+            final List<Bookmark> bookmarks,
+            final BookmarkService2.FieldResetPolicy fieldResetPolicy) {
+        return getPersistenceSession().lookupAll(bookmarks, fieldResetPolicy);
+    }
+
     @Override
     public Bookmark bookmarkFor(Object domainObject) {
         final ObjectAdapter adapter = getPersistenceSession().adapterFor(domainObject);
@@ -169,6 +187,22 @@ public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
         return getPersistenceSession().allMatchingQuery(query);
     }
 
+    @Override
+    public <T> CloseableIterator<ObjectAdapter> streamMatchingQuery(
+            final Query<T> query, final int fetchSize, final boolean evict) {
+        return getPersistenceSession().streamMatchingQuery(query, fetchSize, evict);
+    }
+
+    @Override
+    public void evictIfUnmodified(final ObjectAdapter adapter) {
+        getPersistenceSession().evictIfUnmodified(adapter);
+    }
+
+    @Override
+    public <T> long countMatchingQuery(final Query<T> query) {
+        return getPersistenceSession().countMatchingQuery(query);
+    }
+
     @Override
     public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
         return getPersistenceSession().firstMatchingQuery(query);
@@ -0,0 +1,984 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.services.publish.PublisherService2;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+import org.apache.isis.schema.utils.ChangesDtoUtils;
+import org.apache.isis.schema.utils.InteractionDtoUtils;
+
+/**
+ * A local, durable outbox of the {@link InteractionDto}s and {@link ChangesDto}s of transactions, delivered to the
+ * {@link PublisherService2}s by a background thread (once each transaction has committed) so that transactions do not
+ * wait on (possibly slow) downstream consumers.
+ *
+ * <p>
+ *     The outbox is an append-only log of memory-mapped segment files; once a segment is full, a new one is started.
+ *     Each record holds the (XML of the) DTO and the id of its transaction, along with its length and a checksum; the
+ *     segment is forced to disk before {@link #append(String, List)} returns.  On startup the end of the log is found
+ *     by scanning the last segment, discarding any record that was only partially written.
+ * </p>
+ *
+ * <p>
+ *     The DTOs are appended (as pending) just before the transaction commits to the object store; once it has
+ *     {@link #committed(String) committed} or {@link #aborted(String) aborted}, a marker record for the transaction
+ *     is appended in turn.  Only the DTOs of committed transactions are delivered; those of aborted transactions are
+ *     skipped, while delivery of all subsequent records waits on any transaction still pending.  On startup, any
+ *     transaction with neither marker (because the process died while it was committing) is in doubt: its DTOs are
+ *     written to the <tt>dead-letter</tt> subdirectory (prefixed <tt>in-doubt-</tt>) rather than delivered.
+ * </p>
+ *
+ * <p>
+ *     The background thread delivers the records in the order in which they were appended, in batches of up to the
+ *     configured size.  The position of the last record delivered is recorded (in the <tt>reader.offset</tt> file)
+ *     only once its batch has been delivered; a batch that fails is retried (in its entirety) after the configured
+ *     delay.  Delivery is therefore at-least-once, including across restarts.  Segments are deleted once all of
+ *     their records have been delivered.
+ * </p>
+ *
+ * <p>
+ *     So that a single record that can never be delivered (a "poison" record) does not block all those after it, a
+ *     batch that has failed the configured {@link #KEY_MAX_ATTEMPTS maximum number of times} is retried one record at
+ *     a time; any record that then fails as many times again is written (as XML) to the <tt>dead-letter</tt>
+ *     subdirectory and skipped.  Dead-lettered records are not delivered automatically.
+ * </p>
+ *
+ * <p>
+ *     The {@link #KEY_DIRECTORY directory} must be configured explicitly; it should be on persistent storage (rather
+ *     than, for example, a <tt>tmpfs</tt> mount that is cleared on restart).  It is locked (using the
+ *     <tt>outbox.lock</tt> file) while the outbox is open, so cannot be shared by two instances of the application.
+ * </p>
+ */
+public class PublishingOutbox {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingOutbox.class);
+
+    public static final String KEY_ENABLED = "isis.services.publishing.outbox.enabled";
+
+    /**
+     * Mandatory if {@link #KEY_ENABLED enabled}; there is no default.
+     */
+    public static final String KEY_DIRECTORY = "isis.services.publishing.outbox.directory";
+
+    /**
+     * The size (in bytes) of each segment file; a record larger than this is written to a segment of its own.
+     */
+    public static final String KEY_SEGMENT_SIZE = "isis.services.publishing.outbox.segmentSize";
+    public static final int SEGMENT_SIZE_DEFAULT = 16 * 1024 * 1024;
+
+    public static final String KEY_BATCH_SIZE = "isis.services.publishing.outbox.batchSize";
+    public static final int BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * How long to wait before retrying a batch that could not be delivered.
+     */
+    public static final String KEY_RETRY_MILLIS = "isis.services.publishing.outbox.retryMillis";
+    public static final int RETRY_MILLIS_DEFAULT = 5000;
+
+    /**
+     * How many times a batch (and then each of its records in turn) is attempted before the records that cannot be
+     * delivered are dead-lettered.
+     */
+    public static final String KEY_MAX_ATTEMPTS = "isis.services.publishing.outbox.maxAttempts";
+    public static final int MAX_ATTEMPTS_DEFAULT = 100;
+
+    private static final long IDLE_MILLIS = 1000L;
+
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+    private static final String OFFSET_FILE_NAME = "reader.offset";
+    private static final String LOCK_FILE_NAME = "outbox.lock";
+    private static final String DEAD_LETTER_DIRECTORY_NAME = "dead-letter";
+
+    /**
+     * length (of the body) and checksum (of the body); the body is the type, the length (one byte) and UTF-8 encoded
+     * id of the transaction and then (unless a marker) the UTF-8 encoded XML.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte TYPE_INTERACTION = 'I';
+    private static final byte TYPE_CHANGES = 'C';
+    private static final byte TYPE_COMMITTED = 'K';
+    private static final byte TYPE_ABORTED = 'A';
+
+    private static final String IN_DOUBT_PREFIX = "in-doubt-";
+
+    private enum Resolution {
+        COMMITTED,
+        ABORTED,
+        /**
+         * Neither committed nor aborted before the process (that appended the records) stopped.
+         */
+        IN_DOUBT
+    }
+
+    /**
+     * Delivers a batch of DTOs (each either an {@link InteractionDto} or a {@link ChangesDto}) to the publishers.
+     */
+    interface Sink {
+        void deliver(List<Object> dtos) throws Exception;
+    }
+
+    public static boolean isEnabled(final Map<String, String> properties) {
+        return Boolean.parseBoolean(properties.get(KEY_ENABLED));
+    }
+
+    //region > constructor, start, shutdown
+
+    private final Sink sink;
+    private final File directory;
+    private final int segmentSize;
+    private final int batchSize;
+    private final long retryMillis;
+    private final int maxAttempts;
+    private final Thread drainer;
+
+    private volatile boolean shutdown;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong inDoubt = new AtomicLong();
+
+    /**
+     * The outcome of each transaction whose marker has not yet been passed by the drainer; a transaction with records
+     * in the log but not in this map is still pending.
+     */
+    private final ConcurrentMap<String, Resolution> resolutions = Maps.newConcurrentMap();
+
+    PublishingOutbox(final Map<String, String> properties, final Sink sink) {
+        this.sink = sink;
+        this.segmentSize = intProperty(properties, KEY_SEGMENT_SIZE, SEGMENT_SIZE_DEFAULT);
+        this.batchSize = intProperty(properties, KEY_BATCH_SIZE, BATCH_SIZE_DEFAULT);
+        this.retryMillis = intProperty(properties, KEY_RETRY_MILLIS, RETRY_MILLIS_DEFAULT);
+        this.maxAttempts = intProperty(properties, KEY_MAX_ATTEMPTS, MAX_ATTEMPTS_DEFAULT);
+
+        final String directory = properties.get(KEY_DIRECTORY);
+        if(Strings.isNullOrEmpty(directory)) {
+            throw new IllegalStateException(String.format(
+                    "'%s' must be specified if publishing via the outbox ('%s')", KEY_DIRECTORY, KEY_ENABLED));
+        }
+        this.directory = new File(directory);
+
+        this.drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "isis-publishing-outbox");
+        this.drainer.setDaemon(true);
+    }
+
+    private static int intProperty(final Map<String, String> properties, final String key, final int defaultValue) {
+        final String value = properties.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Opens (or recovers) the log, and starts delivering any records not yet delivered.
+     */
+    void start() throws IOException {
+        open();
+        drainer.start();
+    }
+
+    /**
+     * Stops delivering and releases the lock on the directory; any records not yet delivered remain in the log, to be
+     * delivered on the next startup.
+     */
+    void shutdown() {
+        shutdown = true;
+        drainer.interrupt();
+        try {
+            drainer.join(IDLE_MILLIS * 5);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unlock();
+    }
+
+    //endregion
+
+    //region > open (recover)
+
+    // guarded by this
+    private Segment writeSegment;
+    private int writePosition;
+    // incremented (and waiters notified) on every append
+    private long writes;
+
+    // the position of the next record to deliver; only accessed by the drainer (once opened)
+    private Segment readSegment;
+    private int readPosition;
+
+    synchronized void open() throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create outbox directory '" + directory + "'");
+        }
+        lock();
+
+        final long[] segmentNumbers = segmentNumbers();
+        final long[] offset = readOffset();
+
+        final long readSegmentNumber;
+        if(offset != null) {
+            readSegmentNumber = offset[0];
+        } else {
+            readSegmentNumber = segmentNumbers.length > 0 ? segmentNumbers[0] : 1L;
+        }
+        for (final long segmentNumber : segmentNumbers) {
+            if(segmentNumber < readSegmentNumber) {
+                deleteSegment(segmentNumber);
+            }
+        }
+
+        final long lastSegmentNumber = segmentNumbers.length > 0 ? segmentNumbers[segmentNumbers.length - 1] : 0L;
+        if(lastSegmentNumber < readSegmentNumber) {
+            writeSegment = Segment.create(segmentFile(readSegmentNumber), readSegmentNumber, segmentSize);
+            writePosition = 0;
+            readSegment = Segment.open(segmentFile(readSegmentNumber), readSegmentNumber);
+            readPosition = 0;
+            return;
+        }
+
+        writeSegment = Segment.open(segmentFile(lastSegmentNumber), lastSegmentNumber);
+        writePosition = endOfRecords(writeSegment);
+
+        readSegment = readSegmentNumber == lastSegmentNumber
+                ? writeSegment
+                : Segment.open(segmentFile(readSegmentNumber), readSegmentNumber);
+        readPosition = offset != null ? (int) offset[1] : 0;
+
+        recoverResolutions();
+    }
+
+    /**
+     * Reads the markers of the records not yet delivered; any transaction without a marker can no longer be
+     * resolved (its process having died between appending its records and committing or aborting), so is in doubt.
+     */
+    private void recoverResolutions() throws IOException {
+        final Set<String> unresolved = Sets.newLinkedHashSet();
+        Segment segment = readSegment;
+        int position = readPosition;
+        while(segment.number != writeSegment.number || position < writePosition) {
+            final int length = segment.lengthAt(position);
+            if(length <= 0 || position + HEADER_SIZE + length > segment.capacity()) {
+                if(segment.number == writeSegment.number) {
+                    break;
+                }
+                segment = Segment.open(segmentFile(segment.number + 1), segment.number + 1);
+                position = 0;
+                continue;
+            }
+            final byte[] body = segment.bodyAt(position, length);
+            final String transactionId =
+                    segment.checksumAt(position) == checksumOf(body) ? transactionIdOf(body) : null;
+            if(transactionId != null) {
+                switch (body[0]) {
+                case TYPE_COMMITTED:
+                    resolutions.put(transactionId, Resolution.COMMITTED);
+                    break;
+                case TYPE_ABORTED:
+                    resolutions.put(transactionId, Resolution.ABORTED);
+                    break;
+                default:
+                    unresolved.add(transactionId);
+                }
+            }
+            position += HEADER_SIZE + length;
+        }
+        for (final String transactionId : unresolved) {
+            if(!resolutions.containsKey(transactionId)) {
+                LOG.warn("Outbox records of transaction {} are in doubt; will dead-letter", transactionId);
+                resolutions.put(transactionId, Resolution.IN_DOUBT);
+            }
+        }
+    }
+
+    // guarded by this
+    private RandomAccessFile lockFile;
+    private FileLock lock;
+
+    /**
+     * Prevents the same directory being used by more than one outbox (whether in this or another process).
+     */
+    private void lock() throws IOException {
+        if(lock != null) {
+            return;
+        }
+        final RandomAccessFile raf = new RandomAccessFile(new File(directory, LOCK_FILE_NAME), "rw");
+        FileLock fileLock = null;
+        try {
+            fileLock = raf.getChannel().tryLock();
+        } catch (final OverlappingFileLockException ex) {
+            // already locked within this JVM
+        } finally {
+            if(fileLock == null) {
+                raf.close();
+            }
+        }
+        if(fileLock == null) {
+            throw new IOException("Outbox directory '" + directory + "' is already in use");
+        }
+        lockFile = raf;
+        lock = fileLock;
+    }
+
+    private synchronized void unlock() {
+        if(lock == null) {
+            return;
+        }
+        try {
+            lock.release();
+            lockFile.close();
+        } catch (final IOException ex) {
+            LOG.warn("Unable to release the lock on outbox directory '{}'", directory, ex);
+        }
+        lock = null;
+        lockFile = null;
+    }
+
+    /**
+     * The position just after the last complete record; anything after this (eg a record only partly written when
+     * the process died) is overwritten by subsequent appends.
+     */
+    private static int endOfRecords(final Segment segment) {
+        int position = 0;
+        while(true) {
+            final int length = segment.lengthAt(position);
+            if(length <= 0) {
+                return position;
+            }
+            if(segment.checksumAt(position) != checksumOf(segment.bodyAt(position, length))) {
+                LOG.warn("Discarding incomplete record at position {} of outbox segment '{}'", position, segment.file);
+                return position;
+            }
+            position += HEADER_SIZE + length;
+        }
+    }
+
+    //endregion
+
+    //region > append
+
+    /**
+     * Appends (as pending) the DTOs (each either an {@link InteractionDto} or a {@link ChangesDto}) of a transaction
+     * that is about to commit; they are delivered only once the transaction is {@link #committed(String) committed}.
+     */
+    void append(final String transactionId, final List<Object> dtos) throws IOException {
+        if(dtos.isEmpty()) {
+            return;
+        }
+        final List<byte[]> bodies = Lists.newArrayList();
+        for (final Object dto : dtos) {
+            bodies.add(encode(dto, transactionId));
+        }
+        synchronized (this) {
+            try {
+                for (final byte[] body : bodies) {
+                    write(body);
+                }
+                writeSegment.force();
+                appended.addAndGet(bodies.size());
+            } finally {
+                writes++;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Marks the (previously {@link #append(String, List) appended}) DTOs of the transaction for delivery, once it has
+     * committed to the object store.
+     */
+    void committed(final String transactionId) throws IOException {
+        resolve(transactionId, TYPE_COMMITTED, Resolution.COMMITTED);
+    }
+
+    /**
+     * Marks the (previously {@link #append(String, List) appended}) DTOs of the transaction to be skipped, the
+     * transaction having aborted.
+     */
+    void aborted(final String transactionId) throws IOException {
+        resolve(transactionId, TYPE_ABORTED, Resolution.ABORTED);
+    }
+
+    private void resolve(final String transactionId, final byte type, final Resolution resolution) throws IOException {
+        final byte[] body = encodeMarker(type, transactionId);
+        synchronized (this) {
+            try {
+                write(body);
+                writeSegment.force();
+            } finally {
+                // even if the marker could not be written, this process knows the outcome (though after a restart,
+                // the transaction would be in doubt)
+                resolutions.put(transactionId, resolution);
+                writes++;
+                notifyAll();
+            }
+        }
+    }
+
+    // guarded by this
+    private void write(final byte[] body) throws IOException {
+        final int recordSize = HEADER_SIZE + body.length;
+        if(writePosition + recordSize > writeSegment.capacity()) {
+            rotate(recordSize);
+        }
+        writeSegment.put(writePosition, checksumOf(body), body);
+        writePosition += recordSize;
+    }
+
+    private void rotate(final int recordSize) throws IOException {
+        writeSegment.force();
+        final long segmentNumber = writeSegment.number + 1;
+        writeSegment = Segment.create(segmentFile(segmentNumber), segmentNumber, Math.max(segmentSize, recordSize));
+        writePosition = 0;
+    }
+
+    //endregion
+
+    //region > drain
+
+    private void drain() {
+        int attempts = 0;
+        // while set, records are delivered one at a time, until the read position reaches this batch's end
+        Batch isolateUntil = null;
+        while(!shutdown) {
+            final long writesSoFar = writesSoFar();
+            final Batch batch;
+            try {
+                batch = nextBatch(isolateUntil != null ? 1 : batchSize);
+            } catch (final IOException ex) {
+                LOG.error("Unable to read from outbox '{}'; will retry", directory, ex);
+                pause(retryMillis);
+                continue;
+            }
+            if(batch == null) {
+                awaitWrite(writesSoFar);
+                continue;
+            }
+            if(!batch.inDoubtXmlByName.isEmpty() && !deadLetterInDoubt(batch)) {
+                pause(retryMillis);
+                continue;
+            }
+            if(!batch.dtos.isEmpty()) {
+                try {
+                    sink.deliver(batch.dtos);
+                } catch (final Exception ex) {
+                    failed.incrementAndGet();
+                    attempts++;
+                    if(attempts < maxAttempts) {
+                        LOG.error("Unable to deliver {} published DTOs; will retry", batch.dtos.size(), ex);
+                        pause(retryMillis);
+                        continue;
+                    }
+                    attempts = 0;
+                    if(isolateUntil == null && batch.dtos.size() > 1) {
+                        LOG.error("Unable to deliver {} published DTOs after {} attempts; will retry individually",
+                                batch.dtos.size(), maxAttempts, ex);
+                        isolateUntil = batch;
+                        continue;
+                    }
+                    LOG.error("Unable to deliver {} published DTOs after {} attempts; dead-lettering",
+                            batch.dtos.size(), maxAttempts, ex);
+                    if(!deadLetter(batch)) {
+                        pause(retryMillis);
+                        continue;
+                    }
+                }
+            }
+            attempts = 0;
+            try {
+                commitOffset(batch);
+            } catch (final IOException ex) {
+                // the batch will be delivered again after a restart
+                LOG.error("Unable to record the outbox offset in '{}'", directory, ex);
+            }
+            if(isolateUntil != null && !isolateUntil.isAfter(batch)) {
+                isolateUntil = null;
+            }
+            delivered.addAndGet(batch.dtos.size() - batch.deadLettered);
+            inDoubt.addAndGet(batch.inDoubtXmlByName.size());
+        }
+    }
+
+    /**
+     * Writes the XML of each of the batch's DTOs to the dead-letter directory, so that they can be skipped.
+     *
+     * @return whether successful; if not, then the batch is retried.
+     */
+    private boolean deadLetter(final Batch batch) {
+        final File deadLetterDirectory = new File(directory, DEAD_LETTER_DIRECTORY_NAME);
+        try {
+            mkdirs(deadLetterDirectory);
+            for (int i = 0; i < batch.dtos.size(); i++) {
+                final String name = String.format("%020d-%010d-%d.xml", batch.segment.number, batch.position, i);
+                Files.write(xmlOf(batch.dtos.get(i)), new File(deadLetterDirectory, name), Charsets.UTF_8);
+            }
+        } catch (final IOException ex) {
+            LOG.error("Unable to dead-letter {} published DTOs to '{}'; will retry", batch.dtos.size(),
+                    deadLetterDirectory, ex);
+            return false;
+        }
+        batch.deadLettered = batch.dtos.size();
+        deadLettered.addAndGet(batch.dtos.size());
+        return true;
+    }
+
+    /**
+     * Writes the XML of each of the batch's in-doubt records to the dead-letter directory, rather than delivering
+     * them; the files are named after the position of the record, so are simply overwritten if the batch is retried.
+     *
+     * @return whether successful; if not, then the batch is retried.
+     */
+    private boolean deadLetterInDoubt(final Batch batch) {
+        final File deadLetterDirectory = new File(directory, DEAD_LETTER_DIRECTORY_NAME);
+        try {
+            mkdirs(deadLetterDirectory);
+            for (final Map.Entry<String, String> entry : batch.inDoubtXmlByName.entrySet()) {
+                Files.write(entry.getValue(), new File(deadLetterDirectory, entry.getKey()), Charsets.UTF_8);
+            }
+        } catch (final IOException ex) {
+            LOG.error("Unable to dead-letter {} in-doubt published DTOs to '{}'; will retry",
+                    batch.inDoubtXmlByName.size(), deadLetterDirectory, ex);
+            return false;
+        }
+        return true;
+    }
+
+    private static void mkdirs(final File directory) throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory '" + directory + "'");
+        }
+    }
+
+    /**
+     * The records following the current read position (up to the batch size, and stopping at the first of a
+     * transaction still pending), or <tt>null</tt> if there are none.
+     */
+    Batch nextBatch() throws IOException {
+        return nextBatch(batchSize);
+    }
+
+    private Batch nextBatch(final int maxRecords) throws IOException {
+        final long lastSegmentNumber;
+        final int lastPosition;
+        synchronized (this) {
+            lastSegmentNumber = writeSegment.number;
+            lastPosition = writePosition;
+        }
+
+        Segment segment = readSegment;
+        int position = readPosition;
+        final List<Object> dtos = Lists.newArrayList();
+        final Map<String, String> inDoubtXmlByName = Maps.newLinkedHashMap();
+        final List<String> resolvedTransactionIds = Lists.newArrayList();
+        boolean advanced = false;
+        while(dtos.size() < maxRecords) {
+            if(segment.number == lastSegmentNumber && position >= lastPosition) {
+                break;
+            }
+            final int length = segment.lengthAt(position);
+            if(length <= 0 || position + HEADER_SIZE + length > segment.capacity()) {
+                if(segment.number == lastSegmentNumber) {
+                    break;
+                }
+                // the rest of this segment was left unused when the log was rotated
+                segment = Segment.open(segmentFile(segment.number + 1), segment.number + 1);
+                position = 0;
+                advanced = true;
+                continue;
+            }
+            final byte[] body = segment.bodyAt(position, length);
+            final String transactionId =
+                    segment.checksumAt(position) == checksumOf(body) ? transactionIdOf(body) : null;
+            if(transactionId == null) {
+                LOG.error("Skipping unreadable record at position {} of outbox segment '{}'", position, segment.file);
+            } else if(body[0] == TYPE_COMMITTED || body[0] == TYPE_ABORTED) {
+                resolvedTransactionIds.add(transactionId);
+            } else {
+                final Resolution resolution = resolutions.get(transactionId);
+                if(resolution == null) {
+                    // still pending; the records after it must wait, so that they are delivered in order
+                    break;
+                }
+                if(resolution == Resolution.IN_DOUBT) {
+                    inDoubtXmlByName.put(
+                            String.format(IN_DOUBT_PREFIX + "%020d-%010d.xml", segment.number, position),
+                            xmlOfBody(body));
+                } else if(resolution == Resolution.COMMITTED) {
+                    final Object dto = decode(body);
+                    if(dto != null) {
+                        dtos.add(dto);
+                    } else {
+                        LOG.error("Skipping unreadable record at position {} of outbox segment '{}'",
+                                position, segment.file);
+                    }
+                }
+            }
+            position += HEADER_SIZE + length;
+            advanced = true;
+        }
+        return advanced
+                ? new Batch(dtos, inDoubtXmlByName, resolvedTransactionIds, segment, position)
+                : null;
+    }
+
+    void commitOffset(final Batch batch) throws IOException {
+        final long previousSegmentNumber = readSegment.number;
+        readSegment = batch.segment;
+        readPosition = batch.position;
+
+        final File tmpFile = new File(directory, OFFSET_FILE_NAME + ".tmp");
+        final File offsetFile = new File(directory, OFFSET_FILE_NAME);
+        final FileOutputStream fos = new FileOutputStream(tmpFile);
+        try {
+            fos.write((readSegment.number + " " + readPosition).getBytes(Charsets.UTF_8));
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        if(!tmpFile.renameTo(offsetFile) && !(offsetFile.delete() && tmpFile.renameTo(offsetFile))) {
+            throw new IOException("Unable to rename " + tmpFile + " to " + offsetFile);
+        }
+
+        for (long segmentNumber = previousSegmentNumber; segmentNumber < readSegment.number; segmentNumber++) {
+            deleteSegment(segmentNumber);
+        }
+
+        // the markers have been passed, so are no longer needed
+        resolutions.keySet().removeAll(batch.resolvedTransactionIds);
+    }
+
+    private synchronized long writesSoFar() {
+        return writes;
+    }
+
+    /**
+     * Waits for a record (or marker) to be appended, unless one already has been since the drainer last looked.
+     */
+    private synchronized void awaitWrite(final long writesSoFar) {
+        try {
+            if(writes == writesSoFar) {
+                wait(IDLE_MILLIS);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void pause(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class Batch {
+        final List<Object> dtos;
+        final Map<String, String> inDoubtXmlByName;
+        final List<String> resolvedTransactionIds;
+        final Segment segment;
+        final int position;
+        int deadLettered;
+
+        Batch(
+                final List<Object> dtos,
+                final Map<String, String> inDoubtXmlByName,
+                final List<String> resolvedTransactionIds,
+                final Segment segment,
+                final int position) {
+            this.dtos = dtos;
+            this.inDoubtXmlByName = inDoubtXmlByName;
+            this.resolvedTransactionIds = resolvedTransactionIds;
+            this.segment = segment;
+            this.position = position;
+        }
+
+        /**
+         * Whether this batch ends after the other batch.
+         */
+        boolean isAfter(final Batch other) {
+            return segment.number > other.segment.number
+                    || segment.number == other.segment.number && position > other.position;
+        }
+    }
+
+    //endregion
+
+    //region > encode, decode
+
+    private static byte[] encode(final Object dto, final String transactionId) {
+        final byte type = dto instanceof InteractionDto ? TYPE_INTERACTION : TYPE_CHANGES;
+        return encode(type, transactionId, xmlOf(dto).getBytes(Charsets.UTF_8));
+    }
+
+    private static byte[] encodeMarker(final byte type, final String transactionId) {
+        return encode(type, transactionId, new byte[0]);
+    }
+
+    private static byte[] encode(final byte type, final String transactionId, final byte[] xmlBytes) {
+        final byte[] transactionIdBytes = transactionId.getBytes(Charsets.UTF_8);
+        if(transactionIdBytes.length > 255) {
+            throw new IllegalArgumentException("Transaction id '" + transactionId + "' is too long");
+        }
+        final byte[] body = new byte[2 + transactionIdBytes.length + xmlBytes.length];
+        body[0] = type;
+        body[1] = (byte) transactionIdBytes.length;
+        System.arraycopy(transactionIdBytes, 0, body, 2, transactionIdBytes.length);
+        System.arraycopy(xmlBytes, 0, body, 2 + transactionIdBytes.length, xmlBytes.length);
+        return body;
+    }
+
+    /**
+     * The id of the transaction of the record, or <tt>null</tt> if the body is malformed.
+     */
+    private static String transactionIdOf(final byte[] body) {
+        if(body.length < 2 || body.length < 2 + (body[1] & 0xff)) {
+            return null;
+        }
+        return new String(body, 2, body[1] & 0xff, Charsets.UTF_8);
+    }
+
+    private static String xmlOfBody(final byte[] body) {
+        final int start = 2 + (body[1] & 0xff);
+        return new String(body, start, body.length - start, Charsets.UTF_8);
+    }
+
+    private static String xmlOf(final Object dto) {
+        if(dto instanceof InteractionDto) {
+            return InteractionDtoUtils.toXml((InteractionDto) dto);
+        }
+        if(dto instanceof ChangesDto) {
+            return ChangesDtoUtils.toXml((ChangesDto) dto);
+        }
+        throw new IllegalArgumentException("Unable to publish " + dto + "; not an InteractionDto or ChangesDto");
+    }
+
+    private static Object decode(final byte[] body) {
+        final String xml = xmlOfBody(body);
+        try {
+            switch (body[0]) {
+            case TYPE_INTERACTION:
+                return InteractionDtoUtils.fromXml(xml);
+            case TYPE_CHANGES:
+                return ChangesDtoUtils.fromXml(xml);
+            default:
+                return null;
+            }
+        } catch (final RuntimeException ex) {
+            LOG.error("Unable to unmarshal published DTO: {}", xml, ex);
+            return null;
+        }
+    }
+
+    private static int checksumOf(final byte[] body) {
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    //endregion
+
+    //region > segments
+
+    private File segmentFile(final long segmentNumber) {
+        return new File(directory, String.format("%020d", segmentNumber) + SEGMENT_FILE_SUFFIX);
+    }
+
+    private long[] segmentNumbers() {
+        final String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(SEGMENT_FILE_SUFFIX);
+            }
+        });
+        final long[] segmentNumbers = new long[names != null ? names.length : 0];
+        for (int i = 0; i < segmentNumbers.length; i++) {
+            segmentNumbers[i] = Long.parseLong(names[i].substring(0, names[i].length() - SEGMENT_FILE_SUFFIX.length()));
+        }
+        Arrays.sort(segmentNumbers);
+        return segmentNumbers;
+    }
+
+    private long[] readOffset() throws IOException {
+        final File offsetFile = new File(directory, OFFSET_FILE_NAME);
+        if(!offsetFile.exists()) {
+            return null;
+        }
+        final String[] parts = Files.toString(offsetFile, Charsets.UTF_8).trim().split(" ");
+        return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+    }
+
+    private void deleteSegment(final long segmentNumber) {
+        final File file = segmentFile(segmentNumber);
+        if(file.exists() && !file.delete()) {
+            LOG.warn("Unable to delete delivered outbox segment '{}'", file);
+        }
+    }
+
+    /**
+     * A segment file, mapped in its entirety.
+     */
+    static class Segment {
+
+        static Segment create(final File file, final long number, final int size) throws IOException {
+            return new Segment(file, number, map(file, size));
+        }
+
+        static Segment open(final File file, final long number) throws IOException {
+            return new Segment(file, number, map(file, (int) file.length()));
+        }
+
+        private static MappedByteBuffer map(final File file, final int size) throws IOException {
+            final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                // the mapping remains valid once the file is closed
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                raf.close();
+            }
+        }
+
+        final File file;
+        final long number;
+        private final MappedByteBuffer buffer;
+
+        private Segment(final File file, final long number, final MappedByteBuffer buffer) {
+            this.file = file;
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        int lengthAt(final int position) {
+            if(position + HEADER_SIZE > buffer.capacity()) {
+                return 0;
+            }
+            final int length = buffer.getInt(position);
+            return position + HEADER_SIZE + length <= buffer.capacity() ? length : -1;
+        }
+
+        int checksumAt(final int position) {
+            return buffer.getInt(position + 4);
+        }
+
+        byte[] bodyAt(final int position, final int length) {
+            final byte[] body = new byte[length];
+            final ByteBuffer view = buffer.duplicate();
+            view.position(position + HEADER_SIZE);
+            view.get(body);
+            return body;
+        }
+
+        /**
+         * The length is written last, so that the record only becomes visible to {@link #endOfRecords(Segment)
+         * recovery} once it is complete.
+         */
+        void put(final int position, final int checksum, final byte[] body) {
+            final ByteBuffer view = buffer.duplicate();
+            view.position(position + HEADER_SIZE);
+            view.put(body);
+            buffer.putInt(position + 4, checksum);
+            buffer.putInt(position, body.length);
+        }
+
+        void force() {
+            buffer.force();
+        }
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of DTOs (since startup) appended to the outbox.
+     */
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    /**
+     * The number of DTOs (since startup) delivered to the publishers; includes any delivered more than once.
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * The number of batches (since startup) that could not be delivered, and were retried.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * The number of DTOs (since startup) that could not be delivered within the maximum number of attempts, and were
+     * written to the dead-letter directory instead.
+     */
+    public long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+
+    /**
+     * The number of DTOs (since startup) of transactions that were neither committed nor aborted before a previous
+     * shutdown, and were written to the dead-letter directory rather than delivered.
+     */
+    public long getInDoubtCount() {
+        return inDoubt.get();
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,207 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.publish.PublisherService;
+import org.apache.isis.applib.services.publish.PublisherService2;
+import org.apache.isis.core.commons.exceptions.IsisException;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+/**
+ * Owns the {@link PublishingOutbox} (if {@link PublishingOutbox#KEY_ENABLED enabled}), through which the
+ * {@link PublisherService2}s are called once the transaction has committed, rather than synchronously within it.
+ *
+ * <p>
+ *     The DTOs of each transaction are appended to the outbox (as pending) just before it commits, and then marked as
+ *     committed or aborted; see {@link IsisTransaction#enlistForOutbox(Object)}.
+ * </p>
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+public class PublishingOutboxServiceInternal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingOutboxServiceInternal.class);
+
+    private PublishingOutbox publishingOutbox;
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        if(!PublishingOutbox.isEnabled(properties)) {
+            return;
+        }
+        final PublishingOutbox outbox = new PublishingOutbox(properties, new PublishingOutbox.Sink() {
+            @Override
+            public void deliver(final List<Object> dtos) {
+                publishInSession(dtos);
+            }
+        });
+        try {
+            outbox.start();
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Unable to open the publishing outbox", ex);
+        }
+        publishingOutbox = outbox;
+    }
+
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if(publishingOutbox != null) {
+            publishingOutbox.shutdown();
+        }
+    }
+
+    /**
+     * The outbox, or <tt>null</tt> if publishing synchronously.
+     */
+    @Programmatic
+    public PublishingOutbox getPublishingOutbox() {
+        return publishingOutbox;
+    }
+
+    /**
+     * Whether this publisher service is to be called via the outbox (rather than synchronously).
+     */
+    @Programmatic
+    public boolean isViaOutbox(final PublisherService publisherService) {
+        return publishingOutbox != null && publisherService instanceof PublisherService2;
+    }
+
+    /**
+     * Appends (and forces to disk) the DTOs enlisted by a transaction, just before it commits; they are published
+     * only once the transaction is then {@link #committed(UUID, int) committed}.
+     *
+     * @throws IsisException if the DTOs could not be appended, so that the transaction is aborted rather than
+     *          committed without them being published.
+     */
+    @Programmatic
+    public void append(final UUID transactionId, final int sequence, final List<Object> dtos) {
+        if(publishingOutbox == null || dtos.isEmpty()) {
+            return;
+        }
+        try {
+            publishingOutbox.append(outboxTransactionIdOf(transactionId, sequence), dtos);
+        } catch (final IOException ex) {
+            throw new IsisException("Unable to append " + dtos.size() + " published DTOs to the outbox", ex);
+        }
+    }
+
+    /**
+     * Marks the DTOs {@link #append(UUID, int, List) appended} by a transaction to be published, now that it has
+     * committed to the object store.
+     *
+     * <p>
+     *     If the marker cannot be written then the DTOs are still published (unless the application is restarted
+     *     first, in which case they are dead-lettered as in doubt); the transaction has already committed, so nothing
+     *     is thrown.
+     * </p>
+     */
+    @Programmatic
+    public void committed(final UUID transactionId, final int sequence) {
+        if(publishingOutbox == null) {
+            return;
+        }
+        try {
+            publishingOutbox.committed(outboxTransactionIdOf(transactionId, sequence));
+        } catch (final IOException ex) {
+            LOG.error("Unable to mark transaction {}.{} as committed in the outbox", transactionId, sequence, ex);
+        }
+    }
+
+    /**
+     * Marks the DTOs {@link #append(UUID, int, List) appended} by a transaction to be skipped, it having aborted.
+     */
+    @Programmatic
+    public void aborted(final UUID transactionId, final int sequence) {
+        if(publishingOutbox == null) {
+            return;
+        }
+        try {
+            publishingOutbox.aborted(outboxTransactionIdOf(transactionId, sequence));
+        } catch (final IOException ex) {
+            LOG.error("Unable to mark transaction {}.{} as aborted in the outbox", transactionId, sequence, ex);
+        }
+    }
+
+    private static String outboxTransactionIdOf(final UUID transactionId, final int sequence) {
+        return transactionId + "." + sequence;
+    }
+
+    /**
+     * Called by the {@link PublishingOutbox} (on its background thread) to publish a batch, in a session and
+     * transaction of its own.
+     */
+    private void publishInSession(final List<Object> dtos) {
+        isisSessionFactory.doInSession(new Runnable() {
+            @Override
+            public void run() {
+                final IsisTransactionManager transactionManager =
+                        isisSessionFactory.getCurrentSession().getPersistenceSession().getTransactionManager();
+                transactionManager.executeWithinTransaction(new TransactionalClosure() {
+                    @Override
+                    public void execute() {
+                        publishAll(dtos);
+                    }
+                });
+            }
+        });
+    }
+
+    void publishAll(final List<Object> dtos) {
+        for (final PublisherService publisherService : publisherServices) {
+            if (!(publisherService instanceof PublisherService2)) {
+                continue;
+            }
+            final PublisherService2 publisherService2 = (PublisherService2) publisherService;
+            for (final Object dto : dtos) {
+                if(dto instanceof InteractionDto) {
+                    publisherService2.publish((InteractionDto) dto);
+                } else if(dto instanceof ChangesDto) {
+                    publisherService2.publish((ChangesDto) dto);
+                }
+            }
+        }
+    }
+
+    @javax.inject.Inject
+    List<PublisherService> publisherServices;
+
+    @javax.inject.Inject
+    IsisSessionFactory isisSessionFactory;
+
+}
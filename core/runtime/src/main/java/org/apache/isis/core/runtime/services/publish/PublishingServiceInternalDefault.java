@@ -71,9 +71,17 @@
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.schema.utils.InteractionDtoUtils;
 
 /**
  * Wrapper around {@link PublishingService}.  Is a no-op if there is no injected service.
+ *
+ * <p>
+ *     The {@link PublisherService}s are by default called synchronously, within the transaction.  If the
+ *     {@link PublishingOutbox} is {@link PublishingOutbox#KEY_ENABLED enabled}, then any that are
+ *     {@link org.apache.isis.applib.services.publish.PublisherService2}s are instead called from the outbox, once the
+ *     transaction has committed.
+ * </p>
  */
 @DomainService(nature = NatureOfService.DOMAIN)
 @RequestScoped
@@ -186,9 +194,17 @@ private void publishObjectsToPublisherServices(
         final PublishedObjects publishedObjects = newPublishedObjects(numberLoaded, numberObjectPropertiesModified,
                 changeKindByPublishedAdapter);
 
+        boolean viaOutbox = false;
         for (PublisherService publisherService : publisherServices) {
+            if(publishingOutboxServiceInternal.isViaOutbox(publisherService)) {
+                viaOutbox = true;
+                continue;
+            }
             publisherService.publish(publishedObjects);
         }
+        if(viaOutbox) {
+            enlistForOutbox(publishedObjects.getDto());
+        }
     }
 
     private PublishedObjects newPublishedObjects(
@@ -393,9 +409,24 @@ private void publishToPublisherServices(final Interaction.Execution<?,?> executi
             return;
         }
 
+        boolean viaOutbox = false;
         for (final PublisherService publisherService : publisherServices) {
+            if(publishingOutboxServiceInternal.isViaOutbox(publisherService)) {
+                viaOutbox = true;
+                continue;
+            }
             publisherService.publish(execution);
         }
+        if(viaOutbox) {
+            enlistForOutbox(InteractionDtoUtils.newInteractionDto(execution));
+        }
+    }
+
+    /**
+     * The DTO is appended to the outbox only once the current transaction has committed.
+     */
+    private void enlistForOutbox(final Object dto) {
+        getPersistenceSession().getTransactionManager().getCurrentTransaction().enlistForOutbox(dto);
     }
 
     //endregion
@@ -428,6 +459,9 @@ public <T> T withPublishingSuppressed(final Block<T> block) {
     @javax.inject.Inject
     private ChangedObjectsServiceInternal changedObjectsServiceInternal;
 
+    @javax.inject.Inject
+    private PublishingOutboxServiceInternal publishingOutboxServiceInternal;
+
     @javax.inject.Inject
     private InteractionDtoServiceInternal interactionDtoServiceInternal;
 
@@ -25,6 +25,7 @@
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.query.QueryDefault;
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindByPredicate;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
@@ -61,6 +62,10 @@ final PersistenceQuery createPersistenceQueryFor(final Query<?> query, final Que
             final QueryFindAllInstances<?> queryFindAllInstances = (QueryFindAllInstances<?>) query;
             return new PersistenceQueryFindAllInstances(noSpec, specificationLoader, queryFindAllInstances.getStart(), queryFindAllInstances.getCount());
         }
+        if (query instanceof QueryFindByPredicate) {
+            final QueryFindByPredicate<?> queryByPredicate = (QueryFindByPredicate<?>) query;
+            return new PersistenceQueryFindByPredicate(noSpec, queryByPredicate.getPredicate(), specificationLoader, queryByPredicate.getStart(), queryByPredicate.getCount());
+        }
         if (query instanceof QueryFindByTitle) {
             final QueryFindByTitle<?> queryByTitle = (QueryFindByTitle<?>) query;
             final String title = queryByTitle.getTitle();
@@ -22,6 +22,7 @@
 import java.lang.reflect.Modifier;
 import java.sql.Timestamp;
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -32,9 +33,12 @@
 import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.listener.InstanceLifecycleListener;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import org.datanucleus.api.jdo.NucleusJDOHelper;
 import org.datanucleus.enhancement.Persistable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +62,7 @@
 import org.apache.isis.applib.services.iactn.Interaction;
 import org.apache.isis.applib.services.iactn.InteractionContext;
 import org.apache.isis.applib.services.metrics.MetricsService;
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.applib.services.user.UserService;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.components.SessionScopedComponent;
@@ -120,6 +125,7 @@
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.TransactionalResource;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPredicate;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQueryDefault;
 import org.apache.isis.core.runtime.runner.opts.OptionHandlerFixtureAbstract;
 import org.apache.isis.core.runtime.services.RequestScopedService;
@@ -134,6 +140,7 @@
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusCreateObjectCommand;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusDeleteObjectCommand;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindAllInstancesProcessor;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindByPredicateProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindUsingApplibQueryProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.spi.JdoObjectIdSerializer;
@@ -311,6 +318,9 @@ public void open() {
         persistenceQueryProcessorByClass.put(
                 PersistenceQueryFindUsingApplibQueryDefault.class,
                 new PersistenceQueryFindUsingApplibQueryProcessor(this));
+        persistenceQueryProcessorByClass.put(
+                PersistenceQueryFindByPredicate.class,
+                new PersistenceQueryFindByPredicateProcessor(this));
 
         initServices();
 
@@ -530,13 +540,72 @@ private void completeCommandFromInteractionAndClearDomainEvents() {
 
     //endregion
 
-    //region > QuerySubmitter impl, findInstancesInTransaction
+    //region > QuerySubmitter impl, streamMatchingQuery, countMatchingQuery, findInstancesInTransaction
 
     public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
         final ObjectAdapter instances = findInstancesInTransaction(query, QueryCardinality.MULTIPLE);
         return CollectionFacetUtils.convertToAdapterList(instances);
     }
 
+    /**
+     * As {@link #allMatchingQuery(Query)}, but returning an iterator that obtains the results lazily (see
+     * {@link PersistenceQueryProcessor#stream(PersistenceQuery, int, boolean)}).
+     */
+    public <T> CloseableIterator<ObjectAdapter> streamMatchingQuery(
+            final Query<T> query,
+            final int fetchSize,
+            final boolean evict) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("streamInstances using (applib) Query: " + query);
+        }
+
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+
+        return transactionManager.executeWithinTransaction(
+                new TransactionalClosureWithReturn<CloseableIterator<ObjectAdapter>>() {
+                    @Override
+                    public CloseableIterator<ObjectAdapter> execute() {
+                        return streamPersistenceQuery(processor, persistenceQuery, fetchSize, evict);
+                    }
+                });
+    }
+
+    /**
+     * Evicts the (persistent) object from this session and from the underlying persistence manager, unless it has
+     * been modified (in which case it must be retained until flushed).
+     */
+    public void evictIfUnmodified(final ObjectAdapter adapter) {
+        final Object pojo = adapter.getObject();
+        if(!(pojo instanceof Persistable) || ((Persistable) pojo).dnIsDirty()) {
+            // values aren't cached, and modified objects must be retained until flushed
+            return;
+        }
+        removeAdapter(adapter);
+        getPersistenceManager().evict(pojo);
+    }
+
+    /**
+     * The number of objects that {@link #allMatchingQuery(Query)} would return (see
+     * {@link PersistenceQueryProcessor#count(PersistenceQuery)}).
+     */
+    public <T> long countMatchingQuery(final Query<T> query) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("countInstances using (applib) Query: " + query);
+        }
+
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+
+        return transactionManager.executeWithinTransaction(
+                new TransactionalClosureWithReturn<Long>() {
+                    @Override
+                    public Long execute() {
+                        return countPersistenceQuery(processor, persistenceQuery);
+                    }
+                });
+    }
+
     public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
         final ObjectAdapter instances = findInstancesInTransaction(query, QueryCardinality.SINGLE);
         final List<ObjectAdapter> list = CollectionFacetUtils.convertToAdapterList(instances);
@@ -612,6 +681,22 @@ private <Q extends PersistenceQuery> List<ObjectAdapter> processPersistenceQuery
         return persistenceQueryProcessor.process((Q) persistenceQuery);
     }
 
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> CloseableIterator<ObjectAdapter> streamPersistenceQuery(
+            final PersistenceQueryProcessor<Q> persistenceQueryProcessor,
+            final PersistenceQuery persistenceQuery,
+            final int fetchSize,
+            final boolean evict) {
+        return persistenceQueryProcessor.stream((Q) persistenceQuery, fetchSize, evict);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> long countPersistenceQuery(
+            final PersistenceQueryProcessor<Q> persistenceQueryProcessor,
+            final PersistenceQuery persistenceQuery) {
+        return persistenceQueryProcessor.count((Q) persistenceQuery);
+    }
+
     public IsisConfiguration getConfiguration() {
         return configuration;
     }
@@ -810,6 +895,9 @@ void postLifecycleEventIfRequired(
         final LifecycleEventFacet facet = adapter.getSpecification().getFacet(lifecycleEventFacetClass);
         if(facet != null) {
             final Class<? extends AbstractLifecycleEvent<?>> eventType = facet.getEventType();
+            if(!eventBusService.hasPotentialSubscriberTo(eventType)) {
+                return;
+            }
             final Object instance = InstanceUtil.createInstance(eventType);
             final Object pojo = adapter.getObject();
             postEvent((AbstractLifecycleEvent) instance, pojo);
@@ -986,6 +1074,31 @@ public Object loadPojo(final RootOid rootOid) {
         return result;
     }
 
+    /**
+     * As {@link #loadPojo(RootOid)}, but loading the pojos for many oids (all of the specified class) at once, so
+     * that the object store can batch the round trips.
+     *
+     * @return the pojos, in the same order as the oids, or <tt>null</tt> if any of them could not be found.
+     */
+    private List<Object> loadPojos(final Class<?> cls, final List<RootOid> rootOids) {
+        final List<Object> jdoObjectIds = Lists.newArrayList();
+        for (final RootOid rootOid : rootOids) {
+            jdoObjectIds.add(persistenceManager.newObjectIdInstance(cls, JdoObjectIdSerializer.toJdoObjectId(rootOid)));
+        }
+        try {
+            final FetchPlan fetchPlan = persistenceManager.getFetchPlan();
+            fetchPlan.addGroup(FetchGroup.DEFAULT);
+            final Collection<?> pojos = persistenceManager.getObjectsById(jdoObjectIds, true);
+            return Lists.newArrayList(pojos);
+        } catch (final RuntimeException e) {
+            // eg JDOObjectNotFoundException; the caller will instead load each one individually
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("loadPojos; unable to load all of " + rootOids + ": " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
     private Class<?> clsOf(final RootOid oid) {
         final ObjectSpecification objectSpec = getSpecificationLoader().lookupBySpecId(oid.getObjectSpecId());
         return objectSpec.getCorrespondingClass();
@@ -1088,16 +1201,7 @@ public void resolve(final Object parent) {
      * recursively calling this method.
      */
     public void makePersistentInTransaction(final ObjectAdapter adapter) {
-        if (adapter.representsPersistent()) {
-            throw new NotPersistableException("Object already persistent: " + adapter);
-        }
-        if (!adapter.getSpecification().persistability().isPersistable()) {
-            throw new NotPersistableException("Object is not persistable: " + adapter);
-        }
-        final ObjectSpecification specification = adapter.getSpecification();
-        if (specification.isService()) {
-            throw new NotPersistableException("Cannot persist services: " + adapter);
-        }
+        ensurePersistable(adapter);
 
         getTransactionManager().executeWithinTransaction(new TransactionalClosure() {
 
@@ -1112,6 +1216,47 @@ public void execute() {
         });
     }
 
+    /**
+     * As {@link #makePersistentInTransaction(ObjectAdapter)}, but for many adapters at once, all enlisted within a
+     * single transactional closure.
+     *
+     * <p>
+     *     If any of the adapters cannot be persisted then none of them are.
+     * </p>
+     */
+    public void makePersistentInTransaction(final List<ObjectAdapter> adapters) {
+        for (final ObjectAdapter adapter : adapters) {
+            ensurePersistable(adapter);
+        }
+
+        getTransactionManager().executeWithinTransaction(new TransactionalClosure() {
+
+            @Override
+            public void execute() {
+                for (final ObjectAdapter adapter : adapters) {
+                    makePersistentTransactionAssumed(adapter);
+                }
+
+                // clear out the map of transient -> persistent
+                PersistenceSession.this.persistentByTransient.clear();
+            }
+
+        });
+    }
+
+    private static void ensurePersistable(final ObjectAdapter adapter) {
+        if (adapter.representsPersistent()) {
+            throw new NotPersistableException("Object already persistent: " + adapter);
+        }
+        if (!adapter.getSpecification().persistability().isPersistable()) {
+            throw new NotPersistableException("Object is not persistable: " + adapter);
+        }
+        final ObjectSpecification specification = adapter.getSpecification();
+        if (specification.isService()) {
+            throw new NotPersistableException("Cannot persist services: " + adapter);
+        }
+    }
+
     private void makePersistentTransactionAssumed(final ObjectAdapter adapter) {
         if (alreadyPersistedOrNotPersistable(adapter)) {
             return;
@@ -1189,6 +1334,32 @@ public void execute() {
         });
     }
 
+    /**
+     * As {@link #destroyObjectInTransaction(ObjectAdapter)}, but for many adapters at once, all enlisted within a
+     * single transactional closure.
+     */
+    public void destroyObjectsInTransaction(final List<ObjectAdapter> adapters) {
+        final List<ObjectAdapter> rootAdapters = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            if (adapter.getSpecification().isParented()) {
+                continue;
+            }
+            rootAdapters.add(adapter);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("destroyObjects " + rootAdapters);
+        }
+        transactionManager.executeWithinTransaction(new TransactionalClosure() {
+            @Override
+            public void execute() {
+                for (final ObjectAdapter adapter : rootAdapters) {
+                    final DestroyObjectCommand command = newDestroyObjectCommand(adapter);
+                    transactionManager.addCommand(command);
+                }
+            }
+        });
+    }
+
     //endregion
 
     //region > newXxxCommand
@@ -1249,11 +1420,32 @@ public void execute(final List<PersistenceCommand> commands) {
 
     private void executeCommands(final List<PersistenceCommand> commands) {
 
+        // consecutive commands of the same type are executed together, so that DataNucleus can batch the resultant
+        // SQL statements (see datanucleus.rdbms.statementBatchLimit)
+        final List<PersistenceCommand> run = Lists.newArrayList();
         for (final PersistenceCommand command : commands) {
-            command.execute(null);
+            if(!run.isEmpty() && run.get(0).getClass() != command.getClass()) {
+                executeRun(run);
+            }
+            run.add(command);
         }
+        executeRun(run);
+
         persistenceManager.flush();
     }
+
+    private void executeRun(final List<PersistenceCommand> run) {
+        if(run.size() > 1 && run.get(0) instanceof DataNucleusCreateObjectCommand) {
+            DataNucleusCreateObjectCommand.executeAll(run, persistenceManager);
+        } else if(run.size() > 1 && run.get(0) instanceof DataNucleusDeleteObjectCommand) {
+            DataNucleusDeleteObjectCommand.executeAll(run, persistenceManager);
+        } else {
+            for (final PersistenceCommand command : run) {
+                command.execute(null);
+            }
+        }
+        run.clear();
+    }
     //endregion
 
     //region > getAggregateRoot, remappedFrom
@@ -1357,6 +1549,18 @@ public javax.jdo.Query newJdoNamedQuery (Class<?> cls, String queryName) {
     public javax.jdo.Query newJdoQuery (Class<?> cls, String filter) {
         return persistenceManager.newQuery(cls, filter);
     }
+
+    /**
+     * The names of the fields of the (persistent) object that have been modified but not yet flushed, or
+     * <tt>null</tt> if the object is not managed by this persistence session.
+     */
+    public String[] getDirtyFieldNames(final ObjectAdapter adapter) {
+        final Object pojo = adapter.getObject();
+        if (!(pojo instanceof Persistable)) {
+            return null;
+        }
+        return NucleusJDOHelper.getDirtyFields(pojo, persistenceManager);
+    }
     // endregion
 
     //region > AdapterManager implementation
@@ -2212,6 +2416,9 @@ public void invokeIsisPersistingCallback(final Persistable pojo) {
             // don't call here, already called in preDirty.
 
             // CallbackFacet.Util.callCallback(adapter, UpdatingCallbackFacet.class);
+
+            // but do note which fields are about to be flushed (after which DN no longer reports them as dirty)
+            changedObjectsServiceInternal.enlistFlushing(adapter, getDirtyFieldNames(adapter));
         }
     }
 
@@ -2330,6 +2537,80 @@ public Object lookup(
         return adapter.getObject();
     }
 
+    /**
+     * As {@link #lookup(Bookmark, BookmarkService2.FieldResetPolicy)}, but for many bookmarks at once, returning the
+     * objects in the same order (with <tt>null</tt> for any bookmark that is <tt>null</tt> or for an object that does
+     * not exist).
+     *
+     * <p>
+     *     Persistent objects not already loaded into this session are grouped by their class, and each group is
+     *     loaded using a single call to {@link PersistenceManager#getObjectsById(Collection, boolean)}.  If any object
+     *     in a group cannot be found, then the objects of that group are instead looked up one by one.  Since the
+     *     objects so loaded are freshly read from the database, they are not also reset.
+     * </p>
+     */
+    public List<Object> lookupAll(
+            final List<Bookmark> bookmarks,
+            final BookmarkService2.FieldResetPolicy fieldResetPolicy) {
+
+        final Object[] objects = new Object[bookmarks.size()];
+        final boolean[] loaded = new boolean[bookmarks.size()];
+
+        final ListMultimap<Class<?>, Integer> indicesToLoadByClass = ArrayListMultimap.create();
+        for (int i = 0; i < bookmarks.size(); i++) {
+            final Bookmark bookmark = bookmarks.get(i);
+            if(bookmark == null) {
+                loaded[i] = true;
+                continue;
+            }
+            final RootOid oid = RootOid.create(bookmark);
+            if(!oid.isPersistent() || getAdapterFor(oid) != null) {
+                continue;
+            }
+            final ObjectSpecification spec = getSpecificationLoader().lookupBySpecId(oid.getObjectSpecId());
+            if(spec == null || spec.isViewModel() || spec.isService()) {
+                continue;
+            }
+            indicesToLoadByClass.put(spec.getCorrespondingClass(), i);
+        }
+
+        if(!indicesToLoadByClass.isEmpty()) {
+            getTransactionManager().executeWithinTransaction(new TransactionalClosure() {
+                @Override
+                public void execute() {
+                    for (final Class<?> cls : indicesToLoadByClass.keySet()) {
+                        final List<Integer> indices = indicesToLoadByClass.get(cls);
+                        final List<RootOid> oids = Lists.newArrayList();
+                        for (final Integer i : indices) {
+                            oids.add(RootOid.create(bookmarks.get(i)));
+                        }
+                        final List<Object> pojos = loadPojos(cls, oids);
+                        if(pojos == null) {
+                            continue;
+                        }
+                        for (int j = 0; j < indices.size(); j++) {
+                            final int i = indices.get(j);
+                            objects[i] = mapRecreatedPojo(oids.get(j), pojos.get(j)).getObject();
+                            loaded[i] = true;
+                        }
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < bookmarks.size(); i++) {
+            if(loaded[i]) {
+                continue;
+            }
+            try {
+                objects[i] = lookup(bookmarks.get(i), fieldResetPolicy);
+            } catch(final ObjectNotFoundException ex) {
+                objects[i] = null;
+            }
+        }
+        return Lists.newArrayList(objects);
+    }
+
     public boolean flush() {
         return getTransactionManager().flushTransaction();
     }
@@ -203,6 +203,8 @@ public IsisSessionFactory buildSessionFactory() {
 
             isisSessionFactory.constructServices();
 
+            // the shared classpath scan is no longer required
+            AppManifest.Registry.instance().releaseReflections();
 
         } catch (final IsisSystemException ex) {
             LOG.error("failed to initialise", ex);
@@ -19,7 +19,9 @@
 
 package org.apache.isis.core.runtime.system.transaction;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.Lists;
@@ -30,6 +32,9 @@
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.services.HasTransactionId;
 import org.apache.isis.applib.services.WithTransactionScope;
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
 import org.apache.isis.applib.services.xactn.Transaction;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
@@ -40,11 +45,11 @@
 import org.apache.isis.core.metamodel.services.ServicesInjector;
 import org.apache.isis.core.metamodel.services.publishing.PublishingServiceInternal;
 import org.apache.isis.core.metamodel.transactions.TransactionState;
-import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
 import org.apache.isis.core.runtime.services.auditing.AuditingServiceInternal;
 import org.apache.isis.core.runtime.services.persistsession.PersistenceSessionServiceInternalDefault;
+import org.apache.isis.core.runtime.services.publish.PublishingOutboxServiceInternal;
 
 /**
  * Used by the {@link IsisTransactionManager} to captures a set of changes to be
@@ -166,11 +171,37 @@ public TransactionState getRuntimeContextState() {
     private final int sequence;
     private final AuthenticationSession authenticationSession;
 
-    private final List<PersistenceCommand> persistenceCommands = Lists.newArrayList();
+    private final PersistenceCommandQueue persistenceCommands = new PersistenceCommandQueue();
     private final IsisTransactionManager transactionManager;
     private final MessageBroker messageBroker;
     private final PublishingServiceInternal publishingServiceInternal;
     private final AuditingServiceInternal auditingServiceInternal;
+    private final PublishingOutboxServiceInternal publishingOutboxServiceInternal;
+
+    /**
+     * Populated in {@link #preCommit()} if auditing asynchronously; handed off in {@link #commit()}.
+     */
+    private List<AuditEntry> auditEntriesToHandOff = Collections.emptyList();
+
+    /**
+     * Populated by {@link #enlistForOutbox(Object)} if publishing via the outbox; appended in {@link #preCommit()}.
+     */
+    private final List<Object> dtosToAppend = Lists.newArrayList();
+
+    /**
+     * Set in {@link #preCommit()} if any DTOs were (or might have been) appended to the outbox, which must then be
+     * marked as committed or aborted.
+     */
+    private boolean appendedToOutbox;
+
+    private final QueryResultsCache queryResultsCache;
+    private final SharedQueryResultsCache sharedQueryResultsCache;
+
+    /**
+     * Populated in {@link #preCommit()}; the {@link SharedQueryResultsCache shared} results that depend on these
+     * types are invalidated (again) in {@link #commit()}, that is, once the changes are visible to other transactions.
+     */
+    private Set<Class<?>> changedTypesToHandOff = Collections.emptySet();
 
     private final List<WithTransactionScope> withTransactionScopes;
 
@@ -193,6 +224,10 @@ public IsisTransaction(
         this.messageBroker = authenticationSession.getMessageBroker();
         this.publishingServiceInternal = servicesInjector.lookupServiceElseFail(PublishingServiceInternal.class);
         this.auditingServiceInternal = servicesInjector.lookupServiceElseFail(AuditingServiceInternal.class);
+        this.publishingOutboxServiceInternal =
+                servicesInjector.lookupServiceElseFail(PublishingOutboxServiceInternal.class);
+        this.queryResultsCache = servicesInjector.lookupService(QueryResultsCache.class);
+        this.sharedQueryResultsCache = servicesInjector.lookupService(SharedQueryResultsCache.class);
 
         withTransactionScopes = servicesInjector.lookupServices(WithTransactionScope.class);
 
@@ -252,65 +287,9 @@ public void addCommand(final PersistenceCommand command) {
         if (command == null) {
             return;
         }
-
-        final ObjectAdapter onObject = command.onAdapter();
-
-        // Destroys are ignored when preceded by a create, or another destroy
-        if (command instanceof DestroyObjectCommand) {
-            if (alreadyHasCreate(onObject)) {
-                removeCreate(onObject);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("ignored both create and destroy command " + command);
-                }
-                return;
-            }
-
-            if (alreadyHasDestroy(onObject)) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("ignored command " + command + " as command already recorded");
-                }
-                return;
-            }
-        }
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("add command " + command);
-        }
         persistenceCommands.add(command);
     }
 
-    private boolean alreadyHasCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        return getCommand(commandClass, onObject) != null;
-    }
-
-    private boolean alreadyHasCreate(final ObjectAdapter onObject) {
-        return alreadyHasCommand(CreateObjectCommand.class, onObject);
-    }
-
-    private boolean alreadyHasDestroy(final ObjectAdapter onObject) {
-        return alreadyHasCommand(DestroyObjectCommand.class, onObject);
-    }
-
-    private PersistenceCommand getCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        for (final PersistenceCommand command : persistenceCommands) {
-            if (command.onAdapter().equals(onObject)) {
-                if (commandClass.isAssignableFrom(command.getClass())) {
-                    return command;
-                }
-            }
-        }
-        return null;
-    }
-
-    private void removeCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        final PersistenceCommand toDelete = getCommand(commandClass, onObject);
-        persistenceCommands.remove(toDelete);
-    }
-
-    private void removeCreate(final ObjectAdapter onObject) {
-        removeCommand(CreateObjectCommand.class, onObject);
-    }
-
     //endregion
 
     //region > flush
@@ -369,11 +348,10 @@ private void doFlush() {
         do {
             // this algorithm ensures that we never execute the same command twice,
             // and also allow new commands to be added to end
-            final List<PersistenceCommand> persistenceCommandList = Lists.newArrayList(persistenceCommands);
+            // (draining so won't be processed again if a flush is encountered subsequently)
+            final List<PersistenceCommand> persistenceCommandList = persistenceCommands.drain();
 
             if(!persistenceCommandList.isEmpty()) {
-                // so won't be processed again if a flush is encountered subsequently
-                persistenceCommands.removeAll(persistenceCommandList);
                 try {
                     this.transactionManager.getPersistenceSession().execute(persistenceCommandList);
                     for (PersistenceCommand persistenceCommand : persistenceCommandList) {
@@ -395,6 +373,25 @@ private void doFlush() {
 
     //endregion
 
+    //region > enlistForOutbox
+
+    /**
+     * Enlists an {@link org.apache.isis.schema.ixn.v1.InteractionDto} or {@link org.apache.isis.schema.chg.v1.ChangesDto}
+     * to be appended to the publishing outbox as this transaction commits.
+     *
+     * <p>
+     *     The DTOs are appended (and forced to disk) as pending in {@link #preCommit()}, that is, <i>before</i> the
+     *     changes are committed to the object store; if they cannot be appended then the transaction is aborted.  They
+     *     are published only once marked as committed (in {@link #commit()}); if instead the transaction aborts, they
+     *     are marked as such (in {@link #markAsAborted()}) and skipped.
+     * </p>
+     */
+    public void enlistForOutbox(final Object dto) {
+        dtosToAppend.add(dto);
+    }
+
+    //endregion
+
     //region > preCommit, commit
 
     void preCommit() {
@@ -413,15 +410,24 @@ void preCommit() {
         }
 
         try {
-            auditingServiceInternal.audit();
+            auditEntriesToHandOff = auditingServiceInternal.audit();
 
             publishingServiceInternal.publishObjects();
             doFlush();
 
+            if(!dtosToAppend.isEmpty()) {
+                appendedToOutbox = true;
+                publishingOutboxServiceInternal.append(interactionId, sequence, dtosToAppend);
+                dtosToAppend.clear();
+            }
+
         } catch (final RuntimeException ex) {
             setAbortCause(new IsisTransactionManagerException(ex));
             throw ex;
         } finally {
+            if(queryResultsCache != null) {
+                changedTypesToHandOff = queryResultsCache.getChangedTypes();
+            }
             for (WithTransactionScope withTransactionScope : withTransactionScopes) {
                 withTransactionScope.resetForNextTransaction();
             }
@@ -445,6 +451,21 @@ void commit() {
         }
 
         setState(State.COMMITTED);
+
+        if(appendedToOutbox) {
+            publishingOutboxServiceInternal.committed(interactionId, sequence);
+            appendedToOutbox = false;
+        }
+
+        auditingServiceInternal.auditCommitted(auditEntriesToHandOff);
+        auditEntriesToHandOff = Collections.emptyList();
+
+        if(sharedQueryResultsCache != null) {
+            for (final Class<?> changedType : changedTypesToHandOff) {
+                sharedQueryResultsCache.invalidate(changedType);
+            }
+        }
+        changedTypesToHandOff = Collections.emptySet();
     }
 
 
@@ -463,6 +484,11 @@ final void markAsAborted() {
         }
 
         setState(State.ABORTED);
+
+        if(appendedToOutbox) {
+            publishingOutboxServiceInternal.aborted(interactionId, sequence);
+            appendedToOutbox = false;
+        }
     }
 
 
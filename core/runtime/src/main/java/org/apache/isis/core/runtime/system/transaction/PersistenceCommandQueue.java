@@ -0,0 +1,114 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+
+/**
+ * The {@link PersistenceCommand}s to be executed by an {@link IsisTransaction}, in the order that they were added.
+ *
+ * <p>
+ *     The commands are indexed by the adapter that they act upon, so that adding (or cancelling) a command takes
+ *     constant time irrespective of the number of commands already queued.
+ * </p>
+ */
+class PersistenceCommandQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceCommandQueue.class);
+
+    private final Set<PersistenceCommand> commands = Sets.newLinkedHashSet();
+
+    private final ListMultimap<ObjectAdapter, PersistenceCommand> createsByAdapter = ArrayListMultimap.create();
+    private final Set<ObjectAdapter> destroyedAdapters = Sets.newHashSet();
+
+    /**
+     * Adds the command, unless it is a destroy of an object that is already to be destroyed (in which case it is
+     * ignored) or that is to be created (in which case both the create and the destroy are discarded).
+     */
+    void add(final PersistenceCommand command) {
+        final ObjectAdapter onObject = command.onAdapter();
+
+        // Destroys are ignored when preceded by a create, or another destroy
+        if (command instanceof DestroyObjectCommand) {
+            final List<PersistenceCommand> creates = createsByAdapter.get(onObject);
+            if (!creates.isEmpty()) {
+                commands.remove(creates.remove(0));
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("ignored both create and destroy command " + command);
+                }
+                return;
+            }
+
+            if (!destroyedAdapters.add(onObject)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("ignored command " + command + " as command already recorded");
+                }
+                return;
+            }
+        }
+
+        if (command instanceof CreateObjectCommand) {
+            createsByAdapter.put(onObject, command);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("add command " + command);
+        }
+        commands.add(command);
+    }
+
+    /**
+     * Removes and returns all of the commands, in the order that they were added.
+     */
+    List<PersistenceCommand> drain() {
+        final List<PersistenceCommand> drained = ImmutableList.copyOf(commands);
+        clear();
+        return drained;
+    }
+
+    void clear() {
+        commands.clear();
+        createsByAdapter.clear();
+        destroyedAdapters.clear();
+    }
+
+    boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    int size() {
+        return commands.size();
+    }
+
+}
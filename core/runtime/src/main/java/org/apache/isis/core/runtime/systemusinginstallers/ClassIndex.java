@@ -0,0 +1,295 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.systemusinginstallers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.jdo.annotations.PersistenceCapable;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.reflections.Reflections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.AppManifest;
+import org.apache.isis.applib.annotation.DomainObject;
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.Mixin;
+import org.apache.isis.applib.annotation.Nature;
+import org.apache.isis.applib.fixturescripts.FixtureScript;
+import org.apache.isis.core.commons.lang.ClassUtil;
+
+/**
+ * The types (domain services, entities, fixture scripts and mixins) found within the packages of an
+ * {@link AppManifest}'s modules, either by scanning the classpath or by reading a build-time index.
+ *
+ * <p>
+ *     The index is a text resource ({@link #RESOURCE_NAME}), written by the <tt>index</tt> goal of the Isis
+ *     maven plugin.  Its first line identifies the {@link AppManifest} it was written for; each subsequent line is
+ *     of the form <tt>kind:className</tt>.
+ * </p>
+ */
+public class ClassIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassIndex.class);
+
+    public static final String RESOURCE_NAME = "META-INF/isis-index";
+
+    /**
+     * Whether to use the index (if present on the classpath); defaults to <tt>false</tt>.
+     *
+     * <p>
+     *     The index only records the names of the types that were found; it cannot detect new types added to the
+     *     classpath since it was written (eg by a different version of some module's jar).  It should therefore only
+     *     be enabled when the index is rebuilt along with the deployable artifact.
+     * </p>
+     */
+    public static final String USE_INDEX_KEY = "isis.appManifest.index.enabled";
+    public static final boolean USE_INDEX_DEFAULT = false;
+
+    private static final String APP_MANIFEST = "appManifest";
+    private static final String DOMAIN_SERVICE = "domainService";
+    private static final String PERSISTENCE_CAPABLE = "persistenceCapable";
+    private static final String FIXTURE_SCRIPT = "fixtureScript";
+    private static final String MIXIN = "mixin";
+
+    //region > constructor, fields
+
+    private final String appManifestClassName;
+    private final Set<Class<?>> domainServiceTypes;
+    private final Set<Class<?>> persistenceCapableTypes;
+    private final Set<Class<? extends FixtureScript>> fixtureScriptTypes;
+    private final Set<Class<?>> mixinTypes;
+
+    ClassIndex(
+            final String appManifestClassName,
+            final Set<Class<?>> domainServiceTypes,
+            final Set<Class<?>> persistenceCapableTypes,
+            final Set<Class<? extends FixtureScript>> fixtureScriptTypes,
+            final Set<Class<?>> mixinTypes) {
+        this.appManifestClassName = appManifestClassName;
+        this.domainServiceTypes = domainServiceTypes;
+        this.persistenceCapableTypes = persistenceCapableTypes;
+        this.fixtureScriptTypes = fixtureScriptTypes;
+        this.mixinTypes = mixinTypes;
+    }
+
+    public String getAppManifestClassName() {
+        return appManifestClassName;
+    }
+
+    public Set<Class<?>> getDomainServiceTypes() {
+        return domainServiceTypes;
+    }
+
+    public Set<Class<?>> getPersistenceCapableTypes() {
+        return persistenceCapableTypes;
+    }
+
+    public Set<Class<? extends FixtureScript>> getFixtureScriptTypes() {
+        return fixtureScriptTypes;
+    }
+
+    public Set<Class<?>> getMixinTypes() {
+        return mixinTypes;
+    }
+
+    //endregion
+
+    //region > packagesFor
+
+    /**
+     * The framework's own packages, along with the packages of the {@link AppManifest#getModules() modules} of
+     * the provided {@link AppManifest}.
+     */
+    public static List<String> packagesFor(final AppManifest appManifest) {
+        final List<Class<?>> modules = appManifest.getModules();
+        if (modules == null || modules.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "If an appManifest is provided then it must return a non-empty set of modules");
+        }
+
+        final List<String> packages = Lists.newArrayList();
+        packages.addAll(AppManifest.Registry.FRAMEWORK_PROVIDED_SERVICES);
+        Iterables.addAll(packages, Iterables.transform(modules, ClassUtil.Functions.packageNameOf()));
+        return packages;
+    }
+
+    //endregion
+
+    //region > scan
+
+    /**
+     * Scans the provided packages using the {@link AppManifest.Registry#reflectionsFor(List) shared classpath scan}
+     * of the {@link AppManifest.Registry}, so that the scan can be reused by the rest of bootstrapping.
+     */
+    public static ClassIndex scan(final AppManifest appManifest) {
+        final List<String> packages = packagesFor(appManifest);
+
+        final Reflections reflections = AppManifest.Registry.instance().reflectionsFor(packages);
+        final Set<Class<?>> domainServiceTypes = reflections.getTypesAnnotatedWith(DomainService.class);
+        final Set<Class<?>> persistenceCapableTypes = reflections.getTypesAnnotatedWith(PersistenceCapable.class);
+        final Set<Class<? extends FixtureScript>> fixtureScriptTypes = reflections.getSubTypesOf(FixtureScript.class);
+
+        final Set<Class<?>> mixinTypes = Sets.newHashSet();
+        mixinTypes.addAll(reflections.getTypesAnnotatedWith(Mixin.class));
+        final Set<Class<?>> domainObjectTypes = reflections.getTypesAnnotatedWith(DomainObject.class);
+        mixinTypes.addAll(
+                Lists.newArrayList(Iterables.filter(domainObjectTypes, new Predicate<Class<?>>() {
+                    @Override
+                    public boolean apply(@Nullable final Class<?> input) {
+                        if(input == null) { return false; }
+                        final DomainObject annotation = input.getAnnotation(DomainObject.class);
+                        return annotation.nature() == Nature.MIXIN;
+                    }
+                }))
+        );
+
+        return new ClassIndex(
+                appManifest.getClass().getName(),
+                domainServiceTypes, persistenceCapableTypes, fixtureScriptTypes, mixinTypes);
+    }
+
+    //endregion
+
+    //region > registerWith
+
+    public void registerWith(final AppManifest.Registry registry) {
+        registry.setDomainServiceTypes(domainServiceTypes);
+        registry.setPersistenceCapableTypes(persistenceCapableTypes);
+        registry.setFixtureScriptTypes(fixtureScriptTypes);
+        registry.setMixinTypes(mixinTypes);
+    }
+
+    //endregion
+
+    //region > writeTo, readIfAny
+
+    public void writeTo(final Writer writer) {
+        final PrintWriter printWriter = new PrintWriter(writer);
+        printWriter.println(APP_MANIFEST + ":" + appManifestClassName);
+        write(printWriter, DOMAIN_SERVICE, domainServiceTypes);
+        write(printWriter, PERSISTENCE_CAPABLE, persistenceCapableTypes);
+        write(printWriter, FIXTURE_SCRIPT, fixtureScriptTypes);
+        write(printWriter, MIXIN, mixinTypes);
+        printWriter.flush();
+    }
+
+    private static void write(final PrintWriter printWriter, final String kind, final Collection<? extends Class<?>> types) {
+        // sorted, so that the index is reproducible
+        final Set<String> classNames = Sets.newTreeSet();
+        for (final Class<?> type : types) {
+            if(type != null) {
+                classNames.add(type.getName());
+            }
+        }
+        for (final String className : classNames) {
+            printWriter.println(kind + ":" + className);
+        }
+    }
+
+    /**
+     * Reads the index from the classpath, returning <tt>null</tt> if there is none, if it was written for a
+     * different {@link AppManifest}, or if it refers to any class that can no longer be loaded.
+     */
+    public static ClassIndex readIfAny(final AppManifest appManifest) {
+        final String appManifestClassName = appManifest.getClass().getName();
+        final InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE_NAME);
+        if(is == null) {
+            return null;
+        }
+        try {
+            return read(new BufferedReader(new InputStreamReader(is, Charsets.UTF_8)), appManifestClassName);
+        } catch (final IOException e) {
+            LOG.warn("Unable to read '" + RESOURCE_NAME + "', ignoring", e);
+            return null;
+        } finally {
+            try {
+                is.close();
+            } catch (final IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static ClassIndex read(final BufferedReader reader, final String appManifestClassName) throws IOException {
+        final String header = reader.readLine();
+        if(header == null || !header.equals(APP_MANIFEST + ":" + appManifestClassName)) {
+            LOG.info("'{}' is not for appManifest {}, ignoring", RESOURCE_NAME, appManifestClassName);
+            return null;
+        }
+
+        final Set<Class<?>> domainServiceTypes = Sets.newLinkedHashSet();
+        final Set<Class<?>> persistenceCapableTypes = Sets.newLinkedHashSet();
+        final Set<Class<? extends FixtureScript>> fixtureScriptTypes = Sets.newLinkedHashSet();
+        final Set<Class<?>> mixinTypes = Sets.newLinkedHashSet();
+
+        String line;
+        while((line = reader.readLine()) != null) {
+            final int colon = line.indexOf(':');
+            if(line.isEmpty() || colon == -1) {
+                continue;
+            }
+            final String kind = line.substring(0, colon);
+            final String className = line.substring(colon + 1);
+            final Class<?> cls = ClassUtil.forNameElseNull(className);
+            if(cls == null) {
+                LOG.info("'{}' is stale ({} not found), ignoring", RESOURCE_NAME, className);
+                return null;
+            }
+            switch (kind) {
+            case DOMAIN_SERVICE:
+                domainServiceTypes.add(cls);
+                break;
+            case PERSISTENCE_CAPABLE:
+                persistenceCapableTypes.add(cls);
+                break;
+            case FIXTURE_SCRIPT:
+                fixtureScriptTypes.add(cls.asSubclass(FixtureScript.class));
+                break;
+            case MIXIN:
+                mixinTypes.add(cls);
+                break;
+            default:
+                // ignore any kinds that we don't know about
+            }
+        }
+
+        return new ClassIndex(
+                appManifestClassName,
+                domainServiceTypes, persistenceCapableTypes, fixtureScriptTypes, mixinTypes);
+    }
+
+    //endregion
+
+}
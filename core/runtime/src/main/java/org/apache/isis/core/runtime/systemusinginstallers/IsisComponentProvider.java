@@ -22,28 +22,18 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.Nullable;
-import javax.jdo.annotations.PersistenceCapable;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
-import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 
-import org.reflections.Reflections;
-import org.reflections.vfs.Vfs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.isis.applib.AppManifest;
-import org.apache.isis.applib.annotation.DomainObject;
-import org.apache.isis.applib.annotation.DomainService;
-import org.apache.isis.applib.annotation.Mixin;
-import org.apache.isis.applib.annotation.Nature;
-import org.apache.isis.applib.fixturescripts.FixtureScript;
-import org.apache.isis.applib.services.classdiscovery.ClassDiscoveryServiceUsingReflections;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.config.IsisConfigurationDefault;
 import org.apache.isis.core.commons.factory.InstanceUtil;
@@ -72,6 +62,8 @@
  */
 public abstract class IsisComponentProvider {
 
+    private static final Logger LOG = LoggerFactory.getLogger(IsisComponentProvider.class);
+
     //region > constructor, fields
 
     private final AppManifest appManifest;
@@ -130,38 +122,26 @@ private void putAppManifestKey(final AppManifest appManifest) {
     }
 
     private void findAndRegisterTypes(final AppManifest appManifest) {
-        final Iterable<String> packageNameList = modulePackageNamesFrom(appManifest);
-        final AppManifest.Registry registry = AppManifest.Registry.instance();
-
-        final List<String> packages = Lists.newArrayList();
-        packages.addAll(AppManifest.Registry.FRAMEWORK_PROVIDED_SERVICES);
-        Iterables.addAll(packages, packageNameList);
-
-        Vfs.setDefaultURLTypes(ClassDiscoveryServiceUsingReflections.getUrlTypes());
-
-        final Reflections reflections = new Reflections(packages);
-        final Set<Class<?>> domainServiceTypes = reflections.getTypesAnnotatedWith(DomainService.class);
-        final Set<Class<?>> persistenceCapableTypes = reflections.getTypesAnnotatedWith(PersistenceCapable.class);
-        final Set<Class<? extends FixtureScript>> fixtureScriptTypes = reflections.getSubTypesOf(FixtureScript.class);
-
-        final Set<Class<?>> mixinTypes = Sets.newHashSet();
-        mixinTypes.addAll(reflections.getTypesAnnotatedWith(Mixin.class));
-        final Set<Class<?>> domainObjectTypes = reflections.getTypesAnnotatedWith(DomainObject.class);
-        mixinTypes.addAll(
-                Lists.newArrayList(Iterables.filter(domainObjectTypes, new Predicate<Class<?>>() {
-                    @Override
-                    public boolean apply(@Nullable final Class<?> input) {
-                        if(input == null) { return false; }
-                        final DomainObject annotation = input.getAnnotation(DomainObject.class);
-                        return annotation.nature() == Nature.MIXIN;
-                    }
-                }))
-        );
+        final long start = System.currentTimeMillis();
 
-        registry.setDomainServiceTypes(domainServiceTypes);
-        registry.setPersistenceCapableTypes(persistenceCapableTypes);
-        registry.setFixtureScriptTypes(fixtureScriptTypes);
-        registry.setMixinTypes(mixinTypes);
+        ClassIndex classIndex = null;
+        if(configuration.getBoolean(ClassIndex.USE_INDEX_KEY, ClassIndex.USE_INDEX_DEFAULT)) {
+            classIndex = ClassIndex.readIfAny(appManifest);
+        }
+        final boolean fromIndex = classIndex != null;
+        if(!fromIndex) {
+            classIndex = ClassIndex.scan(appManifest);
+        }
+        classIndex.registerWith(AppManifest.Registry.instance());
+
+        final long elapsed = System.currentTimeMillis() - start;
+        if(fromIndex) {
+            LOG.info(String.format("read types from '%s' in %d ms; classpath scan skipped",
+                    ClassIndex.RESOURCE_NAME, elapsed));
+        } else {
+            LOG.info(String.format("scanned classpath for types in %d ms (scan shared for the rest of bootstrapping)",
+                    elapsed));
+        }
     }
 
 
@@ -18,13 +18,18 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.commands;
 
+import java.util.List;
+
 import javax.jdo.PersistenceManager;
 
+import com.google.common.collect.Lists;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandContext;
 
 public class DataNucleusCreateObjectCommand extends AbstractDataNucleusObjectCommand implements CreateObjectCommand {
@@ -54,6 +59,28 @@ public void execute(final PersistenceCommandContext context) {
         getPersistenceManager().makePersistent(domainObject);
     }
 
+    /**
+     * Executes the (create) commands together, using {@link PersistenceManager#makePersistentAll(java.util.Collection)}
+     * so that DataNucleus can batch the inserts.
+     */
+    public static void executeAll(
+            final List<? extends PersistenceCommand> commands,
+            final PersistenceManager persistenceManager) {
+        final List<Object> domainObjects = Lists.newArrayList();
+        for (final PersistenceCommand command : commands) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("create object - executing command for: " + command.onAdapter());
+            }
+            final ObjectAdapter adapter = command.onAdapter();
+            if(!adapter.isTransient()) {
+                // as for execute(...), above
+                continue;
+            }
+            domainObjects.add(adapter.getObject());
+        }
+        persistenceManager.makePersistentAll(domainObjects);
+    }
+
     @Override
     public String toString() {
         return "CreateObjectCommand [adapter=" + onAdapter() + "]";
@@ -18,13 +18,18 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.commands;
 
+import java.util.List;
+
 import javax.jdo.PersistenceManager;
 
+import com.google.common.collect.Lists;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandContext;
 
 public class DataNucleusDeleteObjectCommand extends AbstractDataNucleusObjectCommand implements DestroyObjectCommand {
@@ -43,6 +48,23 @@ public void execute(final PersistenceCommandContext context) {
         getPersistenceManager().deletePersistent(onAdapter().getObject());
     }
 
+    /**
+     * Executes the (destroy) commands together, using
+     * {@link PersistenceManager#deletePersistentAll(java.util.Collection)} so that DataNucleus can batch the deletes.
+     */
+    public static void executeAll(
+            final List<? extends PersistenceCommand> commands,
+            final PersistenceManager persistenceManager) {
+        final List<Object> domainObjects = Lists.newArrayList();
+        for (final PersistenceCommand command : commands) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("destroy object - executing command for " + command.onAdapter());
+            }
+            domainObjects.add(command.onAdapter().getObject());
+        }
+        persistenceManager.deletePersistentAll(domainObjects);
+    }
+
     @Override
     public String toString() {
         return "DestroyObjectCommand [adapter=" + onAdapter() + "]";
@@ -18,6 +18,8 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import javax.jdo.Query;
@@ -25,6 +27,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
@@ -40,23 +43,52 @@ public PersistenceQueryFindAllInstancesProcessor(final PersistenceSession persis
 
     public List<ObjectAdapter> process(final PersistenceQueryFindAllInstances persistenceQuery) {
 
+        final Query jdoQuery = newJdoQuery(persistenceQuery);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+
+        try {
+            final List<?> pojos = (List<?>) jdoQuery.execute();
+            return loadAdapters(pojos);
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
+
+    public CloseableIterator<ObjectAdapter> stream(
+            final PersistenceQueryFindAllInstances persistenceQuery,
+            final int fetchSize,
+            final boolean evict) {
+
+        final Query jdoQuery = newJdoQuery(persistenceQuery);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+
+        try {
+            final Collection<?> pojos = (Collection<?>) jdoQuery.execute();
+            return streamAdapters(jdoQuery, pojos.iterator(), evict);
+        } catch (final RuntimeException ex) {
+            jdoQuery.closeAll();
+            throw ex;
+        }
+    }
+
+    public long count(final PersistenceQueryFindAllInstances persistenceQuery) {
+        final Query jdoQuery = newJdoQuery(persistenceQuery);
+        return countResults(jdoQuery, Collections.emptyMap(), persistenceQuery);
+    }
+
+    private Query newJdoQuery(final PersistenceQueryFindAllInstances persistenceQuery) {
         final ObjectSpecification specification = persistenceQuery.getSpecification();
-        
+
         Class<?> cls = specification.getCorrespondingClass();
         final Query jdoQuery = persistenceSession.newJdoQuery(cls);
-        
+
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
-        
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("allInstances(): class=" + specification.getFullIdentifier());
         }
-
-        try {
-            final List<?> pojos = (List<?>) jdoQuery.execute();
-            return loadAdapters(pojos);
-        } finally {
-            jdoQuery.closeAll();
-        }
+        return jdoQuery;
     }
 }
@@ -0,0 +1,99 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.jdo.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.services.repository.CloseableIterator;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPredicate;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+
+public class PersistenceQueryFindByPredicateProcessor extends PersistenceQueryProcessorAbstract<PersistenceQueryFindByPredicate> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByPredicateProcessor.class);
+
+    public PersistenceQueryFindByPredicateProcessor(final PersistenceSession persistenceSession) {
+        super(persistenceSession);
+    }
+
+    public List<ObjectAdapter> process(final PersistenceQueryFindByPredicate persistenceQuery) {
+
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(persistenceQuery.getPredicate());
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+
+        try {
+            final List<?> pojos = (List<?>) jdoQuery.executeWithMap(filter.getParameters());
+            return loadAdapters(pojos);
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
+
+    public CloseableIterator<ObjectAdapter> stream(
+            final PersistenceQueryFindByPredicate persistenceQuery,
+            final int fetchSize,
+            final boolean evict) {
+
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(persistenceQuery.getPredicate());
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+
+        try {
+            final Collection<?> pojos = (Collection<?>) jdoQuery.executeWithMap(filter.getParameters());
+            return streamAdapters(jdoQuery, pojos.iterator(), evict);
+        } catch (final RuntimeException ex) {
+            jdoQuery.closeAll();
+            throw ex;
+        }
+    }
+
+    public long count(final PersistenceQueryFindByPredicate persistenceQuery) {
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(persistenceQuery.getPredicate());
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+        return countResults(jdoQuery, filter.getParameters(), persistenceQuery);
+    }
+
+    private Query newJdoQuery(
+            final PersistenceQueryFindByPredicate persistenceQuery,
+            final QueryPredicateJdoqlFilter filter) {
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+
+        final Class<?> cls = specification.getCorrespondingClass();
+        final Query jdoQuery = persistenceSession.newJdoQuery(cls, filter.getFilter());
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(cls.getName() + " ( " + filter.getFilter() + " ) " + filter.getParameters());
+        }
+        return jdoQuery;
+    }
+}
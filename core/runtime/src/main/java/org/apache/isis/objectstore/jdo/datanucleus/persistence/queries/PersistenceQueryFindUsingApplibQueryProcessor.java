@@ -18,6 +18,7 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -47,11 +49,8 @@ public PersistenceQueryFindUsingApplibQueryProcessor(final PersistenceSession pe
     }
 
     public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
-        final String queryName = persistenceQuery.getQueryName();
-        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
-        
         final List<?> results;
-        if((objectSpec.getFullIdentifier() + "#pk").equals(queryName)) {
+        if(isPkQuery(persistenceQuery)) {
             results = getResultsPk(persistenceQuery);
         } else {
             results = getResults(persistenceQuery);
@@ -60,6 +59,48 @@ public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDef
         return loadAdapters(results);
     }
 
+    public CloseableIterator<ObjectAdapter> stream(
+            final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery,
+            final int fetchSize,
+            final boolean evict) {
+        if(isPkQuery(persistenceQuery)) {
+            return streamAdapters(null, getResultsPk(persistenceQuery).iterator(), evict);
+        }
+        if(persistenceQuery.getCardinality() != QueryCardinality.MULTIPLE) {
+            return streamAdapters(null, getResults(persistenceQuery).iterator(), evict);
+        }
+
+        final Query jdoQuery = newJdoNamedQuery(persistenceQuery);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+
+        try {
+            final Map<String, Object> argumentsByParameterName = unwrap(
+                    persistenceQuery.getArgumentsAdaptersByParameterName());
+            final Collection<?> results = (Collection<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+            return streamAdapters(jdoQuery, results.iterator(), evict);
+        } catch (final RuntimeException ex) {
+            jdoQuery.closeAll();
+            throw ex;
+        }
+    }
+
+    public long count(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+        if(isPkQuery(persistenceQuery)) {
+            return rangeOf(getResultsPk(persistenceQuery).size(), persistenceQuery);
+        }
+        final Query jdoQuery = newJdoNamedQuery(persistenceQuery);
+        final Map<String, Object> argumentsByParameterName = unwrap(
+                persistenceQuery.getArgumentsAdaptersByParameterName());
+        final long count = countResults(jdoQuery, argumentsByParameterName, persistenceQuery);
+        return persistenceQuery.getCardinality() == QueryCardinality.MULTIPLE ? count : Math.min(count, 1L);
+    }
+
+    private static boolean isPkQuery(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+        return (objectSpec.getFullIdentifier() + "#pk").equals(persistenceQuery.getQueryName());
+    }
+
     // special case handling
     private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
 
@@ -93,26 +134,13 @@ private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault p
 
     private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
         
-        final String queryName = persistenceQuery.getQueryName();
         final Map<String, Object> argumentsByParameterName = unwrap(
                 persistenceQuery.getArgumentsAdaptersByParameterName());
         final QueryCardinality cardinality = persistenceQuery.getCardinality();
-        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
 
-        final Class<?> cls = objectSpec.getCorrespondingClass();
-        final Query jdoQuery = persistenceSession.newJdoNamedQuery(cls, queryName);
-        
-        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
-        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
-        
-        if(persistenceQuery.hasRange()) {
-            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
-        }
-        
-        if (LOG.isDebugEnabled()) {
-            LOG.debug(cls.getName() + " # " + queryName + " ( " + argumentsByParameterName + " )");
-        }
-        
+        final Query jdoQuery = newJdoNamedQuery(persistenceQuery);
+        setRangeIfAny(jdoQuery, persistenceQuery);
+
         try {
             final List<?> results = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
             final List<?> resultsToReturn =
@@ -127,6 +155,23 @@ private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault per
         }
     }
 
+    private Query newJdoNamedQuery(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+
+        final String queryName = persistenceQuery.getQueryName();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+
+        final Class<?> cls = objectSpec.getCorrespondingClass();
+        final Query jdoQuery = persistenceSession.newJdoNamedQuery(cls, queryName);
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(cls.getName() + " # " + queryName + " ( " + unwrap(persistenceQuery.getArgumentsAdaptersByParameterName()) + " )");
+        }
+        return jdoQuery;
+    }
+
     private static Map<String, Object> unwrap(final Map<String, ObjectAdapter> argumentAdaptersByParameterName) {
         final Map<String, Object> argumentsByParameterName = Maps.newHashMap();
         for (final String parameterName : argumentAdaptersByParameterName.keySet()) {
@@ -20,11 +20,24 @@
 
 import java.util.List;
 
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 
 public interface PersistenceQueryProcessor<T extends PersistenceQuery> {
 	List<ObjectAdapter> process(T query);
+
+	/**
+	 * As {@link #process(PersistenceQuery)}, but obtaining the results lazily, <tt>fetchSize</tt> at a time, and only
+	 * mapping each to an adapter as it is iterated over.
+	 */
+	CloseableIterator<ObjectAdapter> stream(T query, int fetchSize, boolean evict);
+
+	/**
+	 * The number of objects that {@link #process(PersistenceQuery)} would return, if possible counted by the datastore
+	 * rather than by loading them.
+	 */
+	long count(T query);
 }
 
 // Copyright (c) Naked Objects Group Ltd.
@@ -18,16 +18,23 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+import javax.jdo.Query;
 import javax.jdo.listener.InstanceLifecycleEvent;
 
 import com.google.common.collect.Lists;
 
+import org.datanucleus.api.jdo.JDOQuery;
 import org.datanucleus.enhancement.Persistable;
 
+import org.apache.isis.applib.services.repository.CloseableIterator;
 import org.apache.isis.core.commons.ensure.Assert;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryAbstract;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.IsisLifecycleListener;
@@ -51,21 +58,98 @@ protected PersistenceQueryProcessorAbstract(final PersistenceSession persistence
     protected List<ObjectAdapter> loadAdapters(final List<?> pojos) {
         final List<ObjectAdapter> adapters = Lists.newArrayList();
         for (final Object pojo : pojos) {
-        	// ought not to be necessary, however for some queries it seems that the 
-        	// lifecycle listener is not called
-            ObjectAdapter adapter;
-            if(pojo instanceof Persistable) {
-                // an entity
-                persistenceSession.initializeMapAndCheckConcurrency((Persistable) pojo);
-                adapter = persistenceSession.getAdapterFor(pojo);
+            adapters.add(loadAdapter(pojo));
+        }
+        return adapters;
+    }
+
+    ObjectAdapter loadAdapter(final Object pojo) {
+        // ought not to be necessary, however for some queries it seems that the
+        // lifecycle listener is not called
+        ObjectAdapter adapter;
+        if(pojo instanceof Persistable) {
+            // an entity
+            persistenceSession.initializeMapAndCheckConcurrency((Persistable) pojo);
+            adapter = persistenceSession.getAdapterFor(pojo);
+        } else {
+            // a value type
+            adapter = persistenceSession.adapterFor(pojo);
+        }
+        Assert.assertNotNull(adapter);
+        return adapter;
+    }
+
+    /**
+     * As {@link #loadAdapters(List)}, but lazily, as the returned iterator is advanced.
+     *
+     * @param jdoQuery - closed when the returned iterator is closed; may be <tt>null</tt> if already closed.
+     */
+    protected CloseableIterator<ObjectAdapter> streamAdapters(
+            final Query jdoQuery,
+            final Iterator<?> pojos,
+            final boolean evict) {
+        return new PersistenceQueryResultsIterator(this, jdoQuery, pojos, evict);
+    }
+
+    /**
+     * Executes the (unranged) JDO query as a <tt>count(this)</tt>, so that no objects are loaded, and then applies
+     * the range (if any) of the persistence query to the total.
+     *
+     * <p>
+     * Queries that cannot be rewritten in this way (because they are not JDOQL, or because they define their own
+     * result or grouping) are instead executed as they are, with their results counted but not mapped to adapters.
+     *
+     * @param jdoQuery - closed once executed.
+     */
+    protected long countResults(
+            final Query jdoQuery,
+            final Map<?, ?> parameters,
+            final PersistenceQueryAbstract persistenceQuery) {
+        try {
+            final long total;
+            if(isRewritableAsCount(jdoQuery)) {
+                jdoQuery.setResult("count(this)");
+                jdoQuery.setOrdering(null);
+                jdoQuery.setUnique(true);
+                total = ((Number) jdoQuery.executeWithMap(parameters)).longValue();
             } else {
-                // a value type
-                adapter = persistenceSession.adapterFor(pojo);
+                total = ((Collection<?>) jdoQuery.executeWithMap(parameters)).size();
             }
-            Assert.assertNotNull(adapter);
-            adapters.add(adapter);
+            return rangeOf(total, persistenceQuery);
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
+
+    private static boolean isRewritableAsCount(final Query jdoQuery) {
+        if(!(jdoQuery instanceof JDOQuery) || jdoQuery.isUnmodifiable()) {
+            return false;
+        }
+        final JDOQuery dnQuery = (JDOQuery) jdoQuery;
+        final org.datanucleus.store.query.Query internalQuery = dnQuery.getInternalQuery();
+        return "JDOQL".equals(dnQuery.getLanguage()) &&
+                internalQuery.getResult() == null &&
+                internalQuery.getGrouping() == null &&
+                !internalQuery.isUnique();
+    }
+
+    /**
+     * The number of the <tt>total</tt> objects that fall within the range (if any) of the persistence query.
+     */
+    static long rangeOf(final long total, final PersistenceQueryAbstract persistenceQuery) {
+        if(!persistenceQuery.hasRange()) {
+            return total;
+        }
+        return Math.max(0L, Math.min(total, persistenceQuery.getEnd()) - persistenceQuery.getStart());
+    }
+
+    /**
+     * Restricts the JDO query to the range (if any) of the persistence query.
+     */
+    protected static void setRangeIfAny(final Query jdoQuery, final PersistenceQueryAbstract persistenceQuery) {
+        if(persistenceQuery.hasRange()) {
+            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
         }
-        return adapters;
     }
 
 
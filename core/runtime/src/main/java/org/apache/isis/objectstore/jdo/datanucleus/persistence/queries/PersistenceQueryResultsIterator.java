@@ -0,0 +1,109 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.jdo.Query;
+
+import org.apache.isis.applib.services.repository.CloseableIterator;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+
+/**
+ * Maps the pojos returned by a JDO query to {@link ObjectAdapter}s only as they are iterated over.
+ *
+ * <p>
+ *     If so configured, each (unmodified) entity is evicted from the {@link PersistenceSession} (and from the
+ *     underlying JDO persistence manager) once the iteration has moved past it, that is, when {@link #next()} is next
+ *     called or when the iterator is closed.
+ * </p>
+ */
+class PersistenceQueryResultsIterator implements CloseableIterator<ObjectAdapter> {
+
+    private final PersistenceQueryProcessorAbstract<?> processor;
+    private final Query jdoQuery;
+    private final Iterator<?> pojos;
+    private final boolean evict;
+
+    private ObjectAdapter current;
+    private boolean closed;
+
+    PersistenceQueryResultsIterator(
+            final PersistenceQueryProcessorAbstract<?> processor,
+            final Query jdoQuery,
+            final Iterator<?> pojos,
+            final boolean evict) {
+        this.processor = processor;
+        this.jdoQuery = jdoQuery;
+        this.pojos = pojos;
+        this.evict = evict;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(closed) {
+            return false;
+        }
+        if(pojos.hasNext()) {
+            return true;
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public ObjectAdapter next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        evictCurrentIfRequired();
+        current = processor.loadAdapter(pojos.next());
+        return current;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Cannot remove from the results of a query");
+    }
+
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        evictCurrentIfRequired();
+        if(jdoQuery != null) {
+            jdoQuery.closeAll();
+        }
+    }
+
+    private void evictCurrentIfRequired() {
+        final ObjectAdapter adapter = current;
+        current = null;
+        if(!evict || adapter == null) {
+            return;
+        }
+        processor.persistenceSession.evictIfUnmodified(adapter);
+    }
+
+}
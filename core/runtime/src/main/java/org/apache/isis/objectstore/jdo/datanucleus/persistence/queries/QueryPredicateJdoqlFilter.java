@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.applib.query.QueryPredicate;
+
+/**
+ * A {@link QueryPredicate} translated into a JDOQL filter, with the values being compared against passed as (implicit)
+ * parameters.
+ *
+ * <p>
+ *     The translation is direct, so comparisons with <tt>null</tt> properties (and their negations) follow JDOQL's
+ *     null semantics; {@link QueryPredicate#apply(Object)} evaluates the predicate in memory in the same way.
+ * </p>
+ */
+class QueryPredicateJdoqlFilter {
+
+    static QueryPredicateJdoqlFilter compile(final QueryPredicate<?> predicate) {
+        final QueryPredicateJdoqlFilter filter = new QueryPredicateJdoqlFilter();
+        filter.append(predicate);
+        return filter;
+    }
+
+    private final StringBuilder buf = new StringBuilder();
+    private final Map<String, Object> parameters = Maps.newLinkedHashMap();
+
+    private QueryPredicateJdoqlFilter() {
+    }
+
+    private void append(final QueryPredicate<?> predicate) {
+        if(predicate instanceof QueryPredicate.Comparison) {
+            final QueryPredicate.Comparison<?> comparison = (QueryPredicate.Comparison<?>) predicate;
+            buf.append(comparison.getProperty()).append(" ").append(comparison.getOperator().getSymbol()).append(" ");
+            final Object value = comparison.getValue();
+            if(value == null) {
+                buf.append("null");
+            } else {
+                final String parameterName = "p" + parameters.size();
+                parameters.put(parameterName, value);
+                buf.append(":").append(parameterName);
+            }
+            return;
+        }
+        if(predicate instanceof QueryPredicate.Junction) {
+            final QueryPredicate.Junction<?> junction = (QueryPredicate.Junction<?>) predicate;
+            buf.append("(");
+            boolean first = true;
+            for (final QueryPredicate<?> each : junction.getPredicates()) {
+                if(!first) {
+                    buf.append(junction.isConjunction() ? " && " : " || ");
+                }
+                append(each);
+                first = false;
+            }
+            buf.append(")");
+            return;
+        }
+        if(predicate instanceof QueryPredicate.Not) {
+            final QueryPredicate.Not<?> not = (QueryPredicate.Not<?>) predicate;
+            buf.append("!(");
+            append(not.getPredicate());
+            buf.append(")");
+            return;
+        }
+        throw new IllegalArgumentException("Unsupported predicate: " + predicate.getClass().getName());
+    }
+
+    String getFilter() {
+        return buf.toString();
+    }
+
+    Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+}
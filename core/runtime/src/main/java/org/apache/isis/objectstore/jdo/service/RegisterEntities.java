@@ -96,9 +96,9 @@ Set<Class<?>> searchForPersistenceCapables(final Map<String, String> configurati
         final Set<Class<?>> persistenceCapableTypes = Sets.newLinkedHashSet();
         final List<String> domPackages = parseDomPackages(packagePrefixes);
         for (final String packageName : domPackages) {
-            Reflections reflections = new Reflections(packageName);
             final Set<Class<?>> entityTypesInPackage =
-                    reflections.getTypesAnnotatedWith(PersistenceCapable.class);
+                    AppManifest.Registry.instance().getTypesAnnotatedWith(
+                            PersistenceCapable.class, Collections.singletonList(packageName));
 
             if(!entitiesIn(entityTypesInPackage)) {
                 throw new IllegalArgumentException(String.format(
@@ -18,7 +18,12 @@
 
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.RequestScoped;
+
+import com.google.common.eventbus.Subscribe;
+
 import org.jmock.auto.Mock;
 import org.junit.Before;
 import org.junit.Rule;
@@ -129,6 +134,83 @@ public void run() {
     }
     
     
+    @Test
+    public void requestScoped_lazy_instantiatedOnFirstUse() {
+        final ServiceInstantiator serviceInstantiator = lazyServiceInstantiator();
+        final LifecycleCountingCalculator calculator = serviceInstantiator.createInstance(LifecycleCountingCalculator.class);
+        LifecycleCountingCalculator.reset();
+        try {
+            ((RequestScopedService)calculator).__isis_startRequest(mockServiceInjector);
+            ((RequestScopedService)calculator).__isis_postConstruct();
+            assertThat(LifecycleCountingCalculator.instantiated, is(0));
+            assertThat(LifecycleCountingCalculator.postConstructed, is(0));
+
+            assertThat(calculator.add(3), is(3));
+            assertThat(calculator.add(4), is(7));
+            assertThat(LifecycleCountingCalculator.instantiated, is(1));
+            assertThat(LifecycleCountingCalculator.postConstructed, is(1));
+
+            ((RequestScopedService)calculator).__isis_preDestroy();
+            assertThat(LifecycleCountingCalculator.preDestroyed, is(1));
+        } finally {
+            ((RequestScopedService)calculator).__isis_endRequest();
+        }
+    }
+
+    @Test
+    public void requestScoped_lazy_notUsed() {
+        final ServiceInstantiator serviceInstantiator = lazyServiceInstantiator();
+        final LifecycleCountingCalculator calculator = serviceInstantiator.createInstance(LifecycleCountingCalculator.class);
+        LifecycleCountingCalculator.reset();
+        try {
+            ((RequestScopedService)calculator).__isis_startRequest(mockServiceInjector);
+            ((RequestScopedService)calculator).__isis_postConstruct();
+            ((RequestScopedService)calculator).__isis_preDestroy();
+        } finally {
+            ((RequestScopedService)calculator).__isis_endRequest();
+        }
+        assertThat(LifecycleCountingCalculator.instantiated, is(0));
+        assertThat(LifecycleCountingCalculator.postConstructed, is(0));
+        assertThat(LifecycleCountingCalculator.preDestroyed, is(0));
+    }
+
+    @Test
+    public void requestScoped_lazy_newInstancePerRequest() {
+        final ServiceInstantiator serviceInstantiator = lazyServiceInstantiator();
+        final LifecycleCountingCalculator calculator = serviceInstantiator.createInstance(LifecycleCountingCalculator.class);
+        for (int i = 0; i < 2; i++) {
+            try {
+                ((RequestScopedService)calculator).__isis_startRequest(mockServiceInjector);
+                assertThat(calculator.add(3), is(3));
+            } finally {
+                ((RequestScopedService)calculator).__isis_endRequest();
+            }
+        }
+    }
+
+    @Test
+    public void requestScoped_lazy_butSubscriberInstantiatedEagerly() {
+        final ServiceInstantiator serviceInstantiator = lazyServiceInstantiator();
+        final SubscribingCalculator calculator = serviceInstantiator.createInstance(SubscribingCalculator.class);
+        LifecycleCountingCalculator.reset();
+        try {
+            ((RequestScopedService)calculator).__isis_startRequest(mockServiceInjector);
+            ((RequestScopedService)calculator).__isis_postConstruct();
+            assertThat(LifecycleCountingCalculator.instantiated, is(1));
+            assertThat(LifecycleCountingCalculator.postConstructed, is(1));
+        } finally {
+            ((RequestScopedService)calculator).__isis_endRequest();
+        }
+    }
+
+    private static ServiceInstantiator lazyServiceInstantiator() {
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        configuration.put(ServiceInstantiator.KEY_REQUEST_SCOPED_LAZY, "true");
+        final ServiceInstantiator serviceInstantiator = new ServiceInstantiator();
+        serviceInstantiator.setConfiguration(configuration);
+        return serviceInstantiator;
+    }
+
     public static class SingletonCalculator {
         public int add(int x, int y) {
             return x+y;
@@ -146,4 +228,34 @@ public int getTotal() {
             return total;
         }
     }
+
+    @RequestScoped
+    public static class LifecycleCountingCalculator extends AccumulatingCalculator {
+        static int instantiated;
+        static int postConstructed;
+        static int preDestroyed;
+
+        static void reset() {
+            instantiated = postConstructed = preDestroyed = 0;
+        }
+
+        public LifecycleCountingCalculator() {
+            instantiated++;
+        }
+        @PostConstruct
+        public void init() {
+            postConstructed++;
+        }
+        @PreDestroy
+        public void shutdown() {
+            preDestroyed++;
+        }
+    }
+
+    @RequestScoped
+    public static class SubscribingCalculator extends LifecycleCountingCalculator {
+        @Subscribe
+        public void on(final Object event) {
+        }
+    }
 }
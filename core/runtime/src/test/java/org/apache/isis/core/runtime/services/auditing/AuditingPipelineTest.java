@@ -0,0 +1,250 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.auditing;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AuditingPipelineTest {
+
+    static class CollectingSink implements AuditingPipeline.Sink {
+        final List<List<AuditEntry>> batches = Collections.synchronizedList(Lists.<List<AuditEntry>>newArrayList());
+        CountDownLatch latch = new CountDownLatch(1);
+        @Override
+        public List<String> auditerNames() {
+            return Collections.singletonList("auditer");
+        }
+        @Override
+        public void deliver(final String auditerName, final List<AuditEntry> entries) {
+            batches.add(Lists.newArrayList(entries));
+            latch.countDown();
+        }
+        List<String> propertyNames() {
+            final List<String> propertyNames = Lists.newArrayList();
+            synchronized (batches) {
+                for (final List<AuditEntry> batch : batches) {
+                    for (final AuditEntry entry : batch) {
+                        propertyNames.add(entry.getPropertyName());
+                    }
+                }
+            }
+            return propertyNames;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final CollectingSink sink = new CollectingSink();
+    private Map<String, String> properties;
+
+    @Before
+    public void setUp() throws Exception {
+        properties = ImmutableMap.of(
+                AuditingPipeline.KEY_ENABLED, "true",
+                AuditingPipeline.KEY_QUEUE_CAPACITY, "1",
+                AuditingPipeline.KEY_SPILL_DIRECTORY, temporaryFolder.getRoot().getPath());
+    }
+
+    private static List<AuditEntry> entriesFor(final UUID interactionId, final String... propertyNames) {
+        final List<AuditEntry> entries = Lists.newArrayList();
+        for (final String propertyName : propertyNames) {
+            entries.add(new AuditEntry(
+                    interactionId, 0, "com.mycompany.Customer", new Bookmark("CUS", "1"),
+                    "com.mycompany.Customer#" + propertyName, propertyName, "a", "b",
+                    "sven", new Timestamp(0L)));
+        }
+        return entries;
+    }
+
+    @Test
+    public void delivers_asynchronously() throws Exception {
+
+        // given
+        final AuditingPipeline pipeline = new AuditingPipeline(properties, sink);
+        pipeline.start();
+
+        // when
+        pipeline.submit(entriesFor(UUID.randomUUID(), "name", "email"));
+
+        // then
+        assertThat(sink.latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(sink.batches.size(), is(1));
+        assertThat(sink.propertyNames(), is(Arrays.asList("name", "email")));
+
+        pipeline.shutdown();
+        assertThat(pipeline.getDeliveredCount(), is(2L));
+    }
+
+    @Test
+    public void spills_when_queue_full_and_replays_in_order() throws Exception {
+
+        // given (not started, so nothing is taken from the queue)
+        final AuditingPipeline pipeline = new AuditingPipeline(properties, sink);
+        pipeline.submit(entriesFor(UUID.randomUUID(), "name"));
+
+        // when
+        pipeline.submit(entriesFor(UUID.randomUUID(), "email"));
+        pipeline.submit(entriesFor(UUID.randomUUID(), "phone"));
+
+        // then
+        assertThat(pipeline.getSpilledCount(), is(2L));
+        assertThat(temporaryFolder.getRoot().list().length, is(2));
+
+        // when
+        pipeline.replaySpilled();
+
+        // then
+        assertThat(sink.propertyNames(), is(Arrays.asList("email", "phone")));
+        assertThat(temporaryFolder.getRoot().list().length, is(0));
+    }
+
+    @Test
+    public void spills_on_shutdown_and_replays_after_restart() throws Exception {
+
+        // given
+        final AuditingPipeline pipeline = new AuditingPipeline(properties, sink);
+        pipeline.submit(entriesFor(UUID.randomUUID(), "name"));
+
+        // when
+        pipeline.shutdown();
+
+        // then
+        assertThat(sink.batches.isEmpty(), is(true));
+        assertThat(temporaryFolder.getRoot().list().length, is(1));
+
+        // and when
+        final AuditingPipeline restarted = new AuditingPipeline(properties, sink);
+        restarted.start();
+
+        // then
+        assertThat(sink.latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(sink.propertyNames(), is(Collections.singletonList("name")));
+
+        restarted.shutdown();
+    }
+
+    @Test
+    public void spills_if_delivery_fails() throws Exception {
+
+        // given
+        final CountDownLatch attempted = new CountDownLatch(1);
+        final AuditingPipeline pipeline = new AuditingPipeline(properties, new AuditingPipeline.Sink() {
+            @Override
+            public List<String> auditerNames() {
+                return Collections.singletonList("auditer");
+            }
+            @Override
+            public void deliver(final String auditerName, final List<AuditEntry> entries) throws Exception {
+                attempted.countDown();
+                throw new Exception("audit sink unavailable");
+            }
+        });
+        pipeline.start();
+
+        // when
+        pipeline.submit(entriesFor(UUID.randomUUID(), "name"));
+
+        // then
+        assertThat(attempted.await(5, TimeUnit.SECONDS), is(true));
+        pipeline.shutdown();
+        assertThat(pipeline.getSpilledCount(), is(1L));
+        assertThat(temporaryFolder.getRoot().list().length, is(1));
+    }
+
+    @Test
+    public void spills_and_replays_only_for_the_auditer_that_failed() throws Exception {
+
+        // given
+        final Map<String, List<String>> propertyNamesByAuditer = Collections.synchronizedMap(
+                Maps.<String, List<String>>newLinkedHashMap());
+        final boolean[] secondAvailable = { false };
+        final CountDownLatch attempted = new CountDownLatch(1);
+        final AuditingPipeline.Sink sink = new AuditingPipeline.Sink() {
+            @Override
+            public List<String> auditerNames() {
+                return Arrays.asList("first", "second");
+            }
+            @Override
+            public void deliver(final String auditerName, final List<AuditEntry> entries) throws Exception {
+                if(auditerName.equals("second") && !secondAvailable[0]) {
+                    attempted.countDown();
+                    throw new Exception("second auditer unavailable");
+                }
+                List<String> propertyNames = propertyNamesByAuditer.get(auditerName);
+                if(propertyNames == null) {
+                    propertyNames = Lists.newArrayList();
+                    propertyNamesByAuditer.put(auditerName, propertyNames);
+                }
+                for (final AuditEntry entry : entries) {
+                    propertyNames.add(entry.getPropertyName());
+                }
+            }
+        };
+        final AuditingPipeline pipeline = new AuditingPipeline(properties, sink);
+        pipeline.start();
+
+        // when
+        pipeline.submit(entriesFor(UUID.randomUUID(), "name"));
+
+        // then
+        assertThat(attempted.await(5, TimeUnit.SECONDS), is(true));
+        pipeline.shutdown();
+        assertThat(propertyNamesByAuditer.get("first"), is(Collections.singletonList("name")));
+        assertThat(propertyNamesByAuditer.containsKey("second"), is(false));
+        assertThat(temporaryFolder.getRoot().list().length, is(1));
+
+        // and when
+        secondAvailable[0] = true;
+        final AuditingPipeline restarted = new AuditingPipeline(properties, sink);
+        restarted.replaySpilled();
+
+        // then
+        assertThat(propertyNamesByAuditer.get("first"), is(Collections.singletonList("name")));
+        assertThat(propertyNamesByAuditer.get("second"), is(Collections.singletonList("name")));
+        assertThat(temporaryFolder.getRoot().list().length, is(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requires_spill_directory() throws Exception {
+        new AuditingPipeline(ImmutableMap.of(AuditingPipeline.KEY_ENABLED, "true"), sink);
+    }
+
+}
@@ -0,0 +1,382 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.background;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService2;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BackgroundCommandExecutionTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    private int commandNumber;
+
+    private IsisSessionFactory mockIsisSessionFactory;
+    private IsisSession mockIsisSession;
+    private IsisTransactionManager mockTransactionManager;
+    private BookmarkService2 mockBookmarkService;
+
+    private final AuthenticationSession callerSession = new SimpleSession("sven", Arrays.asList("admin", "user"), "xyz");
+
+    private final List<AuthenticationSession> workerSessions =
+            Collections.synchronizedList(Lists.<AuthenticationSession>newArrayList());
+    private final Set<String> workerThreads = Collections.synchronizedSet(Sets.<String>newHashSet());
+    private final List<Command> executed = Collections.synchronizedList(Lists.<Command>newArrayList());
+    private final Map<Bookmark, Command> commandsByBookmark = Maps.newHashMap();
+
+    @Before
+    public void setUp() throws Exception {
+        mockIsisSessionFactory = context.mock(IsisSessionFactory.class);
+        mockIsisSession = context.mock(IsisSession.class);
+        mockTransactionManager = context.mock(IsisTransactionManager.class);
+        mockBookmarkService = context.mock(BookmarkService2.class);
+
+        context.checking(new Expectations() {{
+            allowing(mockIsisSessionFactory).getCurrentSession();
+            will(returnValue(mockIsisSession));
+
+            allowing(mockIsisSession).getAuthenticationSession();
+            will(returnValue(callerSession));
+
+            allowing(mockIsisSessionFactory).doInSession(with(any(Runnable.class)), with(any(AuthenticationSession.class)));
+            will(new CustomAction("run in session") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    workerSessions.add((AuthenticationSession) invocation.getParameter(1));
+                    workerThreads.add(Thread.currentThread().getName());
+                    ((Runnable) invocation.getParameter(0)).run();
+                    return null;
+                }
+            });
+
+            allowing(mockTransactionManager).executeWithinTransaction(with(any(TransactionalClosure.class)));
+            will(new CustomAction("run closure") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    ((TransactionalClosure) invocation.getParameter(0)).execute();
+                    return null;
+                }
+            });
+
+            allowing(mockBookmarkService).lookupAll(
+                    with(any(List.class)), with(BookmarkService2.FieldResetPolicy.DONT_RESET));
+            will(new CustomAction("look up commands") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    final List<Object> commands = Lists.newArrayList();
+                    for (final Object bookmark : (List<?>) invocation.getParameter(0)) {
+                        commands.add(commandsByBookmark.get(bookmark));
+                    }
+                    return commands;
+                }
+            });
+        }});
+    }
+
+    /**
+     * Executes the commands on the configured number of threads; rather than actually executing each command, just
+     * records it (or fails, as if its transaction could not be committed).
+     */
+    private BackgroundCommandExecution executionFor(
+            final List<Command> commands,
+            final int threads,
+            final Command failingCommand) {
+
+        context.checking(new Expectations() {{
+            allowing(mockTransactionManager).executeWithinTransaction(
+                    with(any(Command.class)), with(any(TransactionalClosure.class)));
+            will(new CustomAction("execute command") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    final Command command = (Command) invocation.getParameter(0);
+                    if(command == failingCommand) {
+                        throw new RuntimeException("unable to commit");
+                    }
+                    executed.add(command);
+                    return null;
+                }
+            });
+        }});
+
+        final BackgroundCommandExecution execution = new BackgroundCommandExecution() {
+            @Override
+            protected List<? extends Command> findBackgroundCommandsToExecute() {
+                return commands;
+            }
+            @Override
+            protected int threads() {
+                return threads;
+            }
+            @Override
+            protected IsisSessionFactory getIsisSessionFactory() {
+                return mockIsisSessionFactory;
+            }
+            @Override
+            protected PersistenceSession getPersistenceSession() {
+                return null;
+            }
+            @Override
+            protected IsisTransactionManager getTransactionManager(final PersistenceSession persistenceSession) {
+                return mockTransactionManager;
+            }
+        };
+        execution.bookmarkService = mockBookmarkService;
+        return execution;
+    }
+
+    private List<Command> entityCommandsFor(final int numberOfTargets, final int commandsPerTarget) {
+        final List<Command> commands = Lists.newArrayList();
+        for (int i = 0; i < numberOfTargets * commandsPerTarget; i++) {
+            final Command command = commandFor(new Bookmark("CUS", "" + (i % numberOfTargets)));
+            final Bookmark commandBookmark = new Bookmark("CMD", "" + i);
+            commandsByBookmark.put(commandBookmark, command);
+            context.checking(new Expectations() {{
+                allowing(mockBookmarkService).bookmarkFor(command);
+                will(returnValue(commandBookmark));
+            }});
+            commands.add(command);
+        }
+        return commands;
+    }
+
+    private Command commandFor(final Bookmark target) {
+        final Command command = context.mock(Command.class, "command" + commandNumber++);
+        context.checking(new Expectations() {{
+            allowing(command).getTarget();
+            will(returnValue(target));
+
+            allowing(command).getMemento();
+            will(returnValue(null));
+        }});
+        return command;
+    }
+
+    private static List<Bookmark> targets(final String... identifiers) {
+        final List<Bookmark> targets = Lists.newArrayList();
+        for (final String identifier : identifiers) {
+            targets.add(new Bookmark("CUS", identifier));
+        }
+        return targets;
+    }
+
+    @Test
+    public void commands_for_same_target_in_same_partition_and_in_order() throws Exception {
+
+        // given
+        final List<List<Bookmark>> targetsByCommand = Lists.newArrayList();
+        final List<String> items = Lists.newArrayList();
+        for (int i = 0; i < 50; i++) {
+            targetsByCommand.add(targets("" + (i % 5)));
+            items.add((i % 5) + ":" + i);
+        }
+
+        // when
+        final List<List<String>> partitions =
+                BackgroundCommandExecution.partitionByTargets(targetsByCommand, items, 4);
+
+        // then
+        assertThat(partitions.size(), is(4));
+        int total = 0;
+        for (final List<String> partition : partitions) {
+            total += partition.size();
+            for (int target = 0; target < 5; target++) {
+                final List<Integer> sequence = sequenceFor(partition, target);
+                if(!sequence.isEmpty()) {
+                    assertThat(sequence, is(expectedSequenceFor(target)));
+                }
+            }
+        }
+        assertThat(total, is(50));
+    }
+
+    @Test
+    public void commands_without_target_in_same_partition() throws Exception {
+
+        // given
+        final List<List<Bookmark>> targetsByCommand = Arrays.asList(targets(), targets(), targets());
+
+        // when
+        final List<List<String>> partitions =
+                BackgroundCommandExecution.partitionByTargets(targetsByCommand, Arrays.asList("a", "b", "c"), 3);
+
+        // then
+        assertThat(partitions.get(0), is(Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void bulk_command_merges_partitions_of_all_its_targets() throws Exception {
+
+        // given
+        final List<List<Bookmark>> targetsByCommand = Lists.newArrayList();
+        final List<String> items = Lists.newArrayList();
+        for (int i = 0; i < 8; i++) {
+            targetsByCommand.add(targets("" + i));
+            items.add("before:" + i);
+        }
+        targetsByCommand.add(targets("1", "2", "5"));
+        items.add("bulk");
+        for (int i = 0; i < 8; i++) {
+            targetsByCommand.add(targets("" + i));
+            items.add("after:" + i);
+        }
+
+        // when
+        final List<List<String>> partitions =
+                BackgroundCommandExecution.partitionByTargets(targetsByCommand, items, 4);
+
+        // then
+        List<String> bulkPartition = null;
+        int total = 0;
+        for (final List<String> partition : partitions) {
+            total += partition.size();
+            if(partition.contains("bulk")) {
+                bulkPartition = partition;
+            }
+        }
+        assertThat(total, is(17));
+        final int bulkIndex = bulkPartition.indexOf("bulk");
+        for (final String target : Arrays.asList("1", "2", "5")) {
+            assertThat(bulkPartition.subList(0, bulkIndex).contains("before:" + target), is(true));
+            assertThat(bulkPartition.subList(bulkIndex + 1, bulkPartition.size()).contains("after:" + target), is(true));
+        }
+    }
+
+    @Test
+    public void executes_on_worker_threads_each_with_own_session() throws Exception {
+
+        // given
+        final List<Command> commands = entityCommandsFor(20, 3);
+        final BackgroundCommandExecution execution = executionFor(commands, 4, null);
+
+        // when
+        execution.doExecute(null);
+
+        // then
+        assertThat(Sets.newHashSet(executed), is(Sets.newHashSet(commands)));
+        assertThat(executed.size(), is(60));
+        assertThat(execution.getNumberExecuted(), is(60));
+        assertThat(execution.getNumberFailed(), is(0));
+        assertThat(execution.getNumberPending(), is(0));
+
+        assertThat(workerThreads.size() > 1, is(true));
+        final Set<AuthenticationSession> distinctSessions = Sets.newIdentityHashSet();
+        distinctSessions.addAll(workerSessions);
+        assertThat(distinctSessions.size(), is(workerSessions.size()));
+        for (final AuthenticationSession workerSession : workerSessions) {
+            assertThat(workerSession, is(not(sameInstance(callerSession))));
+            assertThat(workerSession.getMessageBroker(), is(not(sameInstance(callerSession.getMessageBroker()))));
+            assertThat(workerSession.getUserName(), is("sven"));
+            assertThat(workerSession.getRoles(), is(callerSession.getRoles()));
+            assertThat(workerSession.getValidationCode(), is("xyz"));
+        }
+    }
+
+    @Test
+    public void counts_failure_once() throws Exception {
+
+        // given
+        final List<Command> commands = entityCommandsFor(2, 1);
+        final BackgroundCommandExecution execution = executionFor(commands, 2, commands.get(1));
+
+        // when
+        try {
+            execution.doExecute(null);
+            fail();
+        } catch (final RuntimeException ex) {
+            // then
+            assertThat(ex.getMessage(), is("unable to commit"));
+        }
+        assertThat(executed, is(Collections.singletonList(commands.get(0))));
+        assertThat(execution.getNumberExecuted(), is(2));
+        assertThat(execution.getNumberFailed(), is(1));
+        assertThat(execution.getNumberPending(), is(0));
+    }
+
+    @Test
+    public void counts_command_that_can_no_longer_be_looked_up_as_skipped() throws Exception {
+
+        // given
+        final List<Command> commands = entityCommandsFor(4, 1);
+        final BackgroundCommandExecution execution = executionFor(commands, 2, null);
+        commandsByBookmark.remove(new Bookmark("CMD", "3"));
+
+        // when
+        execution.doExecute(null);
+
+        // then
+        assertThat(Sets.newHashSet(executed), is(Sets.newHashSet(commands.subList(0, 3))));
+        assertThat(execution.getNumberExecuted(), is(3));
+        assertThat(execution.getNumberFailed(), is(0));
+        assertThat(execution.getNumberSkipped(), is(1));
+        assertThat(execution.getNumberPending(), is(0));
+    }
+
+    private static List<Integer> sequenceFor(final List<String> partition, final int target) {
+        final List<Integer> sequence = Lists.newArrayList();
+        for (final String item : partition) {
+            final String[] parts = item.split(":");
+            if(Integer.parseInt(parts[0]) == target) {
+                sequence.add(Integer.parseInt(parts[1]));
+            }
+        }
+        return sequence;
+    }
+
+    private static List<Integer> expectedSequenceFor(final int target) {
+        final List<Integer> sequence = Lists.newArrayList();
+        for (int i = target; i < 50; i += 5) {
+            sequence.add(i);
+        }
+        return sequence;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.background;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.JavassistEnhanced;
+
+import javassist.util.proxy.ProxyObject;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class BackgroundServiceDefaultTest {
+
+    public static class Customer {
+        public void placeOrder() {}
+    }
+
+    public static class Customer_placeOrder {
+        private final Customer customer;
+        public Customer_placeOrder(final Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    private BackgroundServiceDefault backgroundService;
+
+    @Before
+    public void setUp() throws Exception {
+        backgroundService = new BackgroundServiceDefault();
+    }
+
+    @Test
+    public void proxy_subclass_is_reused() throws Exception {
+
+        // when
+        final Class<?> proxySubclass = backgroundService.proxySubclassFor(Customer.class);
+
+        // then
+        assertThat(backgroundService.proxySubclassFor(Customer.class), is(sameInstance((Object) proxySubclass)));
+        assertThat(backgroundService.proxySubclassFor(Customer_placeOrder.class), is(not(sameInstance((Object) proxySubclass))));
+
+        assertThat(Customer.class.isAssignableFrom(proxySubclass), is(true));
+        assertThat(ProxyObject.class.isAssignableFrom(proxySubclass), is(true));
+        assertThat(JavassistEnhanced.class.isAssignableFrom(proxySubclass), is(true));
+    }
+
+}
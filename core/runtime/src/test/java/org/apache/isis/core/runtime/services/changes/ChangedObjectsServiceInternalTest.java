@@ -0,0 +1,237 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.changes;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
+import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ChangedObjectsServiceInternalTest {
+
+    public static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockCustomerAdapter;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private AuditableFacet mockAuditableFacet;
+
+    @Mock
+    private ObjectAssociation mockNameProperty;
+    @Mock
+    private ObjectAssociation mockEmailProperty;
+    @Mock
+    private ObjectAssociation mockOrdersCollection;
+
+    private String[] dirtyFieldNames;
+
+    private ChangedObjectsServiceInternal changedObjectsServiceInternal;
+
+    @Before
+    public void setUp() throws Exception {
+        changedObjectsServiceInternal = new ChangedObjectsServiceInternal() {
+            @Override
+            protected String[] dirtyFieldNamesOf(final ObjectAdapter adapter) {
+                return dirtyFieldNames;
+            }
+        };
+
+        context.checking(new Expectations() {{
+            allowing(mockCustomerAdapter).getOid();
+            will(returnValue(new RootOid(ObjectSpecId.of("CUS"), "1", Oid.State.PERSISTENT)));
+            allowing(mockCustomerAdapter).getSpecification();
+            will(returnValue(mockCustomerSpec));
+            allowing(mockCustomerAdapter).isDestroyed();
+            will(returnValue(false));
+
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES);
+            will(returnValue(Arrays.asList(mockNameProperty, mockEmailProperty)));
+            allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Arrays.asList(mockNameProperty, mockEmailProperty, mockOrdersCollection)));
+
+            allowing(mockNameProperty).getId();
+            will(returnValue("name"));
+            allowing(mockNameProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockEmailProperty).getId();
+            will(returnValue("email"));
+            allowing(mockEmailProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockOrdersCollection).getId();
+            will(returnValue("orders"));
+        }});
+    }
+
+    private void givenAudited(final boolean audited) {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).getFacet(AuditableFacet.class);
+            will(returnValue(audited ? mockAuditableFacet : null));
+            allowing(mockAuditableFacet).isDisabled();
+            will(returnValue(false));
+            allowing(mockCustomerSpec).containsFacet(PublishedObjectFacet.class);
+            will(returnValue(false));
+        }});
+    }
+
+    private void expectPropertyRead(final ObjectAssociation property, final String... values) {
+        final ObjectAdapter[] valueAdapters = new ObjectAdapter[values.length];
+        for (int i = 0; i < values.length; i++) {
+            valueAdapters[i] = context.mock(ObjectAdapter.class, property.getId() + "-" + i);
+        }
+        context.checking(new Expectations() {{
+            for (int i = 0; i < values.length; i++) {
+                allowing(valueAdapters[i]).getObject();
+                will(returnValue(values[i]));
+            }
+            exactly(values.length).of(property).get(mockCustomerAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(onConsecutiveCalls(returnValues(valueAdapters)));
+        }});
+    }
+
+    private static org.jmock.api.Action[] returnValues(final ObjectAdapter[] valueAdapters) {
+        final org.jmock.api.Action[] actions = new org.jmock.api.Action[valueAdapters.length];
+        for (int i = 0; i < valueAdapters.length; i++) {
+            actions[i] = Expectations.returnValue(valueAdapters[i]);
+        }
+        return actions;
+    }
+
+    @Test
+    public void not_captured_if_neither_audited_nor_published() throws Exception {
+
+        // given
+        givenAudited(false);
+        expectPropertyRead(mockNameProperty);
+        expectPropertyRead(mockEmailProperty);
+
+        // when
+        changedObjectsServiceInternal.enlistUpdating(mockCustomerAdapter);
+
+        // then
+        assertThat(changedObjectsServiceInternal.isEnlisted(mockCustomerAdapter), is(true));
+        assertThat(changedObjectsServiceInternal.getChangedObjectProperties().isEmpty(), is(true));
+        assertThat(changedObjectsServiceInternal.numberObjectPropertiesCaptured(), is(0));
+    }
+
+    @Test
+    public void post_values_only_of_dirty_fields() throws Exception {
+
+        // given
+        givenAudited(true);
+        expectPropertyRead(mockNameProperty, "Joe", "Joseph");
+        expectPropertyRead(mockEmailProperty, "joe@example.com");
+
+        changedObjectsServiceInternal.enlistUpdating(mockCustomerAdapter);
+
+        // when
+        dirtyFieldNames = new String[] { "name", "orders" };
+        final Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> changed =
+                changedObjectsServiceInternal.getChangedObjectProperties();
+
+        // then
+        assertThat(changed.size(), is(1));
+        final Map.Entry<AdapterAndProperty, PreAndPostValues> entry = changed.iterator().next();
+        assertThat(entry.getKey().getPropertyId(), is("name"));
+        assertThat(entry.getValue().getPostString(), is("Joseph"));
+
+        assertThat(changedObjectsServiceInternal.numberObjectPropertiesCaptured(), is(3));
+        assertThat(changedObjectsServiceInternal.numberObjectPropertiesModified(), is(1));
+    }
+
+    @Test
+    public void includes_fields_dirty_when_flushed() throws Exception {
+
+        // given
+        givenAudited(true);
+        expectPropertyRead(mockNameProperty, "Joe", "Joseph");
+        expectPropertyRead(mockEmailProperty, "joe@example.com", "joseph@example.com");
+
+        changedObjectsServiceInternal.enlistUpdating(mockCustomerAdapter);
+        changedObjectsServiceInternal.enlistFlushing(mockCustomerAdapter, new String[] { "email" });
+
+        // when
+        dirtyFieldNames = new String[] { "name" };
+
+        // then
+        assertThat(changedObjectsServiceInternal.getChangedObjectProperties().size(), is(2));
+    }
+
+    @Test
+    public void all_post_values_if_dirty_fields_not_recognised() throws Exception {
+
+        // given
+        givenAudited(true);
+        expectPropertyRead(mockNameProperty, "Joe", "Joseph");
+        expectPropertyRead(mockEmailProperty, "joe@example.com", "joe@example.com");
+
+        changedObjectsServiceInternal.enlistUpdating(mockCustomerAdapter);
+
+        // when
+        dirtyFieldNames = new String[] { "_name" };
+
+        // then
+        assertThat(changedObjectsServiceInternal.getChangedObjectProperties().size(), is(1));
+        assertThat(changedObjectsServiceInternal.numberObjectPropertiesCaptured(), is(4));
+    }
+
+    @Test
+    public void all_post_values_if_dirty_fields_not_known() throws Exception {
+
+        // given
+        givenAudited(true);
+        expectPropertyRead(mockNameProperty, "Joe", "Joseph");
+        expectPropertyRead(mockEmailProperty, "joe@example.com", "joe@example.com");
+
+        changedObjectsServiceInternal.enlistUpdating(mockCustomerAdapter);
+
+        // when
+        dirtyFieldNames = null;
+
+        // then
+        assertThat(changedObjectsServiceInternal.getChangedObjectProperties().size(), is(1));
+    }
+
+}
@@ -19,8 +19,11 @@
 import java.util.Collections;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.Subscribe;
 
+import org.axonframework.eventhandling.annotation.EventHandler;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -104,6 +107,12 @@ public void implementation_setToAxonMixedCaseRequiringTrimming() throws Exceptio
             assertThat(eventBusService.getImplementation(), is("axon"));
         }
 
+        @Test
+        public void implementation_setToCompiledMixedCaseRequiringTrimming() throws Exception {
+            eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION, " Compiled "));
+            assertThat(eventBusService.getImplementation(), is("compiled"));
+        }
+
         @Test
         public void implementation_setToEmptyString() throws Exception {
             eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION, ""));
@@ -196,4 +205,75 @@ public void disallow_late_registration_means_can_register_before_post() throws E
         }
 
     }
-}
\ No newline at end of file
+
+    public static class HasPotentialSubscriberTo extends EventBusServiceDefaultTest {
+
+        public static class SomeEvent {
+        }
+
+        public static class SomeSubEvent extends SomeEvent {
+        }
+
+        public static class OtherEvent {
+        }
+
+        public static class SomeEventSubscriber {
+            @Subscribe
+            public void on(SomeEvent ev) {
+            }
+        }
+
+        public static class DeadEventSubscriber {
+            @Subscribe
+            public void on(DeadEvent ev) {
+            }
+        }
+
+        public static class SomeEventAxonSubscriber {
+            @EventHandler
+            public void on(SomeEvent ev) {
+            }
+        }
+
+        @Test
+        public void guava_subscriber_to_type_or_supertype() throws Exception {
+            eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION, "guava"));
+            assertThat(eventBusService.hasPotentialSubscriberTo(SomeEvent.class), is(false));
+
+            eventBusService.register(new SomeEventSubscriber());
+
+            assertThat(eventBusService.hasPotentialSubscriberTo(SomeEvent.class), is(true));
+            assertThat(eventBusService.hasPotentialSubscriberTo(SomeSubEvent.class), is(true));
+            assertThat(eventBusService.hasPotentialSubscriberTo(OtherEvent.class), is(false));
+        }
+
+        @Test
+        public void guava_subscriber_to_dead_events() throws Exception {
+            eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION, "guava"));
+
+            eventBusService.register(new DeadEventSubscriber());
+
+            assertThat(eventBusService.hasPotentialSubscriberTo(OtherEvent.class), is(true));
+        }
+
+        @Test
+        public void axon_subscriber() throws Exception {
+            eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION, "axon"));
+
+            eventBusService.register(new SomeEventAxonSubscriber());
+
+            assertThat(eventBusService.hasPotentialSubscriberTo(SomeSubEvent.class), is(true));
+            assertThat(eventBusService.hasPotentialSubscriberTo(OtherEvent.class), is(false));
+        }
+
+        @Test
+        public void other_implementation_cannot_tell() throws Exception {
+            eventBusService.init(ImmutableMap.of(EventBusServiceDefault.KEY_EVENT_BUS_IMPLEMENTATION,
+                    "com.mycompany.my.event.bus.Implementation"));
+
+            eventBusService.register(new SomeEventSubscriber());
+
+            assertThat(eventBusService.hasPotentialSubscriberTo(OtherEvent.class), is(true));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.eventbus.adapter;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.Subscribe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class EventBusImplementationCompiledTest {
+
+    public static class SomeEvent {
+    }
+
+    public static class SomeSubEvent extends SomeEvent {
+    }
+
+    public static class Subscriber {
+        final List<Object> received = Lists.newArrayList();
+
+        @Subscribe
+        public void on(final SomeEvent ev) {
+            received.add(ev);
+        }
+    }
+
+    public static class SubscriberOverriding extends Subscriber {
+        @Subscribe
+        @Override
+        public void on(final SomeEvent ev) {
+            super.on(ev);
+        }
+    }
+
+    public static class SubscriberThrowing {
+        @Subscribe
+        public void on(final SomeEvent ev) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static class DeadEventSubscriber {
+        final List<Object> received = Lists.newArrayList();
+
+        @Subscribe
+        public void on(final DeadEvent ev) {
+            received.add(ev.getEvent());
+        }
+    }
+
+    public static class SubscriberReposting {
+        final List<Object> received = Lists.newArrayList();
+        EventBusImplementationCompiled eventBus;
+
+        @Subscribe
+        public void on(final SomeEvent ev) {
+            received.add(ev);
+            if(!(ev instanceof SomeSubEvent)) {
+                eventBus.post(new SomeSubEvent());
+            }
+            received.add("after");
+        }
+    }
+
+    private EventBusImplementationCompiled eventBus;
+
+    @Before
+    public void setUp() throws Exception {
+        eventBus = new EventBusImplementationCompiled();
+    }
+
+    @Test
+    public void receives_events_of_subscribed_type_and_subtypes() throws Exception {
+        final Subscriber subscriber = new Subscriber();
+        eventBus.register(subscriber);
+
+        final SomeEvent event = new SomeEvent();
+        final SomeSubEvent subEvent = new SomeSubEvent();
+        eventBus.post(event);
+        eventBus.post(subEvent);
+        eventBus.post(new Object());
+
+        assertThat(subscriber.received.size(), is(2));
+        assertThat(subscriber.received.get(0), is(sameInstance((Object) event)));
+        assertThat(subscriber.received.get(1), is(sameInstance((Object) subEvent)));
+    }
+
+    @Test
+    public void registering_again_or_overriding_does_not_duplicate() throws Exception {
+        final Subscriber subscriber = new SubscriberOverriding();
+        eventBus.register(subscriber);
+        eventBus.register(subscriber);
+
+        eventBus.post(new SomeEvent());
+
+        assertThat(subscriber.received.size(), is(1));
+    }
+
+    @Test
+    public void subscriber_registered_after_post() throws Exception {
+        final Subscriber subscriber1 = new Subscriber();
+        eventBus.register(subscriber1);
+        eventBus.post(new SomeEvent());
+
+        final Subscriber subscriber2 = new Subscriber();
+        eventBus.register(subscriber2);
+        eventBus.post(new SomeEvent());
+
+        assertThat(subscriber1.received.size(), is(2));
+        assertThat(subscriber2.received.size(), is(1));
+    }
+
+    @Test
+    public void exception_does_not_prevent_other_subscribers() throws Exception {
+        final Subscriber subscriber = new Subscriber();
+        eventBus.register(new SubscriberThrowing());
+        eventBus.register(subscriber);
+
+        eventBus.post(new SomeEvent());
+
+        assertThat(subscriber.received.size(), is(1));
+    }
+
+    @Test
+    public void unreceived_events_are_dead() throws Exception {
+        final DeadEventSubscriber subscriber = new DeadEventSubscriber();
+        eventBus.register(subscriber);
+
+        final SomeEvent event = new SomeEvent();
+        eventBus.post(event);
+
+        assertThat(subscriber.received.size(), is(1));
+        assertThat(subscriber.received.get(0), is(sameInstance((Object) event)));
+    }
+
+    @Test
+    public void events_posted_by_subscriber_are_dispatched_immediately() throws Exception {
+        final SubscriberReposting subscriber = new SubscriberReposting();
+        subscriber.eventBus = eventBus;
+        eventBus.register(subscriber);
+
+        eventBus.post(new SomeEvent());
+
+        assertThat(subscriber.received.size(), is(4));
+        assertThat(subscriber.received.get(1) instanceof SomeSubEvent, is(true));
+        assertThat(subscriber.received.get(2), is((Object) "after"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subscriber_method_with_two_parameters() throws Exception {
+        eventBus.register(new Object() {
+            @Subscribe
+            public void on(final SomeEvent ev, final Object other) {
+            }
+        });
+    }
+
+}
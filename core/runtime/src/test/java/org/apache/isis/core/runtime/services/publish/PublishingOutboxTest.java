@@ -0,0 +1,390 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PublishingOutboxTest {
+
+    /**
+     * An in-process consumer, that fails the configured number of deliveries before succeeding.
+     */
+    static class CollectingSink implements PublishingOutbox.Sink {
+        final List<List<String>> batches = Collections.synchronizedList(Lists.<List<String>>newArrayList());
+        volatile int failuresRemaining;
+        volatile String poisonTransactionId;
+        volatile int attempts;
+        @Override
+        public void deliver(final List<Object> dtos) throws Exception {
+            attempts++;
+            if(failuresRemaining > 0) {
+                failuresRemaining--;
+                throw new Exception("consumer unavailable");
+            }
+            if(transactionIdsOf(dtos).contains(poisonTransactionId)) {
+                throw new Exception("consumer unable to process " + poisonTransactionId);
+            }
+            batches.add(transactionIdsOf(dtos));
+        }
+        List<String> transactionIds() {
+            final List<String> transactionIds = Lists.newArrayList();
+            synchronized (batches) {
+                for (final List<String> batch : batches) {
+                    transactionIds.addAll(batch);
+                }
+            }
+            return transactionIds;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final CollectingSink sink = new CollectingSink();
+    private final List<PublishingOutbox> outboxes = Lists.newArrayList();
+    private Map<String, String> properties;
+
+    @Before
+    public void setUp() throws Exception {
+        properties = Maps.newHashMap();
+        properties.put(PublishingOutbox.KEY_ENABLED, "true");
+        properties.put(PublishingOutbox.KEY_DIRECTORY, temporaryFolder.getRoot().getPath());
+        properties.put(PublishingOutbox.KEY_BATCH_SIZE, "2");
+        properties.put(PublishingOutbox.KEY_RETRY_MILLIS, "10");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (final PublishingOutbox outbox : outboxes) {
+            outbox.shutdown();
+        }
+    }
+
+    private PublishingOutbox newOutbox(final PublishingOutbox.Sink sink) {
+        final PublishingOutbox outbox = new PublishingOutbox(properties, sink);
+        outboxes.add(outbox);
+        return outbox;
+    }
+
+    private static ChangesDto changes(final String transactionId) {
+        final ChangesDto changesDto = new ChangesDto();
+        changesDto.setTransactionId(transactionId);
+        changesDto.setUser(Strings.repeat("x", 200));
+        return changesDto;
+    }
+
+    private static InteractionDto interaction(final String transactionId) {
+        final InteractionDto interactionDto = new InteractionDto();
+        interactionDto.setTransactionId(transactionId);
+        return interactionDto;
+    }
+
+    /**
+     * Appends the DTOs and marks their transaction as committed.
+     */
+    private static void appendCommitted(final PublishingOutbox outbox, final String transactionId, final Object... dtos)
+            throws IOException {
+        outbox.append(transactionId, Arrays.asList(dtos));
+        outbox.committed(transactionId);
+    }
+
+    private static List<String> transactionIdsOf(final List<Object> dtos) {
+        final List<String> transactionIds = Lists.newArrayList();
+        for (final Object dto : dtos) {
+            transactionIds.add(dto instanceof ChangesDto
+                    ? ((ChangesDto) dto).getTransactionId()
+                    : ((InteractionDto) dto).getTransactionId());
+        }
+        return transactionIds;
+    }
+
+    private static void awaitDelivered(final PublishingOutbox outbox, final long count) throws InterruptedException {
+        for (int i = 0; i < 500 && outbox.getDeliveredCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(outbox.getDeliveredCount(), is(count));
+    }
+
+    private static void awaitDeadLettered(final PublishingOutbox outbox, final long count) throws InterruptedException {
+        for (int i = 0; i < 500 && outbox.getDeadLetteredCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(outbox.getDeadLetteredCount(), is(count));
+    }
+
+    private String[] segmentFiles() {
+        final String[] names = temporaryFolder.getRoot().list(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(".segment");
+            }
+        });
+        Arrays.sort(names);
+        return names;
+    }
+
+    @Test
+    public void delivers_in_order_in_batches() throws Exception {
+
+        // given
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.start();
+
+        // when
+        appendCommitted(outbox, "1", interaction("1"), changes("1"));
+        appendCommitted(outbox, "2", interaction("2"));
+
+        // then
+        awaitDelivered(outbox, 3);
+        assertThat(sink.batches, is(Arrays.asList(Arrays.asList("1", "1"), Collections.singletonList("2"))));
+        assertThat(outbox.getAppendedCount(), is(3L));
+    }
+
+    @Test
+    public void rotates_segments_and_deletes_those_delivered() throws Exception {
+
+        // given
+        properties.put(PublishingOutbox.KEY_SEGMENT_SIZE, "1024");
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.open();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            appendCommitted(outbox, "" + i, changes("" + i));
+        }
+
+        // then
+        assertThat(segmentFiles().length > 1, is(true));
+
+        // when
+        outbox.start();
+
+        // then
+        awaitDelivered(outbox, 10);
+        assertThat(sink.transactionIds(), is(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9")));
+        assertThat(segmentFiles().length, is(1));
+    }
+
+    @Test
+    public void retries_batch_until_delivered() throws Exception {
+
+        // given
+        sink.failuresRemaining = 2;
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.start();
+
+        // when
+        appendCommitted(outbox, "1", changes("1"), changes("2"));
+
+        // then
+        awaitDelivered(outbox, 2);
+        assertThat(sink.attempts, is(3));
+        assertThat(outbox.getFailedCount(), is(2L));
+        assertThat(sink.transactionIds(), is(Arrays.asList("1", "2")));
+    }
+
+    @Test
+    public void delivers_after_restart_but_not_twice() throws Exception {
+
+        // given (never delivered)
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.open();
+        appendCommitted(outbox, "1", changes("1"));
+        outbox.shutdown();
+
+        // when
+        final PublishingOutbox restarted = newOutbox(sink);
+        restarted.start();
+
+        // then
+        awaitDelivered(restarted, 1);
+        restarted.shutdown();
+        assertThat(sink.transactionIds(), is(Collections.singletonList("1")));
+
+        // and when
+        final PublishingOutbox restartedAgain = newOutbox(sink);
+        restartedAgain.open();
+
+        // then
+        assertThat(restartedAgain.nextBatch(), is(nullValue()));
+    }
+
+    @Test
+    public void discards_partly_written_record_on_restart() throws Exception {
+
+        // given
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.open();
+        appendCommitted(outbox, "1", changes("1"));
+        outbox.shutdown();
+
+        // simulate a record (following the DTO and commit marker) whose body was not completely written
+        final RandomAccessFile raf = new RandomAccessFile(new File(temporaryFolder.getRoot(), segmentFiles()[0]), "rw");
+        try {
+            final int length = raf.readInt();
+            raf.seek(8 + length);
+            final int markerLength = raf.readInt();
+            raf.seek(8 + length + 8 + markerLength);
+            raf.writeInt(100);
+            raf.writeInt(12345);
+        } finally {
+            raf.close();
+        }
+
+        // when
+        final PublishingOutbox restarted = newOutbox(sink);
+        restarted.open();
+        appendCommitted(restarted, "2", interaction("2"));
+
+        // then
+        final PublishingOutbox.Batch batch = restarted.nextBatch();
+        assertThat(transactionIdsOf(batch.dtos), is(Arrays.asList("1", "2")));
+        assertThat(batch.dtos.get(1), is(instanceOf(InteractionDto.class)));
+    }
+
+    @Test
+    public void dead_letters_record_that_cannot_be_delivered() throws Exception {
+
+        // given
+        properties.put(PublishingOutbox.KEY_MAX_ATTEMPTS, "2");
+        sink.poisonTransactionId = "2";
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.start();
+
+        // when
+        appendCommitted(outbox, "1", changes("1"), changes("2"), changes("3"));
+
+        // then
+        awaitDeadLettered(outbox, 1);
+        awaitDelivered(outbox, 2);
+        assertThat(sink.transactionIds(), is(Arrays.asList("1", "3")));
+
+        final String[] deadLetters = new File(temporaryFolder.getRoot(), "dead-letter").list();
+        assertThat(deadLetters.length, is(1));
+    }
+
+    @Test
+    public void delivers_only_once_committed_and_in_order() throws Exception {
+
+        // given
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.open();
+
+        // when
+        outbox.append("1", Collections.<Object>singletonList(changes("1")));
+        appendCommitted(outbox, "2", changes("2"));
+
+        // then (2 waits on 1, still pending)
+        assertThat(outbox.nextBatch(), is(nullValue()));
+
+        // when
+        outbox.committed("1");
+
+        // then
+        assertThat(transactionIdsOf(outbox.nextBatch().dtos), is(Arrays.asList("1", "2")));
+    }
+
+    @Test
+    public void skips_records_of_aborted_transaction() throws Exception {
+
+        // given
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.start();
+
+        // when
+        outbox.append("1", Collections.<Object>singletonList(changes("1")));
+        outbox.aborted("1");
+        appendCommitted(outbox, "2", changes("2"));
+
+        // then
+        awaitDelivered(outbox, 1);
+        assertThat(sink.transactionIds(), is(Collections.singletonList("2")));
+        assertThat(outbox.getDeadLetteredCount(), is(0L));
+    }
+
+    @Test
+    public void dead_letters_records_still_pending_on_restart() throws Exception {
+
+        // given (1 neither committed nor aborted before the process stopped)
+        final PublishingOutbox outbox = newOutbox(sink);
+        outbox.open();
+        outbox.append("1", Collections.<Object>singletonList(changes("1")));
+        appendCommitted(outbox, "2", changes("2"));
+        outbox.shutdown();
+
+        // when
+        final PublishingOutbox restarted = newOutbox(sink);
+        restarted.start();
+
+        // then
+        awaitDelivered(restarted, 1);
+        assertThat(sink.transactionIds(), is(Collections.singletonList("2")));
+        assertThat(restarted.getInDoubtCount(), is(1L));
+
+        final String[] deadLetters = new File(temporaryFolder.getRoot(), "dead-letter").list();
+        assertThat(deadLetters.length, is(1));
+        assertThat(deadLetters[0].startsWith("in-doubt-"), is(true));
+    }
+
+    @Test(expected = IOException.class)
+    public void directory_cannot_be_shared() throws Exception {
+
+        // given
+        newOutbox(sink).open();
+
+        // when
+        newOutbox(sink).open();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requires_directory() throws Exception {
+
+        // given
+        properties.remove(PublishingOutbox.KEY_DIRECTORY);
+
+        // when
+        newOutbox(sink);
+    }
+
+}
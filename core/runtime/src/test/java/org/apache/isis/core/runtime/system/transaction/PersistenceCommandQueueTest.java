@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.List;
+
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandAbstract;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandContext;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceCommandQueueTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+
+    static class CreateCommand extends PersistenceCommandAbstract implements CreateObjectCommand {
+        CreateCommand(final ObjectAdapter adapter) {
+            super(adapter);
+        }
+        @Override
+        public void execute(final PersistenceCommandContext context) {
+        }
+    }
+
+    static class DestroyCommand extends PersistenceCommandAbstract implements DestroyObjectCommand {
+        DestroyCommand(final ObjectAdapter adapter) {
+            super(adapter);
+        }
+        @Override
+        public void execute(final PersistenceCommandContext context) {
+        }
+    }
+
+    private PersistenceCommandQueue queue;
+
+    @Before
+    public void setUp() throws Exception {
+        queue = new PersistenceCommandQueue();
+    }
+
+    @Test
+    public void drains_in_order_added() throws Exception {
+        final CreateCommand create1 = new CreateCommand(mockAdapter1);
+        final CreateCommand create2 = new CreateCommand(mockAdapter2);
+        final DestroyCommand destroy1 = new DestroyCommand(mockAdapter1);
+        queue.add(create2);
+        queue.add(create1);
+
+        final List<PersistenceCommand> drained = queue.drain();
+
+        assertThat(drained.size(), is(2));
+        assertThat(drained.get(0), is(sameInstance((PersistenceCommand) create2)));
+        assertThat(drained.get(1), is(sameInstance((PersistenceCommand) create1)));
+        assertThat(queue.isEmpty(), is(true));
+
+        // create1 no longer pending, so destroy is retained
+        queue.add(destroy1);
+        assertThat(queue.size(), is(1));
+    }
+
+    @Test
+    public void destroy_cancels_pending_create() throws Exception {
+        final CreateCommand create1 = new CreateCommand(mockAdapter1);
+        final CreateCommand create2 = new CreateCommand(mockAdapter2);
+        queue.add(create1);
+        queue.add(create2);
+
+        queue.add(new DestroyCommand(mockAdapter1));
+
+        final List<PersistenceCommand> drained = queue.drain();
+        assertThat(drained.size(), is(1));
+        assertThat(drained.get(0), is(sameInstance((PersistenceCommand) create2)));
+    }
+
+    @Test
+    public void destroy_ignored_if_already_pending() throws Exception {
+        final DestroyCommand destroy1 = new DestroyCommand(mockAdapter1);
+        queue.add(destroy1);
+
+        queue.add(new DestroyCommand(mockAdapter1));
+
+        final List<PersistenceCommand> drained = queue.drain();
+        assertThat(drained.size(), is(1));
+        assertThat(drained.get(0), is(sameInstance((PersistenceCommand) destroy1)));
+    }
+
+    @Test
+    public void create_after_cancelled_create_and_destroy() throws Exception {
+        queue.add(new CreateCommand(mockAdapter1));
+        queue.add(new DestroyCommand(mockAdapter1));
+        assertThat(queue.isEmpty(), is(true));
+
+        final CreateCommand create = new CreateCommand(mockAdapter1);
+        queue.add(create);
+        final DestroyCommand destroy = new DestroyCommand(mockAdapter2);
+        queue.add(destroy);
+
+        final List<PersistenceCommand> drained = queue.drain();
+        assertThat(drained.size(), is(2));
+        assertThat(drained.get(0), is(sameInstance((PersistenceCommand) create)));
+    }
+
+}
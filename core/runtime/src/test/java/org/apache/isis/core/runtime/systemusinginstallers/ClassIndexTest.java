@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.systemusinginstallers;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import org.junit.Test;
+
+import org.apache.isis.applib.fixturescripts.FixtureScript;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ClassIndexTest {
+
+    static class SomeService {}
+    static class SomeEntity {}
+    static class SomeMixin {}
+    static class SomeFixtureScript extends FixtureScript {
+        @Override
+        protected void execute(final ExecutionContext executionContext) {
+        }
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+        final ClassIndex classIndex = new ClassIndex(
+                "com.mycompany.MyAppManifest",
+                Sets.<Class<?>>newHashSet(SomeService.class),
+                Sets.<Class<?>>newHashSet(SomeEntity.class),
+                Sets.<Class<? extends FixtureScript>>newHashSet(SomeFixtureScript.class),
+                Sets.<Class<?>>newHashSet(SomeMixin.class));
+
+        final StringWriter writer = new StringWriter();
+        classIndex.writeTo(writer);
+        final ClassIndex read = ClassIndex.read(
+                new BufferedReader(new StringReader(writer.toString())), "com.mycompany.MyAppManifest");
+
+        assertThat(read.getDomainServiceTypes(), is((Set<Class<?>>) Sets.<Class<?>>newHashSet(SomeService.class)));
+        assertThat(read.getPersistenceCapableTypes(), is((Set<Class<?>>) Sets.<Class<?>>newHashSet(SomeEntity.class)));
+        assertThat(read.getFixtureScriptTypes(),
+                is((Set<Class<? extends FixtureScript>>) Sets.<Class<? extends FixtureScript>>newHashSet(SomeFixtureScript.class)));
+        assertThat(read.getMixinTypes(), is((Set<Class<?>>) Sets.<Class<?>>newHashSet(SomeMixin.class)));
+    }
+
+    @Test
+    public void read_whenForDifferentAppManifest() throws Exception {
+        final ClassIndex classIndex = new ClassIndex(
+                "com.mycompany.MyAppManifest",
+                Collections.<Class<?>>emptySet(), Collections.<Class<?>>emptySet(),
+                Collections.<Class<? extends FixtureScript>>emptySet(), Collections.<Class<?>>emptySet());
+
+        final StringWriter writer = new StringWriter();
+        classIndex.writeTo(writer);
+
+        assertThat(ClassIndex.read(
+                new BufferedReader(new StringReader(writer.toString())), "com.mycompany.OtherAppManifest"),
+                is(nullValue()));
+    }
+
+    @Test
+    public void read_whenStale() throws Exception {
+        final String index = "appManifest:com.mycompany.MyAppManifest\ndomainService:com.mycompany.NoLongerExists\n";
+
+        assertThat(ClassIndex.read(
+                new BufferedReader(new StringReader(index)), "com.mycompany.MyAppManifest"),
+                is(nullValue()));
+    }
+
+}
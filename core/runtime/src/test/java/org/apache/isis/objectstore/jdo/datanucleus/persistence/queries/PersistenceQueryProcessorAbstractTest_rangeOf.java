@@ -0,0 +1,66 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryProcessorAbstractTest_rangeOf {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectSpecification mockSpecification;
+    @Mock
+    private SpecificationLoader mockSpecificationLoader;
+
+    private PersistenceQueryFindAllInstances queryWithRange(final long... range) {
+        return new PersistenceQueryFindAllInstances(mockSpecification, mockSpecificationLoader, range);
+    }
+
+    @Test
+    public void no_range() throws Exception {
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange()), is(42L));
+    }
+
+    @Test
+    public void start_only() throws Exception {
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange(40)), is(2L));
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange(50)), is(0L));
+    }
+
+    @Test
+    public void start_and_count() throws Exception {
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange(10, 20)), is(20L));
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange(30, 20)), is(12L));
+        assertThat(PersistenceQueryProcessorAbstract.rangeOf(42L, queryWithRange(50, 20)), is(0L));
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Lists;
+
+import org.datanucleus.enhancement.Persistable;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.repository.CloseableIterator;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryResultsIteratorTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private Query mockJdoQuery;
+
+    @Mock
+    private Persistable mockPojo1;
+    @Mock
+    private Persistable mockPojo2;
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+
+    private final List<Object> loaded = Lists.newArrayList();
+
+    private PersistenceQueryProcessorAbstract<PersistenceQuery> processor;
+
+    @Before
+    public void setUp() throws Exception {
+        processor = new PersistenceQueryProcessorAbstract<PersistenceQuery>(mockPersistenceSession) {
+            @Override
+            ObjectAdapter loadAdapter(final Object pojo) {
+                loaded.add(pojo);
+                return pojo == mockPojo1 ? mockAdapter1 : mockAdapter2;
+            }
+            @Override
+            public List<ObjectAdapter> process(final PersistenceQuery query) {
+                throw new UnsupportedOperationException();
+            }
+            @Override
+            public CloseableIterator<ObjectAdapter> stream(
+                    final PersistenceQuery query, final int fetchSize, final boolean evict) {
+                throw new UnsupportedOperationException();
+            }
+            @Override
+            public long count(final PersistenceQuery query) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        context.checking(new Expectations() {{
+            allowing(mockAdapter1).getObject();
+            will(returnValue(mockPojo1));
+            allowing(mockAdapter2).getObject();
+            will(returnValue(mockPojo2));
+            allowing(mockPersistenceSession).getPersistenceManager();
+            will(returnValue(mockPersistenceManager));
+        }});
+    }
+
+    private CloseableIterator<ObjectAdapter> iteratorOver(final boolean evict, final Object... pojos) {
+        return processor.streamAdapters(mockJdoQuery, Arrays.asList(pojos).iterator(), evict);
+    }
+
+    @Test
+    public void loads_adapters_only_as_iterated_and_closes_query_when_exhausted() throws Exception {
+        final CloseableIterator<ObjectAdapter> iterator = iteratorOver(false, mockPojo1, mockPojo2);
+        assertThat(loaded.size(), is(0));
+
+        assertThat(iterator.next(), is(sameInstance(mockAdapter1)));
+        assertThat(loaded.size(), is(1));
+        assertThat(iterator.next(), is(sameInstance(mockAdapter2)));
+
+        context.checking(new Expectations() {{
+            oneOf(mockJdoQuery).closeAll();
+        }});
+        assertThat(iterator.hasNext(), is(false));
+
+        // already closed
+        iterator.close();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void next_when_exhausted() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockJdoQuery).closeAll();
+        }});
+        iteratorOver(false).next();
+    }
+
+    @Test
+    public void evicts_previous_once_moved_past() throws Exception {
+        final CloseableIterator<ObjectAdapter> iterator = iteratorOver(true, mockPojo1, mockPojo2);
+        iterator.next();
+
+        context.checking(new Expectations() {{
+            allowing(mockPojo1).dnIsDirty();
+            will(returnValue(false));
+
+            oneOf(mockPersistenceSession).removeAdapter(mockAdapter1);
+            oneOf(mockPersistenceManager).evict(mockPojo1);
+        }});
+        iterator.next();
+
+        context.checking(new Expectations() {{
+            allowing(mockPojo2).dnIsDirty();
+            will(returnValue(false));
+
+            oneOf(mockPersistenceSession).removeAdapter(mockAdapter2);
+            oneOf(mockPersistenceManager).evict(mockPojo2);
+            oneOf(mockJdoQuery).closeAll();
+        }});
+        iterator.close();
+    }
+
+    @Test
+    public void does_not_evict_if_dirty() throws Exception {
+        final CloseableIterator<ObjectAdapter> iterator = iteratorOver(true, mockPojo1, mockPojo2);
+        iterator.next();
+
+        context.checking(new Expectations() {{
+            allowing(mockPojo1).dnIsDirty();
+            will(returnValue(true));
+
+            never(mockPersistenceSession).removeAdapter(mockAdapter1);
+            never(mockPersistenceManager).evict(mockPojo1);
+        }});
+        iterator.next();
+    }
+
+    @Test
+    public void does_not_evict_unless_requested() throws Exception {
+        final CloseableIterator<ObjectAdapter> iterator = iteratorOver(false, mockPojo1, mockPojo2);
+        iterator.next();
+
+        context.checking(new Expectations() {{
+            never(mockPersistenceSession).removeAdapter(with(any(ObjectAdapter.class)));
+            oneOf(mockJdoQuery).closeAll();
+        }});
+        iterator.close();
+    }
+
+}
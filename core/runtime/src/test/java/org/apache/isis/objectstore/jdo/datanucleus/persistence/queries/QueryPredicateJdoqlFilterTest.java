@@ -0,0 +1,66 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+import org.apache.isis.applib.query.QueryPredicate;
+
+import static org.apache.isis.applib.query.QueryPredicate.and;
+import static org.apache.isis.applib.query.QueryPredicate.eq;
+import static org.apache.isis.applib.query.QueryPredicate.gt;
+import static org.apache.isis.applib.query.QueryPredicate.ne;
+import static org.apache.isis.applib.query.QueryPredicate.not;
+import static org.apache.isis.applib.query.QueryPredicate.or;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryPredicateJdoqlFilterTest {
+
+    @Test
+    public void comparison() throws Exception {
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(gt("address.postcode", "AB1"));
+
+        assertThat(filter.getFilter(), is("address.postcode > :p0"));
+        assertThat(filter.getParameters(), is((Object) ImmutableMap.of("p0", "AB1")));
+    }
+
+    @Test
+    public void comparison_with_null() throws Exception {
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(ne("address", null));
+
+        assertThat(filter.getFilter(), is("address != null"));
+        assertThat(filter.getParameters().isEmpty(), is(true));
+    }
+
+    @Test
+    public void junctions_and_negation() throws Exception {
+        final QueryPredicate<Object> predicate =
+                or(and(eq("lastName", "Smith"), gt("age", 18)), not(eq("lastName", "Jones")));
+
+        final QueryPredicateJdoqlFilter filter = QueryPredicateJdoqlFilter.compile(predicate);
+
+        assertThat(filter.getFilter(), is("((lastName == :p0 && age > :p1) || !(lastName == :p2))"));
+        assertThat(filter.getParameters(), is((Object) ImmutableMap.of("p0", "Smith", "p1", 18, "p2", "Jones")));
+    }
+
+}
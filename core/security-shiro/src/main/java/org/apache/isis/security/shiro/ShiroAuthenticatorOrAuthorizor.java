@@ -23,6 +23,8 @@
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 import org.apache.shiro.SecurityUtils;
@@ -49,14 +51,20 @@
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.runtime.authentication.AuthenticationManager;
 import org.apache.isis.core.runtime.authentication.AuthenticationManagerInstaller;
 import org.apache.isis.core.runtime.authentication.AuthenticationRequest;
 import org.apache.isis.core.runtime.authentication.AuthenticationRequestPassword;
+import org.apache.isis.core.runtime.authentication.standard.AuthenticationManagerStandard;
 import org.apache.isis.core.runtime.authentication.standard.Authenticator;
 import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
 import org.apache.isis.core.runtime.authorization.AuthorizationManagerInstaller;
 import org.apache.isis.core.runtime.authorization.standard.Authorizor;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 import org.apache.isis.security.shiro.authorization.IsisPermission;
+import org.apache.isis.security.shiro.authorization.PermissionDecisionCache;
 
 /**
  * If Shiro is configured for both {@link AuthenticationManagerInstaller authentication} and
@@ -66,6 +74,13 @@
  * <p>
  * However, although there are two objects, they are set up to share the same {@link SecurityManager Shiro SecurityManager}
  * (bound to a thread-local).
+ *
+ * <p>
+ * In the role of {@link Authenticator}, the principals of each authenticated {@link Subject} are retained for as long
+ * as the resultant {@link AuthenticationSession} is in use.  If that session is subsequently reused by a viewer
+ * without logging in again (eg the RestfulObjects viewer caching Basic Auth sessions), then the (unauthenticated)
+ * {@link Subject} of the current thread is replaced by one rebuilt from those principals before any permissions are
+ * checked.
  */
 public class ShiroAuthenticatorOrAuthorizor implements Authenticator, Authorizor {
 
@@ -77,6 +92,13 @@ public class ShiroAuthenticatorOrAuthorizor implements Authenticator, Authorizor
     //region > constructor and fields
     private final IsisConfiguration configuration;
     private final boolean autoLogout;
+    private PermissionDecisionCache permissionDecisionCache;
+
+    /**
+     * Weakly keyed (and so compared by identity), so that each entry is discarded along with its session.
+     */
+    private final Cache<AuthenticationSession, PrincipalCollection> principalsBySession =
+            CacheBuilder.newBuilder().weakKeys().build();
 
     private DeploymentCategory deploymentCategory;
 
@@ -91,6 +113,15 @@ public IsisConfiguration getConfiguration() {
         return configuration;
     }
 
+    /**
+     * The decisions cached by this instance (in its role as {@link Authorizor}), for example so that they can be
+     * {@link PermissionDecisionCache#invalidateAll() invalidated} once permissions are changed at runtime;
+     * <tt>null</tt> if not yet {@link #init(DeploymentCategory) initialized}.
+     */
+    public PermissionDecisionCache getPermissionDecisionCache() {
+        return permissionDecisionCache;
+    }
+
     //endregion
 
     //region > init, shutdown
@@ -98,6 +129,7 @@ public IsisConfiguration getConfiguration() {
     @Override
     public void init(final DeploymentCategory deploymentCategory) {
         this.deploymentCategory = deploymentCategory;
+        this.permissionDecisionCache = PermissionDecisionCache.create(configuration);
     }
 
 
@@ -144,7 +176,7 @@ public AuthenticationSession authenticate(final AuthenticationRequest request, f
                 // TODO: should we verify the code passed in that this session is still alive?
                 // TODO: perhaps we should cache Isis' AuthenticationSession inside the Shiro Session, and just retrieve it?
 
-                return authenticationSessionFor(request, code, token, currentSubject);
+                return authenticated(authenticationSessionFor(request, code, token, currentSubject), currentSubject);
             }
         }
         try {
@@ -169,11 +201,20 @@ public AuthenticationSession authenticate(final AuthenticationRequest request, f
             return null;
         }
 
-        return authenticationSessionFor(request, code, token, currentSubject);
+        return authenticated(authenticationSessionFor(request, code, token, currentSubject), currentSubject);
+    }
+
+    private AuthenticationSession authenticated(final AuthenticationSession session, final Subject subject) {
+        final PrincipalCollection principals = subject.getPrincipals();
+        if(principals != null && !principals.isEmpty()) {
+            principalsBySession.put(session, principals);
+        }
+        return session;
     }
 
     @Override
     public void logout(final AuthenticationSession session) {
+        principalsBySession.invalidate(session);
         Subject currentSubject = SecurityUtils.getSubject();
         if(currentSubject.isAuthenticated()) {
             currentSubject.logout();
@@ -255,17 +296,96 @@ private boolean isPermitted(Identifier identifier, String qualifier) {
             return true;
         }
 
-        String permission = asPermissionsString(identifier) + ":" + qualifier;
+        final AuthenticationSession authenticationSession = currentAuthenticationSession();
 
         Subject subject = SecurityUtils.getSubject();
-        
+        if(!subject.isAuthenticated() && authenticationSession != null) {
+            subject = resumeSubjectFor(authenticationSession, securityManager, subject);
+        }
+
+        final Boolean decision = permissionDecisionCache != null
+                ? permissionDecisionCache.lookup(authenticationSession, subject, identifier, qualifier)
+                : null;
+        if(decision != null) {
+            return decision;
+        }
+
+        String permission = asPermissionsString(identifier) + ":" + qualifier;
+
         try {
-            return subject.isPermitted(permission);
+            final boolean permitted = subject.isPermitted(permission);
+            if(permissionDecisionCache != null) {
+                permissionDecisionCache.decided(authenticationSession, subject, identifier, qualifier, permitted);
+            }
+            return permitted;
         } finally {
             IsisPermission.resetVetoedPermissions();
         }
     }
 
+    /**
+     * If the session was obtained from this (or another) {@link ShiroAuthenticatorOrAuthorizor} but is being reused
+     * without logging in again, then rebuilds its {@link Subject}; otherwise returns the current subject unchanged.
+     *
+     * <p>
+     *     The rebuilt subject is only used for the permission check in hand; it is deliberately <i>not</i> bound to
+     *     the current thread, because (on a pooled thread with no <tt>ShiroFilter</tt> to restore the thread state)
+     *     it would otherwise carry over to whichever request next uses the thread.
+     * </p>
+     */
+    private Subject resumeSubjectFor(
+            final AuthenticationSession authenticationSession,
+            final SecurityManager securityManager,
+            final Subject currentSubject) {
+        final PrincipalCollection principals = principalsOf(authenticationSession);
+        if(principals == null) {
+            return currentSubject;
+        }
+        final Subject subject = new Subject.Builder(securityManager)
+                .principals(principals)
+                .authenticated(true)
+                .buildSubject();
+        return subject;
+    }
+
+    /**
+     * The principals of the {@link Subject} that was authenticated to obtain this session, as retained by whichever
+     * instance acted as the {@link Authenticator}.
+     */
+    PrincipalCollection principalsOf(final AuthenticationSession authenticationSession) {
+        final PrincipalCollection principals = principalsBySession.getIfPresent(authenticationSession);
+        if(principals != null) {
+            return principals;
+        }
+        final IsisSessionFactory sessionFactory = IsisContext.getSessionFactory();
+        final AuthenticationManager authenticationManager =
+                sessionFactory != null ? sessionFactory.getAuthenticationManager() : null;
+        if(!(authenticationManager instanceof AuthenticationManagerStandard)) {
+            return null;
+        }
+        for (final Authenticator authenticator : ((AuthenticationManagerStandard) authenticationManager).getAuthenticators()) {
+            if(authenticator != this && authenticator instanceof ShiroAuthenticatorOrAuthorizor) {
+                final ShiroAuthenticatorOrAuthorizor shiroAuthenticator = (ShiroAuthenticatorOrAuthorizor) authenticator;
+                final PrincipalCollection authenticatorPrincipals =
+                        shiroAuthenticator.principalsBySession.getIfPresent(authenticationSession);
+                if(authenticatorPrincipals != null) {
+                    return authenticatorPrincipals;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The session of the user whose permissions are being checked, used to look up the decisions previously made for
+     * that user; if <tt>null</tt> then nothing is cached.
+     */
+    protected AuthenticationSession currentAuthenticationSession() {
+        final IsisSessionFactory sessionFactory = IsisContext.getSessionFactory();
+        final IsisSession isisSession = sessionFactory != null ? sessionFactory.getCurrentSession() : null;
+        return isisSession != null ? isisSession.getAuthenticationSession() : null;
+    }
+
     private static String asPermissionsString(Identifier identifier) {
         String fullyQualifiedClassName = identifier.getClassName();
         int lastDot = fullyQualifiedClassName.lastIndexOf('.');
@@ -0,0 +1,293 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.security.shiro.authorization;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.security.shiro.ShiroAuthenticatorOrAuthorizor;
+
+/**
+ * Caches the outcome of the permission checks made by {@link ShiroAuthenticatorOrAuthorizor}, so that the (many)
+ * checks made when rendering a page do not each require Shiro to parse and match the wildcard permissions (and
+ * {@link IsisPermission} vetoes) of the user's roles.
+ *
+ * <p>
+ *     Decisions are held against the user (that is, the principals of the authenticated {@link Subject}, together
+ *     with the roles of the session) and are keyed by the class and member name of the {@link Identifier} and the
+ *     qualifier (<tt>r</tt> or <tt>w</tt>); they are therefore shared by all sessions of the same user, but never
+ *     between users.  Each {@link AuthenticationSession} is mapped to its user once, so subsequent checks within
+ *     that session need not obtain the subject's principals again.  At most {@link #KEY_MAX_SIZE maxSize}
+ *     decisions are held in total, across all users.
+ * </p>
+ *
+ * <p>
+ *     Not all realms report their roles in the {@link AuthenticationSession}: neither
+ *     {@link org.apache.isis.security.shiro.IsisLdapRealm} nor the Isis security module's realm do so, because
+ *     Shiro obtains their permissions directly from the principal.  Nothing is therefore cached for a session
+ *     without roles, nor for a {@link Subject} that is not authenticated.  Decisions expire after the configured
+ *     time-to-live; applications that change the permissions of a user or role at runtime can also
+ *     {@link #invalidateAll() invalidate} them explicitly, using the cache of the
+ *     {@link ShiroAuthenticatorOrAuthorizor#getPermissionDecisionCache() authorizor}.
+ * </p>
+ *
+ * <p>
+ *     Each {@link ShiroAuthenticatorOrAuthorizor} has its own cache (rather than there being one per JVM), so that
+ *     several applications (or tests) in the same JVM neither share decisions nor configuration.
+ * </p>
+ *
+ * <p>
+ *     Disabled by default; enable using {@link #KEY_ENABLED}.
+ * </p>
+ */
+public class PermissionDecisionCache {
+
+    public static final String KEY_ENABLED = "isis.authorization.shiro.decisionCache.enabled";
+
+    public static final String KEY_MAX_SIZE = "isis.authorization.shiro.decisionCache.maxSize";
+    public static final int MAX_SIZE_DEFAULT = 10000;
+
+    public static final String KEY_TTL_SECONDS = "isis.authorization.shiro.decisionCache.ttlSeconds";
+    public static final int TTL_SECONDS_DEFAULT = 300;
+
+    //region > create, constructor
+
+    public static PermissionDecisionCache create(final IsisConfiguration configuration) {
+        return new PermissionDecisionCache(
+                configuration.getBoolean(KEY_ENABLED, false),
+                configuration.getInteger(KEY_MAX_SIZE, MAX_SIZE_DEFAULT),
+                configuration.getInteger(KEY_TTL_SECONDS, TTL_SECONDS_DEFAULT),
+                Ticker.systemTicker());
+    }
+
+    private final boolean enabled;
+
+    /**
+     * Keyed by identity, and weakly so that closed sessions do not leak.
+     */
+    private final Cache<AuthenticationSession, UserKey> userBySession;
+    /**
+     * Bounded in total (rather than per user), so that memory does not grow with the number of users.
+     */
+    private final Cache<DecisionKey, Boolean> decisions;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PermissionDecisionCache(final boolean enabled, final int maxSize, final int ttlSeconds, final Ticker ticker) {
+        this.enabled = enabled;
+        this.userBySession = CacheBuilder.newBuilder()
+                .weakKeys()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+        this.decisions = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //endregion
+
+    //region > lookup, decided
+
+    /**
+     * The decision previously made for this member and qualifier for the session's user, or <tt>null</tt> if there
+     * is none (or if decisions are not {@link #isCacheable(AuthenticationSession, Subject) cacheable} for this
+     * session and subject).
+     */
+    public Boolean lookup(
+            final AuthenticationSession session,
+            final Subject subject,
+            final Identifier identifier,
+            final String qualifier) {
+        if(!isCacheable(session, subject)) {
+            return null;
+        }
+        final Boolean decision = decisions.getIfPresent(
+                new DecisionKey(userFor(session, subject), identifier, qualifier));
+        if(decision != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return decision;
+    }
+
+    /**
+     * Records the decision made for this member and qualifier, for the session's user.
+     */
+    public void decided(
+            final AuthenticationSession session,
+            final Subject subject,
+            final Identifier identifier,
+            final String qualifier,
+            final boolean permitted) {
+        if(!isCacheable(session, subject)) {
+            return;
+        }
+        decisions.put(new DecisionKey(userFor(session, subject), identifier, qualifier), permitted);
+    }
+
+    private boolean isCacheable(final AuthenticationSession session, final Subject subject) {
+        return enabled
+                && session != null
+                && !session.getRoles().isEmpty()
+                && subject != null
+                && subject.isAuthenticated()
+                && subject.getPrincipals() != null;
+    }
+
+    private UserKey userFor(final AuthenticationSession session, final Subject subject) {
+        UserKey userKey = userBySession.getIfPresent(session);
+        if(userKey == null) {
+            userKey = new UserKey(subject, session);
+            userBySession.put(session, userKey);
+        }
+        return userKey;
+    }
+
+    //endregion
+
+    //region > invalidate
+
+    /**
+     * Invalidates all decisions, for example because the permissions granted to a role have been changed.
+     */
+    public void invalidateAll() {
+        userBySession.invalidateAll();
+        decisions.invalidateAll();
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of permission checks (since startup) that reused a previous decision.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of permission checks (since startup) that had to be made by Shiro.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    //endregion
+
+    //region > helpers
+
+    /**
+     * The subject's principals (as established by the realm(s) that authenticated it), along with the session's
+     * roles.
+     */
+    private static class UserKey {
+        private final PrincipalCollection principals;
+        private final ImmutableSet<String> roles;
+        private final int hashCode;
+
+        UserKey(final Subject subject, final AuthenticationSession session) {
+            this.principals = subject.getPrincipals();
+            this.roles = ImmutableSet.copyOf(session.getRoles());
+            this.hashCode = Objects.hashCode(principals, roles);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final UserKey other = (UserKey) o;
+            return principals.equals(other.principals)
+                    && roles.equals(other.roles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The user, along with the class and member name (permissions do not distinguish overloaded actions) and
+     * qualifier.
+     */
+    private static class DecisionKey {
+        private final UserKey userKey;
+        private final String className;
+        private final String memberName;
+        private final String qualifier;
+        private final int hashCode;
+
+        DecisionKey(final UserKey userKey, final Identifier identifier, final String qualifier) {
+            this.userKey = userKey;
+            this.className = identifier.getClassName();
+            this.memberName = identifier.getMemberName();
+            this.qualifier = qualifier;
+            this.hashCode = Objects.hashCode(userKey, className, memberName, qualifier);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final DecisionKey other = (DecisionKey) o;
+            return className.equals(other.className)
+                    && memberName.equals(other.memberName)
+                    && qualifier.equals(other.qualifier)
+                    && userKey.equals(other.userKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    //endregion
+
+}
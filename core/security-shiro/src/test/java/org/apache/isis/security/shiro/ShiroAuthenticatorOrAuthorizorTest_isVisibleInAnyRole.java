@@ -23,6 +23,8 @@
 import org.apache.shiro.mgt.SecurityManager;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.util.Factory;
+import org.apache.shiro.util.ThreadContext;
+import org.jmock.Expectations;
 import org.jmock.auto.Mock;
 import org.junit.After;
 import org.junit.Before;
@@ -30,6 +32,7 @@
 import org.junit.Test;
 
 import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
 import org.apache.isis.core.runtime.authentication.AuthenticationRequest;
@@ -49,10 +52,20 @@ public class ShiroAuthenticatorOrAuthorizorTest_isVisibleInAnyRole {
     private IsisConfiguration mockConfiguration;
 
     private ShiroAuthenticatorOrAuthorizor authOrAuth;
+    private AuthenticationSession currentAuthenticationSession;
 
     @Before
     public void setUp() throws Exception {
-        authOrAuth = new ShiroAuthenticatorOrAuthorizor(mockConfiguration);
+        context.checking(new Expectations() {{
+            ignoring(mockConfiguration);
+        }});
+
+        authOrAuth = new ShiroAuthenticatorOrAuthorizor(mockConfiguration) {
+            @Override
+            protected AuthenticationSession currentAuthenticationSession() {
+                return currentAuthenticationSession;
+            }
+        };
         authOrAuth.init(DeploymentCategory.PRODUCTION);
     }
 
@@ -100,5 +113,42 @@ public void vetoingOverridden() throws Exception {
         assertThat(authOrAuth.isVisibleInAnyRole(removeCustomerIdentifier), is(true));
     }
 
+    @Test
+    public void whenSessionReusedWithoutLoggingIn() throws Exception {
+        // given
+        Factory<SecurityManager> factory = new IniSecurityManagerFactory("classpath:shiro.ini");
+        SecurityManager securityManager = factory.getInstance();
+        SecurityUtils.setSecurityManager(securityManager);
+
+        AuthenticationRequest ar = new AuthenticationRequestPassword("root", "secret");
+        currentAuthenticationSession = authOrAuth.authenticate(ar, null);
+
+        // eg a subsequent request, reusing a cached session
+        ThreadContext.unbindSubject();
+        assertThat(SecurityUtils.getSubject().isAuthenticated(), is(false));
+
+        // when, then
+        Identifier changeAddressIdentifier = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeAddress", String.class, String.class);
+        assertThat(authOrAuth.isVisibleInAnyRole(changeAddressIdentifier), is(true));
+
+        // and the rebuilt subject is not left bound to the thread
+        assertThat(SecurityUtils.getSubject().isAuthenticated(), is(false));
+    }
+
+    @Test
+    public void whenSessionReusedAfterLoggingOut() throws Exception {
+        // given
+        Factory<SecurityManager> factory = new IniSecurityManagerFactory("classpath:shiro.ini");
+        SecurityManager securityManager = factory.getInstance();
+        SecurityUtils.setSecurityManager(securityManager);
+
+        AuthenticationRequest ar = new AuthenticationRequestPassword("root", "secret");
+        currentAuthenticationSession = authOrAuth.authenticate(ar, null);
+        authOrAuth.logout(currentAuthenticationSession);
+
+        // when, then
+        Identifier changeAddressIdentifier = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeAddress", String.class, String.class);
+        assertThat(authOrAuth.isVisibleInAnyRole(changeAddressIdentifier), is(false));
+    }
 
 }
@@ -0,0 +1,228 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.security.shiro.authorization;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PermissionDecisionCacheTest {
+
+    static class FakeTicker extends Ticker {
+        long nanos;
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private Subject svenSubject;
+    @Mock
+    private Subject svenSubjectAgain;
+    @Mock
+    private Subject dickSubject;
+    @Mock
+    private Subject unauthenticatedSubject;
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    private final AuthenticationSession sven = new SimpleSession("sven", new String[] { "iniRealm:user", "iniRealm:admin" });
+    private final AuthenticationSession svenAgain = new SimpleSession("sven", new String[] { "iniRealm:admin", "iniRealm:user" });
+    private final AuthenticationSession dick = new SimpleSession("dick", new String[] { "iniRealm:user", "iniRealm:admin" });
+    private final AuthenticationSession ldapUser = new SimpleSession("ldapUser", new String[0]);
+
+    private final Identifier changeAddress = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeAddress", String.class, String.class);
+    private final Identifier remove = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "remove");
+
+    private PermissionDecisionCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new PermissionDecisionCache(true, 100, 60, ticker);
+
+        context.checking(new Expectations() {{
+            allowing(svenSubject).isAuthenticated();
+            will(returnValue(true));
+            allowing(svenSubject).getPrincipals();
+            will(returnValue(new SimplePrincipalCollection("sven", "iniRealm")));
+
+            allowing(svenSubjectAgain).isAuthenticated();
+            will(returnValue(true));
+            allowing(svenSubjectAgain).getPrincipals();
+            will(returnValue(new SimplePrincipalCollection("sven", "iniRealm")));
+
+            allowing(dickSubject).isAuthenticated();
+            will(returnValue(true));
+            allowing(dickSubject).getPrincipals();
+            will(returnValue(new SimplePrincipalCollection("dick", "iniRealm")));
+
+            allowing(unauthenticatedSubject).isAuthenticated();
+            will(returnValue(false));
+            allowing(unauthenticatedSubject).getPrincipals();
+            will(returnValue(null));
+        }});
+    }
+
+    @Test
+    public void shared_by_sessions_of_same_user() throws Exception {
+
+        // given
+        cache.decided(sven, svenSubject, changeAddress, "r", true);
+        cache.decided(sven, svenSubject, remove, "r", false);
+
+        // then
+        assertThat(cache.lookup(svenAgain, svenSubjectAgain, changeAddress, "r"), is(true));
+        assertThat(cache.lookup(svenAgain, svenSubjectAgain, remove, "r"), is(false));
+
+        // not for other qualifiers
+        assertThat(cache.lookup(svenAgain, svenSubjectAgain, changeAddress, "w"), is(nullValue()));
+
+        // nor for other users, even with the same roles
+        assertThat(cache.lookup(dick, dickSubject, changeAddress, "r"), is(nullValue()));
+
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void not_cached_without_roles() throws Exception {
+
+        // given (eg authenticated by the LDAP realm, whose roles are not reported in the session)
+        final Subject ldapSubject = context.mock(Subject.class, "ldapSubject");
+        context.checking(new Expectations() {{
+            allowing(ldapSubject).isAuthenticated();
+            will(returnValue(true));
+            allowing(ldapSubject).getPrincipals();
+            will(returnValue(new SimplePrincipalCollection("ldapUser", "ldapRealm")));
+        }});
+
+        // when
+        cache.decided(ldapUser, ldapSubject, changeAddress, "r", true);
+
+        // then
+        assertThat(cache.lookup(ldapUser, ldapSubject, changeAddress, "r"), is(nullValue()));
+        assertThat(cache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void not_cached_while_unauthenticated() throws Exception {
+
+        // when
+        cache.decided(sven, unauthenticatedSubject, changeAddress, "r", false);
+
+        // then
+        assertThat(cache.lookup(sven, unauthenticatedSubject, changeAddress, "r"), is(nullValue()));
+        assertThat(cache.lookup(sven, svenSubject, changeAddress, "r"), is(nullValue()));
+    }
+
+    @Test
+    public void keyed_by_member_name_not_parameters() throws Exception {
+
+        // given
+        cache.decided(sven, svenSubject, changeAddress, "w", true);
+
+        // then
+        final Identifier changeAddressOverload = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeAddress", String.class);
+        assertThat(cache.lookup(sven, svenSubject, changeAddressOverload, "w"), is(true));
+
+        final Identifier changeName = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeName", String.class, String.class);
+        assertThat(cache.lookup(sven, svenSubject, changeName, "w"), is(nullValue()));
+    }
+
+    @Test
+    public void miss_once_expired() throws Exception {
+
+        // given
+        cache.decided(sven, svenSubject, changeAddress, "r", true);
+
+        // when
+        ticker.nanos += TimeUnit.SECONDS.toNanos(61);
+
+        // then
+        assertThat(cache.lookup(sven, svenSubject, changeAddress, "r"), is(nullValue()));
+        assertThat(cache.lookup(svenAgain, svenSubjectAgain, changeAddress, "r"), is(nullValue()));
+    }
+
+    @Test
+    public void miss_once_invalidated() throws Exception {
+
+        // given
+        cache.decided(sven, svenSubject, changeAddress, "r", true);
+
+        // when
+        cache.invalidateAll();
+
+        // then
+        assertThat(cache.lookup(sven, svenSubject, changeAddress, "r"), is(nullValue()));
+    }
+
+    @Test
+    public void bounded_across_all_users() throws Exception {
+
+        // given
+        cache = new PermissionDecisionCache(true, 1, 60, ticker);
+
+        // when
+        cache.decided(sven, svenSubject, changeAddress, "r", true);
+        cache.decided(dick, dickSubject, changeAddress, "r", true);
+
+        // then
+        assertThat(cache.lookup(sven, svenSubject, changeAddress, "r"), is(nullValue()));
+        assertThat(cache.lookup(dick, dickSubject, changeAddress, "r"), is(true));
+    }
+
+    @Test
+    public void when_disabled_or_no_session() throws Exception {
+
+        // given
+        cache.decided(null, svenSubject, changeAddress, "r", true);
+
+        // then
+        assertThat(cache.lookup(null, svenSubject, changeAddress, "r"), is(nullValue()));
+
+        // given
+        cache = new PermissionDecisionCache(false, 100, 60, ticker);
+        cache.decided(sven, svenSubject, changeAddress, "r", true);
+
+        // then
+        assertThat(cache.lookup(sven, svenSubject, changeAddress, "r"), is(nullValue()));
+    }
+
+}
@@ -57,8 +57,13 @@ public JsonRepresentation render() {
         final LinkFollowSpecs followValue = getLinkFollowSpecs().follow("value");
         boolean eagerlyRender = rendererContext.honorUiHints() && renderEagerly() || !followValue.isTerminated();
 
+        Integer size = null;
         if ((mode.isInline() && eagerlyRender) || mode.isStandalone() || mode.isMutated() || mode.isEventSerialization() || !objectAdapter.representsPersistent()) {
-            addValue(followValue);
+            size = addValue(followValue);
+        }
+        if(size != null && !mode.isEventSerialization() && !rendererContext.suppressMemberExtensions()) {
+            // only if the value was rendered (so is free); counting otherwise would mean a query per collection
+            getExtensions().mapPut("size", size);
         }
         if(!mode.isEventSerialization()) {
             putDisabledReasonIfDisabled();
@@ -80,10 +85,13 @@ private boolean renderEagerly() {
     // value
     // ///////////////////////////////////////////////////
 
-    private void addValue(final LinkFollowSpecs linkFollower) {
+    /**
+     * @return the number of elements rendered.
+     */
+    private int addValue(final LinkFollowSpecs linkFollower) {
         final ObjectAdapter valueAdapter = objectMember.get(objectAdapter, getInteractionInitiatedBy());
         if (valueAdapter == null) {
-            return;
+            return 0;
         }
 
         final LinkFollowSpecs followHref = linkFollower.follow("href");
@@ -109,6 +117,7 @@ private void addValue(final LinkFollowSpecs linkFollower) {
         }
 
         representation.mapPut("value", list);
+        return list.size();
     }
 
     private boolean renderEagerly(ObjectAdapter valueAdapter) {
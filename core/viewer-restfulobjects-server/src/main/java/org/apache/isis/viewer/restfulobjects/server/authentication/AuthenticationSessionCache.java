@@ -0,0 +1,264 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.authentication;
+
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletContext;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.runtime.authentication.AuthenticationManager;
+
+/**
+ * Caches the {@link AuthenticationSession}s obtained by {@link AuthenticationSessionStrategyBasicAuth}, so that
+ * clients that send the same credentials on every request are not re-authenticated (eg against an LDAP realm) each
+ * time.
+ *
+ * <p>
+ *     Sessions are held against a (salted) hash of the credentials, never the credentials themselves.  A cached
+ *     session is only reused while the {@link AuthenticationManager} still considers it
+ *     {@link AuthenticationManager#isSessionValid(AuthenticationSession) valid}, so logging out (which closes the
+ *     session) invalidates it.  Entries otherwise expire after the configured time-to-live; applications that
+ *     change a user's password can also {@link #invalidateUser(String) invalidate} that user's entries explicitly.
+ * </p>
+ *
+ * <p>
+ *     As for a session bound to an <tt>HttpSession</tt>, a cached session is shared by all (possibly concurrent)
+ *     requests made with the same credentials.  Because the credentials are not checked again, the configured
+ *     authorizor must be able to check permissions for such a session without it having logged in on the current
+ *     thread; the Shiro authorizor does so by rebuilding the session's <tt>Subject</tt> from its principals.
+ * </p>
+ *
+ * <p>
+ *     There is one cache per web application, held as a {@link #SERVLET_CONTEXT_ATTRIBUTE servlet context attribute}
+ *     and so discarded along with it.
+ * </p>
+ *
+ * <p>
+ *     Disabled by default; enable using {@link #KEY_ENABLED}.
+ * </p>
+ */
+public class AuthenticationSessionCache {
+
+    public static final String KEY_ENABLED = "isis.viewer.restfulobjects.authentication.basicAuth.cache.enabled";
+
+    public static final String KEY_MAX_SIZE = "isis.viewer.restfulobjects.authentication.basicAuth.cache.maxSize";
+    public static final int MAX_SIZE_DEFAULT = 1000;
+
+    public static final String KEY_TTL_SECONDS = "isis.viewer.restfulobjects.authentication.basicAuth.cache.ttlSeconds";
+    public static final int TTL_SECONDS_DEFAULT = 60;
+
+    //region > instance
+
+    /**
+     * The name of the {@link ServletContext} attribute holding the cache for the web application.
+     */
+    public static final String SERVLET_CONTEXT_ATTRIBUTE = AuthenticationSessionCache.class.getName();
+
+    /**
+     * The cache shared by all instances of {@link AuthenticationSessionStrategyBasicAuth} within this web
+     * application, or <tt>null</tt> if it is not enabled (or if no request has yet been authenticated).
+     */
+    public static AuthenticationSessionCache from(final ServletContext servletContext) {
+        final AuthenticationSessionCache cache =
+                (AuthenticationSessionCache) servletContext.getAttribute(SERVLET_CONTEXT_ATTRIBUTE);
+        return cache != null && cache.isEnabled() ? cache : null;
+    }
+
+    static AuthenticationSessionCache instanceFor(
+            final ServletContext servletContext,
+            final IsisConfiguration configuration) {
+        AuthenticationSessionCache cache =
+                (AuthenticationSessionCache) servletContext.getAttribute(SERVLET_CONTEXT_ATTRIBUTE);
+        if (cache == null) {
+            synchronized (servletContext) {
+                cache = (AuthenticationSessionCache) servletContext.getAttribute(SERVLET_CONTEXT_ATTRIBUTE);
+                if (cache == null) {
+                    cache = new AuthenticationSessionCache(
+                            configuration.getBoolean(KEY_ENABLED, false),
+                            configuration.getInteger(KEY_MAX_SIZE, MAX_SIZE_DEFAULT),
+                            configuration.getInteger(KEY_TTL_SECONDS, TTL_SECONDS_DEFAULT),
+                            Ticker.systemTicker());
+                    servletContext.setAttribute(SERVLET_CONTEXT_ATTRIBUTE, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    //endregion
+
+    //region > constructor
+
+    private final boolean enabled;
+    private final Cache<String, AuthenticationSession> sessionByCredentialsHash;
+    private final byte[] salt = new byte[16];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong authentications = new AtomicLong();
+    private final AtomicLong authenticationNanos = new AtomicLong();
+
+    AuthenticationSessionCache(final boolean enabled, final int maxSize, final int ttlSeconds, final Ticker ticker) {
+        this.enabled = enabled;
+        this.sessionByCredentialsHash = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //endregion
+
+    //region > lookup, authenticated
+
+    /**
+     * The still-valid session previously cached for these credentials, if any.
+     *
+     * @param credentials - the (encoded) credentials as provided by the client.
+     */
+    AuthenticationSession lookup(final String credentials, final AuthenticationManager authenticationManager) {
+        if(!enabled) {
+            return null;
+        }
+        final String hash = hash(credentials);
+        final AuthenticationSession authSession = sessionByCredentialsHash.getIfPresent(hash);
+        if(authSession != null) {
+            if(authenticationManager.isSessionValid(authSession)) {
+                hits.incrementAndGet();
+                return authSession;
+            }
+            // eg logged out
+            sessionByCredentialsHash.invalidate(hash);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Records the outcome (and the time taken) of authenticating these credentials, caching the session if
+     * successful.
+     */
+    void authenticated(final String credentials, final AuthenticationSession authSession, final long nanos) {
+        authentications.incrementAndGet();
+        authenticationNanos.addAndGet(nanos);
+        if(!enabled || authSession == null) {
+            return;
+        }
+        sessionByCredentialsHash.put(hash(credentials), authSession);
+    }
+
+    private String hash(final String credentials) {
+        return Hashing.sha256().newHasher()
+                .putBytes(salt)
+                .putString(credentials, Charsets.UTF_8)
+                .hash().toString();
+    }
+
+    //endregion
+
+    //region > invalidate
+
+    /**
+     * Invalidates the session (if any) cached for these credentials.
+     */
+    void invalidate(final String credentials) {
+        if(!enabled) {
+            return;
+        }
+        sessionByCredentialsHash.invalidate(hash(credentials));
+    }
+
+    /**
+     * Invalidates all sessions cached for the specified user, for example because their password has been changed.
+     */
+    public void invalidateUser(final String userName) {
+        final Iterator<AuthenticationSession> iterator = sessionByCredentialsHash.asMap().values().iterator();
+        while (iterator.hasNext()) {
+            if(iterator.next().hasUserNameOf(userName)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        sessionByCredentialsHash.invalidateAll();
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of requests (since startup) whose credentials were matched to a cached session.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of requests (since startup) whose credentials had to be authenticated.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * The proportion of requests that were matched to a cached session, or <tt>0</tt> if there have been none.
+     */
+    public double getHitRate() {
+        final long hits = getHitCount();
+        final long requests = hits + getMissCount();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    /**
+     * The number of times (since startup) that credentials have been authenticated by the
+     * {@link AuthenticationManager}, successfully or otherwise.
+     */
+    public long getAuthenticationCount() {
+        return authentications.get();
+    }
+
+    /**
+     * The mean time taken to authenticate credentials, in milliseconds, or <tt>0</tt> if there have been none.
+     */
+    public double getMeanAuthenticationMillis() {
+        final long count = getAuthenticationCount();
+        return count == 0 ? 0.0 : authenticationNanos.get() / 1000000.0 / count;
+    }
+
+    //endregion
+
+}
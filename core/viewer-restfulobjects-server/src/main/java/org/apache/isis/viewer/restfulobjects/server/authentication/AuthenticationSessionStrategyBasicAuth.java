@@ -30,12 +30,15 @@
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.runtime.authentication.AuthenticationManager;
 import org.apache.isis.core.runtime.authentication.AuthenticationRequestPassword;
-import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.webapp.auth.AuthenticationSessionStrategyAbstract;
 
 /**
  * Implements the HTTP Basic Auth protocol; does not bind the
  * {@link AuthenticationSession} onto the {@link HttpSession}.
+ *
+ * <p>
+ * The sessions obtained can optionally be cached (see {@link AuthenticationSessionCache}), to avoid re-authenticating
+ * clients that send the same credentials on every request.
  */
 public class AuthenticationSessionStrategyBasicAuth extends AuthenticationSessionStrategyAbstract {
 
@@ -58,15 +61,38 @@ public AuthenticationSession lookupValid(final HttpServletRequest httpServletReq
             return null;
         }
 
+        final AuthenticationManager authenticationManager = authenticationManagerFrom(httpServletRequest);
+        final AuthenticationSessionCache cache = cacheFrom(httpServletRequest);
+
+        final AuthenticationSession cachedAuthSession = cache.lookup(digest, authenticationManager);
+        if (cachedAuthSession != null) {
+            return cachedAuthSession;
+        }
+
         final String user = matcher.group(1);
         final String password = matcher.group(2);
 
         final AuthenticationRequestPassword request = new AuthenticationRequestPassword(user, password);
-        final AuthenticationSession authSession =
-                authenticationManagerFrom(httpServletRequest).authenticate(request);
+        final long start = System.nanoTime();
+        final AuthenticationSession authSession = authenticationManager.authenticate(request);
+        cache.authenticated(digest, authSession, System.nanoTime() - start);
         return authSession;
     }
 
+    @Override
+    public void invalidate(final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse) {
+        final String digest = getBasicAuthDigest(httpServletRequest);
+        if (digest != null) {
+            cacheFrom(httpServletRequest).invalidate(digest);
+        }
+        super.invalidate(httpServletRequest, httpServletResponse);
+    }
+
+    protected AuthenticationSessionCache cacheFrom(final HttpServletRequest httpServletRequest) {
+        return AuthenticationSessionCache.instanceFor(
+                httpServletRequest.getServletContext(), isisSessionFactoryFrom(httpServletRequest).getConfiguration());
+    }
+
     // value should be in the form:
     // Basic QWxhZGRpbjpvcGVuIHNlc2FtZQ==
     String getBasicAuthDigest(final HttpServletRequest httpServletRequest) {
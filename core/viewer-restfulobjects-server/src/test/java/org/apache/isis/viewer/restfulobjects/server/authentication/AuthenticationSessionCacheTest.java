@@ -0,0 +1,169 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.authentication;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContext;
+
+import com.google.common.base.Ticker;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.runtime.authentication.AuthenticationManager;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AuthenticationSessionCacheTest {
+
+    static class FakeTicker extends Ticker {
+        long nanos;
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private AuthenticationManager mockAuthenticationManager;
+
+    @Mock
+    private ServletContext mockServletContext;
+
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final AuthenticationSession sven = new SimpleSession("sven", new String[0]);
+
+    private AuthenticationSessionCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new AuthenticationSessionCache(true, 10, 60, ticker);
+    }
+
+    @Test
+    public void hit_while_session_valid() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAuthenticationManager).isSessionValid(sven);
+            will(returnValue(true));
+        }});
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+        cache.authenticated("c3ZlbjpwYXNz", sven, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(sameInstance(sven)));
+
+        // different credentials
+        assertThat(cache.lookup("c3Zlbjpvb3Bz", mockAuthenticationManager), is(nullValue()));
+
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getAuthenticationCount(), is(1L));
+        assertThat(cache.getMeanAuthenticationMillis(), is(40.0));
+    }
+
+    @Test
+    public void miss_once_session_closed() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockAuthenticationManager).isSessionValid(sven);
+            will(returnValue(false));
+        }});
+
+        cache.authenticated("c3ZlbjpwYXNz", sven, 0L);
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+        // evicted, so not checked again
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+    }
+
+    @Test
+    public void miss_once_expired() throws Exception {
+        cache.authenticated("c3ZlbjpwYXNz", sven, 0L);
+
+        ticker.nanos += TimeUnit.SECONDS.toNanos(61);
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+    }
+
+    @Test
+    public void miss_once_user_invalidated() throws Exception {
+        cache.authenticated("c3ZlbjpwYXNz", sven, 0L);
+
+        cache.invalidateUser("sven");
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+    }
+
+    @Test
+    public void when_disabled() throws Exception {
+        cache = new AuthenticationSessionCache(false, 10, 60, ticker);
+
+        cache.authenticated("c3ZlbjpwYXNz", sven, 0L);
+
+        assertThat(cache.lookup("c3ZlbjpwYXNz", mockAuthenticationManager), is(nullValue()));
+        assertThat(cache.getAuthenticationCount(), is(1L));
+    }
+
+    @Test
+    public void one_per_servlet_context() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockServletContext).getAttribute(AuthenticationSessionCache.SERVLET_CONTEXT_ATTRIBUTE);
+            will(returnValue(null));
+            oneOf(mockServletContext).getAttribute(AuthenticationSessionCache.SERVLET_CONTEXT_ATTRIBUTE);
+            will(returnValue(null));
+
+            allowing(mockConfiguration).getBoolean(AuthenticationSessionCache.KEY_ENABLED, false);
+            will(returnValue(true));
+            allowing(mockConfiguration).getInteger(AuthenticationSessionCache.KEY_MAX_SIZE, AuthenticationSessionCache.MAX_SIZE_DEFAULT);
+            will(returnValue(10));
+            allowing(mockConfiguration).getInteger(AuthenticationSessionCache.KEY_TTL_SECONDS, AuthenticationSessionCache.TTL_SECONDS_DEFAULT);
+            will(returnValue(60));
+
+            oneOf(mockServletContext).setAttribute(with(AuthenticationSessionCache.SERVLET_CONTEXT_ATTRIBUTE), with(any(AuthenticationSessionCache.class)));
+        }});
+
+        final AuthenticationSessionCache cache =
+                AuthenticationSessionCache.instanceFor(mockServletContext, mockConfiguration);
+
+        context.checking(new Expectations() {{
+            allowing(mockServletContext).getAttribute(AuthenticationSessionCache.SERVLET_CONTEXT_ATTRIBUTE);
+            will(returnValue(cache));
+        }});
+
+        assertThat(AuthenticationSessionCache.instanceFor(mockServletContext, mockConfiguration), is(sameInstance(cache)));
+        assertThat(AuthenticationSessionCache.from(mockServletContext), is(sameInstance(cache)));
+    }
+
+}
@@ -23,8 +23,10 @@
 import java.util.List;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Lists;
 
 import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService2;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager.ConcurrencyChecking;
@@ -327,6 +329,26 @@ public ObjectAdapter getObjectAdapter(
         return type.getAdapter(this, concurrencyChecking, persistenceSession, specificationLoader);
     }
 
+    /**
+     * Loads the objects of any {@link Type#PERSISTENT persistent} mementos in as few round trips as possible (see
+     * {@link PersistenceSession#lookupAll(List, BookmarkService2.FieldResetPolicy)}), so that subsequently
+     * {@link #getObjectAdapter(ConcurrencyChecking, PersistenceSession, SpecificationLoader) obtaining the adapter}
+     * of each in turn does not hit the database.
+     */
+    public static void preload(
+            final Iterable<ObjectAdapterMemento> mementos,
+            final PersistenceSession persistenceSession) {
+        final List<Bookmark> bookmarks = Lists.newArrayList();
+        for (final ObjectAdapterMemento memento : mementos) {
+            if(memento != null && memento.type == Type.PERSISTENT && memento.bookmark != null) {
+                bookmarks.add(memento.bookmark);
+            }
+        }
+        if(bookmarks.size() > 1) {
+            persistenceSession.lookupAll(bookmarks, BookmarkService2.FieldResetPolicy.DONT_RESET);
+        }
+    }
+
     /**
      * Updates the memento if the adapter's state has changed.
      * 
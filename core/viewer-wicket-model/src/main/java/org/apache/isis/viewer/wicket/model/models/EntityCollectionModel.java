@@ -79,6 +79,7 @@ public enum Type {
         STANDALONE {
             @Override
             List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
+                ObjectAdapterMemento.preload(entityCollectionModel.mementoList, entityCollectionModel.getPersistenceSession());
                 return Lists.newArrayList(
                         Iterables.filter(
                                 Iterables.transform(entityCollectionModel.mementoList,
@@ -153,9 +154,21 @@ public String getName(EntityCollectionModel model) {
                 return model.getCollectionMemento().getName(model.getSpecificationLoader());
             }
 
+            /**
+             * If the collection has not already been loaded, then counts it without loading (or sorting) it, where
+             * possible; see {@link OneToManyAssociation#count(ObjectAdapter, InteractionInitiatedBy)}.
+             */
             @Override
             public int getCount(EntityCollectionModel model) {
-                return load(model).size();
+                if(model.isAttached()) {
+                    return model.getObject().size();
+                }
+                final ObjectAdapter adapter = model.getParentObjectAdapterMemento().getObjectAdapter(
+                        ConcurrencyChecking.NO_CHECK, model.getPersistenceSession(),
+                        model.getSpecificationLoader());
+                final OneToManyAssociation collection = model.collectionMemento.getCollection(
+                        model.getSpecificationLoader());
+                return collection.count(adapter, InteractionInitiatedBy.USER);
             }
         };
 
@@ -91,6 +91,7 @@ public void onClick() {
 
                 try {
                     final List<ObjectAdapterMemento> toggleMementosList = model.getToggleMementosList();
+                    ObjectAdapterMemento.preload(toggleMementosList, getPersistenceSession());
 
                     final List<ObjectAdapter> toggledAdapters =
                             FluentIterable.from(toggleMementosList)
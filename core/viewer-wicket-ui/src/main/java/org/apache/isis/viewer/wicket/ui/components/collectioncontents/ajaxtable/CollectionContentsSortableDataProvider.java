@@ -26,7 +26,6 @@
 import org.apache.isis.applib.annotation.Where;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
-import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.interactions.InteractionUtils;
 import org.apache.isis.core.metamodel.interactions.ObjectVisibilityContext;
 import org.apache.isis.core.metamodel.interactions.VisibilityContext;
@@ -61,6 +60,10 @@ public IModel<ObjectAdapter> model(final ObjectAdapter adapter) {
         return new EntityModel(adapter);
     }
 
+    /**
+     * Uses the loaded collection rather than {@link EntityCollectionModel#getCount() counting} it, because
+     * {@link #iterator(long, long)} loads (and sorts) the whole collection anyway.
+     */
     @Override
     public long size() {
         return model.getObject().size();
@@ -139,8 +142,7 @@ private Predicate<ObjectAdapter> ignoreHidden() {
         return new Predicate<ObjectAdapter>() {
             @Override
             public boolean apply(ObjectAdapter input) {
-                final InteractionResult visibleResult = InteractionUtils.isVisibleResult(input.getSpecification(), createVisibleInteractionContext(input));
-                return visibleResult.isNotVetoing();
+                return InteractionUtils.isVisible(input.getSpecification(), createVisibleInteractionContext(input));
             }
         };
     }